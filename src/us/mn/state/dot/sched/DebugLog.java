@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2002-2016  Minnesota Department of Transportation
+ * Copyright (C) 2002-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -18,12 +18,22 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * DebugLog is a class for logging debugging information.  Logging can be
  * enabled or disabled by creating or deleting the log file.  Just use "touch
  * {filename}" to start logging.
  *
+ * The log files are checked periodically by a background writer thread, so
+ * isOpen is only a volatile read.  Messages are queued in a bounded buffer
+ * and written by the same thread; if the buffer fills up, messages are
+ * dropped rather than blocking the caller.
+ *
  * @author Douglas Lau
  */
 public final class DebugLog {
@@ -42,6 +52,42 @@ public final class DebugLog {
 		}
 	};
 
+	/** Interval to check log files for changes (ms) */
+	static private final long CHECK_INTERVAL_MS = 1000;
+
+	/** Maximum number of queued log entries */
+	static private final int QUEUE_CAPACITY = 16384;
+
+	/** Log sinks, mapped by file name */
+	static private final HashMap<String, Sink> SINKS =
+		new HashMap<String, Sink>();
+
+	/** Queue of log entries waiting to be written */
+	static private final ArrayBlockingQueue<Entry> QUEUE =
+		new ArrayBlockingQueue<Entry>(QUEUE_CAPACITY);
+
+	/** Count of log entries dropped due to a full queue */
+	static private final AtomicLong DROPPED = new AtomicLong();
+
+	/** Lock for writing log entries */
+	static private final Object WRITE_LOCK = new Object();
+
+	/** Log writer thread */
+	static private final Thread WRITER = new Thread("DebugLog") {
+		public void run() {
+			writeEntries();
+		}
+	};
+	static {
+		WRITER.setDaemon(true);
+		WRITER.start();
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			public void run() {
+				flushEntries();
+			}
+		});
+	}
+
 	/** Initialize the debug log mechanism.
 	 * @param p File path to store log files.
 	 * @param m Initial message when creating log file.
@@ -51,6 +97,7 @@ public final class DebugLog {
 			PATH = p;
 		MESSAGE = m;
 		HANDLER = h;
+		checkSinks();
 	}
 
 	/** Initialize the debug log mechanism.
@@ -60,6 +107,187 @@ public final class DebugLog {
 		init(p, m, HANDLER);
 	}
 
+	/** Get the count of log entries dropped due to a full queue */
+	static public long getDropped() {
+		return DROPPED.get();
+	}
+
+	/** Lookup (or create) the sink for a log file name */
+	static private Sink lookupSink(String fn) {
+		synchronized (SINKS) {
+			Sink s = SINKS.get(fn);
+			if (null == s) {
+				s = new Sink(fn);
+				SINKS.put(fn, s);
+			}
+			return s;
+		}
+	}
+
+	/** Get a snapshot of all sinks */
+	static private ArrayList<Sink> getSinks() {
+		synchronized (SINKS) {
+			return new ArrayList<Sink>(SINKS.values());
+		}
+	}
+
+	/** Check all sinks for log file changes */
+	static private void checkSinks() {
+		synchronized (WRITE_LOCK) {
+			for (Sink s: getSinks())
+				s.check();
+		}
+	}
+
+	/** Write queued log entries (on writer thread) */
+	static private void writeEntries() {
+		long checked = System.currentTimeMillis();
+		while (true) {
+			try {
+				Entry e = QUEUE.poll(CHECK_INTERVAL_MS,
+					TimeUnit.MILLISECONDS);
+				if (e != null) {
+					synchronized (WRITE_LOCK) {
+						e.write();
+						flushEntries();
+					}
+				}
+			}
+			catch (InterruptedException e) {
+				// Ignore
+			}
+			long now = System.currentTimeMillis();
+			if (now - checked >= CHECK_INTERVAL_MS ||
+			    now < checked)
+			{
+				checkSinks();
+				checked = now;
+			}
+		}
+	}
+
+	/** Write and flush all queued log entries */
+	static private void flushEntries() {
+		synchronized (WRITE_LOCK) {
+			Entry e = QUEUE.poll();
+			while (e != null) {
+				e.write();
+				e = QUEUE.poll();
+			}
+			for (Sink s: getSinks())
+				s.flush();
+		}
+	}
+
+	/** Log file sink, shared by all debug logs with the same name.
+	 * All file access happens while holding WRITE_LOCK. */
+	static private final class Sink {
+
+		/** Name of log file */
+		private final String name;
+
+		/** Flag indicating log file is writable */
+		private volatile boolean open;
+
+		/** Debug log buffered writer */
+		private BufferedWriter bw = null;
+
+		/** Flag indicating unflushed data was written */
+		private boolean dirty = false;
+
+		/** Create a new log sink */
+		private Sink(String fn) {
+			name = fn;
+			open = getFile().canWrite();
+		}
+
+		/** Get the logging file */
+		private File getFile() {
+			return new File(PATH, name);
+		}
+
+		/** Check if the log file was created, deleted or
+		 * truncated */
+		private void check() {
+			File file = getFile();
+			boolean w = file.canWrite();
+			if (bw != null && (!w || file.length() == 0))
+				close();
+			open = w;
+		}
+
+		/** Close the buffered writer */
+		private void close() {
+			try {
+				bw.close();
+			}
+			catch (IOException e) {
+				HANDLER.handle(e);
+			}
+			bw = null;
+			dirty = false;
+		}
+
+		/** Write a message in the log file */
+		private void write(long stamp, String m) throws IOException {
+			if (bw == null) {
+				bw = new BufferedWriter(new FileWriter(
+					getFile(), true));
+				write(stamp, "DebugLog: " + name, bw);
+			}
+			write(stamp, m, bw);
+			dirty = true;
+		}
+
+		/** Write a log message to a buffered writer */
+		private void write(long stamp, String m, BufferedWriter w)
+			throws IOException
+		{
+			w.write(TimeSteward.dateTimeString(stamp, true));
+			w.write(" ");
+			w.write(m);
+			w.newLine();
+		}
+
+		/** Flush the buffered writer */
+		private void flush() {
+			if (bw != null && dirty) {
+				try {
+					bw.flush();
+				}
+				catch (IOException e) {
+					HANDLER.handle(e);
+					close();
+				}
+				dirty = false;
+			}
+		}
+	}
+
+	/** Queued log entry */
+	static private final class Entry {
+		private final DebugLog log;
+		private final long stamp;
+		private final String msg;
+		private Entry(DebugLog l, long s, String m) {
+			log = l;
+			stamp = s;
+			msg = m;
+		}
+
+		/** Write the entry to its sink */
+		private void write() {
+			try {
+				if (log.sink.open)
+					log.sink.write(stamp, msg);
+			}
+			catch (IOException e) {
+				log.handleException(e);
+				log.sink.close();
+			}
+		}
+	}
+
 	/** Exception handler */
 	private final ExceptionHandler handler;
 
@@ -80,68 +308,34 @@ public final class DebugLog {
 	public DebugLog(String fn, ExceptionHandler h) {
 		name = fn;
 		handler = h;
+		sink = lookupSink(fn);
 		log(MESSAGE);
 	}
 
 	/** Name of log file */
 	private final String name;
 
+	/** Sink for log file */
+	private final Sink sink;
+
 	/** Get the logging file */
 	public File getFile() {
 		return new File(PATH, name);
 	}
 
-	/** Debug log buffered writer */
-	private BufferedWriter bw = null;
-
-	/** Check if we can write to the log file */
-	private synchronized boolean canWrite(File file) throws IOException {
-		boolean w = file.canWrite();
-		if (bw != null && (!w || file.length() == 0)) {
-			bw.close();
-			bw = null;
-		}
-		return w;
-	}
-
-	/** Check if the debug log is open for writing */
+	/** Check if the debug log is open for writing.  This does not access
+	 * the file system; the state is refreshed by the writer thread. */
 	public boolean isOpen() {
-		try {
-			return canWrite(getFile());
-		}
-		catch (IOException e) {
-			handleException(e);
-			return false;
-		}
+		return sink.open;
 	}
 
 	/** Log a message in the debug log file */
-	public synchronized void log(String m) {
-		try {
-			File file = getFile();
-			if (canWrite(file))
-				log(file, m);
-		}
-		catch (IOException e) {
-			handleException(e);
-		}
-	}
-
-	/** Write a message in the debug log file */
-	private void log(File file, String m) throws IOException {
-		if (bw == null) {
-			bw = new BufferedWriter(new FileWriter(file, true));
-			log(bw, "DebugLog: " + name);
+	public void log(String m) {
+		if (isOpen()) {
+			Entry e = new Entry(this, TimeSteward.currentTimeMillis(),
+				m);
+			if (!QUEUE.offer(e))
+				DROPPED.incrementAndGet();
 		}
-		log(bw, m);
-		bw.flush();
-	}
-
-	/** Write a log message to a buffered writer */
-	private void log(BufferedWriter bw, String m) throws IOException {
-		bw.write(TimeSteward.currentDateTimeString(true));
-		bw.write(" ");
-		bw.write(m);
-		bw.newLine();
 	}
 }
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2010-2014  Minnesota Department of Transportation
+ * Copyright (C) 2010-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -125,9 +125,17 @@ public final class TimeSteward {
 	 * @param local True for local time, false for UTC.
 	 */
 	static public String currentDateTimeString(boolean local) {
+		return dateTimeString(currentTimeMillis(), local);
+	}
+
+	/** Get date and time as string.
+	 * @param date Date to format.
+	 * @param local True for local time, false for UTC.
+	 */
+	static public String dateTimeString(long date, boolean local) {
 		SimpleDateFormat sdf = createDateFormat("yyyy-MM-dd HH:mm:ss",
 			local);
-		return sdf.format(new Date(currentTimeMillis()));
+		return sdf.format(new Date(date));
 	}
 
 	/** Get the local date as a short YYYYMMDD string */
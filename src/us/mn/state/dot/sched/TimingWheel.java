@@ -0,0 +1,239 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.sched;
+
+import java.util.ArrayList;
+
+/**
+ * Hashed timing wheel for timeouts.  Scheduling and cancelling a timer are
+ * both O(1), at the cost of firing up to one tick late.  Timers are fired on
+ * the wheel thread, so their work must be short -- typically adding a job to
+ * a scheduler.
+ *
+ * @author Douglas Lau
+ */
+public final class TimingWheel {
+
+	/** Timing wheel thread group */
+	static private final ThreadGroup GROUP = new ThreadGroup("WHEEL");
+
+	/** Get a monotonic time (ms), which is not affected by changes to
+	 * the wall clock.  It is only useful for measuring intervals. */
+	static private long monotonicMillis() {
+		return System.nanoTime() / 1000000;
+	}
+
+	/** A timer on the wheel */
+	static public final class Timer {
+
+		/** Work to perform when the timer fires */
+		private final Work work;
+
+		/** Number of wheel rotations remaining */
+		private long rounds;
+
+		/** Previous timer in slot (null if not scheduled) */
+		private Timer prev;
+
+		/** Next timer in slot */
+		private Timer next;
+
+		/** Create a new timer */
+		private Timer(Work w) {
+			work = w;
+		}
+
+		/** Check if the timer is scheduled */
+		private boolean isScheduled() {
+			return prev != null;
+		}
+
+		/** Unlink from slot */
+		private void unlink() {
+			prev.next = next;
+			next.prev = prev;
+			prev = null;
+			next = null;
+		}
+
+		/** Link after another timer */
+		private void linkAfter(Timer t) {
+			prev = t;
+			next = t.next;
+			t.next.prev = this;
+			t.next = this;
+		}
+	}
+
+	/** Exception handler */
+	private final ExceptionHandler handler;
+
+	/** Tick duration (ms) */
+	private final int tick_ms;
+
+	/** Slot sentinels (circular lists) */
+	private final Timer[] slots;
+
+	/** Mask for slot index */
+	private final int mask;
+
+	/** Wheel start time (monotonic ms) */
+	private final long start;
+
+	/** Next tick to process.  Access synchronized on this. */
+	private long tick = 0;
+
+	/** Number of scheduled timers.  Access synchronized on this. */
+	private int n_timers = 0;
+
+	/** Thread for ticking */
+	private final Thread thread;
+
+	/** Create a new timing wheel.
+	 * @param name Thread name.
+	 * @param t Tick duration (ms).
+	 * @param n Number of slots (rounded up to a power of 2).
+	 * @param h Exception handler. */
+	public TimingWheel(String name, int t, int n, ExceptionHandler h) {
+		assert t > 0 && n > 0;
+		handler = h;
+		tick_ms = t;
+		int sz = Integer.highestOneBit(Math.max(1, n - 1)) << 1;
+		slots = new Timer[sz];
+		for (int i = 0; i < sz; i++) {
+			Timer s = new Timer(null);
+			s.prev = s;
+			s.next = s;
+			slots[i] = s;
+		}
+		mask = sz - 1;
+		start = monotonicMillis();
+		thread = new Thread(GROUP, name) {
+			@Override public void run() {
+				runWheel();
+			}
+		};
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/** Schedule work after a delay.
+	 * @param delay_ms Delay (ms).
+	 * @param w Work to perform on the wheel thread.
+	 * @return Timer, which can be cancelled. */
+	public Timer schedule(long delay_ms, Work w) {
+		Timer t = new Timer(w);
+		schedule(t, delay_ms);
+		return t;
+	}
+
+	/** Schedule (or reschedule) a timer */
+	private synchronized void schedule(Timer t, long delay_ms) {
+		if (t.isScheduled()) {
+			t.unlink();
+			n_timers--;
+		}
+		long deadline = monotonicMillis() + delay_ms;
+		long ticks = Math.max(tick,
+			(deadline - start + tick_ms - 1) / tick_ms);
+		t.rounds = (ticks - tick) / slots.length;
+		t.linkAfter(slots[(int) (ticks & mask)]);
+		n_timers++;
+	}
+
+	/** Reschedule a timer, whether or not it has fired.
+	 * @param t Timer to reschedule.
+	 * @param delay_ms New delay (ms). */
+	public void reschedule(Timer t, long delay_ms) {
+		schedule(t, delay_ms);
+	}
+
+	/** Cancel a timer.
+	 * @param t Timer to cancel.
+	 * @return true if the timer was cancelled before firing. */
+	public synchronized boolean cancel(Timer t) {
+		if (t != null && t.isScheduled()) {
+			t.unlink();
+			n_timers--;
+			return true;
+		} else
+			return false;
+	}
+
+	/** Get the number of scheduled timers */
+	public synchronized int size() {
+		return n_timers;
+	}
+
+	/** Run the wheel thread */
+	private void runWheel() {
+		ArrayList<Timer> expired = new ArrayList<Timer>();
+		while (!thread.isInterrupted()) {
+			long wait = nextTickTime() - monotonicMillis();
+			if (wait > 0) {
+				try {
+					TimeSteward.sleep(wait);
+				}
+				catch (InterruptedException e) {
+					break;
+				}
+			}
+			expireTick(expired);
+			for (Timer t: expired)
+				fire(t);
+			expired.clear();
+		}
+	}
+
+	/** Get the time the next tick ends */
+	private synchronized long nextTickTime() {
+		return start + (tick + 1) * tick_ms;
+	}
+
+	/** Remove expired timers for one tick */
+	private synchronized void expireTick(ArrayList<Timer> expired) {
+		Timer s = slots[(int) (tick & mask)];
+		Timer t = s.next;
+		while (t != s) {
+			Timer nt = t.next;
+			if (t.rounds <= 0) {
+				t.unlink();
+				n_timers--;
+				expired.add(t);
+			} else
+				t.rounds--;
+			t = nt;
+		}
+		tick++;
+	}
+
+	/** Fire a timer */
+	private void fire(Timer t) {
+		try {
+			t.work.performWork();
+		}
+		catch (Exception e) {
+			if (handler != null)
+				handler.handle(e);
+			else
+				e.printStackTrace();
+		}
+	}
+
+	/** Dispose of the wheel */
+	public void dispose() {
+		thread.interrupt();
+	}
+}
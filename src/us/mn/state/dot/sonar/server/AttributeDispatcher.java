@@ -1,6 +1,6 @@
 /*
  * SONAR -- Simple Object Notification And Replication
- * Copyright (C) 2006-2019  Minnesota Department of Transportation
+ * Copyright (C) 2006-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -19,7 +19,9 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import us.mn.state.dot.sonar.Namespace;
 import us.mn.state.dot.sonar.SonarException;
 import us.mn.state.dot.sonar.SonarObject;
@@ -127,6 +129,10 @@ public class AttributeDispatcher {
 	private final HashMap<String, Method> setters =
 		new HashMap<String, Method>();
 
+	/** Mapping of attribute names to plain (not "do") setter methods */
+	private final HashMap<String, Method> plain_setters =
+		new HashMap<String, Method>();
+
 	/** Mapping of attribute names to getter methods */
 	private final HashMap<String, Method> getters =
 		new HashMap<String, Method>();
@@ -183,6 +189,9 @@ public class AttributeDispatcher {
 		Method m = lookup__etter(im);
 		if (m != null)
 			setters.put(attribute_name(im.getName()), m);
+		Method pm = lookup_plain(im);
+		if (pm != null)
+			plain_setters.put(attribute_name(im.getName()), pm);
 	}
 
 	/** Lookup a getter method.
@@ -215,6 +224,18 @@ public class AttributeDispatcher {
 		return null;
 	}
 
+	/** Lookup a plain method (without "do" prefix).
+	 * @param im Method from interface.
+	 * @return Matching method, or null if not found. */
+	private Method lookup_plain(Method im) {
+		for (Method m: the_class.getMethods()) {
+			String n = m.getName();
+			if (n.equals(im.getName()) && compare_methods(im, m))
+				return m;
+		}
+		return null;
+	}
+
 	/** Compare two methods for a signature match. */
 	private boolean compare_methods(Method m0, Method m1) {
 		if (Modifier.isStatic(m0.getModifiers()) !=
@@ -284,6 +305,27 @@ public class AttributeDispatcher {
 		invoke(o, m, v);
 	}
 
+	/** Update the attributes of an object from another object of the
+	 * same class.  Plain setters are used, so the changes are not stored.
+	 * @param o Object to update.
+	 * @param src Source object.
+	 * @return List of attributes which were changed. */
+	public List<String> updateObject(SonarObject o, SonarObject src)
+		throws SonarException
+	{
+		ArrayList<String> changed = new ArrayList<String>();
+		for (String a: plain_setters.keySet()) {
+			if (getters.containsKey(a)) {
+				String[] v = getValue(src, a);
+				if (!Arrays.equals(v, getValue(o, a))) {
+					invoke(o, plain_setters.get(a), v);
+					changed.add(a);
+				}
+			}
+		}
+		return changed;
+	}
+
 	/** Lookup the named field from the given class */
 	static private Field lookupField(Class c, String a)
 		throws SonarException
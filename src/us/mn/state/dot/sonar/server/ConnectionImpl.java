@@ -1,6 +1,6 @@
 /*
  * SONAR -- Simple Object Notification And Replication
- * Copyright (C) 2006-2021  Minnesota Department of Transportation
+ * Copyright (C) 2006-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -318,6 +318,36 @@ public class ConnectionImpl extends Conduit implements Connection {
 		}
 	}
 
+	/** Notify the client of a batch of attribute changes.  The messages
+	 * are flushed together.
+	 * This may only be called on the Task Processor thread.
+	 * @param names Attribute names.
+	 * @param params Attribute values (same size as names). */
+	void notifyAttributes(List<Name> names, List<String[]> params) {
+		User u = user;
+		if (null == u)
+			return;
+		boolean any = false;
+		try {
+			for (int i = 0; i < names.size(); i++) {
+				Name name = names.get(i);
+				if (isWatching(name) &&
+				    namespace.canRead(name, u, address))
+				{
+					state.encoder.encode(Message.ATTRIBUTE,
+						name.toString(), params.get(i));
+					any = true;
+				}
+			}
+		}
+		catch (IOException e) {
+			disconnect("I/O error: notifyAttributes");
+			return;
+		}
+		if (any)
+			flush();
+	}
+
 	/** Notify the client of an attribute change.
 	 * This may only be called on the Task Processor thread. */
 	private void notifyAttribute(String name, String[] params) {
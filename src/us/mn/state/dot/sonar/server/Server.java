@@ -1,6 +1,6 @@
 /*
  * SONAR -- Simple Object Notification And Replication
- * Copyright (C) 2006-2017  Minnesota Department of Transportation
+ * Copyright (C) 2006-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -15,8 +15,10 @@
 package us.mn.state.dot.sonar.server;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Properties;
 import us.mn.state.dot.sonar.ConfigurationError;
+import us.mn.state.dot.sonar.Name;
 import us.mn.state.dot.sonar.Props;
 import us.mn.state.dot.sonar.SonarException;
 import us.mn.state.dot.sonar.SonarObject;
@@ -73,6 +75,21 @@ public final class Server {
 		processor.scheduleSetAttribute(o, a);
 	}
 
+	/** Set a batch of attributes in the server's namespace.  Clients
+	 * are notified of all changes in one task.
+	 * @param names Attribute names. */
+	public void setAttributes(List<Name> names) {
+		processor.scheduleSetAttributes(names);
+	}
+
+	/** Schedule a task to run on the task processor thread.  Tasks
+	 * are run in order with other SONAR tasks, such as client edits.
+	 * @param n Task name (for debugging).
+	 * @param r Task to run. */
+	public void addTask(String n, Runnable r) {
+		processor.scheduleTask(n, r);
+	}
+
 	/** Get user for current message processing */
 	public String getProcUser() {
 		return processor.getProcUser();
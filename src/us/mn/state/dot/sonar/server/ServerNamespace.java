@@ -1,6 +1,6 @@
 /*
  * SONAR -- Simple Object Notification And Replication
- * Copyright (C) 2006-2017  Minnesota Department of Transportation
+ * Copyright (C) 2006-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.util.Iterator;
 import java.util.HashMap;
+import java.util.List;
 import us.mn.state.dot.sonar.EmptyIterator;
 import us.mn.state.dot.sonar.GroupChecker;
 import us.mn.state.dot.sonar.Message;
@@ -223,6 +224,17 @@ public class ServerNamespace extends Namespace {
 		getTypeNode(o).storeObject(o);
 	}
 
+	/** Update the attributes of an object from another object of the
+	 * same type, without storing changes.
+	 * @param o Object to update.
+	 * @param src Source object.
+	 * @return List of attributes which were changed. */
+	public List<String> updateObject(SonarObject o, SonarObject src)
+		throws SonarException
+	{
+		return getTypeNode(o).updateObject(o, src);
+	}
+
 	/** Create a new object */
 	public SonarObject createObject(Name name) throws SonarException {
 		TypeNode n = getTypeNode(name);
@@ -1,6 +1,6 @@
 /*
  * SONAR -- Simple Object Notification And Replication
- * Copyright (C) 2006-2021  Minnesota Department of Transportation
+ * Copyright (C) 2006-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -449,6 +449,15 @@ public class TaskProcessor {
 		});
 	}
 
+	/** Schedule a task to run on the task processor thread */
+	public void scheduleTask(String n, final Runnable r) {
+		processor.addWork(new TaskWork(n) {
+			protected void doPerform() {
+				r.run();
+			}
+		});
+	}
+
 	/** Perform an add object task. */
 	private void doAddObject(SonarObject o) throws NamespaceError {
 		debugTask("Adding object", o.getName());
@@ -527,4 +536,40 @@ public class TaskProcessor {
 		String[] v = namespace.getAttribute(name);
 		notifyAttribute(name, v);
 	}
+
+	/** Set a batch of attributes in the server's namespace */
+	public void scheduleSetAttributes(final List<Name> names) {
+		processor.addWork(new TaskWork("Set attributes") {
+			protected void doPerform() {
+				doSetAttributes(names);
+			}
+		});
+	}
+
+	/** Perform a "set attributes" task.  Each connection is sent all
+	 * changes before being flushed. */
+	private void doSetAttributes(List<Name> names) {
+		ArrayList<Name> ns = new ArrayList<Name>(names.size());
+		ArrayList<String[]> vs = new ArrayList<String[]>(names.size());
+		for (Name name: names) {
+			if (namespace.isGettable(name)) {
+				try {
+					vs.add(namespace.getAttribute(name));
+					ns.add(name);
+				}
+				catch (SonarException e) {
+					// Object was removed
+					debugTask("Skip attribute", name.toString());
+				}
+			}
+		}
+		if (DEBUG_TASK.isOpen()) {
+			debugTask("Notify attributes", ns.size() + " (" +
+				processor.size() + ")");
+		}
+		if (ns.size() > 0) {
+			for (ConnectionImpl c: getConnectionList())
+				c.notifyAttributes(ns, vs);
+		}
+	}
 }
@@ -1,6 +1,6 @@
 /*
  * SONAR -- Simple Object Notification And Replication
- * Copyright (C) 2006-2017  Minnesota Department of Transportation
+ * Copyright (C) 2006-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -17,6 +17,7 @@ package us.mn.state.dot.sonar.server;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import us.mn.state.dot.sonar.GroupChecker;
 import us.mn.state.dot.sonar.Message;
@@ -184,6 +185,16 @@ public class TypeNode {
 		dispatcher.setField(o, a, v);
 	}
 
+	/** Update the attributes of an object from another object.
+	 * @param o Object to update.
+	 * @param src Source object.
+	 * @return List of attributes which were changed. */
+	public List<String> updateObject(SonarObject o, SonarObject src)
+		throws SonarException
+	{
+		return dispatcher.updateObject(o, src);
+	}
+
 	/** Get an iterator of all objects of the type */
 	public Iterator<SonarObject> iterator() {
 		return Collections.unmodifiableCollection(
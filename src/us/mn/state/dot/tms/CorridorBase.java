@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2007-2022  Minnesota Department of Transportation
+ * Copyright (C) 2007-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -23,6 +23,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import static us.mn.state.dot.tms.GeoLocHelper.distanceTo;
 import static us.mn.state.dot.tms.GeoLocHelper.snapSegment;
+import us.mn.state.dot.tms.geo.GeoProjection;
 import us.mn.state.dot.tms.geo.Position;
 import us.mn.state.dot.tms.geo.SphericalMercatorPosition;
 import us.mn.state.dot.tms.units.Distance;
@@ -54,6 +55,14 @@ public class CorridorBase<T extends R_Node> implements Iterable<T> {
 		return distanceTo(n.getGeoLoc(), l);
 	}
 
+	/** Estimate the distance from a node to a projection.  This is only
+	 * suitable for comparing distances.
+	 * @return Approximate distance (meters), or null. */
+	static private Double fastDistance(R_Node n, GeoProjection gp) {
+		GeoProjection np = GeoLocHelper.getProjection(n.getGeoLoc());
+		return (np != null) ? np.distanceFast(gp) : null;
+	}
+
 	/** Check if the r_node is valid */
 	static private boolean isValid(R_Node n) {
 		return n.getActive() && !GeoLocHelper.isNull(n.getGeoLoc());
@@ -237,11 +246,14 @@ public class CorridorBase<T extends R_Node> implements Iterable<T> {
 
 	/** Find the nearest unsorted node to the given node */
 	private NodeDistance findNearest(T end) {
+		GeoProjection gp = GeoLocHelper.getProjection(end.getGeoLoc());
+		if (null == gp)
+			return null;
 		NodeDistance near = null;
 		for (T r_node: unsorted) {
-			Distance m = nodeDistance(r_node, end);
-			if (m != null && (near == null || m.m() < near.meters))
-				near = new NodeDistance(m.m(), r_node);
+			Double m = fastDistance(r_node, gp);
+			if (m != null && (near == null || m < near.meters))
+				near = new NodeDistance(m, r_node);
 		}
 		return near;
 	}
@@ -379,13 +391,15 @@ public class CorridorBase<T extends R_Node> implements Iterable<T> {
 
 	/** Find the nearest node to the given position */
 	public T findNearest(Position pos) {
+		GeoProjection gp = new GeoProjection(pos.getLatitude(),
+			pos.getLongitude());
 		T nearest = null;
 		double n_meters = 0;
 		for (T n: r_nodes) {
-			Distance m = distanceTo(n.getGeoLoc(), pos);
-			if (m != null && (nearest == null || m.m() < n_meters)) {
+			Double m = fastDistance(n, gp);
+			if (m != null && (nearest == null || m < n_meters)) {
 				nearest = n;
-				n_meters = m.m();
+				n_meters = m;
 			}
 		}
 		return nearest;
@@ -393,15 +407,17 @@ public class CorridorBase<T extends R_Node> implements Iterable<T> {
 
 	/** Find the nearest node to the given location with given type */
 	private T findNearest(Position pos, R_NodeType nt) {
+		GeoProjection gp = new GeoProjection(pos.getLatitude(),
+			pos.getLongitude());
 		T nearest = null;
 		double n_meters = 0;
 		for (T n: r_nodes) {
 			if (n.getNodeType() != nt.ordinal())
 				continue;
-			Distance m = distanceTo(n.getGeoLoc(), pos);
-			if (m != null && (nearest == null || m.m() < n_meters)) {
+			Double m = fastDistance(n, gp);
+			if (m != null && (nearest == null || m < n_meters)) {
 				nearest = n;
-				n_meters = m.m();
+				n_meters = m;
 			}
 		}
 		return nearest;
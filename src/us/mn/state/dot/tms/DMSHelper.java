@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2008-2023  Minnesota Department of Transportation
+ * Copyright (C) 2008-2026  Minnesota Department of Transportation
  * Copyright (C) 2009-2010  AHMCT, University of California
  * Copyright (C) 2021  Iteris Inc.
  *
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.TreeSet;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import us.mn.state.dot.tms.utils.Base64;
@@ -410,13 +411,43 @@ public class DMSHelper extends BaseHelper {
 		      : null;
 	}
 
+	/** Last parsed DMS status JSON */
+	static private String parsed_status;
+
+	/** Parsed object for last DMS status */
+	static private JSONObject parsed_obj;
+
+	/** Parse DMS status JSON, reusing the last parsed object.  Callers
+	 * typically get several keys from the same status in a row.  The
+	 * object is shared, so it must never be modified or returned. */
+	static private synchronized JSONObject parseStatus(String status)
+		throws JSONException
+	{
+		if (!status.equals(parsed_status)) {
+			parsed_obj = new JSONObject(status);
+			parsed_status = status;
+		}
+		return parsed_obj;
+	}
+
+	/** Copy a value from a shared JSON object.  Nested objects and
+	 * arrays are mutable, so a copy is made; other values are not. */
+	static private Object copyValue(Object v) throws JSONException {
+		if (v instanceof JSONObject)
+			return new JSONObject(v.toString());
+		else if (v instanceof JSONArray)
+			return new JSONArray(v.toString());
+		else
+			return v;
+	}
+
 	/** Get DMS status attribute */
 	static public Object getStatus(DMS dms, String key) {
 		String status = (dms != null) ? dms.getStatus() : null;
 		if (status != null) {
 			try {
-				JSONObject jo = new JSONObject(status);
-				return jo.opt(key);
+				return copyValue(parseStatus(status)
+					.opt(key));
 			}
 			catch (JSONException e) {
 				// malformed JSON
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2008-2020  Minnesota Department of Transportation
+ * Copyright (C) 2008-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -15,6 +15,8 @@
 package us.mn.state.dot.tms;
 
 import java.util.ArrayList;
+import java.util.WeakHashMap;
+import us.mn.state.dot.tms.geo.GeoProjection;
 import us.mn.state.dot.tms.geo.MapLineSegment;
 import us.mn.state.dot.tms.geo.MapVector;
 import us.mn.state.dot.tms.geo.Position;
@@ -198,10 +200,37 @@ public class GeoLocHelper extends BaseHelper {
 		return (getLat(l) == null) || (getLon(l) == null);
 	}
 
+	/** Projections for locations which don't cache their own (client
+	 * proxies, etc.).  Proxies use identity equality, so weak keys are
+	 * removed when the proxy is. */
+	static private final WeakHashMap<GeoLoc, GeoProjection> PROJECTIONS =
+		new WeakHashMap<GeoLoc, GeoProjection>();
+
+	/** Get the cached projection of a location.  It is recomputed
+	 * whenever the coordinates change.
+	 * @param l Location.
+	 * @return Projection of location, or null if coordinates are null. */
+	static public GeoProjection getProjection(GeoLoc l) {
+		if (l instanceof GeoProjection.Holder)
+			return ((GeoProjection.Holder) l).getProjection();
+		Double lat = getLat(l);
+		Double lon = getLon(l);
+		if (null == lat || null == lon)
+			return null;
+		synchronized (PROJECTIONS) {
+			GeoProjection gp = PROJECTIONS.get(l);
+			if (null == gp || !gp.matches(lat, lon)) {
+				gp = new GeoProjection(lat, lon);
+				PROJECTIONS.put(l, gp);
+			}
+			return gp;
+		}
+	}
+
 	/** Calculate the distance between two locations */
 	static public Distance distanceTo(GeoLoc l0, GeoLoc l1) {
-		Position p0 = getWgs84Position(l0);
-		Position p1 = getWgs84Position(l1);
+		GeoProjection p0 = getProjection(l0);
+		GeoProjection p1 = getProjection(l1);
 		return (p0 != null && p1 != null)
 		      ? new Distance(p0.distanceHaversine(p1))
 		      : null;
@@ -209,12 +238,23 @@ public class GeoLocHelper extends BaseHelper {
 
 	/** Calculate the distance between two locations */
 	static public Distance distanceTo(GeoLoc l0, Position p1) {
-		Position p0 = getWgs84Position(l0);
+		GeoProjection p0 = getProjection(l0);
 		return (p0 != null && p1 != null)
 		      ? new Distance(p0.distanceHaversine(p1))
 		      : null;
 	}
 
+	/** Estimate the distance between two nearby locations (meters).  This
+	 * is only suitable for comparing short distances.
+	 * @return Approximate distance (meters), or null. */
+	static public Double distanceFast(GeoLoc l0, GeoLoc l1) {
+		GeoProjection p0 = getProjection(l0);
+		GeoProjection p1 = getProjection(l1);
+		return (p0 != null && p1 != null)
+		      ? p0.distanceFast(p1)
+		      : null;
+	}
+
 	/** Test if another location matches */
 	static public boolean matches(GeoLoc l0, GeoLoc l1) {
 		Road r0 = l0.getRoadway();
@@ -270,19 +310,14 @@ public class GeoLocHelper extends BaseHelper {
 
 	/** Return GeoLoc as a Position in WGS84 */
 	static public Position getWgs84Position(GeoLoc p) {
-		Double lat = getLat(p);
-		Double lon = getLon(p);
-		return (lat != null && lon != null)
-		      ? new Position(lat, lon)
-		      : null;
+		GeoProjection gp = getProjection(p);
+		return (gp != null) ? gp.getPosition() : null;
 	}
 
-	/** Create a spherical mercator position */
+	/** Get a spherical mercator position */
 	static public SphericalMercatorPosition getPosition(GeoLoc p) {
-		Position pos = getWgs84Position(p);
-		return (pos != null)
-		      ? SphericalMercatorPosition.convert(pos)
-		      : null;
+		GeoProjection gp = getProjection(p);
+		return (gp != null) ? gp.getMercator() : null;
 	}
 
 	/** Get the root label (for a detector or a station) */
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2009-2020  Minnesota Department of Transportation
+ * Copyright (C) 2009-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -14,12 +14,14 @@
  */
 package us.mn.state.dot.tms;
 
+import us.mn.state.dot.tms.geo.GeoProjection;
+
 /**
  * TransGeoLoc is a transient GeoLoc implementation.
  *
  * @author Douglas Lau
  */
-public class TransGeoLoc implements GeoLoc {
+public class TransGeoLoc implements GeoLoc, GeoProjection.Holder {
 
 	/** Create a transient location.
 	 * @param road Road location.
@@ -159,6 +161,20 @@ public class TransGeoLoc implements GeoLoc {
 		return lon;
 	}
 
+	/** Projection of lat/lon (created on first use) */
+	private GeoProjection projection;
+
+	/** Get the projection of lat/lon */
+	@Override
+	public GeoProjection getProjection() {
+		GeoProjection gp = projection;
+		if (null == gp) {
+			gp = new GeoProjection(lat, lon);
+			projection = gp;
+		}
+		return gp;
+	}
+
 	/** Set the landmark */
 	@Override
 	public void setLandmark(String lm) { }
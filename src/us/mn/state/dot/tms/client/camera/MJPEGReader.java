@@ -0,0 +1,230 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.client.camera;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * Reader for multipart MJPEG streams.  Headers are parsed from an internal
+ * buffer, and frames are read into a frame buffer which is reused as long as
+ * it is big enough.  Frames can be decoded into an existing image, instead of
+ * allocating a new one for each frame.
+ *
+ * @author Douglas Lau
+ */
+public class MJPEGReader {
+
+	/** Size of input buffer */
+	static private final int BUF_SZ = 16384;
+
+	/** Initial size of frame buffer */
+	static private final int FRAME_SZ = 65536;
+
+	/** Maximum number of header lines before a frame */
+	static private final int MAX_LINES = 100;
+
+	/** Maximum frame size (bytes) */
+	static private final int MAX_FRAME = 16 << 20;
+
+	/** Content-length header name (lower case) */
+	static private final byte[] CONTENT_LENGTH =
+		"content-length:".getBytes();
+
+	/** Input stream */
+	private final InputStream stream;
+
+	/** Input buffer */
+	private final byte[] buf = new byte[BUF_SZ];
+
+	/** Position of next byte in input buffer */
+	private int pos = 0;
+
+	/** Limit of valid bytes in input buffer */
+	private int lim = 0;
+
+	/** Frame buffer */
+	private byte[] frame = new byte[FRAME_SZ];
+
+	/** Length of current frame */
+	private int frame_len = 0;
+
+	/** JPEG image reader (created on first decode) */
+	private ImageReader reader;
+
+	/** Read parameters for image reader */
+	private ImageReadParam param;
+
+	/** Create a new MJPEG reader */
+	public MJPEGReader(InputStream is) {
+		stream = is;
+	}
+
+	/** Fill the input buffer.
+	 * @return false at end of stream. */
+	private boolean fill() throws IOException {
+		int n = stream.read(buf, 0, buf.length);
+		if (n <= 0)
+			return false;
+		pos = 0;
+		lim = n;
+		return true;
+	}
+
+	/** Create an invalid content-length exception */
+	static private IOException invalidLength() {
+		return new IOException("Invalid content-length");
+	}
+
+	/** Read one header line, checking for content-length.
+	 * @return Content length, -1 for other header, or -2 for blank line.
+	 */
+	private int readHeader() throws IOException {
+		int len = 0;
+		boolean hdr = true;
+		boolean digits = false;
+		int cl = 0;
+		while (true) {
+			if (pos >= lim && !fill())
+				throw new IOException("End of stream");
+			byte b = buf[pos++];
+			if (b == '\n')
+				break;
+			if (b == '\r')
+				continue;
+			if (len < CONTENT_LENGTH.length) {
+				if (Character.toLowerCase(b) !=
+				    CONTENT_LENGTH[len])
+					hdr = false;
+			} else if (hdr) {
+				if (b >= '0' && b <= '9') {
+					cl = cl * 10 + b - '0';
+					digits = true;
+					if (cl > MAX_FRAME)
+						throw invalidLength();
+				} else if (b != ' ' && b != '\t')
+					throw invalidLength();
+			}
+			len++;
+		}
+		if (0 == len)
+			return -2;
+		if (!hdr || len < CONTENT_LENGTH.length)
+			return -1;
+		if (!digits)
+			throw invalidLength();
+		return cl;
+	}
+
+	/** Read the next frame from the stream.
+	 * @return Length of frame (bytes). */
+	public int readFrame() throws IOException {
+		int cl = -1;
+		for (int i = 0; i < MAX_LINES; i++) {
+			int h = readHeader();
+			if (h >= 0)
+				cl = h;
+			else if (h == -2 && cl >= 0) {
+				readBody(cl);
+				return cl;
+			}
+		}
+		throw new IOException("Missing content-length");
+	}
+
+	/** Read the body of a frame */
+	private void readBody(int n_size) throws IOException {
+		if (n_size > frame.length)
+			frame = new byte[Integer.highestOneBit(n_size) << 1];
+		int n = Math.min(n_size, lim - pos);
+		System.arraycopy(buf, pos, frame, 0, n);
+		pos += n;
+		while (n < n_size) {
+			int r = stream.read(frame, n, n_size - n);
+			if (r < 0)
+				throw new IOException("End of stream");
+			n += r;
+		}
+		frame_len = n_size;
+	}
+
+	/** Get the current frame buffer.  Only the first getFrameLength
+	 * bytes are valid, and the buffer is reused by readFrame. */
+	public byte[] getFrame() {
+		return frame;
+	}
+
+	/** Get the length of the current frame */
+	public int getFrameLength() {
+		return frame_len;
+	}
+
+	/** Get the JPEG image reader */
+	private ImageReader getReader() throws IOException {
+		if (null == reader) {
+			Iterator<ImageReader> it =
+				ImageIO.getImageReadersByFormatName("jpeg");
+			if (!it.hasNext())
+				throw new IOException("No JPEG reader");
+			reader = it.next();
+			param = reader.getDefaultReadParam();
+		}
+		return reader;
+	}
+
+	/** Decode the current frame.
+	 * @param dest Image to decode into, or null.  It is only reused if
+	 *             its size and type match the frame.
+	 * @return Decoded image (dest if reused). */
+	public BufferedImage decode(BufferedImage dest) throws IOException {
+		ImageReader ir = getReader();
+		MemoryCacheImageInputStream iis =
+			new MemoryCacheImageInputStream(
+			new ByteArrayInputStream(frame, 0, frame_len));
+		try {
+			ir.setInput(iis, true, true);
+			boolean reuse = dest != null &&
+			    dest.getWidth() == ir.getWidth(0) &&
+			    dest.getHeight() == ir.getHeight(0) &&
+			    dest.getType() == defaultType(ir);
+			param.setDestination(reuse ? dest : null);
+			return ir.read(0, param);
+		}
+		finally {
+			ir.setInput(null);
+			iis.close();
+		}
+	}
+
+	/** Get the default image type for the current frame */
+	static private int defaultType(ImageReader ir) throws IOException {
+		return ir.getImageTypes(0).next().getBufferedImageType();
+	}
+
+	/** Dispose of the reader */
+	public void dispose() {
+		if (reader != null)
+			reader.dispose();
+		reader = null;
+		param = null;
+	}
+}
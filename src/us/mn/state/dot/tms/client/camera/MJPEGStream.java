@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2003-2023  Minnesota Department of Transportation
+ * Copyright (C) 2003-2026  Minnesota Department of Transportation
  * Copyright (C) 2015  SRF Consulting Group
  *
  * This program is free software; you can redistribute it and/or modify
@@ -16,16 +16,13 @@
 package us.mn.state.dot.tms.client.camera;
 
 import java.awt.Dimension;
-import java.awt.Image;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.Calendar;
-import javax.swing.ImageIcon;
 import javax.swing.JComponent;
-import javax.swing.JLabel;
 import us.mn.state.dot.sched.Job;
 import us.mn.state.dot.sched.Scheduler;
 import us.mn.state.dot.tms.Camera;
@@ -44,8 +41,8 @@ public class MJPEGStream implements VideoStream {
 	/** Default timeout for direct URL Connections */
 	static protected final int TIMEOUT_DIRECT = 5 * 1000;
 
-	/** Label to display video stream */
-	private final JLabel screen = new JLabel();
+	/** Component to display video stream */
+	private final MJPEGView screen = new MJPEGView();
 
 	/** URL of the data source */
 	private final URL url;
@@ -56,11 +53,14 @@ public class MJPEGStream implements VideoStream {
 	/** Input stream to read */
 	private final InputStream stream;
 
+	/** Reader for MJPEG frames */
+	private final MJPEGReader reader;
+
 	/** Count of rendered frames */
 	private int n_frames = 0;
 
 	/** Flag to continue running stream */
-	private boolean running = true;
+	private volatile boolean running = true;
 
 	/** Stream error message */
 	private String error_msg = null;
@@ -83,7 +83,9 @@ public class MJPEGStream implements VideoStream {
 			throw new IOException(e);
 		}
 		size = UI.dimension(req.getSize().width, req.getSize().height);
+		screen.setPreferredSize(size);
 		stream = createInputStream();
+		reader = new MJPEGReader(stream);
 		s.addJob(job);
 	}
 
@@ -118,90 +120,26 @@ public class MJPEGStream implements VideoStream {
 		}
 	};
 
-	/** Read a video stream */
-	private void readStream() {
+	/** Read a video stream.  Frames which arrive before the last one
+	 * was painted are dropped. */
+	private synchronized void readStream() {
+		if (!running)
+			return;
 		try {
-			byte[] idata = getImage();
-			screen.setIcon(createIcon(idata));
+			reader.readFrame();
+			n_frames++;
+			if (screen.isBusy())
+				screen.dropFrame();
+			else
+				screen.post(reader.decode(screen.getBack()));
 		}
 		catch(IOException e) {
 			setErrorMsg(e.getMessage());
-			screen.setIcon(null);
+			screen.clear();
 			running = false;
 		}
 	}
 
-	/** Get the next image in the mjpeg stream */
-	protected byte[] getImage() throws IOException {
-		int n_size = getImageSize();
-		byte[] image = new byte[n_size];
-		int n_bytes = 0;
-		while(n_bytes < n_size) {
-			int r = stream.read(image, n_bytes, n_size - n_bytes);
-			if(r >= 0)
-				n_bytes += r;
-			else
-				throw new IOException("End of stream");
-		}
-		n_frames++;
-		return image;
-	}
-
-	/** Create an image icon from image data */
-	protected ImageIcon createIcon(byte[] idata) {
-		ImageIcon icon = new ImageIcon(idata);
-		if(icon.getIconWidth() == size.width &&
-		   icon.getIconHeight() == size.height)
-			return icon;
-		Image im = icon.getImage().getScaledInstance(size.width,
-			size.height, Image.SCALE_FAST);
-		return new ImageIcon(im);
-	}
-
-	/** Get the length of the next image */
-	private int getImageSize() throws IOException {
-		for(int i = 0; i < 100; i++) {
-			String s = readLine();
-			if(s.toLowerCase().indexOf("content-length") > -1) {
-				// throw away an empty line after the
-				// content-length header
-				readLine();
-				return parseContentLength(s);
-			}
-		}
-		throw new IOException("Missing content-length");
-	}
-
-	/** Parse the content-length header */
-	private int parseContentLength(String s) throws IOException {
-		s = s.substring(s.indexOf(":") + 1);
-		s = s.trim();
-		try {
-			return Integer.parseInt(s);
-		}
-		catch(NumberFormatException e) {
-			throw new IOException("Invalid content-length");
-		}
-	}
-
-	/** Read the next line of text */
-	private String readLine() throws IOException {
-		StringBuilder b = new StringBuilder();
-		while(true) {
-			int ch = stream.read();
-			if(ch < 0) {
-				if(b.length() == 0)
-					throw new IOException("End of stream");
-				else
-					break;
-			}
-			b.append((char)ch);
-			if(ch == '\n')
-				break;
-		}
-		return b.toString();
-	}
-
 	/** Get a component for displaying the video stream */
 	public JComponent getComponent() {
 		return screen;
@@ -227,6 +165,13 @@ public class MJPEGStream implements VideoStream {
 		catch(IOException e) {
 			setErrorMsg(e.getMessage());
 		}
-		screen.setIcon(null);
+		disposeReader();
+		screen.clear();
+	}
+
+	/** Dispose of the frame reader, after any frame being read.  Closing
+	 * the stream first ends a read which is blocked. */
+	private synchronized void disposeReader() {
+		reader.dispose();
 	}
 }
@@ -0,0 +1,101 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.client.camera;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import javax.swing.JComponent;
+
+/**
+ * Component to display MJPEG frames, scaled to fit.  It is double buffered:
+ * frames are decoded into the back image, which is swapped to the front
+ * when posted.  A frame posted before the last one was painted would only
+ * queue up behind it, so the stream should drop frames while busy.
+ *
+ * @author Douglas Lau
+ */
+public class MJPEGView extends JComponent {
+
+	/** Serial version ID */
+	static private final long serialVersionUID = 1L;
+
+	/** Front image (being displayed) */
+	private BufferedImage front;
+
+	/** Back image (available for decoding) */
+	private BufferedImage back;
+
+	/** Flag indicating a posted frame has not been painted */
+	private boolean pending;
+
+	/** Count of dropped frames */
+	private int n_dropped;
+
+	/** Check if a posted frame is waiting to be painted */
+	public synchronized boolean isBusy() {
+		return pending;
+	}
+
+	/** Record a dropped frame */
+	public synchronized void dropFrame() {
+		n_dropped++;
+	}
+
+	/** Get the count of dropped frames */
+	public synchronized int getDropped() {
+		return n_dropped;
+	}
+
+	/** Get the back image, for decoding the next frame */
+	public synchronized BufferedImage getBack() {
+		return back;
+	}
+
+	/** Post a decoded frame for display */
+	public void post(BufferedImage img) {
+		synchronized (this) {
+			if (img != front) {
+				back = front;
+				front = img;
+			}
+			pending = true;
+		}
+		repaint();
+	}
+
+	/** Clear the displayed frame */
+	public void clear() {
+		synchronized (this) {
+			front = null;
+			back = null;
+			pending = false;
+		}
+		repaint();
+	}
+
+	/** Paint the current frame */
+	@Override
+	protected void paintComponent(Graphics g) {
+		// Hold the lock while drawing, so the front image cannot
+		// become the back image (and be decoded into) mid-paint
+		synchronized (this) {
+			if (front != null) {
+				g.drawImage(front, 0, 0, getWidth(),
+					getHeight(), null);
+			}
+			pending = false;
+		}
+	}
+}
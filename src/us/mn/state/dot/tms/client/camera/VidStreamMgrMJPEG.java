@@ -1,7 +1,7 @@
 /*
  * IRIS -- Intelligent Roadway Information System
  * Copyright (C) 2019-2020  SRF Consulting Group
- * Copyright (C) 2003-2023  Minnesota Department of Transportation
+ * Copyright (C) 2003-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -15,7 +15,6 @@
  */
 package us.mn.state.dot.tms.client.camera;
 
-import java.awt.Image;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
@@ -24,9 +23,6 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.util.Calendar;
 
-import javax.swing.ImageIcon;
-import javax.swing.JLabel;
-
 import us.mn.state.dot.sched.Job;
 import us.mn.state.dot.tms.utils.Base64;
 
@@ -43,11 +39,14 @@ import us.mn.state.dot.tms.utils.Base64;
 public class VidStreamMgrMJPEG extends VidStreamMgr {
 
 	/** Component to display video stream */
-	private JLabel vcomponentLabel = new JLabel();
+	private final MJPEGView view = new MJPEGView();
 
 	/** Input stream to read */
 	private InputStream stream;
 
+	/** Reader for MJPEG frames */
+	private MJPEGReader reader;
+
 	//-------------------------------------------
 
 	/** Create an MJPEG stream manager.
@@ -72,10 +71,12 @@ public class VidStreamMgrMJPEG extends VidStreamMgr {
 	/** Start the stream.
 	 * (Queued job called from the STREAM_SCHED thread.) */
 	protected void doStartStream() {
-		vcomponentLabel.removeAll();
+		view.clear();
 		stream = createInputStream();
-		if (stream != null)
+		if (stream != null) {
+			reader = new MJPEGReader(stream);
 			STREAM_SCHED.addJob(jobReadStream);
+		}
 	}
 
 	@Override
@@ -91,6 +92,8 @@ public class VidStreamMgrMJPEG extends VidStreamMgr {
 				// ignore
 			}
 			stream = null;
+			reader.dispose();
+			reader = null;
 		}
 	}
 	
@@ -166,7 +169,7 @@ public class VidStreamMgrMJPEG extends VidStreamMgr {
 			}
 			catch (IOException e) {
 				setErrorMsg(e, "Generic IO Error");
-				vcomponentLabel.setIcon(null);
+				view.clear();
 				queueStopStream();
 			}
 		}
@@ -180,114 +183,17 @@ public class VidStreamMgrMJPEG extends VidStreamMgr {
 	//-------------------------------------------
 	//-------------------------------------------
 
-	/**
-	 * @param image
-	 */
+	/** Read the next frame from the stream.  If the last frame has not
+	 * been painted yet, this one is dropped instead of being queued. */
 	private void readStream() throws IOException {
-		byte[] idata = getImage();
-		ImageIcon icon = createIcon(idata);
-		JLabel lbl = new JLabel(icon);
-		setComponent(lbl);
-		streamingStarted();
-	}
-
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-
-	/** Get the next image in the mjpeg stream */
-	protected byte[] getImage() throws IOException {
-		int n_size = getImageSize();
-		byte[] image = new byte[n_size];
-		int n_bytes = 0;
-		while (n_bytes < n_size) {
-			int r = stream.read(image, n_bytes, n_size - n_bytes);
-			if (r < 0)
-				throw new IOException("End of stream");
-			n_bytes += r;
-		}
+		reader.readFrame();
 		incReceivedFrameCount();
-		return image;
-	}
-
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-
-	/** Create an image icon from image data */
-	//TODO: change to rescale to current VideoPanel size
-	protected ImageIcon createIcon(byte[] idata) {
-		ImageIcon icon = new ImageIcon(idata);
-		int vWidth  = videoPanel.getWidth();
-		int vHeight = videoPanel.getHeight();
-		if (icon.getIconWidth() == vWidth &&
-		    icon.getIconHeight() == vHeight)
-			return icon;
-		Image im = icon.getImage().getScaledInstance(
-				vWidth,	vHeight,
-				Image.SCALE_FAST);
-		return new ImageIcon(im);
-	}
-
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-
-	/** Get the length of the next image */
-	private int getImageSize() throws IOException {
-		for(int i = 0; i < 100; i++) {
-			String s = readLine();
-			if (s.toLowerCase().indexOf("content-length") > -1) {
-				// throw away an empty line after the
-				// content-length header
-				readLine();
-				return parseContentLength(s);
-			}
-		}
-		throw new IOException("Missing content-length");
-	}
-
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-
-	/** Parse the content-length header */
-	private int parseContentLength(String s) throws IOException {
-		s = s.substring(s.indexOf(":") + 1);
-		s = s.trim();
-		try {
-			return Integer.parseInt(s);
-		}
-		catch(NumberFormatException e) {
-			throw new IOException("Invalid content-length");
-		}
-	}
-
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-	//-------------------------------------------
-
-	/** Read the next line of text */
-	private String readLine() throws IOException {
-		StringBuilder b = new StringBuilder();
-		while (true) {
-			int ch = stream.read();
-			if (ch < 0) {
-				if (b.length() == 0)
-					throw new IOException("End of stream");
-				else
-					break;
-			}
-			b.append((char)ch);
-			if (ch == '\n')
-				break;
-		}
-		return b.toString();
+		if (view.isBusy())
+			view.dropFrame();
+		else
+			view.post(reader.decode(view.getBack()));
+		setComponent(view);
+		streamingStarted();
 	}
 
 	//-------------------------------------------
@@ -0,0 +1,129 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.geo;
+
+/**
+ * Precomputed projections of a latitude / longitude pair.  These are
+ * computed once per location and reused until the coordinates change,
+ * instead of repeating the trigonometry for every distance or map
+ * calculation.
+ *
+ * @author Douglas Lau
+ */
+public final class GeoProjection {
+
+	/** Mean radius of Earth (in meters) */
+	static private final double MEAN_RADIUS =
+		GeodeticDatum.WGS_84.getMeanRadius();
+
+	/** An object which caches its own projection */
+	public interface Holder {
+
+		/** Get the projection for the current coordinates */
+		GeoProjection getProjection();
+	}
+
+	/** Latitude (degrees) */
+	private final double lat;
+
+	/** Longitude (degrees) */
+	private final double lon;
+
+	/** Latitude (radians) */
+	private final double lat_r;
+
+	/** Longitude (radians) */
+	private final double lon_r;
+
+	/** Cosine of latitude */
+	private final double cos_lat;
+
+	/** WGS84 position */
+	private final Position pos;
+
+	/** Spherical mercator position */
+	private final SphericalMercatorPosition smp;
+
+	/** Create a projection of a lat/lon pair.
+	 * @param lt Latitude (degrees).
+	 * @param ln Longitude (degrees).
+	 * @throws IllegalArgumentException for invalid coordinates. */
+	public GeoProjection(double lt, double ln) {
+		pos = new Position(lt, ln);
+		lat = lt;
+		lon = ln;
+		lat_r = Math.toRadians(lt);
+		lon_r = Math.toRadians(ln);
+		cos_lat = Math.cos(lat_r);
+		smp = SphericalMercatorPosition.convert(pos);
+	}
+
+	/** Check if the projection was made from the given coordinates */
+	public boolean matches(double lt, double ln) {
+		return lat == lt && lon == ln;
+	}
+
+	/** Get the WGS84 position */
+	public Position getPosition() {
+		return pos;
+	}
+
+	/** Get the spherical mercator position */
+	public SphericalMercatorPosition getMercator() {
+		return smp;
+	}
+
+	/** Calculate the distance to another projection (meters).  This gives
+	 * the same result as Position.distanceHaversine.
+	 * @param o Other projection.
+	 * @return Distance (meters). */
+	public double distanceHaversine(GeoProjection o) {
+		return haversine(o.lat_r, o.lon_r, o.cos_lat);
+	}
+
+	/** Calculate the distance to a position (meters).  This gives the
+	 * same result as Position.distanceHaversine.
+	 * @param p Other position.
+	 * @return Distance (meters). */
+	public double distanceHaversine(Position p) {
+		double lt = Math.toRadians(p.getLatitude());
+		double ln = Math.toRadians(p.getLongitude());
+		return haversine(lt, ln, Math.cos(lt));
+	}
+
+	/** Calculate Haversine distance (meters) */
+	private double haversine(double lat2, double lon2, double cos2) {
+		double dlon = lon2 - lon_r;
+		double dlat = lat2 - lat_r;
+		double sdlat2 = Math.sin(dlat / 2.0);
+		double coslat = cos_lat * cos2;
+		double sdlon2 = Math.sin(dlon / 2.0);
+		double a = sdlat2 * sdlat2 + coslat * sdlon2 * sdlon2;
+		double c = 2.0 * Math.asin(Math.sqrt(a));
+		return MEAN_RADIUS * c;
+	}
+
+	/** Estimate the distance to another projection (meters), using an
+	 * equirectangular approximation.  This needs no trigonometry, and
+	 * is accurate to a few parts per million within 20 km, so it is
+	 * suitable for comparing nearby distances.
+	 * @param o Other projection.
+	 * @return Approximate distance (meters). */
+	public double distanceFast(GeoProjection o) {
+		double x = (o.lon_r - lon_r) * (cos_lat + o.cos_lat) / 2.0;
+		double y = o.lat_r - lat_r;
+		return MEAN_RADIUS * Math.sqrt(x * x + y * y);
+	}
+}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2021-2023  Minnesota Department of Transportation
+ * Copyright (C) 2021-2026  Minnesota Department of Transportation
  * Copyright (C) 2020  SRF Consulting Group, Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -15,7 +15,6 @@
  */
 package us.mn.state.dot.tms.server;
 
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -49,7 +48,6 @@ import us.mn.state.dot.tms.CapSeverity;
 import us.mn.state.dot.tms.CapUrgency;
 import us.mn.state.dot.tms.DMS;
 import us.mn.state.dot.tms.DMSHelper;
-import us.mn.state.dot.tms.GeoLoc;
 import us.mn.state.dot.tms.MsgPattern;
 import us.mn.state.dot.tms.PlanPhase;
 import us.mn.state.dot.tms.PlanPhaseHelper;
@@ -229,15 +227,9 @@ public class AlertData {
 		return new Polygon(pgon);
 	}
 
-	/** Table containing NWS Forecast Zone Geometries.  This can be obtained
-	 *  / updated from the NWS by going to this website and importing the
-	 *  shapefile into PostGIS: https://www.weather.gov/gis/PublicZones. */
-	static private final String NWS_ZONE_TABLE = "cap.nws_zones";
-
 	/** Create Polygons from a "geocode" section */
 	static private void createPolygonsGeo(JSONArray geocode,
-		List<Polygon> polys) throws JSONException, SQLException,
-		TMSException
+		List<Polygon> polys) throws JSONException, TMSException
 	{
 		ArrayList<String> zones = new ArrayList<String>();
 		for (int i = 0; i < geocode.length(); i++) {
@@ -250,43 +242,17 @@ public class AlertData {
 			log("no UGC codes found!");
 			return;
 		}
-		String codes = String.join(",", zones);
-		log("got UGC codes: " + codes);
-		BaseObjectImpl.store.query("SELECT geom FROM " + NWS_ZONE_TABLE
-			+ " WHERE state_zone IN (" + codes + ");",
-			new ResultFactory()
-		{
-			@Override
-			public void create(ResultSet row) throws SQLException {
-				MultiPolygon mp = SQLConnection.multiPolygon(
-					row.getObject(1));
-				if (mp != null) {
-					Polygon[] pgons = mp.getPolygons();
-					for (int i = 0; i < pgons.length; i++)
-						polys.add(pgons[i]);
-				} else
-					log("invalid geom in zone table!");
-			}
-		});
-	}
-
-	/** Build query to find DMS within a MultiPolygon */
-	static private String buildDMSQuery(MultiPolygon mp, int th) {
-		return "SELECT d.name " +
-			"FROM iris." + DMS.SONAR_TYPE + " d " +
-			"JOIN iris." + GeoLoc.SONAR_TYPE + " g " +
-			"ON d.geo_loc=g.name " +
-			"WHERE ST_DWithin('" + mp + "'," +
-				"ST_Point(g.lon,g.lat)::geography," + th + ")";
+		log("got UGC codes: " + String.join(",", zones));
+		AlertGeometry.lookupZones(zones, polys);
 	}
 
 	/** Format a UGC code.
 	 *
 	 *  UGC fields will come in as "{STATE}Z{CODE}" (e.g. "MNZ060").
 	 *  We want "{STATE}{CODE}" (e.g. "MN060"), which matches the data from
-	 *  NWS_ZONE_TABLE. */
+	 *  the NWS zone table. */
 	static private String formatUGC(String ugc) {
-		return "'" + String.join("", ugc.split("Z")) + "'";
+		return String.join("", ugc.split("Z"));
 	}
 
 	/** Get the distance threshold for auto DMS */
@@ -416,29 +382,13 @@ public class AlertData {
 	}
 
 	/** Find the centroid of multi polygon */
-	private void findCentroid() throws TMSException {
-		BaseObjectImpl.store.query("SELECT ST_AsText(ST_Centroid('" +
-			geo_poly + "'));", new ResultFactory()
-		{
-			@Override public void create(ResultSet row)
-				throws SQLException
-			{
-				findCentroid(row);
-			}
-		});
-	}
-
-	/** Find the centroid of a multipolygon from a row with a POINT */
-	private void findCentroid(ResultSet row) throws SQLException {
-		// parse out the lat/long from the POINT(lon lat) string
-		String point = row.getString(1);
-		String lonlat = point.replace("POINT(", "").replace(")", "");
-		String[] ll = lonlat.split(" ");
-		if (ll.length == 2) {
-			centroid[1] = Double.parseDouble(ll[0]); // lon
-			centroid[0] = Double.parseDouble(ll[1]); // lat
+	private void findCentroid() {
+		double[] c = AlertGeometry.findCentroid(geo_poly);
+		if (c != null) {
+			centroid[0] = c[0];
+			centroid[1] = c[1];
 		} else
-			log("invalid point: " + lonlat);
+			log("invalid centroid");
 	}
 
 	/** Process alert data */
@@ -485,22 +435,7 @@ public class AlertData {
 
 	/** Find all signs within given alert area threshold */
 	private void findSigns(TreeSet<DMS> signs, int th) throws TMSException {
-		BaseObjectImpl.store.query(buildDMSQuery(geo_poly, th),
-			new ResultFactory()
-		{
-			@Override public void create(ResultSet row) {
-				try {
-					String nm = row.getString(1);
-					log("found DMS, " + nm);
-					DMS d = DMSHelper.lookup(nm);
-					if (d != null)
-						signs.add(d);
-				}
-				catch (SQLException e) {
-					log("finding DMS, " + e.getMessage());
-				}
-			}
-		});
+		AlertGeometry.findSigns(geo_poly, th, signs);
 	}
 
 	/** Create alert info for one configuration */
@@ -0,0 +1,543 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import org.postgis.LinearRing;
+import org.postgis.MultiPolygon;
+import org.postgis.Point;
+import org.postgis.Polygon;
+import us.mn.state.dot.sched.TimeSteward;
+import us.mn.state.dot.tms.DMS;
+import us.mn.state.dot.tms.DMSHelper;
+import us.mn.state.dot.tms.GeoLoc;
+import us.mn.state.dot.tms.TMSException;
+
+/**
+ * Alert geometry engine.  NWS zone polygons are cached, and DMS locations are
+ * kept in a grid index, so that signs within an alert area can be found
+ * without a database query.  Distances are calculated on a sphere; signs
+ * too close to the threshold to decide (because PostGIS uses a spheroid),
+ * or too close to an edge to trust the planar inside test, are checked
+ * with ST_DWithin.
+ *
+ * @author Douglas Lau
+ */
+public class AlertGeometry {
+
+	/** Table containing NWS Forecast Zone Geometries.  This can be obtained
+	 *  / updated from the NWS by going to this website and importing the
+	 *  shapefile into PostGIS: https://www.weather.gov/gis/PublicZones. */
+	static private final String NWS_ZONE_TABLE = "cap.nws_zones";
+
+	/** Mean radius of the earth (m) */
+	static private final double EARTH_RADIUS_M = 6371008.8;
+
+	/** Approximate meters per degree of latitude */
+	static private final double METERS_PER_DEGREE = 111320;
+
+	/** Relative error margin between spherical and spheroid distance */
+	static private final double SPHEROID_MARGIN = 0.006;
+
+	/** Absolute error margin (m) */
+	static private final double ABSOLUTE_MARGIN_M = 10;
+
+	/** Grid index cell size (degrees) */
+	static private final double CELL_DEG = 0.25;
+
+	/** Maximum age of the DMS grid index (ms) */
+	static private final long INDEX_AGE_MS = 10 * 1000;
+
+	/** Maximum age of cached zone polygons (ms).  The zone table is
+	 * replaced by importing a new shapefile, so the cache expires. */
+	static private final long ZONE_AGE_MS = 60 * 60 * 1000;
+
+	/** Cached zone polygons, mapped by zone code (e.g. "MN060") */
+	static private final HashMap<String, Polygon[]> ZONES =
+		new HashMap<String, Polygon[]>();
+
+	/** Time the zone cache was cleared */
+	static private long zone_stamp;
+
+	/** DMS location */
+	static private class SignLoc {
+		private final DMS dms;
+		private final double lat;
+		private final double lon;
+		private SignLoc(DMS d, double la, double lo) {
+			dms = d;
+			lat = la;
+			lon = lo;
+		}
+	}
+
+	/** DMS grid index, mapped by cell */
+	static private HashMap<Long, ArrayList<SignLoc>> sign_index;
+
+	/** Time the DMS grid index was built */
+	static private long index_stamp;
+
+	/** Lookup polygons for NWS zones.  Zones not yet cached are queried
+	 * from the zone table.  Unknown zones are not cached, so they are
+	 * found once added to the table.
+	 * @param codes Zone codes (e.g. "MN060").
+	 * @param polys List to add polygons. */
+	static public void lookupZones(List<String> codes, List<Polygon> polys)
+		throws TMSException
+	{
+		ArrayList<String> missing = new ArrayList<String>();
+		synchronized (ZONES) {
+			long now = TimeSteward.currentTimeMillis();
+			if (now - zone_stamp > ZONE_AGE_MS) {
+				ZONES.clear();
+				zone_stamp = now;
+			}
+			for (String c: codes) {
+				if (!ZONES.containsKey(c))
+					missing.add(c);
+			}
+		}
+		if (missing.size() > 0)
+			queryZones(missing);
+		synchronized (ZONES) {
+			for (String c: codes) {
+				Polygon[] pgons = ZONES.get(c);
+				if (pgons != null) {
+					for (Polygon pg: pgons)
+						polys.add(pg);
+				}
+			}
+		}
+	}
+
+	/** Query zone polygons from the zone table */
+	static private void queryZones(List<String> codes) throws TMSException {
+		final HashMap<String, Polygon[]> zones =
+			new HashMap<String, Polygon[]>();
+		StringBuilder sb = new StringBuilder();
+		for (String c: codes) {
+			if (sb.length() > 0)
+				sb.append(',');
+			sb.append('\'');
+			sb.append(SQLConnection.escapeValue(c));
+			sb.append('\'');
+		}
+		BaseObjectImpl.store.query("SELECT state_zone, geom FROM " +
+			NWS_ZONE_TABLE + " WHERE state_zone IN (" + sb + ");",
+			new ResultFactory()
+		{
+			@Override
+			public void create(ResultSet row) throws SQLException {
+				MultiPolygon mp = SQLConnection.multiPolygon(
+					row.getObject(2));
+				if (mp != null) {
+					zones.put(row.getString(1), concat(
+						zones.get(row.getString(1)),
+						mp.getPolygons()));
+				} else {
+					CapAlert.LOG.log("invalid geom in " +
+						"zone table!");
+				}
+			}
+		});
+		synchronized (ZONES) {
+			ZONES.putAll(zones);
+		}
+	}
+
+	/** Concatenate two polygon arrays */
+	static private Polygon[] concat(Polygon[] a, Polygon[] b) {
+		if (null == a)
+			return b;
+		Polygon[] pgons = new Polygon[a.length + b.length];
+		System.arraycopy(a, 0, pgons, 0, a.length);
+		System.arraycopy(b, 0, pgons, a.length, b.length);
+		return pgons;
+	}
+
+	/** Find the centroid of a multipolygon (planar, area weighted, like
+	 * ST_Centroid on a geometry).
+	 * @return Array of lat, lon (or null if area is empty). */
+	static public double[] findCentroid(MultiPolygon mp) {
+		double area = 0;
+		double cx = 0;
+		double cy = 0;
+		for (Polygon pg: mp.getPolygons()) {
+			for (int r = 0; r < pg.numRings(); r++) {
+				LinearRing ring = pg.getRing(r);
+				// Shoelace terms have the sign of ring winding;
+				// holes must subtract from the exterior
+				double sign = (r == 0) ? 1 : -1;
+				double a = 0;
+				double x = 0;
+				double y = 0;
+				for (int i = 0; i + 1 < ring.numPoints(); i++) {
+					Point p0 = ring.getPoint(i);
+					Point p1 = ring.getPoint(i + 1);
+					double c = p0.x * p1.y - p1.x * p0.y;
+					a += c;
+					x += (p0.x + p1.x) * c;
+					y += (p0.y + p1.y) * c;
+				}
+				// Weight by absolute area, negative for holes
+				double s = sign * Math.signum(a);
+				area += s * a / 2;
+				cx += s * x / 6;
+				cy += s * y / 6;
+			}
+		}
+		if (area != 0)
+			return new double[] { cy / area, cx / area };
+		else
+			return null;
+	}
+
+	/** Check if a point is inside a polygon (planar) */
+	static boolean isInside(Polygon pg, double lat, double lon) {
+		boolean inside = false;
+		for (int r = 0; r < pg.numRings(); r++) {
+			if (isInside(pg.getRing(r), lat, lon))
+				inside = !inside;
+		}
+		return inside;
+	}
+
+	/** Check if a point is inside a ring (planar) */
+	static private boolean isInside(LinearRing ring, double lat,
+		double lon)
+	{
+		boolean inside = false;
+		int n = ring.numPoints();
+		for (int i = 0, j = n - 1; i < n; j = i++) {
+			Point pi = ring.getPoint(i);
+			Point pj = ring.getPoint(j);
+			if ((pi.y > lat) != (pj.y > lat) &&
+			    lon < (pj.x - pi.x) * (lat - pi.y) /
+			          (pj.y - pi.y) + pi.x)
+				inside = !inside;
+		}
+		return inside;
+	}
+
+	/** Convert lat/lon (degrees) to a unit vector */
+	static private double[] toVector(double lat, double lon) {
+		double la = Math.toRadians(lat);
+		double lo = Math.toRadians(lon);
+		return new double[] {
+			Math.cos(la) * Math.cos(lo),
+			Math.cos(la) * Math.sin(lo),
+			Math.sin(la)
+		};
+	}
+
+	/** Get the dot product of two vectors */
+	static private double dot(double[] a, double[] b) {
+		return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+	}
+
+	/** Get the cross product of two vectors */
+	static private double[] cross(double[] a, double[] b) {
+		return new double[] {
+			a[1] * b[2] - a[2] * b[1],
+			a[2] * b[0] - a[0] * b[2],
+			a[0] * b[1] - a[1] * b[0]
+		};
+	}
+
+	/** Get the angle between two unit vectors (radians) */
+	static private double angle(double[] a, double[] b) {
+		return Math.atan2(Math.sqrt(lengthSq(cross(a, b))), dot(a, b));
+	}
+
+	/** Get the squared length of a vector */
+	static private double lengthSq(double[] a) {
+		return dot(a, a);
+	}
+
+	/** Get the angular distance from a point to a great circle arc */
+	static private double arcAngle(double[] p, double[] a, double[] b) {
+		double[] n = cross(a, b);
+		double len = Math.sqrt(lengthSq(n));
+		if (len > 0) {
+			n = new double[] { n[0] / len, n[1] / len, n[2] / len };
+			double[] c = cross(n, cross(p, n));
+			if (dot(cross(a, c), n) >= 0 &&
+			    dot(cross(c, b), n) >= 0)
+				return Math.abs(Math.asin(dot(p, n)));
+		}
+		return Math.min(angle(p, a), angle(p, b));
+	}
+
+	/** Get the error band of an edge (m).  Within this distance of the
+	 * great circle arc, a planar inside test may not match a geodesic
+	 * one.  The band is twice the distance between the planar and great
+	 * circle midpoints, plus the absolute margin. */
+	static private double edgeBand(Point pa, Point pb, double[] a,
+		double[] b)
+	{
+		double[] mp = toVector((pa.y + pb.y) / 2, (pa.x + pb.x) / 2);
+		double[] m = { a[0] + b[0], a[1] + b[1], a[2] + b[2] };
+		double len = Math.sqrt(lengthSq(m));
+		if (len > 0) {
+			m = new double[] { m[0] / len, m[1] / len, m[2] / len };
+			return 2 * angle(mp, m) * EARTH_RADIUS_M +
+				ABSOLUTE_MARGIN_M;
+		} else
+			return ABSOLUTE_MARGIN_M;
+	}
+
+	/** Alert area, with edges prepared for distance checks */
+	static private class Area {
+		private final Polygon[] pgons;
+		private final double[][] starts;
+		private final double[][] ends;
+		private final double[] bands;
+
+		/** Widest error band of all edges (m) */
+		private double max_band = 0;
+
+		/** Distance to the nearest edge, from the last check (m) */
+		private double edge;
+
+		/** Flag set if the last point checked was within the error
+		 * band of an edge */
+		private boolean near_edge;
+
+		/** Create an alert area */
+		private Area(MultiPolygon mp) {
+			pgons = mp.getPolygons();
+			ArrayList<double[]> sa = new ArrayList<double[]>();
+			ArrayList<double[]> ea = new ArrayList<double[]>();
+			ArrayList<Double> ba = new ArrayList<Double>();
+			for (Polygon pg: pgons) {
+				for (int r = 0; r < pg.numRings(); r++) {
+					addEdges(pg.getRing(r), sa, ea, ba);
+				}
+			}
+			starts = sa.toArray(new double[0][]);
+			ends = ea.toArray(new double[0][]);
+			bands = new double[ba.size()];
+			for (int i = 0; i < bands.length; i++) {
+				bands[i] = ba.get(i);
+				max_band = Math.max(max_band, bands[i]);
+			}
+		}
+
+		/** Add the edges of one ring */
+		private void addEdges(LinearRing ring, List<double[]> sa,
+			List<double[]> ea, List<Double> ba)
+		{
+			Point pa = null;
+			double[] a = null;
+			for (int i = 0; i < ring.numPoints(); i++) {
+				Point pb = ring.getPoint(i);
+				double[] b = toVector(pb.y, pb.x);
+				if (a != null) {
+					sa.add(a);
+					ea.add(b);
+					ba.add(edgeBand(pa, pb, a, b));
+				}
+				pa = pb;
+				a = b;
+			}
+		}
+
+		/** Get the distance from a point (meters on a sphere).  This
+		 * is zero if the point is inside, unless it is within the
+		 * error band of an edge.  In that case, the inside test is
+		 * not reliable, and the distance to the edge is returned. */
+		private double distance(double lat, double lon) {
+			double[] p = toVector(lat, lon);
+			double ang = Double.MAX_VALUE;
+			near_edge = false;
+			for (int i = 0; i < bands.length; i++) {
+				double d = arcAngle(p, starts[i], ends[i]);
+				ang = Math.min(ang, d);
+				if (d * EARTH_RADIUS_M <= bands[i])
+					near_edge = true;
+			}
+			edge = ang * EARTH_RADIUS_M;
+			if (!near_edge) {
+				for (Polygon pg: pgons) {
+					if (isInside(pg, lat, lon))
+						return 0;
+				}
+			}
+			return edge;
+		}
+	}
+
+	/** Get the distance from a point to a multipolygon (meters on a
+	 * sphere).  This is zero if inside, unless the point is within the
+	 * error band of an edge. */
+	static double distance(MultiPolygon mp, double lat, double lon) {
+		return new Area(mp).distance(lat, lon);
+	}
+
+	/** Get a grid cell key */
+	static private long cellKey(int la, int lo) {
+		return ((long) la << 32) | (lo & 0xFFFFFFFFL);
+	}
+
+	/** Get the grid cell for a coordinate */
+	static private int cell(double deg) {
+		return (int) Math.floor(deg / CELL_DEG);
+	}
+
+	/** Get the DMS grid index, rebuilding it if stale */
+	static private synchronized HashMap<Long, ArrayList<SignLoc>>
+		getSignIndex()
+	{
+		long now = TimeSteward.currentTimeMillis();
+		if (null == sign_index || now - index_stamp > INDEX_AGE_MS) {
+			sign_index = buildSignIndex();
+			index_stamp = now;
+		}
+		return sign_index;
+	}
+
+	/** Build the DMS grid index */
+	static private HashMap<Long, ArrayList<SignLoc>> buildSignIndex() {
+		HashMap<Long, ArrayList<SignLoc>> idx =
+			new HashMap<Long, ArrayList<SignLoc>>();
+		Iterator<DMS> it = DMSHelper.iterator();
+		while (it.hasNext()) {
+			DMS d = it.next();
+			GeoLoc gl = d.getGeoLoc();
+			Double lat = (gl != null) ? gl.getLat() : null;
+			Double lon = (gl != null) ? gl.getLon() : null;
+			if (lat != null && lon != null) {
+				Long key = cellKey(cell(lat), cell(lon));
+				ArrayList<SignLoc> locs = idx.get(key);
+				if (null == locs) {
+					locs = new ArrayList<SignLoc>();
+					idx.put(key, locs);
+				}
+				locs.add(new SignLoc(d, lat, lon));
+			}
+		}
+		return idx;
+	}
+
+	/** Find candidate signs within a bounding box */
+	static private ArrayList<SignLoc> findCandidates(double lat0,
+		double lon0, double lat1, double lon1)
+	{
+		HashMap<Long, ArrayList<SignLoc>> idx = getSignIndex();
+		ArrayList<SignLoc> locs = new ArrayList<SignLoc>();
+		for (int la = cell(lat0); la <= cell(lat1); la++) {
+			for (int lo = cell(lon0); lo <= cell(lon1); lo++) {
+				ArrayList<SignLoc> c = idx.get(cellKey(la, lo));
+				if (c != null) {
+					for (SignLoc sl: c) {
+						if (sl.lat >= lat0 &&
+						    sl.lat <= lat1 &&
+						    sl.lon >= lon0 &&
+						    sl.lon <= lon1)
+							locs.add(sl);
+					}
+				}
+			}
+		}
+		return locs;
+	}
+
+	/** Find all signs within a distance of an alert area.
+	 * @param mp Alert area.
+	 * @param th Distance threshold (m).
+	 * @param signs Set to add signs. */
+	static public void findSigns(MultiPolygon mp, int th, Set<DMS> signs)
+		throws TMSException
+	{
+		double lat0 = Double.MAX_VALUE;
+		double lon0 = Double.MAX_VALUE;
+		double lat1 = -Double.MAX_VALUE;
+		double lon1 = -Double.MAX_VALUE;
+		for (Polygon pg: mp.getPolygons()) {
+			LinearRing ring = pg.getRing(0);
+			for (int i = 0; i < ring.numPoints(); i++) {
+				Point pt = ring.getPoint(i);
+				lat0 = Math.min(lat0, pt.y);
+				lat1 = Math.max(lat1, pt.y);
+				lon0 = Math.min(lon0, pt.x);
+				lon1 = Math.max(lon1, pt.x);
+			}
+		}
+		if (lat0 > lat1)
+			return;
+		Area area = new Area(mp);
+		// Widen the box by the error band, since great circle edges
+		// can bulge beyond the vertices
+		double m = th * (1 + SPHEROID_MARGIN) + ABSOLUTE_MARGIN_M +
+			area.max_band;
+		double dlat = m / METERS_PER_DEGREE;
+		double mlat = Math.min(89, Math.max(Math.abs(lat0 - dlat),
+			Math.abs(lat1 + dlat)));
+		double dlon = dlat / Math.cos(Math.toRadians(mlat));
+		ArrayList<DMS> unsure = new ArrayList<DMS>();
+		for (SignLoc sl: findCandidates(lat0 - dlat, lon0 - dlon,
+			lat1 + dlat, lon1 + dlon))
+		{
+			double d = area.distance(sl.lat, sl.lon);
+			double margin = d * SPHEROID_MARGIN + ABSOLUTE_MARGIN_M;
+			if (d + margin <= th)
+				signs.add(sl.dms);
+			else if (area.near_edge || d - margin <= th)
+				unsure.add(sl.dms);
+		}
+		if (unsure.size() > 0)
+			querySigns(mp, th, unsure, signs);
+	}
+
+	/** Check signs too close to the threshold to decide using PostGIS */
+	static private void querySigns(MultiPolygon mp, int th,
+		Collection<DMS> unsure, final Set<DMS> signs)
+		throws TMSException
+	{
+		StringBuilder sb = new StringBuilder();
+		for (DMS d: unsure) {
+			if (sb.length() > 0)
+				sb.append(',');
+			sb.append('\'');
+			sb.append(SQLConnection.escapeValue(d.getName()));
+			sb.append('\'');
+		}
+		CapAlert.LOG.log("checking " + unsure.size() + " DMS near " +
+			th + " m threshold");
+		BaseObjectImpl.store.query("SELECT d.name " +
+			"FROM iris." + DMS.SONAR_TYPE + " d " +
+			"JOIN iris." + GeoLoc.SONAR_TYPE + " g " +
+			"ON d.geo_loc=g.name " +
+			"WHERE d.name IN (" + sb + ") AND ST_DWithin('" + mp +
+			"',ST_Point(g.lon,g.lat)::geography," + th + ");",
+			new ResultFactory()
+		{
+			@Override public void create(ResultSet row)
+				throws SQLException
+			{
+				DMS d = DMSHelper.lookup(row.getString(1));
+				if (d != null)
+					signs.add(d);
+			}
+		});
+	}
+}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2007-2023  Minnesota Department of Transportation
+ * Copyright (C) 2007-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -18,9 +18,12 @@ import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import us.mn.state.dot.sched.Job;
+import us.mn.state.dot.sonar.Name;
 import us.mn.state.dot.sonar.SonarException;
 import us.mn.state.dot.sonar.SonarObject;
 import us.mn.state.dot.sonar.server.Server;
@@ -46,83 +49,176 @@ abstract public class BaseObjectImpl implements Storable, SonarObject {
 	/** Corridor manager */
 	static public final CorridorManager corridors = new CorridorManager();
 
-	/** Load all objects from the database into the SONAR Namespace */
-	static void loadAll(SQLConnection s, ServerNamespace ns)
+	/** Permission resolver */
+	static PermissionResolver permissions;
+
+	/** Config reloader */
+	static ConfigReloader reloader;
+
+	/** Load all objects from the database into the SONAR Namespace.
+	 * @param s SQL connection.
+	 * @param ns SONAR namespace.
+	 * @param threads Number of threads (and database connections) for
+	 *                loading independent types concurrently. */
+	static void loadAll(SQLConnection s, ServerNamespace ns, int threads)
 		throws TMSException
 	{
 		store = s;
 		namespace = ns;
+		permissions = new PermissionResolver(s);
+		reloader = new ConfigReloader(s, ns);
+		/* NOTE: system attributes are needed by everything */
 		SystemAttributeImpl.loadAll();
-		GraphicImpl.loadAll();
-		FontImpl.loadAll();
-		GlyphImpl.loadAll();
-		RoadImpl.loadAll();
-		RoadAffixImpl.loadAll();
-		GeoLocImpl.loadAll();
-		MapExtentImpl.loadAll();
-		IncidentDetailImpl.loadAll();
-		CommConfigImpl.loadAll();
-		CommLinkImpl.loadAll();
-		ModemImpl.loadAll();
-		CabinetStyleImpl.loadAll();
-		ControllerImpl.loadAll();
-		SignConfigImpl.loadAll();
-		SignDetailImpl.loadAll();
-		DayMatcherImpl.loadAll();
-		DayPlanImpl.loadAll();
-		PlanPhaseImpl.loadAll();
-		ActionPlanImpl.loadAll();
-		R_NodeImpl.loadAll();
-		/* NOTE: must happen after r_nodes are loaded */
-		corridors.createCorridors();
-		AlarmImpl.loadAll();
-		GpsImpl.loadAll();
-		CameraTemplateImpl.loadAll();
-		VidSourceTemplateImpl.loadAll();
-		CameraVidSourceOrderImpl.loadAll();
-		DetectorImpl.loadAll();
-		TollZoneImpl.loadAll();
-		EncoderTypeImpl.loadAll();
-		EncoderStreamImpl.loadAll();
-		CameraImpl.loadAll();
-		CameraPresetImpl.loadAll();
-		PlayListImpl.loadAll();
-		CatalogImpl.loadAll();
-		MonitorStyleImpl.loadAll();
-		VideoMonitorImpl.loadAll();
-		FlowStreamImpl.loadAll();
-		BeaconImpl.loadAll();
-		WeatherSensorImpl.loadAll();
-		RampMeterImpl.loadAll();
-		SignMessageImpl.loadAll();
-		DMSImpl.loadAll();
-		MsgPatternImpl.loadAll();
-		MsgLineImpl.loadAll();
-		GateArmArrayImpl.loadAll();
-		GateArmImpl.loadAll();
-		TagReaderImpl.loadAll();
-		LaneMarkingImpl.loadAll();
-		LCSArrayImpl.loadAll();
-		LCSImpl.loadAll();
-		LCSIndicationImpl.loadAll();
-		LaneUseMultiImpl.loadAll();
-		ParkingAreaImpl.loadAll();
-		IncidentImpl.loadAll();
-		IncDescriptorImpl.loadAll();
-		IncLocatorImpl.loadAll();
-		IncAdviceImpl.loadAll();
-		TimeActionImpl.loadAll();
-		DmsActionImpl.loadAll();
-		BeaconActionImpl.loadAll();
-		CameraActionImpl.loadAll();
-		LaneActionImpl.loadAll();
-		MeterActionImpl.loadAll();
-		WordImpl.loadAll();
-		DMSImpl.updateAllStyles();
-		RptConduitImpl.loadAll();
-		AlertConfigImpl.loadAll();
-		AlertMessageImpl.loadAll();
-		AlertInfoImpl.loadAll();
+		ObjectLoader ol = new ObjectLoader(threads, s);
+		ol.add(GraphicImpl.SONAR_TYPE, GraphicImpl::loadAll);
+		ol.add(FontImpl.SONAR_TYPE, FontImpl::loadAll);
+		ol.add(GlyphImpl.SONAR_TYPE, GlyphImpl::loadAll,
+			FontImpl.SONAR_TYPE);
+		ol.add(RoadImpl.SONAR_TYPE, RoadImpl::loadAll);
+		ol.add(RoadAffixImpl.SONAR_TYPE, RoadAffixImpl::loadAll);
+		ol.add(GeoLocImpl.SONAR_TYPE, GeoLocImpl::loadAll,
+			RoadImpl.SONAR_TYPE);
+		ol.add(MapExtentImpl.SONAR_TYPE, MapExtentImpl::loadAll);
+		ol.add(IncidentDetailImpl.SONAR_TYPE,
+			IncidentDetailImpl::loadAll);
+		ol.add(CommConfigImpl.SONAR_TYPE, CommConfigImpl::loadAll);
+		ol.add(CommLinkImpl.SONAR_TYPE, CommLinkImpl::loadAll,
+			CommConfigImpl.SONAR_TYPE);
+		ol.add(ModemImpl.SONAR_TYPE, ModemImpl::loadAll);
+		ol.add(CabinetStyleImpl.SONAR_TYPE, CabinetStyleImpl::loadAll);
+		ol.add(ControllerImpl.SONAR_TYPE, ControllerImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, CommLinkImpl.SONAR_TYPE,
+			CabinetStyleImpl.SONAR_TYPE);
+		ol.add(SignConfigImpl.SONAR_TYPE, SignConfigImpl::loadAll,
+			FontImpl.SONAR_TYPE);
+		ol.add(SignDetailImpl.SONAR_TYPE, SignDetailImpl::loadAll);
+		ol.add(DayMatcherImpl.SONAR_TYPE, DayMatcherImpl::loadAll);
+		ol.add(DayPlanImpl.SONAR_TYPE, DayPlanImpl::loadAll,
+			DayMatcherImpl.SONAR_TYPE);
+		ol.add(PlanPhaseImpl.SONAR_TYPE, PlanPhaseImpl::loadAll);
+		ol.add(ActionPlanImpl.SONAR_TYPE, ActionPlanImpl::loadAll,
+			PlanPhaseImpl.SONAR_TYPE);
+		ol.add(R_NodeImpl.SONAR_TYPE, () -> {
+			R_NodeImpl.loadAll();
+			/* NOTE: must happen after r_nodes are loaded */
+			corridors.createCorridors();
+		}, GeoLocImpl.SONAR_TYPE);
+		ol.add(AlarmImpl.SONAR_TYPE, AlarmImpl::loadAll,
+			ControllerImpl.SONAR_TYPE);
+		ol.add(GpsImpl.SONAR_TYPE, GpsImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE);
+		ol.add(CameraTemplateImpl.SONAR_TYPE,
+			CameraTemplateImpl::loadAll);
+		ol.add(VidSourceTemplateImpl.SONAR_TYPE,
+			VidSourceTemplateImpl::loadAll);
+		ol.add(CameraVidSourceOrderImpl.SONAR_TYPE,
+			CameraVidSourceOrderImpl::loadAll);
+		ol.add(DetectorImpl.SONAR_TYPE, DetectorImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE,
+			R_NodeImpl.SONAR_TYPE);
+		ol.add(TollZoneImpl.SONAR_TYPE, TollZoneImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, DetectorImpl.SONAR_TYPE);
+		ol.add(EncoderTypeImpl.SONAR_TYPE, EncoderTypeImpl::loadAll);
+		ol.add(EncoderStreamImpl.SONAR_TYPE, EncoderStreamImpl::loadAll,
+			EncoderTypeImpl.SONAR_TYPE);
+		ol.add(CameraImpl.SONAR_TYPE, CameraImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE,
+			CameraTemplateImpl.SONAR_TYPE,
+			EncoderTypeImpl.SONAR_TYPE);
+		ol.add(CameraPresetImpl.SONAR_TYPE, CameraPresetImpl::loadAll,
+			CameraImpl.SONAR_TYPE);
+		ol.add(PlayListImpl.SONAR_TYPE, PlayListImpl::loadAll,
+			CameraImpl.SONAR_TYPE);
+		ol.add(CatalogImpl.SONAR_TYPE, CatalogImpl::loadAll,
+			PlayListImpl.SONAR_TYPE);
+		ol.add(MonitorStyleImpl.SONAR_TYPE, MonitorStyleImpl::loadAll);
+		ol.add(VideoMonitorImpl.SONAR_TYPE, VideoMonitorImpl::loadAll,
+			ControllerImpl.SONAR_TYPE, CameraImpl.SONAR_TYPE,
+			MonitorStyleImpl.SONAR_TYPE);
+		ol.add(FlowStreamImpl.SONAR_TYPE, FlowStreamImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE,
+			CameraImpl.SONAR_TYPE, VideoMonitorImpl.SONAR_TYPE);
+		ol.add(BeaconImpl.SONAR_TYPE, BeaconImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE,
+			CameraPresetImpl.SONAR_TYPE);
+		ol.add(WeatherSensorImpl.SONAR_TYPE, WeatherSensorImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE);
+		ol.add(RampMeterImpl.SONAR_TYPE, RampMeterImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE,
+			R_NodeImpl.SONAR_TYPE, DetectorImpl.SONAR_TYPE,
+			CameraPresetImpl.SONAR_TYPE, BeaconImpl.SONAR_TYPE);
+		ol.add(SignMessageImpl.SONAR_TYPE, SignMessageImpl::loadAll,
+			SignConfigImpl.SONAR_TYPE);
+		ol.add(DMSImpl.SONAR_TYPE, DMSImpl::loadAll,
+			GraphicImpl.SONAR_TYPE, GeoLocImpl.SONAR_TYPE,
+			ControllerImpl.SONAR_TYPE, SignConfigImpl.SONAR_TYPE,
+			SignDetailImpl.SONAR_TYPE, GpsImpl.SONAR_TYPE,
+			CameraPresetImpl.SONAR_TYPE, BeaconImpl.SONAR_TYPE,
+			SignMessageImpl.SONAR_TYPE);
+		ol.add(MsgPatternImpl.SONAR_TYPE, MsgPatternImpl::loadAll,
+			DMSImpl.SONAR_TYPE);
+		ol.add(MsgLineImpl.SONAR_TYPE, MsgLineImpl::loadAll,
+			DMSImpl.SONAR_TYPE, MsgPatternImpl.SONAR_TYPE);
+		ol.add(GateArmArrayImpl.SONAR_TYPE, GateArmArrayImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE,
+			PlanPhaseImpl.SONAR_TYPE, ActionPlanImpl.SONAR_TYPE,
+			CameraImpl.SONAR_TYPE);
+		ol.add(GateArmImpl.SONAR_TYPE, GateArmImpl::loadAll,
+			ControllerImpl.SONAR_TYPE, GateArmArrayImpl.SONAR_TYPE);
+		ol.add(TagReaderImpl.SONAR_TYPE, TagReaderImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE,
+			TollZoneImpl.SONAR_TYPE, DMSImpl.SONAR_TYPE);
+		ol.add(LaneMarkingImpl.SONAR_TYPE, LaneMarkingImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, ControllerImpl.SONAR_TYPE);
+		ol.add(LCSArrayImpl.SONAR_TYPE, LCSArrayImpl::loadAll,
+			ControllerImpl.SONAR_TYPE, DMSImpl.SONAR_TYPE);
+		ol.add(LCSImpl.SONAR_TYPE, LCSImpl::loadAll,
+			LCSArrayImpl.SONAR_TYPE);
+		ol.add(LCSIndicationImpl.SONAR_TYPE, LCSIndicationImpl::loadAll,
+			ControllerImpl.SONAR_TYPE, LCSImpl.SONAR_TYPE);
+		ol.add(LaneUseMultiImpl.SONAR_TYPE, LaneUseMultiImpl::loadAll,
+			DMSImpl.SONAR_TYPE, MsgPatternImpl.SONAR_TYPE);
+		ol.add(ParkingAreaImpl.SONAR_TYPE, ParkingAreaImpl::loadAll,
+			GeoLocImpl.SONAR_TYPE, R_NodeImpl.SONAR_TYPE,
+			DetectorImpl.SONAR_TYPE, CameraPresetImpl.SONAR_TYPE);
+		ol.add(IncidentImpl.SONAR_TYPE, IncidentImpl::loadAll,
+			RoadImpl.SONAR_TYPE, GeoLocImpl.SONAR_TYPE,
+			IncidentDetailImpl.SONAR_TYPE, CameraImpl.SONAR_TYPE);
+		ol.add(IncDescriptorImpl.SONAR_TYPE, IncDescriptorImpl::loadAll,
+			IncidentDetailImpl.SONAR_TYPE);
+		ol.add(IncLocatorImpl.SONAR_TYPE, IncLocatorImpl::loadAll);
+		ol.add(IncAdviceImpl.SONAR_TYPE, IncAdviceImpl::loadAll);
+		ol.add(TimeActionImpl.SONAR_TYPE, TimeActionImpl::loadAll,
+			DayPlanImpl.SONAR_TYPE, PlanPhaseImpl.SONAR_TYPE,
+			ActionPlanImpl.SONAR_TYPE);
+		ol.add(DmsActionImpl.SONAR_TYPE, DmsActionImpl::loadAll,
+			PlanPhaseImpl.SONAR_TYPE, ActionPlanImpl.SONAR_TYPE,
+			DMSImpl.SONAR_TYPE, MsgPatternImpl.SONAR_TYPE);
+		ol.add(BeaconActionImpl.SONAR_TYPE, BeaconActionImpl::loadAll,
+			PlanPhaseImpl.SONAR_TYPE, ActionPlanImpl.SONAR_TYPE,
+			BeaconImpl.SONAR_TYPE);
+		ol.add(CameraActionImpl.SONAR_TYPE, CameraActionImpl::loadAll,
+			PlanPhaseImpl.SONAR_TYPE, ActionPlanImpl.SONAR_TYPE,
+			CameraPresetImpl.SONAR_TYPE);
+		ol.add(LaneActionImpl.SONAR_TYPE, LaneActionImpl::loadAll,
+			PlanPhaseImpl.SONAR_TYPE, ActionPlanImpl.SONAR_TYPE,
+			LaneMarkingImpl.SONAR_TYPE);
+		ol.add(MeterActionImpl.SONAR_TYPE, MeterActionImpl::loadAll,
+			PlanPhaseImpl.SONAR_TYPE, ActionPlanImpl.SONAR_TYPE,
+			RampMeterImpl.SONAR_TYPE);
+		ol.add(WordImpl.SONAR_TYPE, WordImpl::loadAll);
+		ol.addBarrier("styles", DMSImpl::updateAllStyles);
+		ol.add(RptConduitImpl.SONAR_TYPE, RptConduitImpl::loadAll,
+			"styles");
+		ol.add(AlertConfigImpl.SONAR_TYPE, AlertConfigImpl::loadAll,
+			DMSImpl.SONAR_TYPE, "styles");
+		ol.add(AlertMessageImpl.SONAR_TYPE, AlertMessageImpl::loadAll,
+			SignConfigImpl.SONAR_TYPE, DMSImpl.SONAR_TYPE,
+			MsgPatternImpl.SONAR_TYPE, AlertConfigImpl.SONAR_TYPE,
+			"styles");
+		ol.add(AlertInfoImpl.SONAR_TYPE, AlertInfoImpl::loadAll,
+			ActionPlanImpl.SONAR_TYPE, "styles");
+		ol.loadAll();
 	}
 
 	/** Get the time as a time stamp */
@@ -479,14 +575,58 @@ abstract public class BaseObjectImpl implements Storable, SonarObject {
 			s.removeObject(this);
 	}
 
+	/** Batch of attribute notifications */
+	static private class NotifyBatch {
+		private int depth = 0;
+		private final LinkedHashMap<String, Name> names =
+			new LinkedHashMap<String, Name>();
+	}
+
+	/** Attribute notification batch for each thread */
+	static private final ThreadLocal<NotifyBatch> NOTIFY_BATCH =
+		new ThreadLocal<NotifyBatch>()
+	{
+		@Override protected NotifyBatch initialValue() {
+			return new NotifyBatch();
+		}
+	};
+
+	/** Begin batching attribute notifications on the current thread.
+	 * Until the matching call to endNotifyBatch, notifications are
+	 * collected (without duplicates), so that a device status update
+	 * is sent to clients together.  Batches may be nested. */
+	static public void beginNotifyBatch() {
+		NOTIFY_BATCH.get().depth++;
+	}
+
+	/** End batching attribute notifications on the current thread.
+	 * When the outermost batch ends, collected notifications are sent. */
+	static public void endNotifyBatch() {
+		NotifyBatch b = NOTIFY_BATCH.get();
+		if (b.depth > 0 && --b.depth == 0 && !b.names.isEmpty()) {
+			ArrayList<Name> names = new ArrayList<Name>(
+				b.names.values());
+			b.names.clear();
+			Server s = MainServer.server;
+			if (s != null)
+				s.setAttributes(names);
+		}
+	}
+
 	/** Notify SONAR clients of a change to an attribute. Attribute names
 	 *  should use lower camel case instead of underscores (e.g.
 	 *  "someAttribute" instead of "some_attribute").
 	 */
 	protected void notifyAttribute(String aname) {
 		Server s = MainServer.server;
-		if (s != null)
-			s.setAttribute(this, aname);
+		if (s != null) {
+			NotifyBatch b = NOTIFY_BATCH.get();
+			if (b.depth > 0) {
+				Name n = new Name(this, aname);
+				b.names.put(n.toString(), n);
+			} else
+				s.setAttribute(this, aname);
+		}
 	}
 
 	/** Format a float value */
@@ -548,36 +688,19 @@ abstract public class BaseObjectImpl implements Storable, SonarObject {
 		});
 	}
 
+	/** Get hashtags for permission checks.
+	 * @return Hashtags assigned to this object, or null to lookup from
+	 *         the database. */
+	protected String[] getPermHashtags() {
+		return null;
+	}
+
 	/** Query user's permission access level for this object.
 	 *
 	 * @return Access level (0-4)
 	 *         0 none, 1 view, 2 operate, 3 manage, 4 configure */
 	public int queryPermAccess() throws TMSException {
-		String res = getTypeName();
-		String user = getProcUser();
-		final int[] access = { 0 };
-		store.query("SELECT max(access_n) " +
-			"FROM iris.permission p " +
-			"JOIN iris.i_user u ON u.role = p.role " +
-			"WHERE p.resource_n = '" + res + "' " +
-			"AND u.name = '" + user + "' " +
-			"AND (" +
-				"p.hashtag IS NULL OR " +
-				"p.hashtag IN (" +
-					"SELECT hashtag " +
-					"FROM iris.hashtag " +
-					"WHERE resource_n = '" + res + "' " +
-					"AND name = '" + getName() + "'" +
-				")" +
-			");",
-			new ResultFactory()
-		{
-			@Override public void create(ResultSet row)
-				throws SQLException
-			{
-				access[0] = row.getInt(1);
-			}
-		});
-		return access[0];
+		return permissions.queryAccess(getProcUser(), getTypeName(),
+			getName(), getPermHashtags());
 	}
 }
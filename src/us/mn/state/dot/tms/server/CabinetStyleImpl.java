@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2008-2021  Minnesota Department of Transportation
+ * Copyright (C) 2008-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -44,15 +44,10 @@ public class CabinetStyleImpl extends BaseObjectImpl implements CabinetStyle {
 	/** Load all the cabinet styles */
 	static protected void loadAll() throws TMSException {
 		namespace.registerType(SONAR_TYPE, CabinetStyleImpl.class);
-		store.query("SELECT name, police_panel_pin_1, " +
-			"police_panel_pin_2, watchdog_reset_pin_1, " +
-			"watchdog_reset_pin_2, dip FROM iris." + SONAR_TYPE +
-			";", new ResultFactory()
-		{
-			public void create(ResultSet row) throws Exception {
-				namespace.addObject(new CabinetStyleImpl(row));
-			}
-		});
+		reloader.loadAll(SONAR_TYPE, "SELECT name, " +
+			"police_panel_pin_1, police_panel_pin_2, " +
+			"watchdog_reset_pin_1, watchdog_reset_pin_2, dip " +
+			"FROM iris." + SONAR_TYPE + ";", CabinetStyleImpl::new);
 	}
 
 	/** Get a mapping of the columns */
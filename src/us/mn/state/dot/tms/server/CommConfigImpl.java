@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2020-2023  Minnesota Department of Transportation
+ * Copyright (C) 2020-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -36,15 +36,11 @@ public class CommConfigImpl extends BaseObjectImpl implements CommConfig {
 	/** Load all the comm configs */
 	static protected void loadAll() throws TMSException {
 		namespace.registerType(SONAR_TYPE, CommConfigImpl.class);
-		store.query("SELECT name, description, protocol, " +
-			"timeout_ms, poll_period_sec, long_poll_period_sec, " +
-			"idle_disconnect_sec, no_response_disconnect_sec " +
-			"FROM iris." + SONAR_TYPE + ";", new ResultFactory()
-		{
-			public void create(ResultSet row) throws Exception {
-				namespace.addObject(new CommConfigImpl(row));
-			}
-		});
+		reloader.loadAll(SONAR_TYPE, "SELECT name, description, " +
+			"protocol, timeout_ms, poll_period_sec, " +
+			"long_poll_period_sec, idle_disconnect_sec, " +
+			"no_response_disconnect_sec " +
+			"FROM iris." + SONAR_TYPE + ";", CommConfigImpl::new);
 	}
 
 	/** Check for valid polling period */
@@ -0,0 +1,55 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Calendar;
+import us.mn.state.dot.sched.Job;
+import us.mn.state.dot.tms.server.comm.CommStats;
+
+/**
+ * Job to write out comm statistics files (JSON and Prometheus text).
+ *
+ * @author Douglas Lau
+ */
+public class CommStatsJob extends Job {
+
+	/** Seconds to offset each poll from start of interval */
+	static private final int OFFSET_SECS = 25;
+
+	/** Create a new job */
+	public CommStatsJob() {
+		super(Calendar.MINUTE, 1, Calendar.SECOND, OFFSET_SECS);
+	}
+
+	/** Perform the job */
+	public void perform() throws IOException {
+		new XmlWriter("comm_stats.json", false) {
+			@Override protected void write(Writer w)
+				throws IOException
+			{
+				CommStats.writeJson(w);
+			}
+		}.write();
+		new XmlWriter("comm_stats.prom", false) {
+			@Override protected void write(Writer w)
+				throws IOException
+			{
+				CommStats.writePrometheus(w);
+			}
+		}.write();
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import us.mn.state.dot.sched.DebugLog;
+import us.mn.state.dot.sched.Job;
+import us.mn.state.dot.sched.Scheduler;
+import us.mn.state.dot.sonar.SonarException;
+import us.mn.state.dot.sonar.SonarObject;
+import us.mn.state.dot.sonar.server.Server;
+import us.mn.state.dot.sonar.server.ServerNamespace;
+import us.mn.state.dot.tms.TMSException;
+
+/**
+ * Config reloader.  Types loaded through the reloader are reloaded when a
+ * database notification is received for their table.  Notifications are
+ * debounced, and only rows which were added, removed or changed are applied
+ * to the namespace, with the same client notifications as a SONAR edit.
+ * Changes are applied by a task on the SONAR task processor thread.
+ *
+ * @author Douglas Lau
+ */
+public class ConfigReloader {
+
+	/** Reload debug log */
+	static private final DebugLog RELOAD_LOG = new DebugLog("reload");
+
+	/** Time to wait for more notifications before reloading (ms) */
+	static private final int DEBOUNCE_MS = 2000;
+
+	/** Reload scheduler */
+	static private final Scheduler RELOAD = new Scheduler("reload");
+
+	/** Factory to create an object from a database row */
+	public interface RowFactory {
+		BaseObjectImpl create(ResultSet row) throws Exception;
+	}
+
+	/** A reloadable table */
+	private class Table {
+		private final String type;
+		private final String sql;
+		private final RowFactory factory;
+		private boolean pending = false;
+		private Table(String t, String q, RowFactory f) {
+			type = t;
+			sql = q;
+			factory = f;
+		}
+
+		/** Query all objects in the table */
+		private HashMap<String, BaseObjectImpl> query()
+			throws TMSException
+		{
+			final HashMap<String, BaseObjectImpl> objs =
+				new HashMap<String, BaseObjectImpl>();
+			store.query(sql, new ResultFactory() {
+				public void create(ResultSet row)
+					throws Exception
+				{
+					BaseObjectImpl o = factory.create(row);
+					objs.put(o.getName(), o);
+				}
+			});
+			return objs;
+		}
+	}
+
+	/** SQL connection to database */
+	private final SQLConnection store;
+
+	/** SONAR namespace */
+	private final ServerNamespace namespace;
+
+	/** Reloadable tables, mapped by notification channel */
+	private final HashMap<String, Table> tables =
+		new HashMap<String, Table>();
+
+	/** Handler for table notifications */
+	private final DbNotifier.Handler handler = new DbNotifier.Handler() {
+		public void handle(String channel, String payload) {
+			scheduleReload(channel);
+		}
+	};
+
+	/** Create a new config reloader */
+	public ConfigReloader(SQLConnection s, ServerNamespace ns) {
+		store = s;
+		namespace = ns;
+	}
+
+	/** Load all objects of a type, and reload on table notifications.
+	 * The type must already be registered in the namespace.
+	 * @param type SONAR type name (also notification channel).
+	 * @param sql Query to select all rows.
+	 * @param f Factory to create an object from a row. */
+	public void loadAll(String type, String sql, final RowFactory f)
+		throws TMSException
+	{
+		store.query(sql, new ResultFactory() {
+			public void create(ResultSet row) throws Exception {
+				namespace.addObject(f.create(row));
+			}
+		});
+		synchronized (tables) {
+			tables.put(type, new Table(type, sql, f));
+		}
+	}
+
+	/** Listen for table notifications */
+	public void listen(DbNotifier n) {
+		synchronized (tables) {
+			for (String c: tables.keySet())
+				n.listen(c, handler);
+		}
+	}
+
+	/** Schedule a reload of one table */
+	private void scheduleReload(String channel) {
+		final Table t;
+		synchronized (tables) {
+			t = tables.get(channel);
+			if (null == t || t.pending)
+				return;
+			t.pending = true;
+		}
+		RELOAD.addJob(new Job(DEBOUNCE_MS) {
+			public void perform() throws TMSException {
+				synchronized (tables) {
+					t.pending = false;
+				}
+				reload(t);
+			}
+		});
+	}
+
+	/** Reload one table.  The query runs on the reload thread, but the
+	 * changes are applied on the SONAR task processor thread, since
+	 * object setters are confined to that thread. */
+	private void reload(final Table t) throws TMSException {
+		final HashMap<String, BaseObjectImpl> objs = t.query();
+		Runnable r = new Runnable() {
+			public void run() {
+				apply(t, objs);
+			}
+		};
+		Server s = MainServer.server;
+		if (s != null)
+			s.addTask("Reload " + t.type, r);
+		else
+			r.run();
+	}
+
+	/** Apply reloaded objects to the namespace */
+	private void apply(Table t, HashMap<String, BaseObjectImpl> objs) {
+		int n_changed = 0;
+		int n_removed = 0;
+		ArrayList<SonarObject> removed = new ArrayList<SonarObject>();
+		Iterator<SonarObject> it = namespace.iterator(t.type);
+		while (it.hasNext()) {
+			SonarObject o = it.next();
+			BaseObjectImpl src = objs.remove(o.getName());
+			if (null == src)
+				removed.add(o);
+			else if (update(o, src))
+				n_changed++;
+		}
+		for (SonarObject o: removed) {
+			if (remove(o))
+				n_removed++;
+		}
+		for (BaseObjectImpl o: objs.values())
+			add(o);
+		if (RELOAD_LOG.isOpen()) {
+			RELOAD_LOG.log(t.type + ": " + objs.size() +
+				" added, " + n_changed + " changed, " +
+				n_removed + " removed");
+		}
+	}
+
+	/** Update an object from a reloaded copy */
+	private boolean update(SonarObject o, SonarObject src) {
+		try {
+			List<String> attrs = namespace.updateObject(o, src);
+			Server s = MainServer.server;
+			if (s != null) {
+				for (String a: attrs)
+					s.setAttribute(o, a);
+			}
+			return !attrs.isEmpty();
+		}
+		catch (SonarException e) {
+			RELOAD_LOG.log("update " + o.getName() + " -> " + e);
+			return false;
+		}
+	}
+
+	/** Add a new object */
+	private void add(SonarObject o) {
+		Server s = MainServer.server;
+		if (s != null)
+			s.addObject(o);
+		else {
+			try {
+				namespace.addObject(o);
+			}
+			catch (SonarException e) {
+				RELOAD_LOG.log("add " + o.getName() +
+					" -> " + e);
+			}
+		}
+	}
+
+	/** Remove an object which was deleted from the database */
+	private boolean remove(SonarObject o) {
+		Server s = MainServer.server;
+		if (s != null) {
+			s.removeObject(o);
+			return true;
+		} else
+			return false;
+	}
+}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2022  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2011  Berkeley Transportation Systems Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -433,12 +433,36 @@ public class ControllerImpl extends BaseObjectImpl implements Controller {
 		return io_pins.get(pin);
 	}
 
+	/** Detectors indexed by I/O pin.  This is replaced (never modified)
+	 * whenever an I/O pin is assigned, so that samples can be stored
+	 * without locking or creating a map on every poll. */
+	private transient volatile DetectorImpl[] det_pins =
+		new DetectorImpl[0];
+
 	/** Assign an IO to the specified controller I/O pin */
 	public synchronized void setIO(int pin, ControllerIO io) {
 		if (io != null)
 			io_pins.put(pin, io);
 		else
 			io_pins.remove(pin);
+		det_pins = createDetectorPins();
+	}
+
+	/** Create an array of detectors indexed by pin */
+	private DetectorImpl[] createDetectorPins() {
+		int last = -1;
+		for (Map.Entry<Integer, ControllerIO> e: io_pins.entrySet()) {
+			if (e.getValue() instanceof DetectorImpl)
+				last = Math.max(last, e.getKey());
+		}
+		DetectorImpl[] dets = new DetectorImpl[last + 1];
+		for (Map.Entry<Integer, ControllerIO> e: io_pins.entrySet()) {
+			ControllerIO io = e.getValue();
+			int pin = e.getKey();
+			if (io instanceof DetectorImpl && pin >= 0)
+				dets[pin] = (DetectorImpl) io;
+		}
+		return dets;
 	}
 
 	/** Determine whether this controller has an active ramp meter */
@@ -463,18 +487,6 @@ public class ControllerImpl extends BaseObjectImpl implements Controller {
 		return null;
 	}
 
-	/** Get a map of pins to detectors */
-	private synchronized HashMap<Integer, DetectorImpl> getDetectors() {
-		HashMap<Integer, DetectorImpl> dets =
-			new HashMap<Integer, DetectorImpl>();
-		for (Integer pin: io_pins.keySet()) {
-			ControllerIO io = io_pins.get(pin);
-			if (io instanceof DetectorImpl)
-				dets.put(pin, (DetectorImpl) io);
-		}
-		return dets;
-	}
-
 	/** Get a detector by its I/O pin number */
 	public DetectorImpl getDetectorAtPin(int pin) {
 		ControllerIO io = getIO(pin);
@@ -485,25 +497,19 @@ public class ControllerImpl extends BaseObjectImpl implements Controller {
 	}
 
 	/** Get first detector pin */
-	public synchronized int getDetectorPinFirst() {
-		int p = Integer.MAX_VALUE;
-		for (Integer pin: io_pins.keySet()) {
-			ControllerIO io = io_pins.get(pin);
-			if (io instanceof DetectorImpl)
-				p = Integer.min(p, pin);
+	public int getDetectorPinFirst() {
+		DetectorImpl[] dets = det_pins;
+		for (int pin = 0; pin < dets.length; pin++) {
+			if (dets[pin] != null)
+				return pin;
 		}
-		return (p < Integer.MAX_VALUE) ? p : -1;
+		return -1;
 	}
 
 	/** Get last detector pin */
-	public synchronized int getDetectorPinLast() {
-		int p = Integer.MIN_VALUE;
-		for (Integer pin: io_pins.keySet()) {
-			ControllerIO io = io_pins.get(pin);
-			if (io instanceof DetectorImpl)
-				p = Integer.max(p, pin);
-		}
-		return (p > Integer.MIN_VALUE) ? p : -1;
+	public int getDetectorPinLast() {
+		// Array is sized to the last detector pin
+		return det_pins.length - 1;
 	}
 
 	/** Check whether this controller has any active detectors */
@@ -578,15 +584,13 @@ public class ControllerImpl extends BaseObjectImpl implements Controller {
 	public void storeVehCount(long stamp, int per_sec, int start_pin,
 		int[] veh_count, VehLengthClass vc)
 	{
-		HashMap<Integer, DetectorImpl> dets = getDetectors();
-		for (Integer pin: dets.keySet()) {
-			DetectorImpl det = dets.get(pin);
-			int i = pin - start_pin;
-			int v = sampleValue(veh_count, i);
-			PeriodicSample ps = (v >= 0)
-				? new PeriodicSample(stamp, per_sec, v)
-				: null;
-			det.storeVehCount(ps, vc);
+		DetectorImpl[] dets = det_pins;
+		for (int pin = 0; pin < dets.length; pin++) {
+			DetectorImpl det = dets[pin];
+			if (det != null) {
+				int v = sampleValue(veh_count, pin - start_pin);
+				det.storeVehCount(stamp, per_sec, v, vc);
+			}
 		}
 	}
 
@@ -599,15 +603,14 @@ public class ControllerImpl extends BaseObjectImpl implements Controller {
 	public void storeOccupancy(long stamp, int per_sec, int start_pin,
 		int[] scans, int max_scans)
 	{
-		HashMap<Integer, DetectorImpl> dets = getDetectors();
-		for (Integer pin: dets.keySet()) {
-			DetectorImpl det = dets.get(pin);
-			int i = pin - start_pin;
-			int v = sampleValue(scans, i);
-			OccupancySample occ = (v >= 0)
-			    ? new OccupancySample(stamp, per_sec, v, max_scans)
-			    : null;
-			det.storeOccupancy(occ, false);
+		DetectorImpl[] dets = det_pins;
+		for (int pin = 0; pin < dets.length; pin++) {
+			DetectorImpl det = dets[pin];
+			if (det != null) {
+				int v = sampleValue(scans, pin - start_pin);
+				det.storeOccupancy(stamp, per_sec, v,
+					max_scans);
+			}
 		}
 	}
 
@@ -619,15 +622,13 @@ public class ControllerImpl extends BaseObjectImpl implements Controller {
 	public void storeSpeed(long stamp, int per_sec, int start_pin,
 		int[] speed)
 	{
-		HashMap<Integer, DetectorImpl> dets = getDetectors();
-		for (Integer pin: dets.keySet()) {
-			DetectorImpl det = dets.get(pin);
-			int i = pin - start_pin;
-			int s = sampleValue(speed, i);
-			PeriodicSample ps = (s > 0)
-				? new PeriodicSample(stamp, per_sec, s)
-				: null;
-			det.storeSpeed(ps, false);
+		DetectorImpl[] dets = det_pins;
+		for (int pin = 0; pin < dets.length; pin++) {
+			DetectorImpl det = dets[pin];
+			if (det != null) {
+				int s = sampleValue(speed, pin - start_pin);
+				det.storeSpeed(stamp, per_sec, s);
+			}
 		}
 	}
 
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2023  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2008-2009  AHMCT, University of California
  * Copyright (C) 2012-2021  Iteris Inc.
  * Copyright (C) 2016-2020  SRF Consulting Group
@@ -234,9 +234,9 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 		setPreset(lookupPreset(cp));
 		sign_config = SignConfigHelper.lookup(sc);
 		sign_detail = SignDetailHelper.lookup(sd);
-		msg_user = SignMessageHelper.lookup(mu);
-		msg_sched = SignMessageHelper.lookup(ms);
-		msg_current = SignMessageHelper.lookup(mc);
+		msg_user = replaceRef(null, SignMessageHelper.lookup(mu));
+		msg_sched = replaceRef(null, SignMessageHelper.lookup(ms));
+		msg_current = replaceRef(null, SignMessageHelper.lookup(mc));
 		expire_time = stampMillis(et);
 		status = st;
 		stuck_pixels = sp;
@@ -258,6 +258,29 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 		super.doDestroy();
 		setPreset(null);
 		geo_loc.notifyRemove();
+		synchronized (msg_lock) {
+			msg_user = replaceRef(msg_user, null);
+			msg_sched = replaceRef(msg_sched, null);
+			msg_current = replaceRef(msg_current, null);
+			msg_next = replaceRef(msg_next, null);
+		}
+	}
+
+	/** Lock for sign message references */
+	private final transient Object msg_lock = new Object();
+
+	/** Replace a sign message reference.  The new message is acquired
+	 * before the old one is released, so the reaper can skip a scan of
+	 * all signs.
+	 * @param old Old sign message.
+	 * @param sm New sign message.
+	 * @return New sign message. */
+	static private SignMessage replaceRef(SignMessage old, SignMessage sm) {
+		if (old != sm) {
+			SignMessageImpl.acquire(sm);
+			SignMessageImpl.release(old);
+		}
+		return sm;
 	}
 
 	/** Set the controller to which this DMS is assigned */
@@ -404,6 +427,12 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 		return hashtags;
 	}
 
+	/** Get hashtags for permission checks */
+	@Override
+	protected String[] getPermHashtags() {
+		return hashtags;
+	}
+
 	/** Remote beacon */
 	private Beacon beacon;
 
@@ -609,7 +638,9 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 	/** Set the user selected sign message */
 	@Override
 	public void setMsgUser(SignMessage sm) {
-		msg_user = sm;
+		synchronized (msg_lock) {
+			msg_user = replaceRef(msg_user, sm);
+		}
 	}
 
 	/** Set the user selected sign message */
@@ -707,7 +738,9 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 		if (!objectEquals(msg_sched, sm)) {
 			try {
 				store.update(this, "msg_sched", sm);
-				msg_sched = sm;
+				synchronized (msg_lock) {
+					msg_sched = replaceRef(msg_sched, sm);
+				}
 				notifyAttribute("msgSched");
 				return true;
 			}
@@ -761,7 +794,9 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 	private void setMsgCurrent(SignMessage sm) {
 		try {
 			store.update(this, "msg_current", sm);
-			msg_current = sm;
+			synchronized (msg_lock) {
+				msg_current = replaceRef(msg_current, sm);
+			}
 		}
 		catch (TMSException e) {
 			logError("msg_current: " + e.getMessage());
@@ -825,7 +860,9 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 	 * a sign.
 	 * @see us.mn.state.dot.tms.server.DeviceImpl#acquire */
 	public void setMsgNext(SignMessage sm) {
-		msg_next = sm;
+		synchronized (msg_lock) {
+			msg_next = replaceRef(msg_next, sm);
+		}
 	}
 
 	/** Get validated user/scheduled sign message.
@@ -881,7 +918,7 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 			return null;
 		RasterBuilder rb = DMSHelper.createRasterBuilder(this);
 		String ms = rb.combineMulti(sched.getMulti(), user.getMulti());
-		if (rb.isRasterizable(ms)) {
+		if (RasterCache.isRasterizable(sign_config, ms)) {
 			SignMessage sm = createMsgCombined(sched, user, ms);
 			if (sm != null) {
 				// Check whether combined message can be
@@ -959,14 +996,6 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 		p.sendMessage(this, sm);
 	}
 
-	/** Check if the sign has a reference to a sign message */
-	public boolean hasReference(final SignMessage sm) {
-		return sm == msg_user ||
-		       sm == msg_sched ||
-		       sm == msg_current ||
-		       sm == msg_next;
-	}
-
 	/** Current message expiration time */
 	private Long expire_time;
 
@@ -1006,7 +1035,7 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 	public void setStatusNotify(String st) {
 		if (!objectEquals(st, status)) {
 			try {
-				store.update(this, "status", st);
+				store.updateStatus(this, "status", st);
 				status = st;
 				notifyAttribute("status");
 			}
@@ -1046,7 +1075,7 @@ public class DMSImpl extends DeviceImpl implements DMS, Comparable<DMSImpl> {
 	public void setStuckPixelsNotify(String sp) {
 		if (!objectEquals(sp, stuck_pixels)) {
 			try {
-				store.update(this, "stuck_pixels", sp);
+				store.updateStatus(this, "stuck_pixels", sp);
 				stuck_pixels = sp;
 				notifyAttribute("stuckPixels");
 			}
@@ -0,0 +1,239 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.regex.Pattern;
+import us.mn.state.dot.sched.DebugLog;
+import us.mn.state.dot.sched.TimeSteward;
+
+/**
+ * Database notifier.  This listens for PostgreSQL notifications (NOTIFY) on a
+ * dedicated connection, and dispatches them to registered handlers.
+ *
+ * The PostgreSQL driver is accessed using runtime reflection, so that the
+ * postgres jar is not required at build time.
+ *
+ * @author Douglas Lau
+ */
+public class DbNotifier {
+
+	/** Notify debug log */
+	static private final DebugLog NOTIFY_LOG = new DebugLog("db_notify");
+
+	/** Timeout waiting for notifications (ms) */
+	static private final int POLL_TIMEOUT_MS = 500;
+
+	/** Time to wait before reconnecting after an error (ms) */
+	static private final long RETRY_MS = 10 * 1000;
+
+	/** Pattern for valid channel names */
+	static private final Pattern CHANNEL = Pattern.compile("[a-z_0-9]+");
+
+	/** Handler for notifications */
+	public interface Handler {
+
+		/** Handle a notification.
+		 * @param channel Channel name.
+		 * @param payload Notification payload, or null after the
+		 *                connection is (re-)established, meaning
+		 *                notifications may have been missed. */
+		void handle(String channel, String payload);
+	}
+
+	/** SQL connection to database */
+	private final SQLConnection store;
+
+	/** Handlers mapped by channel name */
+	private final HashMap<String, ArrayList<Handler>> handlers =
+		new HashMap<String, ArrayList<Handler>>();
+
+	/** Channels being listened to on current connection */
+	private final HashSet<String> channels = new HashSet<String>();
+
+	/** Thread for receiving notifications */
+	private final Thread thread;
+
+	/** Dedicated listen connection */
+	private Connection conn;
+
+	/** Method to get notifications (PGConnection.getNotifications) */
+	private Method get_notifications;
+
+	/** Method to get notification name (PGNotification.getName) */
+	private Method get_name;
+
+	/** Method to get notification payload (PGNotification.getParameter)*/
+	private Method get_param;
+
+	/** Flag indicating notifications are being received */
+	private volatile boolean listening = false;
+
+	/** Create a new database notifier */
+	public DbNotifier(SQLConnection s) {
+		store = s;
+		thread = new Thread("db_notify") {
+			@Override public void run() {
+				receiveNotifications();
+			}
+		};
+		thread.setDaemon(true);
+	}
+
+	/** Start receiving notifications */
+	public void start() {
+		thread.start();
+	}
+
+	/** Check if notifications are being received.  When not, any
+	 * cached state may be stale. */
+	public boolean isListening() {
+		return listening;
+	}
+
+	/** Listen for notifications on a channel.
+	 * @param channel Channel name.
+	 * @param h Notification handler. */
+	public void listen(String channel, Handler h) {
+		if (!CHANNEL.matcher(channel).matches())
+			throw new IllegalArgumentException("Bad channel: " +
+				channel);
+		synchronized (handlers) {
+			ArrayList<Handler> hs = handlers.get(channel);
+			if (null == hs) {
+				hs = new ArrayList<Handler>();
+				handlers.put(channel, hs);
+			}
+			if (!hs.contains(h))
+				hs.add(h);
+		}
+	}
+
+	/** Get a snapshot of handlers for a channel */
+	private ArrayList<Handler> getHandlers(String channel) {
+		synchronized (handlers) {
+			ArrayList<Handler> hs = handlers.get(channel);
+			return (hs != null)
+			      ? new ArrayList<Handler>(hs)
+			      : new ArrayList<Handler>();
+		}
+	}
+
+	/** Get a snapshot of all channel names */
+	private ArrayList<String> getChannels() {
+		synchronized (handlers) {
+			return new ArrayList<String>(handlers.keySet());
+		}
+	}
+
+	/** Receive notifications (on notify thread) */
+	private void receiveNotifications() {
+		while (true) {
+			try {
+				if (null == conn)
+					connect();
+				listenChannels();
+				pollNotifications();
+			}
+			catch (Exception e) {
+				NOTIFY_LOG.log("receive -> " + e);
+				disconnect();
+				TimeSteward.sleep_well(RETRY_MS);
+			}
+		}
+	}
+
+	/** Connect to the database */
+	private void connect() throws Exception {
+		conn = store.createConnection();
+		Class<?> pgc = Class.forName("org.postgresql.PGConnection");
+		Class<?> pgn = Class.forName("org.postgresql.PGNotification");
+		get_notifications = pgc.getMethod("getNotifications",
+			int.class);
+		get_name = pgn.getMethod("getName");
+		get_param = pgn.getMethod("getParameter");
+		channels.clear();
+	}
+
+	/** Disconnect from the database */
+	private void disconnect() {
+		listening = false;
+		if (conn != null) {
+			try {
+				conn.close();
+			}
+			catch (SQLException e) {
+				NOTIFY_LOG.log("close -> " + e);
+			}
+			conn = null;
+		}
+	}
+
+	/** Issue LISTEN for any new channels */
+	private void listenChannels() throws SQLException {
+		ArrayList<String> added = new ArrayList<String>();
+		for (String c: getChannels()) {
+			if (!channels.contains(c))
+				added.add(c);
+		}
+		if (added.isEmpty())
+			return;
+		Statement s = conn.createStatement();
+		try {
+			for (String c: added) {
+				s.execute("LISTEN " + c + ";");
+				channels.add(c);
+			}
+		}
+		finally {
+			s.close();
+		}
+		listening = true;
+		// Changes could have been missed before LISTEN
+		for (String c: added) {
+			for (Handler h: getHandlers(c))
+				h.handle(c, null);
+		}
+	}
+
+	/** Poll for notifications and dispatch to handlers */
+	private void pollNotifications() throws Exception {
+		Object pc = conn.unwrap(get_notifications.getDeclaringClass());
+		Object ns = get_notifications.invoke(pc, POLL_TIMEOUT_MS);
+		int len = (ns != null) ? Array.getLength(ns) : 0;
+		for (int i = 0; i < len; i++) {
+			Object n = Array.get(ns, i);
+			String c = (String) get_name.invoke(n);
+			String p = (String) get_param.invoke(n);
+			if (NOTIFY_LOG.isOpen())
+				NOTIFY_LOG.log(c + ": " + p);
+			for (Handler h: getHandlers(c)) {
+				try {
+					h.handle(c, p);
+				}
+				catch (RuntimeException e) {
+					NOTIFY_LOG.log(c + " -> " + e);
+				}
+			}
+		}
+	}
+}
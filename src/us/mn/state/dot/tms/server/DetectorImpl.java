@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2022  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2011-2017  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -46,6 +46,7 @@ import static us.mn.state.dot.tms.units.Interval.Units.MILLISECONDS;
 import static us.mn.state.dot.tms.units.Interval.Units.SECONDS;
 import static us.mn.state.dot.tms.server.Constants.MISSING_DATA;
 import static us.mn.state.dot.tms.server.XmlWriter.createAttribute;
+import static us.mn.state.dot.tms.server.XmlWriter.writeAttribute;
 import us.mn.state.dot.tms.units.Distance;
 import static us.mn.state.dot.tms.units.Distance.Units.FEET;
 import static us.mn.state.dot.tms.units.Distance.Units.MILES;
@@ -901,6 +902,22 @@ public class DetectorImpl extends DeviceImpl implements Detector,VehicleSampler{
 		logEvent(new DetAutoFailEvent(event_type, getName()));
 	}
 
+	/** Get the count cache for a vehicle class */
+	private PeriodicSampleCache getCountCache(VehLengthClass vc) {
+		switch (vc) {
+		case MOTORCYCLE:
+			return mc_count_cache;
+		case SHORT:
+			return s_count_cache;
+		case MEDIUM:
+			return m_count_cache;
+		case LONG:
+			return l_count_cache;
+		default:
+			return null;
+		}
+	}
+
 	/** Store vehicle count for one binning interval.
 	 * @param v PeriodicSample containing vehicle count data.
 	 * @param vc Vehicle class. */
@@ -908,20 +925,30 @@ public class DetectorImpl extends DeviceImpl implements Detector,VehicleSampler{
 		if (vc == null)
 			storeVehCount(v, false);
 		else if (v != null) {
-			switch (vc) {
-			case MOTORCYCLE:
-				mc_count_cache.add(v, name);
-				break;
-			case SHORT:
-				s_count_cache.add(v, name);
-				break;
-			case MEDIUM:
-				m_count_cache.add(v, name);
-				break;
-			case LONG:
-				l_count_cache.add(v, name);
-				break;
+			PeriodicSampleCache cache = getCountCache(vc);
+			if (cache != null)
+				cache.add(v, name);
+		}
+	}
+
+	/** Store vehicle count for one binning interval.
+	 * @param stamp Time stamp after end of sample period.
+	 * @param per_sec Sample period in seconds.
+	 * @param v Vehicle count (negative for missing).
+	 * @param vc Vehicle class (null for all vehicles). */
+	public void storeVehCount(long stamp, int per_sec, int v,
+		VehLengthClass vc)
+	{
+		if (vc == null) {
+			is_logging_events = false;
+			if (v >= 0) {
+				testVehCount(per_sec, v);
+				veh_cache.add(stamp, per_sec, v, name);
 			}
+		} else if (v >= 0) {
+			PeriodicSampleCache cache = getCountCache(vc);
+			if (cache != null)
+				cache.add(stamp, per_sec, v, name);
 		}
 	}
 
@@ -930,20 +957,21 @@ public class DetectorImpl extends DeviceImpl implements Detector,VehicleSampler{
 	public void storeVehCount(PeriodicSample v, boolean logging) {
 		is_logging_events = logging;
 		if (v != null) {
-			if (LaneCode.fromCode(lane_code) != LaneCode.GREEN &&
-			    v.per_sec == BIN_PERIOD_SEC)
-				testVehCount(v);
+			testVehCount(v.per_sec, v.value);
 			veh_cache.add(v, name);
 		}
 	}
 
 	/** Test vehicle count with error detecting algorithms */
-	private void testVehCount(PeriodicSample vs) {
-		chatter.updateState(vs.per_sec, vs.value > MAX_VEH_COUNT_30);
-		if (chatter.checkLogging(vs.per_sec))
+	private void testVehCount(int per_sec, int v) {
+		if (LaneCode.fromCode(lane_code) == LaneCode.GREEN ||
+		    per_sec != BIN_PERIOD_SEC)
+			return;
+		chatter.updateState(per_sec, v > MAX_VEH_COUNT_30);
+		if (chatter.checkLogging(per_sec))
 			logEvent(EventType.DET_CHATTER);
-		no_hits.updateState(vs.per_sec, vs.value == 0);
-		if (no_hits.checkLogging(vs.per_sec))
+		no_hits.updateState(per_sec, v == 0);
+		if (no_hits.checkLogging(per_sec))
 			logEvent(EventType.DET_NO_HITS);
 		updateAutoFail();
 	}
@@ -964,43 +992,64 @@ public class DetectorImpl extends DeviceImpl implements Detector,VehicleSampler{
 	 * @param occ Occupancy data. */
 	public void storeOccupancy(OccupancySample occ, boolean logging) {
 		is_logging_events = logging;
-		if (occ != null) {
-			int n_scans = occ.as60HzScans();
-			if (occ.per_sec == BIN_PERIOD_SEC) {
-				testScans(occ);
-				prev_value = occ.value;
-			}
-			scn_cache.add(new PeriodicSample(occ.stamp, occ.per_sec,
-				n_scans), name);
+		if (occ != null)
+			storeOccupancy(occ.stamp, occ.per_sec, occ.value);
+		else
+			prev_value = MISSING_DATA;
+	}
+
+	/** Store occupancy for one binning interval.
+	 * @param stamp Time stamp after end of sample period.
+	 * @param per_sec Sample period in seconds.
+	 * @param n_scans Scan count (negative for missing).
+	 * @param max_scans Maximum scan value (representing 100%). */
+	public void storeOccupancy(long stamp, int per_sec, int n_scans,
+		int max_scans)
+	{
+		is_logging_events = false;
+		if (n_scans >= 0) {
+			storeOccupancy(stamp, per_sec, OccupancySample
+				.calculateOccupancy(n_scans, max_scans));
 		} else
 			prev_value = MISSING_DATA;
 	}
 
+	/** Store occupancy for one binning interval.
+	 * @param occ Occupancy (0 - 10000). */
+	private void storeOccupancy(long stamp, int per_sec, int occ) {
+		if (per_sec == BIN_PERIOD_SEC) {
+			testScans(per_sec, occ);
+			prev_value = occ;
+		}
+		scn_cache.add(stamp, per_sec,
+			OccupancySample.as60HzScans(occ, per_sec), name);
+	}
+
 	/** Test binned occupancy with error detecting algorithms */
-	private void testScans(OccupancySample occ) {
-		boolean lock = occ.value >= OccupancySample.MAX;
+	private void testScans(int per_sec, int occ) {
+		boolean lock = occ >= OccupancySample.MAX;
 		// Locked-on counter should be cleared only with good
 		// non-zero data.  This helps when the duration of
 		// occupancy spikes is shorter than the threshold time
 		// and interspersed with zeroes.
-		boolean hold = locked_on.failed && (occ.value == 0);
-		locked_on.updateState(occ.per_sec, lock || hold);
-		if (locked_on.checkLogging(occ.per_sec))
+		boolean hold = locked_on.failed && (occ == 0);
+		locked_on.updateState(per_sec, lock || hold);
+		if (locked_on.checkLogging(per_sec))
 			logEvent(EventType.DET_LOCKED_ON);
-		boolean v = (occ.value > 0) && (occ.value == prev_value);
-		no_change.updateState(occ.per_sec, v);
-		if (no_change.checkLogging(occ.per_sec))
+		boolean v = (occ > 0) && (occ == prev_value);
+		no_change.updateState(per_sec, v);
+		if (no_change.checkLogging(per_sec))
 			logEvent(EventType.DET_NO_CHANGE);
-		if (occ.value >= 0 && prev_value >= 0) {
-			int spk = Math.abs(occ.value - prev_value) / OCC_SPIKE;
-			spike_hold_sec += occ.per_sec * spk;
+		if (occ >= 0 && prev_value >= 0) {
+			int spk = Math.abs(occ - prev_value) / OCC_SPIKE;
+			spike_hold_sec += per_sec * spk;
 		}
 		int threshold = getOccSpikeSecs();
 		boolean sf = (threshold > 0) && (spike_hold_sec > threshold);
-		occ_spike.updateState(occ.per_sec, sf);
-		if (occ_spike.checkLogging(occ.per_sec))
+		occ_spike.updateState(per_sec, sf);
+		if (occ_spike.checkLogging(per_sec))
 			logEvent(EventType.DET_OCC_SPIKE);
-		spike_hold_sec = Math.max(0, spike_hold_sec - occ.per_sec);
+		spike_hold_sec = Math.max(0, spike_hold_sec - per_sec);
 		updateAutoFail();
 	}
 
@@ -1012,6 +1061,16 @@ public class DetectorImpl extends DeviceImpl implements Detector,VehicleSampler{
 			spd_cache.add(speed, name);
 	}
 
+	/** Store speed for one binning interval.
+	 * @param stamp Time stamp after end of sample period.
+	 * @param per_sec Sample period in seconds.
+	 * @param speed Speed (MPH; zero or negative for missing). */
+	public void storeSpeed(long stamp, int per_sec, int speed) {
+		is_logging_events = false;
+		if (speed > 0)
+			spd_cache.add(stamp, per_sec, speed, name);
+	}
+
 	/** Flush buffered data to disk */
 	public void flush(PeriodicSampleWriter writer) {
 		// Only flush periodic binned data if not logging events
@@ -1101,24 +1160,63 @@ public class DetectorImpl extends DeviceImpl implements Detector,VehicleSampler{
 		w.write("/>\n");
 	}
 
-	/** Print binned data as an XML element */
-	public void writeSampleXml(Writer w, long stamp, int per_ms)
-		throws IOException
-	{
+	/** Binned sample values for one period, as written to a sample XML
+	 * element.  Values which are not written are MISSING_DATA. */
+	static public final class SampleValues {
+		private final String sensor;
+		private final int flow;
+		private final int speed;
+		private final float occ;
+		private SampleValues(String n, int f, int s, float o) {
+			sensor = n;
+			flow = f;
+			speed = s;
+			occ = o;
+		}
+
+		/** Get a hash of the values (not including the sensor) */
+		public long hash() {
+			long h = flow;
+			h = h * 31 + speed;
+			h = h * 31 + Float.floatToIntBits(occ);
+			return h;
+		}
+
+		/** Write the values as an XML element */
+		public void write(Writer w) throws IOException {
+			w.write("\t<sample");
+			writeAttribute(w, "sensor", sensor);
+			if (flow != MISSING_DATA)
+				writeAttribute(w, "flow", flow);
+			if (speed != MISSING_DATA)
+				writeAttribute(w, "speed", speed);
+			if (occ != MISSING_DATA)
+				writeAttribute(w, "occ", formatFloat(occ, 2));
+			w.write("/>\n");
+		}
+	}
+
+	/** Get the binned sample values for a period.
+	 * @return Sample values, or null if not sampling. */
+	public SampleValues getSampleValues(long stamp, int per_ms) {
 		if (abandoned || !isSampling())
-			return;
+			return null;
 		int flow = getFlowRaw(stamp, per_ms);
 		int speed = Math.round(getSpeed(stamp, per_ms));
 		float occ = getOccupancy(stamp, per_ms);
-		w.write("\t<sample");
-		w.write(createAttribute("sensor", name));
-		if (flow != MISSING_DATA)
-			w.write(createAttribute("flow", flow));
-		if (isMainline() && speed > 0)
-			w.write(createAttribute("speed", speed));
-		if (occ >= 0)
-			w.write(createAttribute("occ", formatFloat(occ, 2)));
-		w.write("/>\n");
+		return new SampleValues(name,
+			(flow != MISSING_DATA) ? flow : MISSING_DATA,
+			(isMainline() && speed > 0) ? speed : MISSING_DATA,
+			(occ >= 0) ? occ : MISSING_DATA);
+	}
+
+	/** Print binned data as an XML element */
+	public void writeSampleXml(Writer w, long stamp, int per_ms)
+		throws IOException
+	{
+		SampleValues sv = getSampleValues(stamp, per_ms);
+		if (sv != null)
+			sv.write(w);
 	}
 
 	/** Send a device request operation */
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2009-2023  Minnesota Department of Transportation
+ * Copyright (C) 2009-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -53,6 +53,7 @@ public class DmsActionJob extends Job {
 	/** Perform DMS actions */
 	@Override
 	public void perform() {
+		RasterCache.Stats stats = RasterCache.snapshot();
 		Iterator<DmsAction> it = DmsActionHelper.iterator();
 		while (it.hasNext()) {
 			DmsAction da = it.next();
@@ -63,6 +64,10 @@ public class DmsActionJob extends Job {
 			}
 		}
 		updateDmsMessages();
+		if (logger.isOpen()) {
+			RasterCache.Stats s = RasterCache.snapshot();
+			logger.log(s.since(stats).toString());
+		}
 	}
 
 	/** Perform a DMS action */
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2013-2023  Minnesota Department of Transportation
+ * Copyright (C) 2013-2026  Minnesota Department of Transportation
  * Copyright (C) 2021-2022  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -31,7 +31,6 @@ import us.mn.state.dot.tms.Detector;
 import us.mn.state.dot.tms.DetectorHelper;
 import us.mn.state.dot.tms.DmsAction;
 import us.mn.state.dot.tms.DMS;
-import us.mn.state.dot.tms.DMSHelper;
 import us.mn.state.dot.tms.EventType;
 import us.mn.state.dot.tms.GeoLoc;
 import us.mn.state.dot.tms.MsgPattern;
@@ -203,7 +202,8 @@ public class DmsActionMsg {
 
 	/** Check if the message is rasterizable */
 	public boolean isRasterizable() {
-		return isValid() && DMSHelper.isRasterizable(dms, multi);
+		return isValid() &&
+		       RasterCache.isRasterizable(dms.getSignConfig(), multi);
 	}
 
 	/** Get the MULTI string */
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2020  Minnesota Department of Transportation
+ * Copyright (C) 2020-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -317,7 +317,7 @@ public class FlowStreamImpl extends ControllerIoImpl implements FlowStream {
 	/** Set the status ordinal */
 	public void setStatusNotify(int s) throws TMSException {
 		if (s != status) {
-			store.update(this, "status", s);
+			store.updateStatus(this, "status", s);
 			status = s;
 			notifyAttribute("status");
 		}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2009-2021  Minnesota Department of Transportation
+ * Copyright (C) 2009-2026  Minnesota Department of Transportation
  * Copyright (C) 2017  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -17,7 +17,9 @@ package us.mn.state.dot.tms.server;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import us.mn.state.dot.sched.Job;
 import us.mn.state.dot.tms.Detector;
@@ -34,12 +36,29 @@ public class FlushXmlJob extends Job {
 	/** Detector data file */
 	static private final String SAMPLE_XML = "det_sample.xml";
 
+	/** Detector delta file (samples changed since previous period) */
+	static private final String DELTA_XML = "det_sample_delta.xml";
+
 	/** Station manager */
 	private final StationManager station_manager;
 
 	/** Vehicle manager */
 	private final VehicleManager vehicle_manager;
 
+	/** Sample value hashes from the previous period, mapped by sensor */
+	private HashMap<String, Long> prev_hashes = new HashMap<String, Long>();
+
+	/** Sample values for the current period */
+	private final ArrayList<DetectorImpl.SampleValues> samples =
+		new ArrayList<DetectorImpl.SampleValues>();
+
+	/** Sample values changed since the previous period */
+	private final ArrayList<DetectorImpl.SampleValues> changed =
+		new ArrayList<DetectorImpl.SampleValues>();
+
+	/** Sensors with samples which are no longer known */
+	private final ArrayList<String> unknown = new ArrayList<String>();
+
 	/** Create a new flush XML samples job */
 	public FlushXmlJob(StationManager sm, VehicleManager vm) {
 		station_manager = sm;
@@ -57,18 +76,80 @@ public class FlushXmlJob extends Job {
 
 	/** Write the detector data out as XML */
 	private void writeSampleXml() throws IOException {
-		XmlWriter w = new XmlWriter(SAMPLE_XML, true) {
-			@Override protected void write(Writer w)
+		findChanged();
+		writeSampleXml(SAMPLE_XML, samples, null);
+		writeSampleXml(DELTA_XML, changed, unknown);
+	}
+
+	/** Find sample values of all detectors, and which have changed
+	 * since the previous period */
+	private void findChanged() {
+		long stamp = station_manager.getStamp();
+		int per_ms = DetectorImpl.BIN_PERIOD_MS;
+		HashMap<String, Long> current = new HashMap<String, Long>(
+			prev_hashes.size());
+		samples.clear();
+		changed.clear();
+		unknown.clear();
+		Iterator<Detector> it = DetectorHelper.iterator();
+		while (it.hasNext()) {
+			Detector d = it.next();
+			if (d instanceof DetectorImpl) {
+				DetectorImpl det = (DetectorImpl) d;
+				String name = det.getName();
+				Long prev = prev_hashes.remove(name);
+				DetectorImpl.SampleValues sv =
+					det.getSampleValues(stamp, per_ms);
+				if (sv != null) {
+					long h = sv.hash();
+					samples.add(sv);
+					current.put(name, h);
+					if (null == prev || prev != h)
+						changed.add(sv);
+				} else if (prev != null)
+					unknown.add(name);
+			}
+		}
+		// Remaining hashes are for removed detectors
+		unknown.addAll(prev_hashes.keySet());
+		prev_hashes = current;
+	}
+
+	/** Write detector samples to an XML file */
+	private void writeSampleXml(String f,
+		final ArrayList<DetectorImpl.SampleValues> smp,
+		final ArrayList<String> unk) throws IOException
+	{
+		XmlWriter w = new XmlWriter(f, true) {
+			@Override protected void writeHead(Writer w)
 				throws IOException
 			{
 				writeSampleXmlHead(w);
-				writeSampleXmlBody(w);
+			}
+			@Override protected void write(Writer w)
+				throws IOException
+			{
+				for (DetectorImpl.SampleValues sv: smp)
+					sv.write(w);
+				if (unk != null) {
+					for (String name: unk)
+						writeUnknownSample(w, name);
+				}
 				writeSampleXmlTail(w);
 			}
 		};
 		w.write();
 	}
 
+	/** Write a sample element with all values unknown */
+	static private void writeUnknownSample(Writer w, String name)
+		throws IOException
+	{
+		w.write("\t<sample");
+		XmlWriter.writeAttribute(w, "sensor", name);
+		w.write("/>\n");
+	}
+
 	/** Write the header of the detector XML file */
 	private void writeSampleXmlHead(Writer w) throws IOException {
 		long stamp = station_manager.getStamp();
@@ -93,20 +174,6 @@ public class FlushXmlJob extends Job {
 		w.write("]>\n");
 	}
 
-	/** Write the body of the detector XML file */
-	private void writeSampleXmlBody(Writer w) throws IOException {
-		long stamp = station_manager.getStamp();
-		int per_ms = DetectorImpl.BIN_PERIOD_MS;
-		Iterator<Detector> it = DetectorHelper.iterator();
-		while (it.hasNext()) {
-			Detector d = it.next();
-			if (d instanceof DetectorImpl) {
-				DetectorImpl det = (DetectorImpl) d;
-				det.writeSampleXml(w, stamp, per_ms);
-			}
-		}
-	}
-
 	/** Write the tail of the detector XML file */
 	private void writeSampleXmlTail(Writer w) throws IOException {
 		w.write("</traffic_sample>\n");
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2018  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -98,6 +98,20 @@ public class FontImpl extends BaseObjectImpl implements Font {
 		versionID = v;
 	}
 
+	/** Store a font */
+	@Override
+	public void doStore() throws TMSException {
+		super.doStore();
+		RasterCache.invalidate();
+	}
+
+	/** Destroy a font */
+	@Override
+	public void doDestroy() throws TMSException {
+		super.doDestroy();
+		RasterCache.invalidate();
+	}
+
 	/** Font number */
 	private int f_number;
 
@@ -112,6 +126,7 @@ public class FontImpl extends BaseObjectImpl implements Font {
 		if (n != f_number) {
 			store.update(this, "f_number", n);
 			setNumber(n);
+			RasterCache.invalidate();
 		}
 	}
 
@@ -135,6 +150,7 @@ public class FontImpl extends BaseObjectImpl implements Font {
 		if (h != height) {
 			store.update(this, "height", h);
 			setHeight(h);
+			RasterCache.invalidate();
 		}
 	}
 
@@ -158,6 +174,7 @@ public class FontImpl extends BaseObjectImpl implements Font {
 		if (w != width) {
 			store.update(this, "width", w);
 			setWidth(w);
+			RasterCache.invalidate();
 		}
 	}
 
@@ -181,6 +198,7 @@ public class FontImpl extends BaseObjectImpl implements Font {
 		if (s != charSpacing) {
 			store.update(this, "char_spacing", s);
 			setCharSpacing(s);
+			RasterCache.invalidate();
 		}
 	}
 
@@ -204,6 +222,7 @@ public class FontImpl extends BaseObjectImpl implements Font {
 		if (s != lineSpacing) {
 			store.update(this, "line_spacing", s);
 			setLineSpacing(s);
+			RasterCache.invalidate();
 		}
 	}
 
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2005-2022  Minnesota Department of Transportation
+ * Copyright (C) 2005-2026  Minnesota Department of Transportation
  * Copyright (C) 2014       AHMCT, University of California
  * Copyright (C) 2016-2017  SRF Consulting Group
  *
@@ -29,8 +29,7 @@ import us.mn.state.dot.tms.LocModifier;
 import us.mn.state.dot.tms.R_Node;
 import us.mn.state.dot.tms.Road;
 import us.mn.state.dot.tms.TMSException;
-import us.mn.state.dot.tms.geo.Position;
-import us.mn.state.dot.tms.geo.SphericalMercatorPosition;
+import us.mn.state.dot.tms.geo.GeoProjection;
 import us.mn.state.dot.tms.units.Distance;
 import static us.mn.state.dot.tms.units.Distance.Units.MILES;
 
@@ -42,19 +41,13 @@ import static us.mn.state.dot.tms.units.Distance.Units.MILES;
  * @author Michael Janson
  * @author John L. Stanley
  */
-public class GeoLocImpl extends BaseObjectImpl implements GeoLoc {
+public class GeoLocImpl extends BaseObjectImpl implements GeoLoc,
+	GeoProjection.Holder
+{
 
 	/** Maximum distance to snap */
 	static private final Distance MAX_DIST = new Distance(1, MILES);
 
-	/** Create a spherical mercator position */
-	static private SphericalMercatorPosition getPosition(double latitude,
-		double longitude)
-	{
-		Position pos = new Position(latitude, longitude);
-		return SphericalMercatorPosition.convert(pos);
-	}
-
 	/** Check a direction for validity */
 	static private void checkDir(short d) throws TMSException {
 		if (!Direction.isValid(d))
@@ -369,6 +362,7 @@ public class GeoLocImpl extends BaseObjectImpl implements GeoLoc {
 	@Override
 	public void setLat(Double lt) {
 		lat = lt;
+		projection = null;
 	}
 
 	/** Set the latitude */
@@ -399,6 +393,7 @@ public class GeoLocImpl extends BaseObjectImpl implements GeoLoc {
 	@Override
 	public void setLon(Double ln) {
 		lon = ln;
+		projection = null;
 	}
 
 	/** Set the longitude */
@@ -422,6 +417,24 @@ public class GeoLocImpl extends BaseObjectImpl implements GeoLoc {
 		return lon;
 	}
 
+	/** Projection of lat/lon (created on first use) */
+	private GeoProjection projection;
+
+	/** Get the projection of lat/lon */
+	@Override
+	public GeoProjection getProjection() {
+		GeoProjection gp = projection;
+		Double lt = lat;
+		Double ln = lon;
+		if (null == lt || null == ln)
+			return null;
+		if (null == gp || !gp.matches(lt, ln)) {
+			gp = new GeoProjection(lt, ln);
+			projection = gp;
+		}
+		return gp;
+	}
+
 	/** Calculate nearest roadway, direction, cross-street,
 	 * and landmark for current lat/lon location. */
 	public void doCalculateGIS() throws TMSException {
@@ -438,9 +451,11 @@ public class GeoLocImpl extends BaseObjectImpl implements GeoLoc {
 
 	/** Find the nearest geo location to current lat/lon. */
 	private GeoLoc findNearest() {
-		SphericalMercatorPosition smp = getPosition(lat, lon);
-		GeoLoc loc = corridors.snapGeoLoc(smp, LaneCode.MAINLINE,
-			MAX_DIST, Direction.UNKNOWN);
+		GeoProjection gp = getProjection();
+		if (null == gp)
+			return null;
+		GeoLoc loc = corridors.snapGeoLoc(gp.getMercator(),
+			LaneCode.MAINLINE, MAX_DIST, Direction.UNKNOWN);
 		return (loc != null) ? findNearest(loc) : null;
 	}
 
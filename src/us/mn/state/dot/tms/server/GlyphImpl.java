@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2007-2018  Minnesota Department of Transportation
+ * Copyright (C) 2007-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -93,6 +93,20 @@ public class GlyphImpl extends BaseObjectImpl implements Glyph {
 		super(n);
 	}
 
+	/** Store a glyph */
+	@Override
+	public void doStore() throws TMSException {
+		super.doStore();
+		RasterCache.invalidate();
+	}
+
+	/** Destroy a glyph */
+	@Override
+	public void doDestroy() throws TMSException {
+		super.doDestroy();
+		RasterCache.invalidate();
+	}
+
 	/** Font to which the glyph belongs */
 	private Font font;
 
@@ -125,6 +139,7 @@ public class GlyphImpl extends BaseObjectImpl implements Glyph {
 		if (w != width) {
 			store.update(this, "width", w);
 			setWidth(w);
+			RasterCache.invalidate();
 		}
 	}
 
@@ -155,6 +170,7 @@ public class GlyphImpl extends BaseObjectImpl implements Glyph {
 		}
 		store.update(this, "pixels", p);
 		setPixels(p);
+		RasterCache.invalidate();
 	}
 
 	/** Get the pixel data (base64 encoded). */
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2007-2018  Minnesota Department of Transportation
+ * Copyright (C) 2007-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -93,6 +93,20 @@ public class GraphicImpl extends BaseObjectImpl implements Graphic {
 		);
 	}
 
+	/** Store a graphic */
+	@Override
+	public void doStore() throws TMSException {
+		super.doStore();
+		RasterCache.invalidate();
+	}
+
+	/** Destroy a graphic */
+	@Override
+	public void doDestroy() throws TMSException {
+		super.doDestroy();
+		RasterCache.invalidate();
+	}
+
 	/** Create a graphic from database lookup */
 	private GraphicImpl(String n, int g, int cs, int h, int w, Integer tc,
 		String p)
@@ -122,6 +136,7 @@ public class GraphicImpl extends BaseObjectImpl implements Graphic {
 				throw new ChangeVetoException("Invalid g_number");
 			store.update(this, "g_number", g);
 			setGNumber(g);
+			RasterCache.invalidate();
 		}
 	}
 
@@ -172,6 +187,7 @@ public class GraphicImpl extends BaseObjectImpl implements Graphic {
 		if (tc != transparent_color) {
 			store.update(this, "transparent_color", tc);
 			setTransparentColor(tc);
+			RasterCache.invalidate();
 		}
 	}
 
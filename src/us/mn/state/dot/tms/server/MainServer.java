@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2022  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2017-2021  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -70,6 +70,10 @@ public class MainServer {
 	/** Flush thread for disk writing jobs */
 	static public final Scheduler FLUSH = new Scheduler("flush");
 
+	/** Thread for purging old database records, which can take a long
+	 * time and must not delay FLUSH jobs */
+	static private final Scheduler PURGER = new Scheduler("purger");
+
 	/** Sample archive factory */
 	static public final SampleArchiveFactoryImpl a_factory =
 		new SampleArchiveFactoryImpl();
@@ -83,6 +87,9 @@ public class MainServer {
 	/** SQL connection */
 	static private SQLConnection store;
 
+	/** Database notifier */
+	static private DbNotifier notifier;
+
         /** Interface to WYDOT TRAC system */
         static public WydotTracEvents wydot_trac_events;
 
@@ -119,9 +126,12 @@ public class MainServer {
 			IrisRoleImpl.lookup(store, ns);
 			IrisDomainImpl.lookup(store, ns);
 			IrisUserImpl.lookup(store, ns);
-			BaseObjectImpl.loadAll(store, ns);
+			BaseObjectImpl.loadAll(store, ns, getLoadThreads(props));
+			startNotifier();
 			scheduleTimerJobs();
 			scheduleFlushJobs();
+			PURGER.addJob(new EventPurgeJob());
+			addShutdownHook();
 			startProtocolServer();
 			server = new Server(ns, props, new AccessLogger(FLUSH));
 			auth_provider = new IrisProvider();
@@ -218,6 +228,25 @@ public class MainServer {
 		);
 	}
 
+	/** Start receiving database notifications */
+	static private void startNotifier() {
+		notifier = new DbNotifier(store);
+		BaseObjectImpl.permissions.listen(notifier);
+		BaseObjectImpl.reloader.listen(notifier);
+		notifier.start();
+	}
+
+	/** Get the number of threads for loading objects at startup */
+	static private int getLoadThreads(Properties props) {
+		try {
+			return Integer.parseInt(props.getProperty(
+				"db.load.threads", "4"));
+		}
+		catch (NumberFormatException e) {
+			return 1;
+		}
+	}
+
 	/** Create the server namespace */
 	static private WhitelistNamespace createNamespace(Properties props)
 		throws UnknownHostException, NumberFormatException
@@ -255,7 +284,17 @@ public class MainServer {
 		FLUSH.addJob(new WeatherSensorPikalertJob());
 		FLUSH.addJob(new WeatherSensorVerifyJob());
 		FLUSH.addJob(new BeaconXmlJob());
-		FLUSH.addJob(new EventPurgeJob());
+		FLUSH.addJob(new CommStatsJob());
+		FLUSH.addJob(new StatusFlushJob(store));
+	}
+
+	/** Add a hook to flush pending status on shutdown */
+	static private void addShutdownHook() {
+		Runtime.getRuntime().addShutdownHook(new Thread("shutdown") {
+			@Override public void run() {
+				store.flushStatus();
+			}
+		});
 	}
 
 	/** Start the protocol server */
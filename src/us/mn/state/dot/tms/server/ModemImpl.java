@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2011-2022  Minnesota Department of Transportation
+ * Copyright (C) 2011-2026  Minnesota Department of Transportation
  * Copyright (C) 2015  SRF Consulting Group
  *
  * This program is free software; you can redistribute it and/or modify
@@ -33,13 +33,9 @@ public class ModemImpl extends BaseObjectImpl implements Modem {
 	/** Load all the modems */
 	static protected void loadAll() throws TMSException {
 		namespace.registerType(SONAR_TYPE, ModemImpl.class);
-		store.query("SELECT name, uri, config, timeout_ms, enabled " +
-			"FROM iris." + SONAR_TYPE  + ";", new ResultFactory()
-		{
-			public void create(ResultSet row) throws Exception {
-				namespace.addObject(new ModemImpl(row));
-			}
-		});
+		reloader.loadAll(SONAR_TYPE, "SELECT name, uri, config, " +
+			"timeout_ms, enabled FROM iris." + SONAR_TYPE + ";",
+			ModemImpl::new);
 	}
 
 	/** Get a mapping of the columns */
@@ -0,0 +1,194 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import us.mn.state.dot.sched.DebugLog;
+import us.mn.state.dot.tms.TMSException;
+
+/**
+ * Object loader for server startup.  Each load step declares the steps which
+ * must complete before it can start.  Steps with no pending dependencies are
+ * run concurrently on a fixed number of threads.  With one thread, steps are
+ * run in the order they were added.  With more than one, each load thread
+ * is bound to its own database connection.
+ *
+ * @author Douglas Lau
+ */
+class ObjectLoader {
+
+	/** Load debug log */
+	static private final DebugLog LOAD_LOG = new DebugLog("load");
+
+	/** Load step action */
+	public interface Action {
+		void load() throws TMSException;
+	}
+
+	/** A load step */
+	static private class Step {
+		private final String name;
+		private final Action action;
+		private final Step[] deps;
+		private boolean started = false;
+		private boolean done = false;
+		private long elapsed = 0;
+		private Step(String n, Action a, Step[] d) {
+			name = n;
+			action = a;
+			deps = d;
+		}
+
+		/** Check if the step is ready to start */
+		private boolean isReady() {
+			if (started)
+				return false;
+			for (Step d: deps) {
+				if (!d.done)
+					return false;
+			}
+			return true;
+		}
+
+		/** Perform the step */
+		private Step perform(SQLConnection store) throws TMSException {
+			if (store != null)
+				store.bindThread();
+			long start = System.currentTimeMillis();
+			action.load();
+			elapsed = System.currentTimeMillis() - start;
+			return this;
+		}
+	}
+
+	/** All load steps, in order added */
+	private final LinkedHashMap<String, Step> steps =
+		new LinkedHashMap<String, Step>();
+
+	/** Number of load threads */
+	private final int threads;
+
+	/** SQL connection to bind to load threads (or null) */
+	private final SQLConnection store;
+
+	/** Create a new object loader.
+	 * @param t Number of threads for concurrent loading.
+	 * @param s SQL connection to bind to each load thread (or null). */
+	public ObjectLoader(int t, SQLConnection s) {
+		threads = Math.max(1, t);
+		store = (threads > 1) ? s : null;
+	}
+
+	/** Create a new object loader.
+	 * @param t Number of threads for concurrent loading. */
+	public ObjectLoader(int t) {
+		this(t, null);
+	}
+
+	/** Add a load step.
+	 * @param name Step name.
+	 * @param a Load action.
+	 * @param deps Names of steps which must complete first.  They must
+	 *             have already been added, so cycles are not possible. */
+	public void add(String name, Action a, String... deps) {
+		if (steps.containsKey(name)) {
+			throw new IllegalArgumentException("Duplicate: " +
+				name);
+		}
+		Step[] ds = new Step[deps.length];
+		for (int i = 0; i < deps.length; i++) {
+			ds[i] = steps.get(deps[i]);
+			if (null == ds[i]) {
+				throw new IllegalArgumentException(name +
+					": unknown dependency " + deps[i]);
+			}
+		}
+		steps.put(name, new Step(name, a, ds));
+	}
+
+	/** Add a load step which depends on all previously added steps.
+	 * @param name Step name.
+	 * @param a Load action. */
+	public void addBarrier(String name, Action a) {
+		String[] deps = steps.keySet().toArray(new String[0]);
+		add(name, a, deps);
+	}
+
+	/** Load all steps */
+	public void loadAll() throws TMSException {
+		long start = System.currentTimeMillis();
+		ExecutorService ex = Executors.newFixedThreadPool(threads);
+		try {
+			loadAll(new ExecutorCompletionService<Step>(ex));
+		}
+		finally {
+			ex.shutdownNow();
+			if (store != null)
+				store.unbindAll();
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		if (LOAD_LOG.isOpen()) {
+			for (Step s: steps.values())
+				LOAD_LOG.log(s.name + ": " + s.elapsed + " ms");
+			LOAD_LOG.log("loaded " + steps.size() + " types in " +
+				elapsed + " ms (" + threads + " threads)");
+		}
+	}
+
+	/** Load all steps using a completion service */
+	private void loadAll(CompletionService<Step> cs) throws TMSException {
+		int running = 0;
+		int remaining = steps.size();
+		while (remaining > 0) {
+			for (Step s: steps.values()) {
+				if (running < threads && s.isReady()) {
+					s.started = true;
+					cs.submit(() -> s.perform(store));
+					running++;
+				}
+			}
+			if (running == 0)
+				throw new TMSException("Load steps blocked");
+			Step s = takeStep(cs);
+			s.done = true;
+			running--;
+			remaining--;
+		}
+	}
+
+	/** Take a completed step */
+	private Step takeStep(CompletionService<Step> cs) throws TMSException {
+		try {
+			Future<Step> f = cs.take();
+			return f.get();
+		}
+		catch (InterruptedException e) {
+			throw new TMSException(e);
+		}
+		catch (ExecutionException e) {
+			Throwable c = e.getCause();
+			if (c instanceof TMSException)
+				throw (TMSException) c;
+			else
+				throw new TMSException(c);
+		}
+	}
+}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2012-2021  Minnesota Department of Transportation
+ * Copyright (C) 2012-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -28,7 +28,7 @@ public class OccupancySample extends PeriodicSample {
 	static public final int MAX = 10000;
 
 	/** Convert protocol-specific scans to occupancy (0 - 10000) */
-	static private int calculateOccupancy(int n_scans, int max_scans) {
+	static public int calculateOccupancy(int n_scans, int max_scans) {
 		assert(max_scans > 0);
 		if (n_scans >= 0)
 			return Math.round((float) n_scans / max_scans * MAX);
@@ -48,11 +48,16 @@ public class OccupancySample extends PeriodicSample {
 	/** Float value for 60 Hz samples */
 	static private final float HZ_60 = 60f;
 
-	/** Get sample as 60 Hz scan count */
-	public int as60HzScans() {
-		if (value >= 0)
-			return Math.round(value * per_sec * HZ_60 / MAX);
+	/** Convert occupancy (0 - 10000) to 60 Hz scan count */
+	static public int as60HzScans(int occ, int per_sec) {
+		if (occ >= 0)
+			return Math.round(occ * per_sec * HZ_60 / MAX);
 		else
 			return MISSING_DATA;
 	}
+
+	/** Get sample as 60 Hz scan count */
+	public int as60HzScans() {
+		return as60HzScans(value, per_sec);
+	}
 }
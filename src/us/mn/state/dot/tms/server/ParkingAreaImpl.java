@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2018-2022  Minnesota Department of Transportation
+ * Copyright (C) 2018-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -738,7 +738,7 @@ public class ParkingAreaImpl extends BaseObjectImpl implements ParkingArea {
 	/** Update the time stamp */
 	private void updateTimeStamp() throws TMSException {
 		long st = TimeSteward.currentTimeMillis();
-		store.update(this, "time_stamp", asTimestamp(st));
+		store.updateStatus(this, "time_stamp", asTimestamp(st));
 		time_stamp = st;
 	}
 
@@ -802,7 +802,7 @@ public class ParkingAreaImpl extends BaseObjectImpl implements ParkingArea {
 	/** Set the reported available parking spaces */
 	private void setReportedAvailableNotify(String a) throws TMSException {
 		if (!objectEquals(a, reported_available)) {
-			store.update(this, "reported_available", a);
+			store.updateStatus(this, "reported_available", a);
 			updateTimeStamp();
 			reported_available = a;
 			notifyAttribute("reportedAvailable");
@@ -850,7 +850,7 @@ public class ParkingAreaImpl extends BaseObjectImpl implements ParkingArea {
 	private void setTrueAvailableNotify(Integer a) throws TMSException {
 		hist.push((a != null) ? (double) a : null);
 		if (!objectEquals(a, true_available)) {
-			store.update(this, "true_available", a);
+			store.updateStatus(this, "true_available", a);
 			updateTimeStamp();
 			true_available = a;
 			notifyAttribute("trueAvailable");
@@ -869,7 +869,7 @@ public class ParkingAreaImpl extends BaseObjectImpl implements ParkingArea {
 	/** Set the trend */
 	private void setTrendNotify(String t) throws TMSException {
 		if (!objectEquals(t, trend)) {
-			store.update(this, "trend", t);
+			store.updateStatus(this, "trend", t);
 			updateTimeStamp();
 			trend = t;
 			notifyAttribute("trend");
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2010-2021  Minnesota Department of Transportation
+ * Copyright (C) 2010-2026  Minnesota Department of Transportation
  * Copyright (C) 2017  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -165,6 +165,17 @@ public class PeriodicSampleCache {
 		}
 	}
 
+	/** Add a periodic sample value to the cache.  A sample is only
+	 * created if the value is valid.
+	 * @param stamp Time stamp after end of sample period.
+	 * @param per_sec Sample period in seconds.
+	 * @param value Sample data value.
+	 * @param name Name of sampler (for logging). */
+	public void add(long stamp, int per_sec, int value, String name) {
+		if (sample_type.isValid(per_sec, value))
+			add(new PeriodicSample(stamp, per_sec, value), name);
+	}
+
 	/** Check if a period is OK to be cached.
 	 * @param per_sec Period to check (seconds).
 	 * @return true if period is OK to be cached. */
@@ -189,19 +200,10 @@ public class PeriodicSampleCache {
 	/** Add a sample */
 	private void addSample(PeriodicSample ps) {
 		assert ps.per_sec == getPeriod(ps.per_sec) : "Invalid period";
-		if (!exists(ps.start())) {
+		// Samples are ordered by end time, so a duplicate start
+		// time (with the same period) is rejected by the set
+		if (!samples.add(ps))
 			MainServer.log("dup start time");
-		}
-		samples.add(ps);
-	}
-
-	/** Check if a sample exists with the given time stamp (start) */
-	private boolean exists(long stamp) {
-		for (PeriodicSample ps: samples) {
-			if (ps.start() == stamp)
-				return true;
-		}
-		return false;
 	}
 
 	/** Interpolate sample data from a sample with a larger period.
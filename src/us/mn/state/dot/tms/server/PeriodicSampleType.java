@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2012-2021  Minnesota Department of Transportation
+ * Copyright (C) 2012-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -89,7 +89,11 @@ public enum PeriodicSampleType {
 
 	/** Is a periodic sample valid? */
 	public boolean isValid(PeriodicSample ps) {
-		return ps.per_sec > 0 &&
-		       ps.value > MISSING_DATA;
+		return isValid(ps.per_sec, ps.value);
+	}
+
+	/** Is a periodic sample value valid? */
+	public boolean isValid(int per_sec, int value) {
+		return per_sec > 0 && value > MISSING_DATA;
 	}
 }
@@ -0,0 +1,214 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import us.mn.state.dot.tms.TMSException;
+
+/**
+ * Permission resolver.  This caches the permission, user and hashtag tables
+ * in memory, so that access levels can be resolved without a database query.
+ * The cache is invalidated by database notifications; while notifications are
+ * not being received, the tables are queried for every check.
+ *
+ * @author Douglas Lau
+ */
+public class PermissionResolver {
+
+	/** Cached permission record */
+	static private class Permission {
+		private final String resource_n;
+		private final String hashtag;
+		private final int access_n;
+		private Permission(String r, String h, int a) {
+			resource_n = r;
+			hashtag = h;
+			access_n = a;
+		}
+	}
+
+	/** SQL connection to database */
+	private final SQLConnection store;
+
+	/** Database notifier (may be null) */
+	private DbNotifier notifier;
+
+	/** Mapping of user names to roles */
+	private HashMap<String, String> user_roles;
+
+	/** Mapping of role names to permissions */
+	private HashMap<String, ArrayList<Permission>> role_perms;
+
+	/** Mapping of resource types to (name -> hashtags) mappings */
+	private final HashMap<String, HashMap<String, HashSet<String>>>
+		hashtags = new HashMap<String,
+			HashMap<String, HashSet<String>>>();
+
+	/** Handler for permission / role / user notifications */
+	private final DbNotifier.Handler perm_handler =
+		new DbNotifier.Handler()
+	{
+		public void handle(String channel, String payload) {
+			invalidatePermissions();
+		}
+	};
+
+	/** Handler for resource hashtag notifications */
+	private final DbNotifier.Handler tag_handler = new DbNotifier.Handler(){
+		public void handle(String channel, String payload) {
+			if (null == payload || "hashtags".equals(payload))
+				invalidateHashtags(channel);
+		}
+	};
+
+	/** Create a new permission resolver */
+	public PermissionResolver(SQLConnection s) {
+		store = s;
+	}
+
+	/** Listen for database notifications to keep cache current */
+	public synchronized void listen(DbNotifier n) {
+		notifier = n;
+		n.listen("permission", perm_handler);
+		n.listen("role", perm_handler);
+		n.listen("i_user", perm_handler);
+		for (String res: hashtags.keySet())
+			n.listen(res, tag_handler);
+	}
+
+	/** Check if cached data can be trusted */
+	private boolean isCacheValid() {
+		return notifier != null && notifier.isListening();
+	}
+
+	/** Invalidate cached permissions */
+	private synchronized void invalidatePermissions() {
+		user_roles = null;
+		role_perms = null;
+	}
+
+	/** Invalidate cached hashtags for one resource type */
+	private synchronized void invalidateHashtags(String res) {
+		hashtags.remove(res);
+	}
+
+	/** Query the access level of a user for an object.
+	 * @param user User name.
+	 * @param res Resource type name.
+	 * @param name Object name.
+	 * @param ht Hashtags of object, or null to lookup from database.
+	 * @return Access level (0-4)
+	 *         0 none, 1 view, 2 operate, 3 manage, 4 configure */
+	public synchronized int queryAccess(String user, String res,
+		String name, String[] ht) throws TMSException
+	{
+		if (!isCacheValid()) {
+			invalidatePermissions();
+			hashtags.clear();
+		}
+		if (null == role_perms)
+			loadPermissions();
+		String role = user_roles.get(user);
+		ArrayList<Permission> perms = (role != null)
+			? role_perms.get(role)
+			: null;
+		if (null == perms)
+			return 0;
+		Collection<String> tags = (ht != null)
+			? Arrays.asList(ht)
+			: lookupHashtags(res, name);
+		int access = 0;
+		for (Permission p: perms) {
+			if (p.resource_n.equals(res) &&
+			   (null == p.hashtag || tags.contains(p.hashtag)))
+				access = Math.max(access, p.access_n);
+		}
+		return access;
+	}
+
+	/** Load users and permissions from the database */
+	private void loadPermissions() throws TMSException {
+		final HashMap<String, String> ur = new HashMap<String, String>();
+		store.query("SELECT name, role FROM iris.i_user " +
+			"WHERE role IS NOT NULL;", new ResultFactory()
+		{
+			public void create(ResultSet row) throws Exception {
+				ur.put(row.getString(1), row.getString(2));
+			}
+		});
+		final HashMap<String, ArrayList<Permission>> rp =
+			new HashMap<String, ArrayList<Permission>>();
+		store.query("SELECT role, resource_n, hashtag, access_n " +
+			"FROM iris.permission;", new ResultFactory()
+		{
+			public void create(ResultSet row) throws Exception {
+				String role = row.getString(1);
+				ArrayList<Permission> perms = rp.get(role);
+				if (null == perms) {
+					perms = new ArrayList<Permission>();
+					rp.put(role, perms);
+				}
+				perms.add(new Permission(row.getString(2),
+					row.getString(3), row.getInt(4)));
+			}
+		});
+		user_roles = ur;
+		role_perms = rp;
+	}
+
+	/** Lookup hashtags for an object */
+	private Collection<String> lookupHashtags(String res, String name)
+		throws TMSException
+	{
+		HashMap<String, HashSet<String>> tags = hashtags.get(res);
+		if (null == tags) {
+			tags = loadHashtags(res);
+			hashtags.put(res, tags);
+			if (notifier != null)
+				notifier.listen(res, tag_handler);
+		}
+		HashSet<String> ht = tags.get(name);
+		return (ht != null) ? ht : Collections.<String>emptySet();
+	}
+
+	/** Load all hashtags for one resource type */
+	private HashMap<String, HashSet<String>> loadHashtags(String res)
+		throws TMSException
+	{
+		final HashMap<String, HashSet<String>> tags =
+			new HashMap<String, HashSet<String>>();
+		store.query("SELECT name, hashtag FROM iris.hashtag " +
+			"WHERE resource_n = '" + SQLConnection.escapeValue(res) +
+			"';", new ResultFactory()
+		{
+			public void create(ResultSet row) throws Exception {
+				String n = row.getString(1);
+				HashSet<String> ht = tags.get(n);
+				if (null == ht) {
+					ht = new HashSet<String>();
+					tags.put(n, ht);
+				}
+				ht.add(row.getString(2));
+			}
+		});
+		return tags;
+	}
+}
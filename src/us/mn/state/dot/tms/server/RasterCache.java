@@ -0,0 +1,196 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import us.mn.state.dot.tms.RasterBuilder;
+import us.mn.state.dot.tms.RasterGraphic;
+import us.mn.state.dot.tms.SignConfig;
+import us.mn.state.dot.tms.SignConfigHelper;
+
+/**
+ * Cache of rendered MULTI strings, keyed by sign configuration.  Most signs
+ * share a few configurations, and scheduled messages rarely change, so
+ * rendering each one on every action plan tick is wasted work.  Any change
+ * to fonts, glyphs, graphics or sign configs bumps the version, which
+ * invalidates all entries.
+ *
+ * @author Douglas Lau
+ */
+public final class RasterCache {
+
+	/** Maximum number of cached entries */
+	static private final int MAX_ENTRIES = 4096;
+
+	/** Cache key */
+	static private final class Key {
+		private final SignConfig config;
+		private final long version;
+		private final String multi;
+		private Key(SignConfig sc, long v, String ms) {
+			config = sc;
+			version = v;
+			multi = ms;
+		}
+		@Override public int hashCode() {
+			return System.identityHashCode(config) ^
+				Long.hashCode(version) ^ multi.hashCode();
+		}
+		@Override public boolean equals(Object o) {
+			if (o instanceof Key) {
+				Key k = (Key) o;
+				return config == k.config &&
+				       version == k.version &&
+				       multi.equals(k.multi);
+			} else
+				return false;
+		}
+	}
+
+	/** Cache entry (rasters are null if not rasterizable) */
+	static private final class Entry {
+		private final RasterGraphic[] rasters;
+		private Entry(RasterGraphic[] r) {
+			rasters = r;
+		}
+	}
+
+	/** Cached entries, in access order */
+	static private final LinkedHashMap<Key, Entry> ENTRIES =
+		new LinkedHashMap<Key, Entry>(256, 0.75f, true)
+	{
+		@Override protected boolean removeEldestEntry(
+			Map.Entry<Key, Entry> eldest)
+		{
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/** Font / graphic / config version */
+	static private final AtomicLong VERSION = new AtomicLong();
+
+	/** Count of cache hits */
+	static private final AtomicLong HITS = new AtomicLong();
+
+	/** Count of cache misses */
+	static private final AtomicLong MISSES = new AtomicLong();
+
+	/** Total time rendering misses (ns) */
+	static private final AtomicLong MISS_NS = new AtomicLong();
+
+	/** Invalidate all cached entries.  This must be called whenever a
+	 * font, glyph, graphic or sign config changes. */
+	static public void invalidate() {
+		VERSION.incrementAndGet();
+		synchronized (ENTRIES) {
+			ENTRIES.clear();
+		}
+	}
+
+	/** Check if a MULTI string is rasterizable for a sign config */
+	static public boolean isRasterizable(SignConfig sc, String ms) {
+		return createRasters(sc, ms) != null;
+	}
+
+	/** Create raster graphics for a sign config.  The returned rasters
+	 * are shared, and must not be modified.
+	 * @param sc Sign configuration.
+	 * @param ms MULTI string.
+	 * @return Array of RasterGraphic, or null on error. */
+	static public RasterGraphic[] createRasters(SignConfig sc, String ms) {
+		if (null == sc || null == ms)
+			return null;
+		// Read version before rendering, so that a concurrent change
+		// can't be masked by an entry rendered with old fonts
+		Key key = new Key(sc, VERSION.get(), ms);
+		Entry e;
+		synchronized (ENTRIES) {
+			e = ENTRIES.get(key);
+		}
+		if (e != null) {
+			HITS.incrementAndGet();
+			return e.rasters;
+		}
+		long start = System.nanoTime();
+		RasterBuilder rb = SignConfigHelper.createRasterBuilder(sc);
+		e = new Entry(rb.createRasters(ms));
+		MISS_NS.addAndGet(System.nanoTime() - start);
+		MISSES.incrementAndGet();
+		synchronized (ENTRIES) {
+			ENTRIES.put(key, e);
+		}
+		return e.rasters;
+	}
+
+	/** Get the number of cached entries */
+	static public int size() {
+		synchronized (ENTRIES) {
+			return ENTRIES.size();
+		}
+	}
+
+	/** Take a snapshot of cache statistics */
+	static public Stats snapshot() {
+		return new Stats(HITS.get(), MISSES.get(), MISS_NS.get());
+	}
+
+	/** Cache statistics */
+	static public final class Stats {
+
+		/** Count of hits */
+		public final long hits;
+
+		/** Count of misses */
+		public final long misses;
+
+		/** Time rendering misses (ns) */
+		public final long miss_ns;
+
+		/** Create cache statistics */
+		private Stats(long h, long m, long ns) {
+			hits = h;
+			misses = m;
+			miss_ns = ns;
+		}
+
+		/** Get statistics since an earlier snapshot */
+		public Stats since(Stats s) {
+			return new Stats(hits - s.hits, misses - s.misses,
+				miss_ns - s.miss_ns);
+		}
+
+		/** Estimate time saved by hits (ns), using the average time
+		 * to render a miss */
+		public long savedNanos() {
+			return (misses > 0) ? hits * (miss_ns / misses) : 0;
+		}
+
+		/** Get a string representation */
+		@Override
+		public String toString() {
+			long n = hits + misses;
+			long pct = (n > 0) ? Math.round(100.0 * hits / n) : 0;
+			return "raster cache: " + hits + " hits, " + misses +
+				" misses (" + pct + "%), " +
+				miss_ns / 1000000 + " ms rendering, " +
+				savedNanos() / 1000000 + " ms saved";
+		}
+	}
+
+	/** Don't allow instantiation */
+	private RasterCache() { }
+}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2009-2023  Minnesota Department of Transportation
+ * Copyright (C) 2009-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -23,8 +23,6 @@ import us.mn.state.dot.tms.ActionPlan;
 import us.mn.state.dot.tms.AlertInfo;
 import us.mn.state.dot.tms.AlertInfoHelper;
 import us.mn.state.dot.tms.AlertState;
-import us.mn.state.dot.tms.DMS;
-import us.mn.state.dot.tms.DMSHelper;
 import us.mn.state.dot.tms.Incident;
 import us.mn.state.dot.tms.IncidentHelper;
 import us.mn.state.dot.tms.PlanPhase;
@@ -55,12 +53,6 @@ public class ReaperJob extends Job {
 	/** Seconds to offset each poll from start of interval */
 	static private final int OFFSET_SECS = 27;
 
-	/** List of sign messages */
-	private final ArrayList<SignMessageImpl> sign_msgs;
-
-	/** List of zombie sign messages */
-	private final ArrayList<SignMessageImpl> zombie_msgs;
-
 	/** List of zombie incidents */
 	private final ArrayList<IncidentImpl> zombie_incs;
 
@@ -70,8 +62,6 @@ public class ReaperJob extends Job {
 	/** Create a new job to reap dead stuff */
 	public ReaperJob() {
 		super(Calendar.MINUTE, 1, Calendar.SECOND, OFFSET_SECS);
-		sign_msgs = new ArrayList<SignMessageImpl>();
-		zombie_msgs = new ArrayList<SignMessageImpl>();
 		zombie_incs = new ArrayList<IncidentImpl>();
 		zombie_alerts = new ArrayList<AlertInfoImpl>();
 	}
@@ -87,35 +77,9 @@ public class ReaperJob extends Job {
 
 	/** Reap sign messages which have not been used for awhile */
 	private void reapSignMessages() {
-		if (zombie_msgs.isEmpty()) {
-			if (sign_msgs.isEmpty())
-				findAllSignMessages();
-			else
-				checkForZombieMessages();
-		} else {
-			for (SignMessageImpl sm: zombie_msgs)
-				reapMessage(sm);
-			zombie_msgs.clear();
-		}
-	}
-
-	/** Find all sign messages */
-	private void findAllSignMessages() {
-		Iterator<SignMessage> it = SignMessageHelper.iterator();
-		while (it.hasNext()) {
-			SignMessage sm = it.next();
-			if (sm instanceof SignMessageImpl)
-				sign_msgs.add((SignMessageImpl) sm);
-		}
-	}
-
-	/** Check for zombie sign messages */
-	private void checkForZombieMessages() {
-		for (SignMessageImpl sm: sign_msgs) {
-			if (!isReferenced(sm))
-				zombie_msgs.add(sm);
-		}
-		sign_msgs.clear();
+		long now = TimeSteward.currentTimeMillis();
+		for (SignMessageImpl sm: SignMessageImpl.findReapable(now))
+			reapMessage(sm);
 	}
 
 	/** Reap one sign message */
@@ -127,28 +91,12 @@ public class ReaperJob extends Job {
 		SignMessage m = SignMessageHelper.lookup(sm.getName());
 		if (m != sm)
 			sm.logMsg("lookup failed (reaper)");
-		else if (!isReferenced(sm)) {
-			// NOTE: there is a race where a DMS could acquire
-			//       a reference just before notifyRemove
+		else {
 			sm.notifyRemove();
 			sm.logMsg("removed (reaper)");
 		}
 	}
 
-	/** Check if a sign message is referenced by any DMS */
-	private boolean isReferenced(SignMessage sm) {
-		Iterator<DMS> it = DMSHelper.iterator();
-		while (it.hasNext()) {
-			DMS dms = it.next();
-			if (dms instanceof DMSImpl) {
-				DMSImpl dmsi = (DMSImpl) dms;
-				if (dmsi.hasReference(sm))
-					return true;
-			}
-		}
-		return false;
-	}
-
 	/** Reap incidents which have been cleared for awhile */
 	private void reapIncidents() {
 		if (zombie_incs.isEmpty())
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2019  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2018  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -15,7 +15,6 @@
  */
 package us.mn.state.dot.tms.server;
 
-import java.sql.ResultSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -43,18 +42,14 @@ public class RoadImpl extends BaseObjectImpl implements Road {
 	/** Load all the roads */
 	static protected void loadAll() throws TMSException {
 		namespace.registerType(SONAR_TYPE, RoadImpl.class);
-		store.query("SELECT name, abbrev, r_class, direction " +
-			"FROM iris." + SONAR_TYPE + ";", new ResultFactory()
-		{
-			public void create(ResultSet row) throws Exception {
-				namespace.addObject(new RoadImpl(
-					row.getString(1), // name
-					row.getString(2), // abbrev
-					row.getShort(3),  // r_class
-					row.getShort(4)   // direction
-				));
-			}
-		});
+		reloader.loadAll(SONAR_TYPE, "SELECT name, abbrev, r_class, " +
+			"direction FROM iris." + SONAR_TYPE + ";",
+			(row) -> new RoadImpl(
+				row.getString(1), // name
+				row.getString(2), // abbrev
+				row.getShort(3),  // r_class
+				row.getShort(4)   // direction
+			));
 	}
 
 	/** Create the specified road and notify clients.
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2005-2021  Minnesota Department of Transportation
+ * Copyright (C) 2005-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -21,12 +21,17 @@ import java.sql.ResultSet;
 import java.sql.Statement;
 import java.sql.SQLException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import org.postgis.MultiPolygon;
 import us.mn.state.dot.sched.DebugLog;
+import us.mn.state.dot.sched.TimeSteward;
 import us.mn.state.dot.sonar.Message;
 import us.mn.state.dot.sonar.Name;
 import us.mn.state.dot.tms.ChangeVetoException;
@@ -42,6 +47,15 @@ public class SQLConnection {
 	/** SQL debug log */
 	static private final DebugLog SQL_LOG = new DebugLog("sql");
 
+	/** Purge debug log */
+	static private final DebugLog PURGE_LOG = new DebugLog("purge");
+
+	/** Maximum number of records to delete in one purge statement */
+	static private final int PURGE_CHUNK = 10000;
+
+	/** Time budget for purging one table (ms) */
+	static private final long PURGE_BUDGET_MS = 2 * 60 * 1000;
+
 	/** Pattern to match for an invalid SONAR name */
 	static private final Pattern INVALID_NAME = Pattern.compile("[" +
 		Message.RECORD_SEP.code +
@@ -103,6 +117,40 @@ public class SQLConnection {
 		      : value.toString();
 	}
 
+	/** Get a SQL value for an update (quoted, or NULL) */
+	static private String sqlValue(Object value)
+		throws ChangeVetoException
+	{
+		if (value == null)
+			return "NULL";
+		String av = prepareArray(value);
+		String ev = escapeValue(av);
+		validateValue(ev);
+		return "'" + ev + "'";
+	}
+
+	/** A row with pending status updates */
+	static private final class StatusRow {
+		final String table;
+		final String where;
+		final LinkedHashMap<String, String> values =
+			new LinkedHashMap<String, String>();
+		StatusRow(String t, String w) {
+			table = t;
+			where = w;
+		}
+		String toSql() {
+			StringBuilder sb = new StringBuilder();
+			for (Map.Entry<String, String> v: values.entrySet()) {
+				sb.append((sb.length() > 0) ? ", " : "");
+				sb.append(v.getKey());
+				sb.append(" = ");
+				sb.append(v.getValue());
+			}
+			return "UPDATE " + table + " SET " + sb + where + ";";
+		}
+	}
+
 	/** Get a PostGIS MultiPolygon from a DB query object.
 	 *
 	 * This uses runtime reflection so that the postgres jar is not
@@ -130,12 +178,19 @@ public class SQLConnection {
 	/** Password to log into database server */
 	private final String password;
 
-	/** Connection to the SQL database */
+	/** Shared connection to the SQL database */
 	private Connection connection = null;
 
-	/** Available SQL statements */
-	private final ArrayDeque<Statement> statements =
-		new ArrayDeque<Statement>();
+	/** Connections bound to threads */
+	private final ArrayList<Connection> bound = new ArrayList<Connection>();
+
+	/** Connection bound to the current thread */
+	private final ThreadLocal<Connection> thread_conn =
+		new ThreadLocal<Connection>();
+
+	/** Available SQL statements, mapped by connection */
+	private final HashMap<Connection, ArrayDeque<Statement>> statements =
+		new HashMap<Connection, ArrayDeque<Statement>>();
 
 	/** Create a new SQL connection */
 	public SQLConnection(String url, String usr, String pswd)
@@ -152,10 +207,57 @@ public class SQLConnection {
 		password = pswd;
 	}
 
-	/** Close the current database connection */
-	private void close() throws SQLException {
-		statements.clear();
+	/** Bind a dedicated database connection to the current thread.
+	 * Statements on this thread only use that connection, so queries on
+	 * different bound threads can run concurrently.  Binding a thread
+	 * which is already bound has no effect. */
+	public void bindThread() throws TMSException {
+		if (null == getBound()) {
+			try {
+				Connection c = createConnection();
+				synchronized (this) {
+					bound.add(c);
+					statements.put(c,
+						new ArrayDeque<Statement>());
+				}
+				thread_conn.set(c);
+			}
+			catch (SQLException e) {
+				SQL_LOG.log("bindThread -> " + e);
+				throw new TMSException(e);
+			}
+		}
+	}
+
+	/** Close all connections bound to threads.  Those threads use the
+	 * shared connection afterwards. */
+	public synchronized void unbindAll() {
+		for (Connection c: bound) {
+			statements.remove(c);
+			try {
+				c.close();
+			}
+			catch (SQLException e) {
+				SQL_LOG.log("unbindAll -> " + e);
+			}
+		}
+		bound.clear();
+	}
+
+	/** Get the connection bound to the current thread (or null) */
+	private synchronized Connection getBound() {
+		Connection c = thread_conn.get();
+		if (c != null && !bound.contains(c)) {
+			thread_conn.remove();
+			return null;
+		} else
+			return c;
+	}
+
+	/** Close the shared database connection */
+	private synchronized void close() throws SQLException {
 		if (connection != null) {
+			statements.remove(connection);
 			try {
 				connection.close();
 			}
@@ -165,30 +267,46 @@ public class SQLConnection {
 		}
 	}
 
-	/** Open a new database connection */
-	private void open() throws SQLException {
-		connection = DriverManager.getConnection(location, user,
+	/** Create a new database connection.  The connection is not shared
+	 * with other statements, so the caller is responsible for closing it.
+	 */
+	Connection createConnection() throws SQLException {
+		Connection c = DriverManager.getConnection(location, user,
 			password);
-		connection.setAutoCommit(true);
+		c.setAutoCommit(true);
+		return c;
 	}
 
-	/** Create a database statement */
-	private Statement _createStatement() throws SQLException {
-		if (connection == null)
-			open();
-		return connection.createStatement();
+	/** Get the shared connection, opening it if needed */
+	private Connection getShared() throws SQLException {
+		if (null == connection) {
+			connection = createConnection();
+			statements.put(connection, new ArrayDeque<Statement>());
+		}
+		return connection;
 	}
 
-	/** Create a database statement */
-	private Statement createStatement() throws TMSException {
+	/** Get a statement from the pool of a connection, or create one */
+	private Statement getStatement(Connection c) throws SQLException {
+		ArrayDeque<Statement> pool = statements.get(c);
+		if (pool != null && !pool.isEmpty())
+			return pool.removeLast();
+		else
+			return c.createStatement();
+	}
+
+	/** Get an available statement on the shared connection */
+	private synchronized Statement getSharedStatement()
+		throws TMSException
+	{
 		try {
-			return _createStatement();
+			return getStatement(getShared());
 		}
 		catch (SQLException e) {
 			SQL_LOG.log("createStatement -> " + e);
 			try {
 				close();
-				return _createStatement();
+				return getStatement(getShared());
 			}
 			catch (SQLException e2) {
 				SQL_LOG.log("createStatement.2 -> " + e2);
@@ -197,17 +315,35 @@ public class SQLConnection {
 		}
 	}
 
-	/** Get an available statement */
-	private synchronized Statement getStatement() throws TMSException {
-		if (statements.isEmpty())
-			return createStatement();
-		else
-			return statements.removeLast();
+	/** Get an available statement.  A thread with a bound connection
+	 * only uses statements from that connection. */
+	private Statement getStatement() throws TMSException {
+		Connection c = getBound();
+		if (null == c)
+			return getSharedStatement();
+		synchronized (this) {
+			try {
+				return getStatement(c);
+			}
+			catch (SQLException e) {
+				SQL_LOG.log("createStatement -> " + e);
+				throw new TMSException(e);
+			}
+		}
 	}
 
 	/** Put a statement back after using it */
 	private synchronized void putStatement(Statement s) {
-		statements.add(s);
+		try {
+			// Don't pool statements from closed connections
+			ArrayDeque<Statement> pool = statements.get(
+				s.getConnection());
+			if (pool != null)
+				pool.add(s);
+		}
+		catch (SQLException e) {
+			SQL_LOG.log("putStatement -> " + e);
+		}
 	}
 
 	/** Query the database and call a factory for each result */
@@ -231,12 +367,14 @@ public class SQLConnection {
 		}
 	}
 
-	/** Update the database with the given SQL command */
-	public void update(String sql) throws TMSException {
+	/** Update the database with the given SQL command.
+	 * @return Number of rows updated. */
+	public int update(String sql) throws TMSException {
 		Statement s = getStatement();
 		try {
-			s.executeUpdate(sql);
+			int n = s.executeUpdate(sql);
 			putStatement(s);
+			return n;
 		}
 		catch (SQLException e) {
 			SQL_LOG.log(sql + " -> " + e);
@@ -244,32 +382,112 @@ public class SQLConnection {
 		}
 	}
 
+	/** Get the WHERE clause for a storable record */
+	static private String whereKey(Storable s) throws ChangeVetoException {
+		String key = escapeValue(s.getPKey());
+		validateValue(key);
+		return " WHERE " + s.getPKeyName() + " = '" + key + "'";
+	}
+
+	/** Delete records from a table in chunks.  Each chunk is a separate
+	 * statement (and transaction), so a large purge never holds locks
+	 * for long or blocks inserts.  Records left over when the time budget
+	 * runs out are deleted by the next purge.
+	 * @param table Table name.
+	 * @param where Condition for records to delete.
+	 * @return Number of records deleted. */
+	public int purge(String table, String where) throws TMSException {
+		validateIdentifier(table);
+		long start = TimeSteward.currentTimeMillis();
+		long end = start + PURGE_BUDGET_MS;
+		String sql = "DELETE FROM " + table + " WHERE ctid IN " +
+			"(SELECT ctid FROM " + table + " WHERE " + where +
+			" LIMIT " + PURGE_CHUNK + ");";
+		int total = 0;
+		boolean done = false;
+		while (!done && TimeSteward.currentTimeMillis() < end) {
+			int n = update(sql);
+			total += n;
+			done = n < PURGE_CHUNK;
+		}
+		if (PURGE_LOG.isOpen()) {
+			long ms = TimeSteward.currentTimeMillis() - start;
+			PURGE_LOG.log(table + ": " + total + " rows, " + ms +
+				" ms" + (done ? "" : " (budget expired)"));
+		}
+		return total;
+	}
+
 	/** Update one field in a storable database table */
 	public void update(Storable s, String field, Object value)
 		throws TMSException
 	{
 		validateIdentifier(field);
-		String key = escapeValue(s.getPKey());
-		validateValue(key);
-		if (value == null) {
-			updateNull(s, field, key);
-			return;
-		}
-		String av = prepareArray(value);
-		String ev = escapeValue(av);
-		validateValue(ev);
+		String where = whereKey(s);
 		update("UPDATE " + s.getTable() +
-		      " SET " + field + " = '" + ev + "'" +
-		      " WHERE " + s.getPKeyName() + " = '" + key + "';");
+		      " SET " + field + " = " + sqlValue(value) + where + ";");
 	}
 
-	/** Update one field with a NULL value */
-	private void updateNull(Storable s, String field, String key)
+	/** Pending status updates, by table and key.  Access synchronized on
+	 * the map itself. */
+	private final LinkedHashMap<String, StatusRow> pending =
+		new LinkedHashMap<String, StatusRow>();
+
+	/** Update one status field in a storable database table later.
+	 *
+	 * The update is only validated immediately -- it is written when
+	 * pending status is flushed.  Only the latest value of each field is
+	 * kept, and all fields of a record are written in one statement.
+	 * A field updated this way should never be updated directly, or the
+	 * pending value could overwrite a newer one. */
+	public void updateStatus(Storable s, String field, Object value)
 		throws TMSException
 	{
-		update("UPDATE " + s.getTable() +
-		      " SET " + field + " = NULL" +
-		      " WHERE " + s.getPKeyName() + " = '" + key + "';");
+		validateIdentifier(field);
+		String where = whereKey(s);
+		String v = sqlValue(value);
+		String rk = s.getTable() + where;
+		synchronized (pending) {
+			StatusRow row = pending.get(rk);
+			if (null == row) {
+				row = new StatusRow(s.getTable(), where);
+				pending.put(rk, row);
+			}
+			row.values.put(field, v);
+		}
+	}
+
+	/** Flush all pending status updates in one batch */
+	public void flushStatus() {
+		ArrayList<String> stmts;
+		synchronized (pending) {
+			if (pending.isEmpty())
+				return;
+			stmts = new ArrayList<String>(pending.size());
+			for (StatusRow row: pending.values())
+				stmts.add(row.toSql());
+			pending.clear();
+		}
+		final Iterator<String> it = stmts.iterator();
+		try {
+			batch(new BatchFactory() {
+				public String next() {
+					return it.hasNext() ? it.next() : null;
+				}
+			});
+		}
+		catch (TMSException e) {
+			// Retry one at a time, so one bad record only loses
+			// its own update (errors are logged by update)
+			for (String sql: stmts) {
+				try {
+					update(sql);
+				}
+				catch (TMSException e2) {
+					// try the next one
+				}
+			}
+		}
 	}
 
 	/** Create one storable record */
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2016-2023  Minnesota Department of Transportation
+ * Copyright (C) 2016-2026  Minnesota Department of Transportation
  * Copyright (C) 2021  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -344,6 +344,7 @@ public class SignConfigImpl extends BaseObjectImpl implements SignConfig,
 		if (df != default_font) {
 			store.update(this, "default_font", df);
 			setDefaultFont(df);
+			RasterCache.invalidate();
 		}
 	}
 
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2023  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -18,9 +18,12 @@ import java.io.IOException;
 import java.io.Writer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import us.mn.state.dot.sched.DebugLog;
+import us.mn.state.dot.sched.TimeSteward;
 import us.mn.state.dot.sonar.SonarException;
 import us.mn.state.dot.tms.DMSHelper;
 import us.mn.state.dot.tms.SignConfig;
@@ -50,6 +53,53 @@ public class SignMessageImpl extends BaseObjectImpl implements SignMessage {
 			MSG_LOG.log(msg);
 	}
 
+	/** Time a message must be unreferenced before it can be reaped (ms) */
+	static private final long REAP_GRACE_MS = 60 * 1000;
+
+	/** A message released at a given time */
+	static private final class Released {
+		final SignMessageImpl msg;
+		final long time;
+		Released(SignMessageImpl sm, long t) {
+			msg = sm;
+			time = t;
+		}
+	}
+
+	/** Queue of released (unreferenced) messages, in release order */
+	static private final ConcurrentLinkedQueue<Released> RELEASED =
+		new ConcurrentLinkedQueue<Released>();
+
+	/** Acquire a reference to a sign message */
+	static void acquire(SignMessage sm) {
+		if (sm instanceof SignMessageImpl)
+			((SignMessageImpl) sm).acquireRef();
+	}
+
+	/** Release a reference to a sign message */
+	static void release(SignMessage sm) {
+		if (sm instanceof SignMessageImpl)
+			((SignMessageImpl) sm).releaseRef();
+	}
+
+	/** Find messages which can be reaped.  Only messages released at
+	 * least REAP_GRACE_MS before now are checked.
+	 * @param now Current time (ms).
+	 * @return Messages which have been unreferenced since release. */
+	static ArrayList<SignMessageImpl> findReapable(long now) {
+		ArrayList<SignMessageImpl> msgs =
+			new ArrayList<SignMessageImpl>();
+		while (true) {
+			Released r = RELEASED.peek();
+			if (null == r || r.time > now - REAP_GRACE_MS)
+				break;
+			RELEASED.poll();
+			if (r.msg.tryReap(r.time))
+				msgs.add(r.msg);
+		}
+		return msgs;
+	}
+
 	/** Create a unique sign message name */
 	static private String createUniqueName(SignConfig sc, String inc,
 		String ms, String owner, boolean fb, SignMsgPriority mp,
@@ -140,6 +190,7 @@ public class SignMessageImpl extends BaseObjectImpl implements SignMessage {
 	public SignMessageImpl(String n) {
 		super(n);
 		logMsg("created (client)");
+		queueRelease();
 	}
 
 	/** Create a sign message */
@@ -167,6 +218,7 @@ public class SignMessageImpl extends BaseObjectImpl implements SignMessage {
 		flash_beacon = fb;
 		msg_priority = mp;
 		duration = dur;
+		queueRelease();
 	}
 
 	/** Create a new sign message (by IRIS) */
@@ -182,6 +234,7 @@ public class SignMessageImpl extends BaseObjectImpl implements SignMessage {
 		msg_priority = mp.ordinal();
 		duration = dur;
 		logMsg("created (server)");
+		queueRelease();
 	}
 
 	/** Log a message */
@@ -190,6 +243,54 @@ public class SignMessageImpl extends BaseObjectImpl implements SignMessage {
 			MSG_LOG.log(getName() + ": " + msg);
 	}
 
+	/** Count of references by DMS */
+	private int refs = 0;
+
+	/** Time of last release (ms) */
+	private long release_time;
+
+	/** Flag indicating message has been reaped */
+	private boolean reaped = false;
+
+	/** Get the count of references by DMS */
+	synchronized int getRefs() {
+		return refs;
+	}
+
+	/** Acquire a reference */
+	private synchronized void acquireRef() {
+		refs++;
+		if (reaped)
+			logMsg("acquired after reap");
+	}
+
+	/** Release a reference */
+	private synchronized void releaseRef() {
+		if (refs > 0) {
+			refs--;
+			if (0 == refs)
+				queueRelease();
+		} else
+			logMsg("release without reference");
+	}
+
+	/** Queue message to be checked by the reaper */
+	private synchronized void queueRelease() {
+		release_time = TimeSteward.currentTimeMillis();
+		RELEASED.add(new Released(this, release_time));
+	}
+
+	/** Try to reap the message.
+	 * @param t Time of release.
+	 * @return true if message is unreferenced since that release. */
+	private synchronized boolean tryReap(long t) {
+		if (0 == refs && !reaped && release_time == t) {
+			reaped = true;
+			return true;
+		} else
+			return false;
+	}
+
 	/** Sign configuration */
 	private SignConfig sign_config;
 
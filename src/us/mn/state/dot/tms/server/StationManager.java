@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2004-2022  Minnesota Department of Transportation
+ * Copyright (C) 2004-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -14,9 +14,7 @@
  */
 package us.mn.state.dot.tms.server;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.text.SimpleDateFormat;
@@ -25,7 +23,6 @@ import java.util.Iterator;
 import us.mn.state.dot.tms.Station;
 import us.mn.state.dot.tms.StationHelper;
 import us.mn.state.dot.tms.utils.DevelCfg;
-import us.mn.state.dot.tms.utils.FileIO;
 
 /**
  * This class writes out station XML files.
@@ -73,10 +70,14 @@ class StationManager {
 	/** Write the station data out as XML */
 	public void writeSampleXml() throws IOException {
 		XmlWriter w = new XmlWriter(SAMPLE_XML, true) {
-			@Override protected void write(Writer w)
+			@Override protected void writeHead(Writer w)
 				throws IOException
 			{
 				writeSampleXmlHead(w);
+			}
+			@Override protected void write(Writer w)
+				throws IOException
+			{
 				writeSampleXmlBody(w);
 				writeSampleXmlTail(w);
 			}
@@ -86,37 +87,34 @@ class StationManager {
 
 	/** Write the station data out as JSON */
 	public void writeSampleJson() throws IOException {
-		File file = new File(JSON_OUTPUT_DIRECTORY, SAMPLE_JSON);
-		File temp = new File(file.getAbsolutePath() + "~");
-		FileWriter writer = new FileWriter(temp);
-		try {
-			writeSampleJson(writer);
-		}
-		finally {
-			writer.flush();
-			writer.close();
-		}
-		FileIO.atomicMove(temp.toPath(), file.toPath());
-	}
-
-	/** Write the station data out as JSON */
-	private void writeSampleJson(FileWriter writer) throws IOException {
-		BufferedWriter buf_writer = new BufferedWriter(writer);
-		try {
-			writeSampleJson(buf_writer);
-		}
-		finally {
-			buf_writer.flush();
-		}
+		XmlWriter w = new XmlWriter(JSON_OUTPUT_DIRECTORY, SAMPLE_JSON,
+			false)
+		{
+			@Override protected void writeHead(Writer w)
+				throws IOException
+			{
+				writeSampleJsonHead(w);
+			}
+			@Override protected void write(Writer w)
+				throws IOException
+			{
+				writeSampleJson(w);
+			}
+		};
+		w.write();
 	}
 
-	/** Write the station data out as JSON */
-	private void writeSampleJson(BufferedWriter writer) throws IOException {
-		int per_ms = DetectorImpl.BIN_PERIOD_MS;
+	/** Write the head of the station JSON file */
+	private void writeSampleJsonHead(Writer writer) throws IOException {
 		writer.write("{\n");
 		writer.write("\"time_stamp\":\"");
 		writer.write(RFC3339.format(new Date(stamp)));
 		writer.write("\",\n");
+	}
+
+	/** Write the station data out as JSON */
+	private void writeSampleJson(Writer writer) throws IOException {
+		int per_ms = DetectorImpl.BIN_PERIOD_MS;
 		writer.write("\"period\":30,\n");
 		writer.write("\"samples\":{\n");
 		Iterator<Station> it = StationHelper.iterator();
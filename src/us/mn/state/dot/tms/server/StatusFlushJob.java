@@ -0,0 +1,43 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.util.Calendar;
+import us.mn.state.dot.sched.Job;
+
+/**
+ * Job to flush pending device status updates to the database.
+ *
+ * @author Douglas Lau
+ */
+public class StatusFlushJob extends Job {
+
+	/** Seconds between flushes */
+	static private final int FLUSH_SECS = 5;
+
+	/** SQL connection */
+	private final SQLConnection store;
+
+	/** Create a new status flush job */
+	public StatusFlushJob(SQLConnection s) {
+		super(Calendar.SECOND, FLUSH_SECS);
+		store = s;
+	}
+
+	/** Perform the status flush job */
+	public void perform() {
+		store.flushStatus();
+	}
+}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2008-2022  Minnesota Department of Transportation
+ * Copyright (C) 2008-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -14,7 +14,6 @@
  */
 package us.mn.state.dot.tms.server;
 
-import java.sql.ResultSet;
 import java.util.HashMap;
 import java.util.Map;
 import us.mn.state.dot.sched.DebugLog;
@@ -42,16 +41,11 @@ public class SystemAttributeImpl extends BaseObjectImpl
 	/** Load all */
 	static protected void loadAll() throws TMSException {
 		namespace.registerType(SONAR_TYPE, SystemAttributeImpl.class);
-		store.query("SELECT name, value FROM iris." + SONAR_TYPE + ";",
-			new ResultFactory()
-		{
-			public void create(ResultSet row) throws Exception {
-				namespace.addObject(new SystemAttributeImpl(
-					row.getString(1), // name
-					row.getString(2)  // value
-				));
-			}
-		});
+		reloader.loadAll(SONAR_TYPE, "SELECT name, value FROM iris." +
+			SONAR_TYPE + ";", (row) -> new SystemAttributeImpl(
+				row.getString(1), // name
+				row.getString(2)  // value
+			));
 		validateDatabaseVersion();
 	}
 
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2010-2022  Minnesota Department of Transportation
+ * Copyright (C) 2010-2026  Minnesota Department of Transportation
  * Copyright (C) 2017-2021  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -903,7 +903,7 @@ public class WeatherSensorImpl extends DeviceImpl implements WeatherSensor {
 	/** Set the current JSON sample */
 	public void setSample(String s) {
 		try {
-			store.update(this, "sample", s);
+			store.updateStatus(this, "sample", s);
 		}
 		catch (TMSException e) {
 			logError("sample: " + e.getMessage());
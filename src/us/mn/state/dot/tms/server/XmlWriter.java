@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2005-2022  Minnesota Department of Transportation
+ * Copyright (C) 2005-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -15,18 +15,28 @@
 package us.mn.state.dot.tms.server;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.zip.GZIPOutputStream;
+import us.mn.state.dot.sched.DebugLog;
 import us.mn.state.dot.tms.utils.DevelCfg;
 import us.mn.state.dot.tms.utils.FileIO;
 
 /**
- * A simple class for writing out XML documents
+ * A simple class for writing out XML documents.  The document is rendered
+ * into a reusable buffer, and the file is only replaced when the content has
+ * changed since it was last written.  The document head (which may contain a
+ * time stamp) is not part of that check.
  *
  * @author Douglas Lau
  */
@@ -40,24 +50,102 @@ abstract public class XmlWriter {
 	static protected final String XML_DECLARATION =
 		"<?xml version='1.0' encoding='UTF-8'?>\n";
 
+	/** XML writer debug log */
+	static private final DebugLog XML_LOG = new DebugLog("xml");
+
+	/** Reusable content buffer */
+	static private class ContentBuffer extends ByteArrayOutputStream {
+		private ContentBuffer() {
+			super(64 * 1024);
+		}
+		private byte[] digest(int off) throws IOException {
+			try {
+				MessageDigest md = MessageDigest.getInstance(
+					"SHA-256");
+				md.update(buf, off, count - off);
+				return md.digest();
+			}
+			catch (NoSuchAlgorithmException e) {
+				throw new IOException(e);
+			}
+		}
+	}
+
+	/** Content buffer for each writing thread */
+	static private final ThreadLocal<ContentBuffer> BUFFER =
+		new ThreadLocal<ContentBuffer>()
+	{
+		@Override protected ContentBuffer initialValue() {
+			return new ContentBuffer();
+		}
+	};
+
+	/** Content digests of files last written, mapped by path */
+	static private final HashMap<String, byte[]> DIGESTS =
+		new HashMap<String, byte[]>();
+
+	/** Get the XML entity for a special character, or null */
+	static private String entity(char c) {
+		switch (c) {
+		case '&':
+			return "&amp;";
+		case '<':
+			return "&lt;";
+		case '>':
+			return "&gt;";
+		case '"':
+			return "&quot;";
+		case '\'':
+			return "&apos;";
+		default:
+			return null;
+		}
+	}
+
 	/** Validate an xml element name */
 	static public String validateElementName(String e) {
-		e = e.replace("&", "");
-		e = e.replace("<", "");
-		e = e.replace(">", "");
-		e = e.replace("\"", "");
-		e = e.replace("\'", "");
-		return e;
+		StringBuilder sb = null;
+		for (int i = 0; i < e.length(); i++) {
+			char c = e.charAt(i);
+			if (entity(c) != null) {
+				if (null == sb)
+					sb = new StringBuilder(e.substring(0, i));
+			} else if (sb != null)
+				sb.append(c);
+		}
+		return (sb != null) ? sb.toString() : e;
 	}
 
 	/** Validate an xml element value */
 	static public String validateElementValue(String v) {
-		v = v.replace("&", "&amp;");
-		v = v.replace("<", "&lt;");
-		v = v.replace(">", "&gt;");
-		v = v.replace("\"", "&quot;");
-		v = v.replace("\'", "&apos;");
-		return v;
+		StringBuilder sb = null;
+		for (int i = 0; i < v.length(); i++) {
+			char c = v.charAt(i);
+			String ent = entity(c);
+			if (ent != null) {
+				if (null == sb)
+					sb = new StringBuilder(v.substring(0, i));
+				sb.append(ent);
+			} else if (sb != null)
+				sb.append(c);
+		}
+		return (sb != null) ? sb.toString() : v;
+	}
+
+	/** Write an escaped xml element value */
+	static public void writeElementValue(Writer w, String v)
+		throws IOException
+	{
+		int start = 0;
+		for (int i = 0; i < v.length(); i++) {
+			String ent = entity(v.charAt(i));
+			if (ent != null) {
+				w.write(v, start, i - start);
+				w.write(ent);
+				start = i + 1;
+			}
+		}
+		w.write(v, start, v.length() - start);
 	}
 
 	/** Create an XML attribute */
@@ -73,6 +161,33 @@ abstract public class XmlWriter {
 			return "";
 	}
 
+	/** Write an XML attribute, without creating a string.
+	 * @param w Writer.
+	 * @param name Attribute name (must be valid).
+	 * @param value Attribute value (null for none). */
+	static public void writeAttribute(Writer w, String name, Object value)
+		throws IOException
+	{
+		if (value != null) {
+			w.write(' ');
+			w.write(name);
+			w.write("='");
+			writeElementValue(w, value.toString());
+			w.write('\'');
+		}
+	}
+
+	/** Write an integer XML attribute, without creating a string */
+	static public void writeAttribute(Writer w, String name, int value)
+		throws IOException
+	{
+		w.write(' ');
+		w.write(name);
+		w.write("='");
+		w.write(Integer.toString(value));
+		w.write('\'');
+	}
+
 	/** File to write final XML data */
 	protected final File file;
 
@@ -82,36 +197,80 @@ abstract public class XmlWriter {
 	/** Should the XML data be compressed? */
 	protected final boolean gzip;
 
-	/** Create a new XML writer */
-	public XmlWriter(String f, boolean gz) {
+	/** Create a new writer.
+	 * @param dir Output directory.
+	 * @param f File name.
+	 * @param gz Flag to compress data. */
+	protected XmlWriter(File dir, String f, boolean gz) {
 		if (gz)
 			f = f + ".gz";
-		file = new File(XML_OUTPUT_DIRECTORY, f);
+		file = new File(dir, f);
 		temp = new File(file.getAbsolutePath() + "~");
 		gzip = gz;
 	}
 
+	/** Create a new XML writer */
+	public XmlWriter(String f, boolean gz) {
+		this(XML_OUTPUT_DIRECTORY, f, gz);
+	}
+
 	/** Create the underlying output stream */
 	private OutputStream createOutputStream() throws IOException {
 		OutputStream os = new FileOutputStream(temp);
 		return (gzip) ? new GZIPOutputStream(os) : os;
 	}
 
-	/** Write the XML file */
-	public void write() throws IOException {
+	/** Write the XML file.
+	 * @return Number of bytes written to disk; zero if unchanged. */
+	public long write() throws IOException {
+		ContentBuffer buf = BUFFER.get();
+		buf.reset();
+		BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+			buf, StandardCharsets.UTF_8));
+		writeHead(bw);
+		bw.flush();
+		int head = buf.size();
+		write(bw);
+		bw.flush();
+		byte[] digest = buf.digest(head);
+		String path = file.getAbsolutePath();
+		if (isUnchanged(path, digest)) {
+			if (XML_LOG.isOpen())
+				XML_LOG.log(file.getName() + ": unchanged");
+			return 0;
+		}
 		OutputStream os = createOutputStream();
 		try {
-			BufferedWriter bw = new BufferedWriter(
-				new OutputStreamWriter(os));
-			write(bw);
-			bw.flush();
+			buf.writeTo(os);
 		}
 		finally {
 			os.close();
 		}
+		long bytes = temp.length();
 		FileIO.atomicMove(temp.toPath(), file.toPath());
+		synchronized (DIGESTS) {
+			DIGESTS.put(path, digest);
+		}
+		if (XML_LOG.isOpen()) {
+			XML_LOG.log(file.getName() + ": " + bytes + " bytes (" +
+				buf.size() + " raw)");
+		}
+		return bytes;
 	}
 
+	/** Check if the file content is unchanged since last written */
+	private boolean isUnchanged(String path, byte[] digest) {
+		synchronized (DIGESTS) {
+			return Arrays.equals(digest, DIGESTS.get(path)) &&
+			       file.exists();
+		}
+	}
+
+	/** Write the head of the XML to a writer.  The head is written
+	 * before the body, but it is not checked for changes, so a new time
+	 * stamp alone does not cause the file to be replaced. */
+	protected void writeHead(Writer w) throws IOException { }
+
 	/** Write the XML to a writer */
 	abstract protected void write(Writer w) throws IOException;
 }
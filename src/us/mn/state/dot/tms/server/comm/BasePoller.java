@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2016-2022  Minnesota Department of Transportation
+ * Copyright (C) 2016-2026  Minnesota Department of Transportation
  * Copyright (C) 2017       SRF Consulting Group
  *
  * This program is free software; you can redistribute it and/or modify
@@ -15,6 +15,7 @@
  */
 package us.mn.state.dot.tms.server.comm;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -32,11 +33,13 @@ import us.mn.state.dot.sched.DebugLog;
 import us.mn.state.dot.sched.ExceptionHandler;
 import us.mn.state.dot.sched.Job;
 import us.mn.state.dot.sched.Scheduler;
+import us.mn.state.dot.sched.TimingWheel;
 import us.mn.state.dot.sched.Work;
 import us.mn.state.dot.sched.Worker;
 import us.mn.state.dot.tms.CommConfig;
 import us.mn.state.dot.tms.CommLink;
 import us.mn.state.dot.tms.EventType;
+import us.mn.state.dot.tms.server.BaseObjectImpl;
 import us.mn.state.dot.tms.server.ControllerImpl;
 import us.mn.state.dot.tms.utils.HexString;
 import us.mn.state.dot.tms.utils.URIUtil;
@@ -70,8 +73,17 @@ abstract public class BasePoller implements DevicePoller {
 			return e.getClass().getSimpleName();
 	}
 
-	/** Buffer size */
-	static private final int BUF_SZ = 1 << 12;
+	/** Format the contents of a buffer */
+	static private String formatBuf(ByteBuffer buf, int off, int len) {
+		byte[] b = new byte[len];
+		ByteBuffer dup = buf.duplicate();
+		dup.position(off);
+		dup.get(b);
+		return HexString.format(b, ':');
+	}
+
+	/** Window value for no limit on operations in flight */
+	static protected final int NO_WINDOW = 0;
 
 	/** Poll error logger */
 	static private final DebugLog POLL_ERR = new DebugLog("poll_err");
@@ -85,8 +97,26 @@ abstract public class BasePoller implements DevicePoller {
 		}
 	};
 
-	/** Scheduler for processing comm operations */
-	static private final Scheduler COMM = new Scheduler("commx", HANDLER);
+	/** Number of comm scheduler shards */
+	static private final int N_SHARDS = Math.max(1, Math.min(4,
+		Runtime.getRuntime().availableProcessors()));
+
+	/** Schedulers for processing comm operations */
+	static private final Scheduler[] COMM = new Scheduler[N_SHARDS];
+	static {
+		for (int i = 0; i < N_SHARDS; i++)
+			COMM[i] = new Scheduler("commx_" + i, HANDLER);
+	}
+
+	/** Get the comm scheduler shard for a poller name.  All jobs for one
+	 * poller run on the same thread, so they stay in order. */
+	static private Scheduler commShard(String n) {
+		return COMM[Math.floorMod(n.hashCode(), N_SHARDS)];
+	}
+
+	/** Timing wheel for receive timeouts and idle disconnects */
+	static private final TimingWheel TIMERS = new TimingWheel("comm_timer",
+		10, 512, HANDLER);
 
 	/** Worker for logging to debug logs */
 	static private final Worker LOGGER = new Worker("logger", HANDLER);
@@ -94,6 +124,13 @@ abstract public class BasePoller implements DevicePoller {
 	/** Poller (comm link) name */
 	private final String name;
 
+	/** Scheduler for processing comm operations */
+	private final Scheduler comm;
+
+	/** Maximum number of operations waiting for a response, or NO_WINDOW.
+	 * Protocols which tag responses can use a window larger than 1. */
+	private final int window;
+
 	/** Default URI scheme */
 	private final URI scheme;
 
@@ -149,39 +186,78 @@ abstract public class BasePoller implements DevicePoller {
 		}
 	});
 
-	/** Transmit buffer */
+	/** Transmit buffer.  Access synchronized on tx_lock. */
 	private final ByteBuffer tx_buf;
 
-	/** Receive buffer */
+	/** Receive buffer.  Access synchronized on rx_lock. */
 	private final ByteBuffer rx_buf;
 
+	/** Transmit lock.  The pooled buffer is not used as a lock, since it
+	 * is owned by another poller after this one is destroyed. */
+	private final Object tx_lock = new Object();
+
+	/** Receive lock */
+	private final Object rx_lock = new Object();
+
+	/** Idle disconnect timer (comm thread only) */
+	private TimingWheel.Timer idle_timer;
+
 	/** Destroyed flag */
-	private boolean destroyed = false;
+	private volatile boolean destroyed = false;
 
-	/** Create a base poller */
-	protected BasePoller(CommLink link, URI s, boolean cot) {
+	/** Check if the poller has been destroyed */
+	public boolean isDestroyed() {
+		return destroyed;
+	}
+
+	/** Create a base poller.
+	 * @param link Comm link.
+	 * @param s Default URI scheme.
+	 * @param cot Flag to close channel on timeout.
+	 * @param win Window of operations in flight (or NO_WINDOW). */
+	protected BasePoller(CommLink link, URI s, boolean cot, int win) {
 		CommConfig cc = link.getCommConfig();
 		name = link.getName();
+		comm = commShard(name);
+		window = win;
 		scheme = s;
 		uri = link.getUri();
 		timeout_ms = cc.getTimeoutMs();
 		close_on_timeout = cot;
 		idle_disconnect_sec = cc.getIdleDisconnectSec();
 		logger = new DebugLog(name + ".log");
-		tx_buf = ByteBuffer.allocate(BUF_SZ);
-		rx_buf = ByteBuffer.allocate(BUF_SZ);
+		tx_buf = BufferPool.acquire();
+		rx_buf = BufferPool.acquire();
 		log("CREATED");
 	}
 
+	/** Create a base poller with no window */
+	protected BasePoller(CommLink link, URI s, boolean cot) {
+		this(link, s, cot, NO_WINDOW);
+	}
+
 	/** Destroy the poller */
 	@Override
 	public void destroy() {
 		destroyed = true;
+		TIMERS.cancel(idle_timer);
 		drainQueues();
 		closeChannel();
+		releaseBuffers();
 		log("DESTROYED");
 	}
 
+	/** Release buffers back to the pool.  Buffer users check the
+	 * destroyed flag while holding the buffer's lock. */
+	private void releaseBuffers() {
+		synchronized (tx_lock) {
+			BufferPool.release(tx_buf);
+		}
+		synchronized (rx_lock) {
+			BufferPool.release(rx_buf);
+		}
+	}
+
 	/** Drain the queues */
 	private void drainQueues() {
 		synchronized (op_set) {
@@ -201,6 +277,16 @@ abstract public class BasePoller implements DevicePoller {
 		return rx_buf;
 	}
 
+	/** Get the lock for the transmit buffer */
+	Object getTxLock() {
+		return tx_lock;
+	}
+
+	/** Get the lock for the receive buffer */
+	Object getRxLock() {
+		return rx_lock;
+	}
+
 	/** Connected state */
 	private boolean connected = false;
 
@@ -217,7 +303,7 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Add an operation to the device poller */
 	protected final void addOp(final Operation op) {
-		COMM.addJob(new Job() {
+		comm.addJob(new Job() {
 			@Override public String getName() {
 				return "addOp";
 			}
@@ -292,6 +378,7 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Add an operation to the poll queue */
 	private void addPollQueue(Operation op) {
+		op.markQueued();
 		synchronized (op_set) {
 			if (!p_queue.add(op)) {
 				// This should never happen
@@ -314,16 +401,57 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Schedule a timeout check */
 	private void scheduleTimeout() {
-		COMM.addJob(new Job(timeout_ms) {
+		TIMERS.schedule(timeout_ms, new Work() {
+			@Override public void perform() {
+				comm.addJob(new Job() {
+					@Override public String getName() {
+						return "checkTimeout";
+					}
+					@Override public void perform() {
+						checkTimeout();
+					}
+				});
+			}
+		});
+	}
+
+	/** Restart the idle disconnect timer (on comm thread) */
+	private void touchIdle() {
+		if (idle_disconnect_sec <= 0 || destroyed)
+			return;
+		long ms = idle_disconnect_sec * 1000L;
+		if (idle_timer != null)
+			TIMERS.reschedule(idle_timer, ms);
+		else {
+			idle_timer = TIMERS.schedule(ms, new Work() {
+				@Override public void perform() {
+					scheduleIdleCheck();
+				}
+			});
+		}
+	}
+
+	/** Schedule an idle disconnect check */
+	private void scheduleIdleCheck() {
+		comm.addJob(new Job() {
 			@Override public String getName() {
-				return "scheduleTimeout";
+				return "checkIdle";
 			}
 			@Override public void perform() {
-				checkTimeout();
+				checkIdle();
 			}
 		});
 	}
 
+	/** Close the channel if no operations are queued */
+	private void checkIdle() {
+		if (isPollEmpty() && r_queue.isEmpty() && isKeyValid()) {
+			if (logger.isOpen())
+				log("IDLE DISCONNECT");
+			closeChannel();
+		}
+	}
+
 	/** Check if the first operation has timed out */
 	private void checkTimeout() {
 		Iterator<Operation> it = r_queue.iterator();
@@ -341,6 +469,9 @@ abstract public class BasePoller implements DevicePoller {
 				closeChannel();
 			}
 			tryAddQueue(op);
+			// Window may have room for another operation
+			if (window != NO_WINDOW)
+				schedulePoll();
 		}
 	}
 
@@ -367,7 +498,7 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Open the channel */
 	private void openChannel() {
-		CommSelector sel = SelectorThread.getSelector();
+		CommSelector sel = SelectorThread.getSelector(name);
 		if (sel != null)
 			openChannel(sel);
 		else
@@ -376,8 +507,10 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Open the channel */
 	private void openChannel(CommSelector sel) {
-		synchronized (tx_buf) {
+		synchronized (tx_lock) {
 			closeChannel();
+			if (destroyed)
+				return;
 			try {
 				URI uri = createURI();
 				openChannel(sel, uri);
@@ -398,18 +531,20 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Clear the transmit buffer */
 	private void clearTxBuf() {
-		synchronized (tx_buf) {
-			tx_buf.clear();
+		synchronized (tx_lock) {
+			if (!destroyed)
+				tx_buf.clear();
 		}
 	}
 
 	/** Clear the receive buffer */
 	private void clearRxBuf() {
-		synchronized (rx_buf) {
+		synchronized (rx_lock) {
+			if (destroyed)
+				return;
 			if (logger.isOpen() && rx_buf.position() > 0) {
-				String hex = HexString.format(rx_buf.array(), 0,
-					rx_buf.position(), ':');
-				log("RECV " + hex);
+				log("RECV " + formatBuf(rx_buf, 0,
+					rx_buf.position()));
 			}
 			rx_buf.clear();
 		}
@@ -426,7 +561,7 @@ abstract public class BasePoller implements DevicePoller {
 			log("Exception -- " + ex_msg(e));
 		if (POLL_ERR.isOpen())
 			elog("Exception -- " + ex_msg(e));
-		synchronized (tx_buf) {
+		synchronized (tx_lock) {
 			// Don't need to close in this case
 			if (skey != null) {
 				skey.attach(null);
@@ -446,6 +581,21 @@ abstract public class BasePoller implements DevicePoller {
 		}
 	}
 
+	/** Write an exception to the error log, when it does not belong to
+	 * one poller.
+	 * @param n Name of the source.
+	 * @param e Exception to log. */
+	static void elog(String n, Exception e) {
+		if (POLL_ERR.isOpen()) {
+			final String msg = n + " Exception -- " + ex_msg(e);
+			LOGGER.addWork(new Work() {
+				@Override public void perform() {
+					POLL_ERR.log(msg);
+				}
+			});
+		}
+	}
+
 	/** Write a message to the error log */
 	private void elog(final String msg) {
 		if (POLL_ERR.isOpen()) {
@@ -457,12 +607,12 @@ abstract public class BasePoller implements DevicePoller {
 		}
 	}
 
-	/** Selection key for channel.  Access synchronized on tx_buf. */
+	/** Selection key for channel.  Access synchronized on tx_lock. */
 	private SelectionKey skey;
 
 	/** Close the channel */
 	private void closeChannel() {
-		synchronized (tx_buf) {
+		synchronized (tx_lock) {
 			if (skey != null) {
 				closeChannel(skey);
 				skey = null;
@@ -489,7 +639,7 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Schedule poll of operation */
 	private void schedulePoll() {
-		COMM.addJob(new Job() {
+		comm.addJob(new Job() {
 			@Override public String getName() {
 				return "schedulePoll";
 			}
@@ -501,12 +651,37 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Poll an operation */
 	private void pollOperation() {
-		Operation op = pollQueue();
-		if (op != null)
-			pollOperation(op);
+		if (NO_WINDOW == window) {
+			Operation op = pollQueue();
+			if (op != null)
+				pollOperation(op);
+		} else {
+			// Fill the window, but don't loop forever
+			for (int i = 0; i < window && isWindowOpen(); i++) {
+				Operation op = pollQueue();
+				if (null == op)
+					break;
+				pollOperation(op);
+			}
+		}
 		updateInterest(getInterest());
 	}
 
+	/** Check if the window allows another operation in flight */
+	private boolean isWindowOpen() {
+		int n_flight = 0;
+		for (Operation op: r_queue) {
+			// Operations waiting for unsolicited data are not
+			// counted, since they may never get a response
+			if (!op.isWaitingIndefinitely()) {
+				n_flight++;
+				if (n_flight >= window)
+					return false;
+			}
+		}
+		return true;
+	}
+
 	/** Get the first operation on the poll queue */
 	private Operation pollQueue() {
 		synchronized (op_set) {
@@ -516,12 +691,17 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Poll one operation */
 	private void pollOperation(Operation op) {
+		touchIdle();
 		try {
-			synchronized (tx_buf) {
+			synchronized (tx_lock) {
+				if (destroyed)
+					throw new EOFException("DESTROYED");
 				int off = tx_buf.position();
 				op.poll(tx_buf);
-				if (logger.isOpen())
-					log("SEND " + formatBuf(tx_buf, off));
+				if (logger.isOpen()) {
+					log("SEND " + formatBuf(tx_buf, off,
+						tx_buf.position() - off));
+				}
 			}
 		}
 		catch (ProtocolException e) {
@@ -542,15 +722,6 @@ abstract public class BasePoller implements DevicePoller {
 		}
 	}
 
-	/** Format the contents of a buffer */
-	private String formatBuf(ByteBuffer buf, int off) {
-		synchronized (buf) {
-			return HexString.format(buf.array(), off,
-			                        buf.position() - off,
-			                        ':');
-		}
-	}
-
 	/** Get the interest ops */
 	public int getInterest() {
 		return needsWrite()
@@ -560,14 +731,14 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Check if the transmit buffer needs writing */
 	private boolean needsWrite() {
-		synchronized (tx_buf) {
-			return tx_buf.position() > 0;
+		synchronized (tx_lock) {
+			return !destroyed && tx_buf.position() > 0;
 		}
 	}
 
 	/** Update interest ops */
 	private void updateInterest(int ops) {
-		synchronized (tx_buf) {
+		synchronized (tx_lock) {
 			if (skey != null) {
 				try {
 					if (!isConnecting())
@@ -589,7 +760,7 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Check for data in receive buffer */
 	public void checkReceive() {
-		COMM.addJob(new Job() {
+		comm.addJob(new Job() {
 			@Override public String getName() {
 				return "checkReceive";
 			}
@@ -601,23 +772,37 @@ abstract public class BasePoller implements DevicePoller {
 
 	/** Parse data in receive buffer */
 	private void parseReceive() {
+		touchIdle();
 		// Always iterate through all operations
 		// in case rx_buf contains multiple unrelated packets
 		Iterator<Operation> it = r_queue.iterator();
-		while (it.hasNext()) {
-			Operation op = it.next();
-			if (recvOperation(op)) {
-				it.remove();
-				tryAddQueue(op);
+		boolean done = false;
+		BaseObjectImpl.beginNotifyBatch();
+		try {
+			while (it.hasNext()) {
+				Operation op = it.next();
+				if (recvOperation(op)) {
+					it.remove();
+					tryAddQueue(op);
+					done = true;
+				}
 			}
 		}
+		finally {
+			BaseObjectImpl.endNotifyBatch();
+		}
 		clearRxBuf();
+		// Window may have room for another operation
+		if (done && window != NO_WINDOW)
+			schedulePoll();
 	}
 
 	/** Parse received data */
 	private boolean recvOperation(Operation op) {
 		try {
-			synchronized (rx_buf) {
+			synchronized (rx_lock) {
+				if (destroyed)
+					throw new EOFException("DESTROYED");
 				ByteBuffer rx = rx_buf.asReadOnlyBuffer();
 				rx.flip();
 				op.recv(rx);
@@ -0,0 +1,67 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct byte buffers for non-blocking channel I/O.  Direct buffers
+ * are expensive to allocate and are not freed until garbage collection, so
+ * they are reused when pollers are destroyed and created again.
+ *
+ * @author Douglas Lau
+ */
+public final class BufferPool {
+
+	/** Buffer size */
+	static public final int BUF_SZ = 1 << 12;
+
+	/** Maximum number of free buffers to keep */
+	static private final int MAX_FREE = 64;
+
+	/** Free buffers */
+	static private final ConcurrentLinkedQueue<ByteBuffer> FREE =
+		new ConcurrentLinkedQueue<ByteBuffer>();
+
+	/** Number of free buffers */
+	static private final AtomicInteger N_FREE = new AtomicInteger();
+
+	/** Acquire a cleared buffer from the pool */
+	static public ByteBuffer acquire() {
+		ByteBuffer buf = FREE.poll();
+		if (buf != null) {
+			N_FREE.decrementAndGet();
+			buf.clear();
+			return buf;
+		} else
+			return ByteBuffer.allocateDirect(BUF_SZ);
+	}
+
+	/** Release a buffer back to the pool.  The caller must not use the
+	 * buffer after releasing it. */
+	static public void release(ByteBuffer buf) {
+		if (buf.isDirect() && buf.capacity() == BUF_SZ) {
+			if (N_FREE.incrementAndGet() <= MAX_FREE)
+				FREE.offer(buf);
+			else
+				N_FREE.decrementAndGet();
+		}
+	}
+
+	/** Don't allow instantiation */
+	private BufferPool() { }
+}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2010-2022  Minnesota Department of Transportation
+ * Copyright (C) 2010-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -78,8 +78,20 @@ public class CommMessageImpl<T extends ControllerProperty>
 			os.flush();
 		}
 		for (T p: props) {
-			p.decodeQuery(c, messenger.getInputStream(
-				p.getPathQuery(), c));
+			String pq = p.getPathQuery();
+			if (p.isFeed()) {
+				// Feed state is only committed if the feed
+				// was decoded without errors
+				try (InputStream is = messenger
+					.getFeedInputStream(pq, c))
+				{
+					if (is != null) {
+						p.decodeQuery(c, is);
+						HttpFeedClient.commit(is);
+					}
+				}
+			} else
+				p.decodeQuery(c, messenger.getInputStream(pq, c));
 			logQuery(p);
 		}
 	}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2016-2017  Minnesota Department of Transportation
+ * Copyright (C) 2016-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -62,7 +62,6 @@ public class CommSelector implements Closeable {
 
 	/** Select and perform ready I/O */
 	private void doSelect() throws IOException {
-		// FIXME: handle idle disconnect
 		selector.select();
 		Iterator<SelectionKey> it = selector.selectedKeys().iterator();
 		while (it.hasNext()) {
@@ -76,6 +75,11 @@ public class CommSelector implements Closeable {
 
 	/** Handle ready events on a selection key */
 	private void handleReady(SelectionKey skey) {
+		Object a = skey.attachment();
+		if (a instanceof DatagramMux) {
+			handleMux((DatagramMux) a);
+			return;
+		}
 		BasePoller bp = attachedPoller(skey);
 		if (bp != null)
 			handleReady(skey, bp);
@@ -99,6 +103,18 @@ public class CommSelector implements Closeable {
 		}
 	}
 
+	/** Handle ready events for a datagram mux */
+	private void handleMux(DatagramMux mux) {
+		try {
+			mux.receivePackets();
+		}
+		catch (IOException e) {
+			// Shared channel stays open; a bad packet
+			// (e.g. ICMP port unreachable) is not fatal
+			BasePoller.elog("udp_mux", e);
+		}
+	}
+
 	/** Get the attached poller */
 	private BasePoller attachedPoller(SelectionKey skey) {
 		Object a = skey.attachment();
@@ -135,8 +151,11 @@ public class CommSelector implements Closeable {
 	private void handleWrite(SelectionKey skey, WritableByteChannel chan,
 		BasePoller bp) throws IOException
 	{
-		ByteBuffer tx_buf = bp.getTxBuffer();
-		synchronized (tx_buf) {
+		synchronized (bp.getTxLock()) {
+			// Buffer may have been returned to the pool
+			if (bp.isDestroyed())
+				throw new EOFException("DESTROYED");
+			ByteBuffer tx_buf = bp.getTxBuffer();
 			tx_buf.flip();
 			chan.write(tx_buf);
 			tx_buf.compact();
@@ -160,9 +179,11 @@ public class CommSelector implements Closeable {
 		throws IOException
 	{
 		int n_bytes;
-		ByteBuffer rx_buf = bp.getRxBuffer();
-		synchronized (rx_buf) {
-			n_bytes = chan.read(rx_buf);
+		synchronized (bp.getRxLock()) {
+			// Buffer may have been returned to the pool
+			if (bp.isDestroyed())
+				throw new EOFException("DESTROYED");
+			n_bytes = chan.read(bp.getRxBuffer());
 		}
 		if (n_bytes > 0)
 			bp.checkReceive();
@@ -229,13 +250,20 @@ public class CommSelector implements Closeable {
 		return register(sc, SelectionKey.OP_CONNECT, bp);
 	}
 
+	/** Register a shared datagram channel with the selector */
+	public SelectionKey registerMux(DatagramChannel dc, DatagramMux mux)
+		throws IOException
+	{
+		return register(dc, SelectionKey.OP_READ, mux);
+	}
+
 	/** Register a channel with the selector */
 	private synchronized SelectionKey register(AbstractSelectableChannel ch,
-		int ops, BasePoller bp) throws IOException
+		int ops, Object att) throws IOException
 	{
 		// NOTE: must wake up the selector because locking
 		//       on this is really screwy
 		selector.wakeup();
-		return ch.register(selector, ops, bp);
+		return ch.register(selector, ops, att);
 	}
 }
@@ -0,0 +1,260 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import us.mn.state.dot.tms.CommConfig;
+import us.mn.state.dot.tms.CommLink;
+import us.mn.state.dot.tms.CommProtocol;
+import us.mn.state.dot.tms.EventType;
+import us.mn.state.dot.tms.server.ControllerImpl;
+import us.mn.state.dot.tms.utils.LatencyHistogram;
+
+/**
+ * Comm statistics, aggregated by comm link, protocol and operation.  Poll
+ * latency and queue wait times are recorded in microseconds.
+ *
+ * @author Douglas Lau
+ */
+public final class CommStats {
+
+	/** Statistics by comm link */
+	static private final ConcurrentHashMap<String, CommStats> LINKS =
+		new ConcurrentHashMap<String, CommStats>();
+
+	/** Statistics by protocol */
+	static private final ConcurrentHashMap<String, CommStats> PROTOCOLS =
+		new ConcurrentHashMap<String, CommStats>();
+
+	/** Statistics by operation */
+	static private final ConcurrentHashMap<String, CommStats> OPS =
+		new ConcurrentHashMap<String, CommStats>();
+
+	/** Lookup statistics in a map */
+	static private CommStats lookup(ConcurrentHashMap<String, CommStats> m,
+		String key)
+	{
+		CommStats cs = m.get(key);
+		if (null == cs) {
+			m.putIfAbsent(key, new CommStats());
+			cs = m.get(key);
+		}
+		return cs;
+	}
+
+	/** Get the protocol name of a comm link */
+	static private String protocolName(CommLink cl) {
+		CommConfig cc = cl.getCommConfig();
+		CommProtocol cp = (cc != null)
+		                ? CommProtocol.fromOrdinal(cc.getProtocol())
+		                : null;
+		return (cp != null) ? cp.name() : "UNKNOWN";
+	}
+
+	/** Do something with each statistics object for a poll */
+	static private void forEach(ControllerImpl c, String op, Recorder r) {
+		CommLink cl = c.getCommLink();
+		if (cl != null) {
+			r.record(lookup(LINKS, cl.getName()));
+			r.record(lookup(PROTOCOLS, protocolName(cl)));
+		}
+		r.record(lookup(OPS, op));
+	}
+
+	/** Interface for recording statistics */
+	private interface Recorder {
+		void record(CommStats cs);
+	}
+
+	/** Record a completed poll.
+	 * @param c Controller polled.
+	 * @param op Operation name.
+	 * @param lat_us Poll latency (microseconds).
+	 * @param wait_us Queue wait before poll (microseconds). */
+	static public void recordPoll(ControllerImpl c, String op,
+		final long lat_us, final long wait_us)
+	{
+		forEach(c, op, new Recorder() {
+			public void record(CommStats cs) {
+				cs.latency.record(lat_us);
+				cs.queue_wait.record(wait_us);
+			}
+		});
+	}
+
+	/** Record a comm error.
+	 * @param c Controller polled.
+	 * @param op Operation name.
+	 * @param et Event type. */
+	static public void recordError(ControllerImpl c, String op,
+		final EventType et)
+	{
+		forEach(c, op, new Recorder() {
+			public void record(CommStats cs) {
+				if (EventType.POLL_TIMEOUT_ERROR == et)
+					cs.timeouts.incrementAndGet();
+				else
+					cs.errors.incrementAndGet();
+			}
+		});
+	}
+
+	/** Quote a JSON string */
+	static private String quote(String s) {
+		return '"' + s.replace("\\", "\\\\").replace("\"", "\\\"") +
+			'"';
+	}
+
+	/** Write all statistics as JSON */
+	static public void writeJson(Writer w) throws IOException {
+		w.write("{\n");
+		writeJson(w, "links", LINKS);
+		w.write(",\n");
+		writeJson(w, "protocols", PROTOCOLS);
+		w.write(",\n");
+		writeJson(w, "operations", OPS);
+		w.write("\n}\n");
+	}
+
+	/** Write one map of statistics as JSON */
+	static private void writeJson(Writer w, String name,
+		Map<String, CommStats> m) throws IOException
+	{
+		w.write(quote(name) + ": {");
+		boolean first = true;
+		for (Map.Entry<String, CommStats> e: sorted(m).entrySet()) {
+			w.write(first ? "\n" : ",\n");
+			w.write("  " + quote(e.getKey()) + ": ");
+			e.getValue().writeObject(w);
+			first = false;
+		}
+		w.write("\n}");
+	}
+
+	/** Get a sorted copy of a map */
+	static private TreeMap<String, CommStats> sorted(
+		Map<String, CommStats> m)
+	{
+		return new TreeMap<String, CommStats>(m);
+	}
+
+	/** Quantiles for Prometheus summaries */
+	static private final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+	/** Write all statistics as Prometheus text.  Each aggregation has
+	 * its own metric names (e.g. iris_comm_link_latency_seconds), since
+	 * every poll is counted once in each aggregation. */
+	static public void writePrometheus(Writer w) throws IOException {
+		writePrometheus(w, "link", LINKS);
+		writePrometheus(w, "protocol", PROTOCOLS);
+		writePrometheus(w, "operation", OPS);
+	}
+
+	/** Write one aggregation of statistics as Prometheus text */
+	static private void writePrometheus(Writer w, String label,
+		Map<String, CommStats> m) throws IOException
+	{
+		String pre = "iris_comm_" + label + '_';
+		TreeMap<String, CommStats> all = sorted(m);
+		w.write("# TYPE " + pre + "latency_seconds summary\n");
+		for (Map.Entry<String, CommStats> e: all.entrySet()) {
+			writeSummary(w, pre + "latency_seconds",
+				label(label, e.getKey()), e.getValue().latency);
+		}
+		w.write("# TYPE " + pre + "queue_wait_seconds summary\n");
+		for (Map.Entry<String, CommStats> e: all.entrySet()) {
+			writeSummary(w, pre + "queue_wait_seconds",
+				label(label, e.getKey()),
+				e.getValue().queue_wait);
+		}
+		w.write("# TYPE " + pre + "timeouts_total counter\n");
+		for (Map.Entry<String, CommStats> e: all.entrySet()) {
+			w.write(pre + "timeouts_total{" +
+				label(label, e.getKey()) + "} " +
+				e.getValue().timeouts.get() + '\n');
+		}
+		w.write("# TYPE " + pre + "errors_total counter\n");
+		for (Map.Entry<String, CommStats> e: all.entrySet()) {
+			w.write(pre + "errors_total{" +
+				label(label, e.getKey()) + "} " +
+				e.getValue().errors.get() + '\n');
+		}
+	}
+
+	/** Make a Prometheus label */
+	static private String label(String name, String value) {
+		return name + '=' + quote(value);
+	}
+
+	/** Write a Prometheus summary */
+	static private void writeSummary(Writer w, String metric, String lbl,
+		LatencyHistogram h) throws IOException
+	{
+		for (double q: QUANTILES) {
+			w.write(metric + '{' + lbl + ",quantile=\"" + q +
+				"\"} " + seconds(h.getPercentile(q * 100)) +
+				'\n');
+		}
+		w.write(metric + "_sum{" + lbl + "} " + seconds(h.getSum()) +
+			'\n');
+		w.write(metric + "_count{" + lbl + "} " + h.getCount() +
+			'\n');
+	}
+
+	/** Convert microseconds to seconds */
+	static private double seconds(long us) {
+		return us / 1000000.0;
+	}
+
+	/** Convert microseconds to milliseconds */
+	static private double millis(long us) {
+		return Math.round(us / 100.0) / 10.0;
+	}
+
+	/** Poll latency histogram */
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	/** Queue wait histogram */
+	private final LatencyHistogram queue_wait = new LatencyHistogram();
+
+	/** Count of timeouts */
+	private final AtomicLong timeouts = new AtomicLong();
+
+	/** Count of other errors */
+	private final AtomicLong errors = new AtomicLong();
+
+	/** Don't allow instantiation outside this class */
+	private CommStats() { }
+
+	/** Write statistics as a JSON object */
+	private void writeObject(Writer w) throws IOException {
+		w.write("{\"polls\":" + latency.getCount() +
+			",\"p50_ms\":" + millis(latency.getPercentile(50)) +
+			",\"p90_ms\":" + millis(latency.getPercentile(90)) +
+			",\"p99_ms\":" + millis(latency.getPercentile(99)) +
+			",\"max_ms\":" + millis(latency.getMax()) +
+			",\"wait_p50_ms\":" +
+			millis(queue_wait.getPercentile(50)) +
+			",\"wait_p99_ms\":" +
+			millis(queue_wait.getPercentile(99)) +
+			",\"timeouts\":" + timeouts.get() +
+			",\"errors\":" + errors.get() + '}');
+	}
+}
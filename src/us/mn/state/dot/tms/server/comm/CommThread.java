@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2022  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2017-2020  SRF Consulting Group
  *
  * This program is free software; you can redistribute it and/or modify
@@ -25,6 +25,7 @@ import us.mn.state.dot.sched.TimeSteward;
 import us.mn.state.dot.tms.EventType;
 import static us.mn.state.dot.tms.EventType.COMM_ERROR;
 import static us.mn.state.dot.tms.EventType.CONNECTION_REFUSED;
+import us.mn.state.dot.tms.server.BaseObjectImpl;
 import us.mn.state.dot.tms.server.ControllerImpl;
 
 /**
@@ -252,6 +253,23 @@ public class CommThread<T extends ControllerProperty> {
 	 * @throws IOException if an unrecoverable IO error happens. */
 	private void doPoll(Messenger m, final OpController<T> o)
 		throws IOException
+	{
+		BaseObjectImpl.beginNotifyBatch();
+		try {
+			doPollBatch(m, o);
+		}
+		finally {
+			BaseObjectImpl.endNotifyBatch();
+		}
+	}
+
+	/** Perform one poll for an operation, with attribute notifications
+	 * batched.
+	 * @param m Messenger to communicate with controller.
+	 * @param o Operation to poll.
+	 * @throws IOException if an unrecoverable IO error happens. */
+	private void doPollBatch(Messenger m, final OpController<T> o)
+		throws IOException
 	{
 		try {
 			o.poll(createCommMessage(m, o));
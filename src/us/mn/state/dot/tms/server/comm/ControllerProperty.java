@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2010-2022  Minnesota Department of Transportation
+ * Copyright (C) 2010-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -220,6 +220,12 @@ abstract public class ControllerProperty {
 				":" + bcd1);
 	}
 
+	/** Check if the property is a feed, which does not need to be
+	 * decoded when unchanged since the previous query */
+	public boolean isFeed() {
+		return false;
+	}
+
 	/** Get the path + query for a property */
 	public String getPathQuery() {
 		return "";
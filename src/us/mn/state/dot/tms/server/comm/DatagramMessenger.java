@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2009-2020  Minnesota Department of Transportation
+ * Copyright (C) 2009-2026  Minnesota Department of Transportation
  * Copyright (C) 2020       SRF Consulting Group
  *
  * This program is free software; you can redistribute it and/or modify
@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.SocketTimeoutException;
 import java.net.URI;
@@ -29,7 +30,8 @@ import us.mn.state.dot.tms.server.ControllerImpl;
 
 /**
  * A DatagramMessenger is a class which can poll a field controller and get the
- * response using a UDP socket connection.
+ * response using a UDP socket connection.  When possible, the socket is
+ * shared with other messengers through a DatagramMux.
  *
  * @author Douglas Lau
  * @author John L. Stanley - SRF Consulting
@@ -55,7 +57,10 @@ public class DatagramMessenger extends BasicMessenger {
 	/** Receive timeout (ms) */
 	private final int timeout;
 
-	/** UDP socket */
+	/** Endpoint on a shared channel (null for dedicated socket) */
+	private final DatagramMux.Endpoint endpoint;
+
+	/** Dedicated UDP socket (null for shared endpoint) */
 	private final DatagramSocket socket;
 
 	/** Input stream */
@@ -76,9 +81,13 @@ public class DatagramMessenger extends BasicMessenger {
 		port = p;
 		remote = ra;
 		timeout = rt;
-		socket = createSocket();
-		socket.setSoTimeout(timeout);
-		socket.connect(remote);
+		endpoint = openEndpoint();
+		if (null == endpoint) {
+			socket = createSocket();
+			socket.setSoTimeout(timeout);
+			socket.connect(remote);
+		} else
+			socket = null;
 		input = new DatagramInputStream();
 		output = new DatagramOutputStream();
 	}
@@ -92,6 +101,13 @@ public class DatagramMessenger extends BasicMessenger {
 		this(null, ra, rt, nrd);
 	}
 
+	/** Open an endpoint on a shared channel */
+	private DatagramMux.Endpoint openEndpoint() throws IOException {
+		return (null == port && remote instanceof InetSocketAddress)
+		      ? DatagramMux.open((InetSocketAddress) remote)
+		      : null;
+	}
+
 	/** Create the socket */
 	private DatagramSocket createSocket() throws IOException {
 		return (port != null)
@@ -124,8 +140,12 @@ public class DatagramMessenger extends BasicMessenger {
 	/** Close the datagram messenger */
 	@Override
 	protected void close2() {
-		socket.disconnect();
-		socket.close();
+		if (endpoint != null)
+			endpoint.close();
+		else {
+			socket.disconnect();
+			socket.close();
+		}
 	}
 
 	/** Output stream for sending datagrams */
@@ -147,6 +167,12 @@ public class DatagramMessenger extends BasicMessenger {
 		/** Flush packet to datagram */
 		@Override
 		public void flush() throws IOException {
+			if (endpoint != null) {
+				buffer.flip();
+				endpoint.send(buffer);
+				buffer.clear();
+				return;
+			}
 			packet.setLength(buffer.position());
 			buffer.clear();
 			socket.send(packet);
@@ -188,6 +214,14 @@ public class DatagramMessenger extends BasicMessenger {
 
 		/** Receive and buffer a datagram */
 		private void receivePacket() throws IOException {
+			if (endpoint != null) {
+				byte[] pkt = endpoint.receive(timeout);
+				buffer.clear();
+				buffer.put(pkt, 0, Math.min(pkt.length,
+					buffer.capacity()));
+				buffer.flip();
+				return;
+			}
 			packet.setLength(1024);
 			socket.receive(packet);
 			buffer.position(0);
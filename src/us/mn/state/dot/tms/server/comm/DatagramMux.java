@@ -0,0 +1,167 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A datagram mux shares a few UDP channels among many datagram messengers.
+ * The channels are non-blocking, and registered with comm selectors.  Each
+ * received packet is dispatched to the endpoint for its remote address.
+ *
+ * @author Douglas Lau
+ */
+public final class DatagramMux {
+
+	/** Number of shared channels */
+	static private final int N_CHANNELS = 4;
+
+	/** Maximum packet size */
+	static private final int MAX_PACKET = 1024;
+
+	/** Maximum number of packets queued for one endpoint */
+	static private final int MAX_QUEUED = 16;
+
+	/** Shared muxes (created on first use) */
+	static private DatagramMux[] MUXES;
+
+	/** Get the shared muxes */
+	static private synchronized DatagramMux[] getMuxes()
+		throws IOException
+	{
+		if (null == MUXES) {
+			DatagramMux[] muxes = new DatagramMux[N_CHANNELS];
+			for (int i = 0; i < N_CHANNELS; i++)
+				muxes[i] = new DatagramMux(i);
+			MUXES = muxes;
+		}
+		return MUXES;
+	}
+
+	/** Open an endpoint for a remote address.
+	 * @param remote Remote socket address.
+	 * @return Endpoint on a shared channel, or null if the address is
+	 *         unresolved or already has an endpoint. */
+	static public Endpoint open(InetSocketAddress remote)
+		throws IOException
+	{
+		if (remote.isUnresolved())
+			return null;
+		DatagramMux[] muxes = getMuxes();
+		int i = Math.floorMod(remote.hashCode(), muxes.length);
+		return muxes[i].createEndpoint(remote);
+	}
+
+	/** Shared UDP channel */
+	private final DatagramChannel channel;
+
+	/** Endpoints by remote address */
+	private final ConcurrentHashMap<SocketAddress, Endpoint> endpoints =
+		new ConcurrentHashMap<SocketAddress, Endpoint>();
+
+	/** Receive buffer (selector thread only) */
+	private final ByteBuffer rx_buf = ByteBuffer.allocate(MAX_PACKET);
+
+	/** Create a new datagram mux */
+	private DatagramMux(int i) throws IOException {
+		channel = DatagramChannel.open();
+		channel.configureBlocking(false);
+		channel.bind(null);
+		CommSelector sel = SelectorThread.getSelector("udp_mux_" + i);
+		if (null == sel)
+			throw new IOException("No CommSelector");
+		sel.registerMux(channel, this);
+	}
+
+	/** Create an endpoint */
+	private Endpoint createEndpoint(SocketAddress remote) {
+		Endpoint ep = new Endpoint(remote);
+		return (endpoints.putIfAbsent(remote, ep) == null) ? ep : null;
+	}
+
+	/** Receive all available packets (on selector thread) */
+	void receivePackets() throws IOException {
+		while (true) {
+			rx_buf.clear();
+			SocketAddress src = channel.receive(rx_buf);
+			if (null == src)
+				return;
+			Endpoint ep = endpoints.get(src);
+			if (ep != null) {
+				rx_buf.flip();
+				byte[] pkt = new byte[rx_buf.remaining()];
+				rx_buf.get(pkt);
+				// Drop packet if endpoint queue is full
+				ep.packets.offer(pkt);
+			}
+		}
+	}
+
+	/** An endpoint for one remote address on a shared channel */
+	public class Endpoint {
+
+		/** Remote address */
+		private final SocketAddress remote;
+
+		/** Received packets */
+		private final LinkedBlockingQueue<byte[]> packets =
+			new LinkedBlockingQueue<byte[]>(MAX_QUEUED);
+
+		/** Create a new endpoint */
+		private Endpoint(SocketAddress ra) {
+			remote = ra;
+		}
+
+		/** Send a packet to the remote address */
+		public void send(ByteBuffer buf) throws IOException {
+			// Non-blocking send only fails if the socket send
+			// buffer is full, which is a datagram loss anyway
+			channel.send(buf, remote);
+		}
+
+		/** Receive a packet from the remote address.
+		 * @param timeout Receive timeout (ms).
+		 * @return Received packet.
+		 * @throws SocketTimeoutException if no packet is received. */
+		public byte[] receive(int timeout) throws IOException {
+			try {
+				byte[] pkt = packets.poll(timeout,
+					TimeUnit.MILLISECONDS);
+				if (pkt != null)
+					return pkt;
+			}
+			catch (InterruptedException e) {
+				// Keep the interrupt for the caller; treat
+				// it as a timeout
+				Thread.currentThread().interrupt();
+			}
+			throw new SocketTimeoutException("Receive timed out");
+		}
+
+		/** Close the endpoint */
+		public void close() {
+			endpoints.remove(remote, this);
+			packets.clear();
+		}
+	}
+}
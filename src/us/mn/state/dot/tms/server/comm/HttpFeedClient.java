@@ -0,0 +1,262 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_UNAUTHORIZED;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import us.mn.state.dot.sched.DebugLog;
+import us.mn.state.dot.tms.utils.CaptureInputStream;
+
+/**
+ * HTTP feed client.  Feeds are polled repeatedly, and are often unchanged
+ * between polls.  Requests are made conditional on the validators (ETag /
+ * Last-Modified) from the previous response, and accept gzip content
+ * encoding.  When a server provides no validators, the body is hashed, and
+ * an unchanged body is not returned for parsing.
+ *
+ * The validators or hash of a response are only kept when commit is
+ * called, after the body has been parsed without errors.  Otherwise, the
+ * next poll fetches and parses the whole feed again.
+ *
+ * Response streams are always read to the end and closed, so that the
+ * connection can be reused (HTTP keep-alive).
+ *
+ * @author Douglas Lau
+ */
+public class HttpFeedClient {
+
+	/** HTTP feed debug log */
+	static private final DebugLog FEED_LOG = new DebugLog("http_feed");
+
+	/** Maximum number of URLs to remember */
+	static private final int MAX_URLS = 16;
+
+	/** Maximum body bytes hashed in memory before spilling to disk */
+	static private final int MEM_MAX = 1 << 20;
+
+	/** Maximum body bytes for feeds without validators */
+	static private final long BODY_MAX = 256L << 20;
+
+	/** Create a message digest for hashing bodies */
+	static private MessageDigest createDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IOException(e.getMessage());
+		}
+	}
+
+	/** State of one feed URL */
+	static private class FeedState {
+		private String etag;
+		private String modified;
+		private byte[] digest;
+		private long wire_bytes;
+	}
+
+	/** Feed body stream, which can commit the state of its feed */
+	static abstract private class FeedStream extends FilterInputStream {
+		private FeedStream(InputStream is) {
+			super(is);
+		}
+
+		/** Commit the feed state, after parsing the body */
+		abstract protected void commit() throws IOException;
+	}
+
+	/** Commit the state of a feed, after its body has been parsed
+	 * without errors.  Until then, the feed is treated as changed.
+	 * @param is Input stream returned by fetch. */
+	static public void commit(InputStream is) throws IOException {
+		if (is instanceof FeedStream)
+			((FeedStream) is).commit();
+	}
+
+	/** Feed state for recently requested URLs */
+	private final LinkedHashMap<String, FeedState> states =
+		new LinkedHashMap<String, FeedState>(MAX_URLS, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(
+			Map.Entry<String, FeedState> e)
+		{
+			return size() > MAX_URLS;
+		}
+	};
+
+	/** Total bytes not transferred or not parsed */
+	private long bytes_saved = 0;
+
+	/** Get total bytes not transferred or not parsed */
+	public synchronized long getBytesSaved() {
+		return bytes_saved;
+	}
+
+	/** Lookup the state of a feed URL */
+	private synchronized FeedState lookupState(String url) {
+		FeedState fs = states.get(url);
+		if (null == fs) {
+			fs = new FeedState();
+			states.put(url, fs);
+		}
+		return fs;
+	}
+
+	/** Add to the count of bytes saved */
+	private synchronized long addSaved(long n) {
+		bytes_saved += n;
+		return bytes_saved;
+	}
+
+	/** Log a feed message */
+	private void log(String url, String msg, long saved) {
+		if (FEED_LOG.isOpen()) {
+			long total = addSaved(saved);
+			FEED_LOG.log(url + ": " + msg + ", saved " + saved +
+				" (total " + total + ") bytes");
+		} else
+			addSaved(saved);
+	}
+
+	/** Fetch a feed.
+	 * @param c HTTP connection, with request properties (such as
+	 *          authorization) set, but not yet connected.
+	 * @return Input stream of the body, or null if the feed is unchanged
+	 *         since the previous fetch. */
+	public InputStream fetch(HttpURLConnection c) throws IOException {
+		final String url = c.getURL().toString();
+		final FeedState fs = lookupState(url);
+		if (fs.etag != null)
+			c.setRequestProperty("If-None-Match", fs.etag);
+		if (fs.modified != null)
+			c.setRequestProperty("If-Modified-Since", fs.modified);
+		c.setRequestProperty("Accept-Encoding", "gzip");
+		int code = c.getResponseCode();
+		if (code == HTTP_UNAUTHORIZED) {
+			throw new ControllerException("UNAUTHORIZED: " +
+				HTTP_UNAUTHORIZED);
+		}
+		if (code == HTTP_NOT_MODIFIED) {
+			drain(c.getInputStream());
+			log(url, "not modified", fs.wire_bytes);
+			return null;
+		}
+		final CaptureInputStream wire = new CaptureInputStream(
+			c.getInputStream());
+		final boolean gz = "gzip".equalsIgnoreCase(
+			c.getContentEncoding());
+		InputStream body = gz ? new GZIPInputStream(wire) : wire;
+		final String etag = c.getHeaderField("ETag");
+		final String modified = c.getHeaderField("Last-Modified");
+		if (etag != null || modified != null) {
+			// Keep validators only after the whole body has been
+			// received and parsed, so that a failure is retried
+			fs.etag = null;
+			fs.modified = null;
+			fs.digest = null;
+			final CaptureInputStream cis = new CaptureInputStream(
+				body);
+			return new FeedStream(cis) {
+				@Override protected void commit()
+					throws IOException
+				{
+					readAll(cis);
+					fs.etag = etag;
+					fs.modified = modified;
+					fs.wire_bytes = wire.getCount();
+				}
+				@Override public void close() throws IOException
+				{
+					drain(cis);
+					long w = wire.getCount();
+					log(url, "fetched " + w +
+						(gz ? " gzip" : "") + " bytes",
+						cis.getCount() - w);
+				}
+			};
+		} else
+			return fetchHashed(url, fs, wire, body, gz);
+	}
+
+	/** Fetch a feed body, and check whether its hash has changed */
+	private InputStream fetchHashed(String url, final FeedState fs,
+		CaptureInputStream wire, InputStream body, boolean gz)
+		throws IOException
+	{
+		MessageDigest md = createDigest();
+		CaptureInputStream cis = new CaptureInputStream(body, MEM_MAX,
+			BODY_MAX);
+		try {
+			byte[] b = new byte[8192];
+			int n;
+			while ((n = cis.read(b)) > 0)
+				md.update(b, 0, n);
+			drain(wire);
+			if (!cis.isComplete())
+				throw new IOException("Feed too large: " + url);
+		}
+		catch (IOException e) {
+			cis.close();
+			cis.discard();
+			throw e;
+		}
+		final byte[] digest = md.digest();
+		fs.wire_bytes = wire.getCount();
+		if (Arrays.equals(digest, fs.digest)) {
+			cis.close();
+			cis.discard();
+			log(url, "unchanged " + fs.wire_bytes +
+				(gz ? " gzip" : "") + " bytes", cis.getCount());
+			return null;
+		} else {
+			// Keep the digest only after the body is parsed
+			fs.digest = null;
+			log(url, "fetched " + fs.wire_bytes + (gz ? " gzip" :
+				"") + " bytes", cis.getCount() - fs.wire_bytes);
+			return new FeedStream(cis.openCaptured()) {
+				@Override protected void commit() {
+					fs.digest = digest;
+				}
+			};
+		}
+	}
+
+	/** Read a stream to the end */
+	static private void readAll(InputStream is) throws IOException {
+		byte[] b = new byte[4096];
+		while (is.read(b) >= 0);
+	}
+
+	/** Read a stream to the end, and close it */
+	static private void drain(InputStream is) throws IOException {
+		try {
+			readAll(is);
+		}
+		finally {
+			is.close();
+		}
+	}
+}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2007-2022  Minnesota Department of Transportation
+ * Copyright (C) 2007-2026  Minnesota Department of Transportation
  * Copyright (C) 2020       SRF Consulting Group
  *
  * This program is free software; you can redistribute it and/or modify
@@ -54,6 +54,9 @@ public class HttpFileMessenger extends Messenger {
 	/** Receive timeout (ms) */
 	private final int timeout;
 
+	/** Feed client */
+	private final HttpFeedClient feed_client = new HttpFeedClient();
+
 	/** Get the URL with path appended */
 	private URL getUrl(String path) throws MalformedURLException {
 		if (path != null && path.length() > 0)
@@ -90,9 +93,36 @@ public class HttpFileMessenger extends Messenger {
 		return createInputStream(p, c.getPassword());
 	}
 
+	/** Get an input stream for a feed */
+	@Override
+	public InputStream getFeedInputStream(String p, ControllerImpl c)
+		throws IOException
+	{
+		URLConnection uc = createConnection(p, c.getPassword());
+		if (uc instanceof HttpURLConnection)
+			return feed_client.fetch((HttpURLConnection) uc);
+		else
+			return uc.getInputStream();
+	}
+
 	/** Create an HTTP input stream */
 	private InputStream createInputStream(String path, String upass)
 		throws IOException
+	{
+		URLConnection c = createConnection(path, upass);
+		if (c instanceof HttpURLConnection) {
+			HttpURLConnection hc = (HttpURLConnection) c;
+			if (hc.getResponseCode() == HTTP_UNAUTHORIZED) {
+				throw new ControllerException("UNAUTHORIZED: " +
+					HTTP_UNAUTHORIZED);
+			}
+		}
+		return c.getInputStream();
+	}
+
+	/** Create a URL connection */
+	private URLConnection createConnection(String path, String upass)
+		throws IOException
 	{
 		URLConnection c = getUrl(path).openConnection();
 		if (upass != null) {
@@ -103,14 +133,7 @@ public class HttpFileMessenger extends Messenger {
 		c.setUseCaches(false);
 		c.setConnectTimeout(timeout);
 		c.setReadTimeout(timeout);
-		if (c instanceof HttpURLConnection) {
-			HttpURLConnection hc = (HttpURLConnection) c;
-			if (hc.getResponseCode() == HTTP_UNAUTHORIZED) {
-				throw new ControllerException("UNAUTHORIZED: " +
-					HTTP_UNAUTHORIZED);
-			}
-		}
-		return c.getInputStream();
+		return c;
 	}
 
 	/** Get the output stream */
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2007-2017  Minnesota Department of Transportation
+ * Copyright (C) 2007-2026  Minnesota Department of Transportation
  * Copyright (C) 2022  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -107,6 +107,9 @@ public class HttpsFileMessenger extends Messenger {
 	/** Receive timeout (ms) */
 	private final int timeout_ms;
 
+	/** Feed client */
+	private final HttpFeedClient feed_client = new HttpFeedClient();
+
 	/** Get the URL with path appended */
 	private URL getUrl(String path) throws MalformedURLException {
 		if (path != null && path.length() > 0)
@@ -143,24 +146,40 @@ public class HttpsFileMessenger extends Messenger {
 		return createInputStream(p, c.getPassword());
 	}
 
+	/** Get an input stream for a feed */
+	@Override
+	public InputStream getFeedInputStream(String p, ControllerImpl c)
+		throws IOException
+	{
+		return feed_client.fetch(createConnection(p, c.getPassword()));
+	}
+
 	/** Create an HTTP input stream
 	 * @param path
 	 * @param upass Username and password in the form "user::password" */
 	private InputStream createInputStream(String path, String upass)
 		throws IOException
+	{
+		HttpsURLConnection con = createConnection(path, upass);
+		if (con.getResponseCode() == HTTP_UNAUTHORIZED) {
+			throw new ControllerException("UNAUTHORIZED: "+
+				HTTP_UNAUTHORIZED);
+		}
+		return con.getInputStream();
+	}
+
+	/** Create an HTTPS connection
+	 * @param path
+	 * @param upass Username and password in the form "user::password" */
+	private HttpsURLConnection createConnection(String path, String upass)
+		throws IOException
 	{
 		try {
 			String un = safe(getField(upass, 0));
 			String pw = safe(getField(upass, 1));
 			URL jurl = getUrl(path);
 			// ignore controller cert issues
-			HttpsURLConnection con = getConnection(true, un, pw, 
-				jurl, timeout_ms);
-			if (con.getResponseCode() == HTTP_UNAUTHORIZED) {
-				throw new ControllerException("UNAUTHORIZED: "+
-					HTTP_UNAUTHORIZED);
-			}
-			return con.getInputStream();
+			return getConnection(true, un, pw, jurl, timeout_ms);
 		} catch(KeyManagementException ex) {
 			throw new IOException(ex.toString());
 		} catch(NoSuchAlgorithmException ex) {
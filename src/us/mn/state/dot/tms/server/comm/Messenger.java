@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2007-2021  Minnesota Department of Transportation
+ * Copyright (C) 2007-2026  Minnesota Department of Transportation
  * Copyright (C) 2022  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -116,6 +116,18 @@ abstract public class Messenger implements Closeable {
 		return getInputStream(path);
 	}
 
+	/** Get an input stream for a feed, which is only needed when it has
+	 * changed since the previous request.
+	 * @param path Relative path name.
+	 * @param c Controller to read from.
+	 * @return An input stream for reading the feed, or null if it has
+	 *         not changed. */
+	public InputStream getFeedInputStream(String path, ControllerImpl c)
+		throws IOException
+	{
+		return getInputStream(path, c);
+	}
+
 	/** Get the output stream */
 	public final OutputStream getOutputStream() throws IOException {
 		return getOutputStream(null);
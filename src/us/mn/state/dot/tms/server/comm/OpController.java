@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2005-2017  Minnesota Department of Transportation
+ * Copyright (C) 2005-2026  Minnesota Department of Transportation
  * Copyright (C) 2012-2023  Iteris Inc.
  * Copyright (C) 2014-2015  AHMCT, University of California
  *
@@ -179,6 +179,13 @@ abstract public class OpController<T extends ControllerProperty> {
 		       ((OpController) o).controller == controller;
 	}
 
+	/** Get the operation hash code.  Subclasses overriding equals must
+	 * only consider operations equal if their hash codes match. */
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(controller);
+	}
+
 	/** Get a string description of the operation */
 	@Override
 	public final String toString() {
@@ -201,14 +208,28 @@ abstract public class OpController<T extends ControllerProperty> {
 		return getOpName();
 	}
 
+	/** Time when operation was last queued (ns) */
+	private long queued_ns = 0;
+
+	/** Mark the time the operation was queued */
+	void markQueued() {
+		queued_ns = System.nanoTime();
+	}
+
 	/** Perform a poll with the current phase.
 	 * @param mess Message to use for polling. */
 	public final void poll(CommMessage<T> mess) throws IOException,
 		DeviceContentionException
 	{
 		Pollable<T> p = phase;
-		if (p != null)
-			updatePhase(p.poll(mess));
+		if (p != null) {
+			long start = System.nanoTime();
+			Pollable<T> np = p.poll(mess);
+			long wait = (queued_ns != 0) ? start - queued_ns : 0;
+			CommStats.recordPoll(controller, getOpName(),
+				(System.nanoTime() - start) / 1000, wait / 1000);
+			updatePhase(np);
+		}
 	}
 
 	/** Update the phase of the operation */
@@ -225,6 +246,7 @@ abstract public class OpController<T extends ControllerProperty> {
 
 	/** Handle a communication error */
 	public void handleCommError(EventType et, String msg) {
+		CommStats.recordError(controller, getOpName(), et);
 		controller.logCommEvent(et, id, filterMsg(msg));
 		if (!retry())
 			setFailed();
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2014  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -52,6 +52,12 @@ abstract public class OpDevice<T extends ControllerProperty>
 		       ((OpDevice<T>) o).device == device;
 	}
 
+	/** Get the operation hash code */
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(device);
+	}
+
 	/** Phase to acquire exclusive ownership of the device */
 	protected class AcquireDevice extends Phase {
 
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2021  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2017       SRF Consulting Group
  *
  * This program is free software; you can redistribute it and/or modify
@@ -15,12 +15,18 @@
  */
 package us.mn.state.dot.tms.server.comm;
 
-import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 
 /**
  * A prioritized queue which sorts Operation objects by their priority
  * class.  Operations with the same priority are sorted FIFO.
  *
+ * The queue is a binary heap, ordered by priority and then by sequence
+ * number.  Queued operations are also indexed by equality, so checking for
+ * a duplicate operation does not need to walk the whole queue.
+ *
  * @author Douglas Lau
  * @author John L. Stanley
  */
@@ -29,17 +35,55 @@ public final class OpQueue<T extends ControllerProperty> {
 	/** Inner class for nodes in the queue */
 	static private final class Node<T extends ControllerProperty> {
 		final OpController<T> operation;
-		final PriorityLevel priority;
-		Node<T> next;
-		Node(OpController<T> op, Node<T> n) {
+		final int priority;
+		final long seq;
+		int pos;
+		Node<T> alike;
+		Node(OpController<T> op, long s) {
 			operation = op;
-			priority = op.getPriority();
-			next = n;
+			priority = op.getPriority().ordinal();
+			seq = s;
+		}
+		boolean isBefore(Node<?> n) {
+			return (priority != n.priority)
+			      ? (priority < n.priority)
+			      : (seq < n.seq);
 		}
 	}
 
-	/** Front node in the queue */
-	private Node<T> front = null;
+	/** Comparator for sorting nodes in queue order */
+	static private final Comparator<Node<?>> NODE_ORDER =
+		new Comparator<Node<?>>()
+	{
+		public int compare(Node<?> a, Node<?> b) {
+			if (a == b)
+				return 0;
+			return a.isBefore(b) ? -1 : 1;
+		}
+	};
+
+	/** Initial heap capacity */
+	static private final int INITIAL_CAPACITY = 16;
+
+	/** Create a heap array */
+	@SuppressWarnings("unchecked")
+	static private <T extends ControllerProperty> Node<T>[] newHeap(int n) {
+		return (Node<T>[]) new Node<?>[n];
+	}
+
+	/** Heap of queued nodes */
+	private Node<T>[] heap = newHeap(INITIAL_CAPACITY);
+
+	/** Number of nodes in the heap */
+	private int n_nodes = 0;
+
+	/** Sequence number for next added node (for FIFO within a priority) */
+	private long next_seq = 0;
+
+	/** Index of queued nodes by operation equality.  Each value is the
+	 * head of a list of nodes with equal operations, linked by alike. */
+	private final HashMap<OpController<T>, Node<T>> index =
+		new HashMap<OpController<T>, Node<T>>();
 
 	/** Current working operation.  This is needed so that an "equal"
 	 * operation cannot be added while work is in progress. */
@@ -60,13 +104,18 @@ public final class OpQueue<T extends ControllerProperty> {
 
 	/** Check if the queue is empty */
 	public synchronized boolean isEmpty() {
-		return (work == null) && (front == null);
+		return (work == null) && (n_nodes == 0);
 	}
 
 	/** Check if the queue has any more ops to process.
 	 * (Like isEmpty(), but ignores the current work op.) */
 	public synchronized boolean noMoreOps() {
-		return (front == null);
+		return (n_nodes == 0);
+	}
+
+	/** Get the number of queued operations (not including work) */
+	public synchronized int size() {
+		return n_nodes;
 	}
 
 	/** Enqueue a new operation */
@@ -88,32 +137,28 @@ public final class OpQueue<T extends ControllerProperty> {
 	private boolean contains(OpController<T> op) {
 		if (op.equals(work) && !work.isDone())
 			return true;
-		Node<T> node = front;
-		while (node != null) {
-			OpController<T> nop = node.operation;
-			if (op.equals(nop) && !nop.isDone())
+		for (Node<T> n = index.get(op); n != null; n = n.alike) {
+			if (!n.operation.isDone())
 				return true;
-			node = node.next;
 		}
 		return false;
 	}
 
 	/** Add an operation to the queue */
 	private void add(OpController<T> op) {
-		PriorityLevel priority = op.getPriority();
-		Node<T> prev = null;
-		Node<T> node = front;
-		while (node != null) {
-			if (priority.ordinal() < node.priority.ordinal())
-				break;
-			prev = node;
-			node = node.next;
-		}
-		node = new Node<T>(op, node);
-		if (prev == null)
-			front = node;
-		else
-			prev.next = node;
+		op.markQueued();
+		Node<T> node = new Node<T>(op, next_seq++);
+		if (n_nodes == heap.length)
+			heap = Arrays.copyOf(heap, n_nodes * 2);
+		node.pos = n_nodes;
+		heap[n_nodes++] = node;
+		siftUp(node);
+		Node<T> head = index.get(op);
+		if (head != null) {
+			node.alike = head.alike;
+			head.alike = node;
+		} else
+			index.put(op, node);
 		notify();
 	}
 
@@ -132,22 +177,91 @@ public final class OpQueue<T extends ControllerProperty> {
 			work = null;
 			return op;
 		}
-		Node<T> prev = null;
-		Node<T> node = front;
-		while (node != null) {
-			if (node.operation == op) {
-				if (prev == null)
-					front = node;
-				else
-					prev.next = node;
+		for (Node<T> n = index.get(op); n != null; n = n.alike) {
+			if (n.operation == op) {
+				unlink(n);
 				return op;
 			}
-			prev = node;
-			node = node.next;
 		}
 		return null;
 	}
 
+	/** Remove the front node from the queue.
+	 * @return Operation at front of queue, or null if empty. */
+	private OpController<T> removeFront() {
+		if (n_nodes > 0) {
+			Node<T> front = heap[0];
+			unlink(front);
+			return front.operation;
+		} else
+			return null;
+	}
+
+	/** Unlink a node from the heap and index */
+	private void unlink(Node<T> n) {
+		int i = n.pos;
+		Node<T> last = heap[--n_nodes];
+		heap[n_nodes] = null;
+		if (last != n) {
+			heap[i] = last;
+			last.pos = i;
+			siftDown(last);
+			siftUp(last);
+		}
+		Node<T> head = index.get(n.operation);
+		if (head == n) {
+			index.remove(n.operation);
+			if (n.alike != null)
+				index.put(n.alike.operation, n.alike);
+		} else {
+			for (Node<T> p = head; p != null; p = p.alike) {
+				if (p.alike == n) {
+					p.alike = n.alike;
+					break;
+				}
+			}
+		}
+		n.alike = null;
+	}
+
+	/** Move a node up the heap until its parent is before it */
+	private void siftUp(Node<T> n) {
+		int i = n.pos;
+		while (i > 0) {
+			int p = (i - 1) >>> 1;
+			Node<T> parent = heap[p];
+			if (!n.isBefore(parent))
+				break;
+			heap[i] = parent;
+			parent.pos = i;
+			i = p;
+		}
+		heap[i] = n;
+		n.pos = i;
+	}
+
+	/** Move a node down the heap until it is before its children */
+	private void siftDown(Node<T> n) {
+		int i = n.pos;
+		int half = n_nodes >>> 1;
+		while (i < half) {
+			int c = (i << 1) + 1;
+			Node<T> child = heap[c];
+			int r = c + 1;
+			if (r < n_nodes && heap[r].isBefore(child)) {
+				c = r;
+				child = heap[c];
+			}
+			if (!child.isBefore(n))
+				break;
+			heap[i] = child;
+			child.pos = i;
+			i = c;
+		}
+		heap[i] = n;
+		n.pos = i;
+	}
+
 	/** Get the next operation from the queue (and remove it).
 	 * Waits until an operation is added, the timeout expires or the thread
 	 * is interrupted (destroyed).
@@ -159,20 +273,19 @@ public final class OpQueue<T extends ControllerProperty> {
 		throws DisconnectException
 	{
 		work = null;
-		while (null == front) {
+		while (0 == n_nodes) {
 			try {
 				wait(idle_ms);
 			}
 			catch (InterruptedException e) {
 				throw new DisconnectException("DESTROYED");
 			}
-			if (idle_ms > 0 && null == front) {
+			if (idle_ms > 0 && 0 == n_nodes) {
 				// Empty msg (status) doesn't fail controllers
 				throw new DisconnectException("");
 			}
 		}
-		work = front.operation;
-		front = front.next;
+		work = removeFront();
 		return work;
 	}
 
@@ -184,23 +297,17 @@ public final class OpQueue<T extends ControllerProperty> {
 			work = null;
 			return w;
 		}
-		OpController<T> op = null;
-		if (front != null) {
-			op = front.operation;
-			front = front.next;
-		}
-		return op;
+		return removeFront();
 	}
 
 	/** Do something to each operation in the queue */
 	public synchronized boolean forEach(OpHandler<T> handler) {
 		OpController<T> w = work;
 		boolean flag = (w != null) ? handler.handle(w) : true;
-		Node<T> node = front;
-		while (node != null) {
-			flag &= handler.handle(node.operation);
-			node = node.next;
-		}
+		Node<T>[] nodes = Arrays.copyOf(heap, n_nodes);
+		Arrays.sort(nodes, NODE_ORDER);
+		for (Node<T> n: nodes)
+			flag &= handler.handle(n.operation);
 		return flag;
 	}
 }
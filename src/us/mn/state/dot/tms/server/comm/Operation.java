@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2005-2022  Minnesota Department of Transportation
+ * Copyright (C) 2005-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -169,6 +169,12 @@ public final class Operation implements Comparable<Operation> {
 		return (s != null) && s.isPolling();
 	}
 
+	/** Check if the operation is waiting indefinitely */
+	public boolean isWaitingIndefinitely() {
+		OpStep s = step;
+		return (s != null) && s.isWaitingIndefinitely();
+	}
+
 	/** Priority of the operation */
 	private PriorityLevel priority = PriorityLevel.POLL_LOW;
 
@@ -256,9 +262,21 @@ public final class Operation implements Comparable<Operation> {
 			err_status = s;
 	}
 
+	/** Time when operation was last queued for polling (ns) */
+	private long queued_ns = 0;
+
+	/** Time when the current step was polled (ns) */
+	private long polled_ns = 0;
+
+	/** Mark the time the operation was queued for polling */
+	public void markQueued() {
+		queued_ns = System.nanoTime();
+	}
+
 	/** Poll the current step.
 	 * @param tx_buf Transmit buffer. */
 	public void poll(ByteBuffer tx_buf) throws IOException {
+		polled_ns = System.nanoTime();
 		n_runs++;
 		OpStep s = step;
 		if (s != null) {
@@ -275,13 +293,25 @@ public final class Operation implements Comparable<Operation> {
 		OpStep s = step;
 		if (s != null) {
 			s.recv(this, rx_buf);
+			recordRecv();
 			if (!isDone())
 				setStep(s.next());
 		}
 	}
 
+	/** Record statistics for a received response */
+	private void recordRecv() {
+		if (polled_ns != 0) {
+			long wait = (queued_ns != 0) ? polled_ns - queued_ns : 0;
+			CommStats.recordPoll(controller, name,
+				(System.nanoTime() - polled_ns) / 1000, wait / 1000);
+			polled_ns = 0;
+		}
+	}
+
 	/** Handle an IO event */
 	public void handleEvent(EventType et, String msg) {
+		CommStats.recordError(controller, name, et);
 		controller.logCommEvent(et, getId(), filterMsg(msg));
 		if (!retry())
 			setFailed();
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2016-2017  Minnesota Department of Transportation
+ * Copyright (C) 2016-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -17,29 +17,40 @@ package us.mn.state.dot.tms.server.comm;
 import us.mn.state.dot.sched.TimeSteward;
 
 /**
- * The selector thread performs non-blocking I/O on a set of channels.
+ * The selector thread performs non-blocking I/O on a set of channels.  A few
+ * selector threads are started, and each poller is assigned to one of them.
  *
  * @author Douglas Lau
  */
 public final class SelectorThread {
 
-	/** Singleton comm selector */
-	static private CommSelector TASK;
+	/** Number of selector threads */
+	static private final int N_THREADS = Math.max(1, Math.min(4,
+		Runtime.getRuntime().availableProcessors()));
+
+	/** Comm selectors for each thread */
+	static private final CommSelector[] TASKS =
+		new CommSelector[N_THREADS];
 
 	/** Thread group for selector thread */
 	static private final ThreadGroup GROUP = new ThreadGroup("Selector");
 
-	/** Create the selector thread */
+	/** Create the selector threads */
 	static {
-		new SelectorThread();
+		for (int i = 0; i < N_THREADS; i++)
+			new SelectorThread(i);
 	}
 
 	/** Thread to run select loop */
 	private final Thread thread;
 
+	/** Index of selector */
+	private final int index;
+
 	/** Create a new selector thread */
-	public SelectorThread() {
- 		thread = new Thread(GROUP, "selector") {
+	public SelectorThread(int i) {
+		index = i;
+		thread = new Thread(GROUP, "selector_" + i) {
 			@Override public void run() {
 				doRun();
 			}
@@ -51,7 +62,7 @@ public final class SelectorThread {
 	/** Run the thread */
 	private void doRun() {
 		try (CommSelector task = new CommSelector()) {
-			TASK = task;
+			TASKS[index] = task;
 			task.selectLoop();
 		}
 		catch (Exception e) {
@@ -59,19 +70,21 @@ public final class SelectorThread {
 		}
 		// CommSelector will auto-close, so don't use it
 		finally {
-			TASK = null;
+			TASKS[index] = null;
 		}
 	}
 
-	/** Get the comm selector */
-	static public CommSelector getSelector() {
+	/** Get the comm selector for a poller.
+	 * @param n Poller (comm link) name. */
+	static public CommSelector getSelector(String n) {
+		int i = Math.floorMod(n.hashCode(), N_THREADS);
 		// Loop for 4 seconds to allow for race at startup
-		for (int i = 0; i < 20; i++) {
-			CommSelector task = TASK;
+		for (int j = 0; j < 20; j++) {
+			CommSelector task = TASKS[i];
 			if (task != null)
 				return task;
 			TimeSteward.sleep_well(200);
 		}
-		return TASK;
+		return TASKS[i];
 	}
 }
@@ -1,7 +1,7 @@
 /*
  * IRIS -- Intelligent Roadway Information System
  * Copyright (C) 2020  SRF Consulting Group, Inc.
- * Copyright (C) 2021  Minnesota Department of Transportation
+ * Copyright (C) 2021-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -45,6 +45,12 @@ public class CapProperty extends ControllerProperty {
 		reader.parse();
 	}
 
+	/** Check if the property is a feed */
+	@Override
+	public boolean isFeed() {
+		return true;
+	}
+
 	/** Get a string representation of the property */
 	@Override
 	public String toString() {
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2021  Minnesota Department of Transportation
+ * Copyright (C) 2021-2026  Minnesota Department of Transportation
  * Copyright (C) 2020  SRF Consulting Group, Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -15,9 +15,9 @@
  */
 package us.mn.state.dot.tms.server.comm.cap;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
@@ -28,6 +28,7 @@ import javax.xml.parsers.SAXParserFactory;
 import org.xml.sax.SAXException;
 import us.mn.state.dot.sched.TimeSteward;
 import us.mn.state.dot.tms.SystemAttrEnum;
+import us.mn.state.dot.tms.utils.CaptureInputStream;
 
 /**
  * Common Alerting Protocol (CAP) reader.
@@ -54,66 +55,126 @@ public class CapReader {
 		return REQ_SUCCESS;
 	}
 
-	/** Get XML save enabled setting */
-	static private boolean getXmlSaveEnabled() {
-		return SystemAttrEnum.CAP_XML_SAVE_ENABLE.getBoolean();
+	/** Directory for saving XML on error */
+	static private final File XML_SAVE_DIR = new File("/var/log/iris");
+
+	/** Get XML save directory (null if saving is disabled) */
+	static private File getXmlSaveDir() {
+		return SystemAttrEnum.CAP_XML_SAVE_ENABLE.getBoolean()
+		      ? XML_SAVE_DIR
+		      : null;
 	}
 
+	/** Maximum XML kept in memory for saving on error */
+	static private final int CAPTURE_MEM_BYTES = 256 * 1024;
+
+	/** Maximum XML captured for saving on error */
+	static private final long CAPTURE_MAX_BYTES = 64 * 1024 * 1024;
+
 	/** Alert processor */
 	static private final AlertProcessor PROCESSOR = new AlertProcessor();
 
-	/** Input stream */
-	private final InputStream input;
+	/** SAX parser for each polling thread */
+	static private final ThreadLocal<SAXParser> PARSER =
+		new ThreadLocal<SAXParser>();
+
+	/** Get a SAX parser for the current thread */
+	static private SAXParser getParser()
+		throws ParserConfigurationException, SAXException
+	{
+		SAXParser parser = PARSER.get();
+		if (null == parser) {
+			SAXParserFactory spf = SAXParserFactory.newInstance();
+			parser = spf.newSAXParser();
+			PARSER.set(parser);
+		}
+		return parser;
+	}
+
+	/** Input stream (captured for saving on error) */
+	private final CaptureInputStream input;
 
-	/** Output stream to cache copy of XML */
-	private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+	/** Directory for saving XML on error (null if disabled) */
+	private final File save_dir;
 
 	/** Alert handler */
 	private final AlertHandler handler;
 
 	/** Create a new CAP reader */
 	public CapReader(InputStream is) {
-		input = is;
+		this(is, getXmlSaveDir());
+	}
+
+	/** Create a new CAP reader.
+	 * @param is Input stream.
+	 * @param dir Directory for saving XML on error (null to disable). */
+	CapReader(InputStream is, File dir) {
+		input = (dir != null)
+		      ? new CaptureInputStream(is, CAPTURE_MEM_BYTES,
+		                               CAPTURE_MAX_BYTES)
+		      : new CaptureInputStream(is);
+		save_dir = dir;
 		handler = new AlertHandler(PROCESSOR);
 	}
 
 	/** Parse alerts */
 	public void parse() throws IOException {
 		Date now = TimeSteward.getDateInstance();
+		long start = TimeSteward.currentTimeMillis();
 		try {
-			SAXParserFactory spf = SAXParserFactory.newInstance();
-			SAXParser parser = spf.newSAXParser();
-			parser.parse(inputStream(), handler);
+			SAXParser parser = getParser();
+			try {
+				// The parser closes its input, so keep the
+				// capture open until the XML has been saved
+				parser.parse(new FilterInputStream(input) {
+					@Override public void close() { }
+				}, handler);
+			}
+			finally {
+				parser.reset();
+			}
 			REQ_SUCCESS = now;
+			logThroughput(start);
 		}
 		catch (ParserConfigurationException | SAXException e) {
 			CapPoller.slog("parse error: " + e.getMessage());
 			saveXmlFile();
 		}
+		finally {
+			try {
+				input.close();
+			}
+			finally {
+				input.discard();
+			}
+		}
 	}
 
-	/** Get input stream containing the XML */
-	private InputStream inputStream() throws IOException {
-		if (getXmlSaveEnabled()) {
-			// make a copy of the input stream - if we hit an
-			// exception we will save the XML and the text of the
-			// exception on the server
-			byte[] buf = new byte[1024];
-			int len;
-			while ((len = input.read(buf)) > -1)
-				baos.write(buf, 0, len);
-			baos.flush();
-			return new ByteArrayInputStream(baos.toByteArray());
-		} else
-			return input;
+	/** Log parse throughput */
+	private void logThroughput(long start) {
+		long ms = Math.max(1, TimeSteward.currentTimeMillis() - start);
+		long bytes = input.getCount();
+		CapPoller.slog("parsed " + bytes + " bytes in " + ms + " ms (" +
+			(bytes / ms) + " KB/s)");
 	}
 
 	/** Save the XML contents to a file */
 	private void saveXmlFile() throws IOException {
-		if (getXmlSaveEnabled()) {
-			String fn = "/var/log/iris/cap_err_" + DT_FMT.format(
-				TimeSteward.getDateInstance()) + ".xml";
-			baos.writeTo(new FileOutputStream(fn));
+		if (save_dir != null) {
+			// Capture the rest of the document
+			byte[] b = new byte[8192];
+			while (input.read(b) > 0);
+			File f = new File(save_dir, "cap_err_" + DT_FMT.format(
+				TimeSteward.getDateInstance()) + ".xml");
+			FileOutputStream fos = new FileOutputStream(f);
+			try {
+				input.writeTo(fos);
+			}
+			finally {
+				fos.close();
+			}
+			if (!input.isComplete())
+				CapPoller.slog("saved XML truncated: " + f);
 		}
 	}
 }
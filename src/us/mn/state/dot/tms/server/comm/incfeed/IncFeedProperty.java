@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2016-2018  Minnesota Department of Transportation
+ * Copyright (C) 2016-2026  Minnesota Department of Transportation
  * Copyright (C) 2018-2021  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -16,15 +16,16 @@
 package us.mn.state.dot.tms.server.comm.incfeed;
 
 import org.json.JSONObject;
-import org.json.JSONArray;
 import org.json.JSONException;
+import org.json.JSONTokener;
+import us.mn.state.dot.sched.TimeSteward;
 import us.mn.state.dot.tms.LaneImpact;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import us.mn.state.dot.tms.server.ControllerImpl;
 import us.mn.state.dot.tms.server.CommLinkImpl;
 import us.mn.state.dot.tms.server.comm.ControllerProperty;
+import us.mn.state.dot.tms.utils.CaptureInputStream;
 import us.mn.state.dot.tms.utils.LineReader;
 
 /**
@@ -57,6 +58,12 @@ public class IncFeedProperty extends ControllerProperty {
 		return false;
 	}
 
+	/** Check if the property is a feed */
+	@Override
+	public boolean isFeed() {
+		return true;
+	}
+
 	/** Decode a QUERY response */
 	@Override
 	public void decodeQuery(ControllerImpl c, InputStream is)
@@ -82,36 +89,77 @@ public class IncFeedProperty extends ControllerProperty {
 		cache.clearOld();
 	}
 
-	/** Decode a JSON QUERY response for a JSON feed */
+	/** Decode a JSON QUERY response for a JSON feed.  The incidents
+	 * array is parsed one element at a time, without building a tree
+	 * (or string) of the whole document. */
 	private void decodeJsonQuery(ControllerImpl c, InputStream is)
 		throws IOException
 	{
 		log("reading JSON feed");
-		JSONObject json_objs = null;
+		long start = TimeSteward.currentTimeMillis();
+		CaptureInputStream cis = new CaptureInputStream(is);
+		boolean found;
 		try {
-			ByteArrayOutputStream result = new ByteArrayOutputStream();
-			byte[] buffer = new byte[1024];
-			int length;
-			while ((length = is.read(buffer)) != -1)
-				result.write(buffer, 0, length);
-			json_objs = new JSONObject(result.toString("UTF-8"));
-		} catch (Exception ex) {
+			found = decodeJson(new JSONTokener(cis));
+		}
+		catch (JSONException ex) {
 			log("decodeJsonQuery: ex=" + ex);
 			throw new IOException(ex);
 		}
-		log("loading json object");
-		JSONArray incidents;
-		try{
-			incidents = json_objs.getJSONArray("incidents");
-		} catch (JSONException ex){
+		long ms = Math.max(1, TimeSteward.currentTimeMillis() - start);
+		log("parsed " + cis.getCount() + " bytes in " + ms + " ms (" +
+			(cis.getCount() / ms) + " KB/s)");
+		if (found)
+			cache.clearOld();
+		else {
 			// no incidents key, or not an array
 			log("decodeJsonQuery: unexpected JSON structure");
-			return;
 		}
-		incidents.forEach(elem -> {
-			cache.put(parse((JSONObject) elem));
-		});
-		cache.clearOld();
+	}
+
+	/** Decode a JSON document containing an "incidents" array.
+	 * @return true if incidents array was found. */
+	private boolean decodeJson(JSONTokener tok) throws JSONException {
+		boolean found = false;
+		if (tok.nextClean() != '{')
+			throw tok.syntaxError("expected '{'");
+		char ch = tok.nextClean();
+		while (ch != '}') {
+			tok.back();
+			String key = tok.nextValue().toString();
+			if (tok.nextClean() != ':')
+				throw tok.syntaxError("expected ':'");
+			if ("incidents".equals(key) && tok.nextClean() == '[') {
+				decodeIncidents(tok);
+				found = true;
+			} else {
+				if ("incidents".equals(key))
+					tok.back();
+				tok.nextValue();
+			}
+			ch = tok.nextClean();
+			if (ch == ',')
+				ch = tok.nextClean();
+			else if (ch != '}')
+				throw tok.syntaxError("expected ',' or '}'");
+		}
+		return found;
+	}
+
+	/** Decode incidents from a JSON array (after the opening '[') */
+	private void decodeIncidents(JSONTokener tok) throws JSONException {
+		char ch = tok.nextClean();
+		while (ch != ']') {
+			tok.back();
+			Object elem = tok.nextValue();
+			if (elem instanceof JSONObject)
+				cache.put(parse((JSONObject) elem));
+			ch = tok.nextClean();
+			if (ch == ',')
+				ch = tok.nextClean();
+			else if (ch != ']')
+				throw tok.syntaxError("expected ',' or ']'");
+		}
 	}
 
 	/** Log a message */
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2020  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -17,6 +17,8 @@ package us.mn.state.dot.tms.server.comm.msgfeed;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import us.mn.state.dot.sched.TimeSteward;
+import us.mn.state.dot.tms.utils.CaptureInputStream;
 import us.mn.state.dot.tms.utils.LineReader;
 import us.mn.state.dot.tms.server.ControllerImpl;
 import us.mn.state.dot.tms.server.FeedBucket;
@@ -42,12 +44,20 @@ public class MsgFeedProperty extends ControllerProperty {
 		feed = fd;
 	}
 
+	/** Check if the property is a feed */
+	@Override
+	public boolean isFeed() {
+		return true;
+	}
+
 	/** Decode a QUERY response */
 	@Override
 	public void decodeQuery(ControllerImpl c, InputStream is)
 		throws IOException
 	{
-		LineReader lr = new LineReader(is, MAX_RESP);
+		long start = TimeSteward.currentTimeMillis();
+		CaptureInputStream cis = new CaptureInputStream(is);
+		LineReader lr = new LineReader(cis, MAX_RESP);
 		String line = lr.readLine();
 		while (line != null) {
 			MsgFeedPoller.slog("parsing " + line);
@@ -59,6 +69,9 @@ public class MsgFeedProperty extends ControllerProperty {
 				MsgFeedPoller.slog("INVALID " + msg);
 			line = lr.readLine();
 		}
+		long ms = Math.max(1, TimeSteward.currentTimeMillis() - start);
+		MsgFeedPoller.slog("parsed " + cis.getCount() + " bytes in " +
+			ms + " ms (" + (cis.getCount() / ms) + " KB/s)");
 	}
 
 	/** Get a string representation of the property */
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2021-2022  Minnesota Department of Transportation
+ * Copyright (C) 2021-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -45,6 +45,10 @@ import static us.mn.state.dot.tms.utils.URIUtil.TCP;
 public class NatchPoller extends BasePoller implements AlarmPoller,
 	BeaconPoller, LCSPoller, MeterPoller, SamplePoller
 {
+	/** Window of operations in flight.  Responses are tagged with
+	 * message IDs, so requests can be pipelined. */
+	static private final int WINDOW = 8;
+
 	/** I/O pin for first ramp meter */
 	static public final int METER_1_PIN = 2;
 
@@ -68,7 +72,7 @@ public class NatchPoller extends BasePoller implements AlarmPoller,
 
 	/** Create a new Natch poller */
 	public NatchPoller(CommLink link) {
-		super(link, TCP, false);
+		super(link, TCP, false, WINDOW);
 	}
 
 	/** Create a controller operation */
@@ -0,0 +1,321 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm.ntcip;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import us.mn.state.dot.tms.Glyph;
+import us.mn.state.dot.tms.server.comm.CommMessage;
+import static us.mn.state.dot.tms.server.comm.ntcip.mib1203.MIB1203.*;
+import us.mn.state.dot.tms.server.comm.snmp.ASN1Integer;
+import us.mn.state.dot.tms.server.comm.snmp.ASN1Object;
+import us.mn.state.dot.tms.server.comm.snmp.ASN1OctetString;
+import us.mn.state.dot.tms.server.comm.snmp.GenError;
+import us.mn.state.dot.tms.server.comm.snmp.NoSuchName;
+import us.mn.state.dot.tms.server.comm.snmp.TooBig;
+import us.mn.state.dot.tms.utils.Base64;
+
+/**
+ * Characters of one font, to be compared with the character table of a sign
+ * and sent in batches.  Each batch is a list of characterWidth and
+ * characterBitmap objects for one SNMP request, sized to fit in one
+ * datagram or HDLC frame.
+ *
+ * @author Douglas Lau
+ */
+public class FontCharacters {
+
+	/** Maximum encoded size of the variable bindings in one request.
+	 * Datagrams and HDLC frames are both limited to 1024 bytes, and
+	 * this leaves room for the message and PDU headers. */
+	static public final int MAX_VARBIND_BYTES = 900;
+
+	/** Maximum number of characters in one request */
+	static public final int MAX_BATCH = 16;
+
+	/** Estimated size of the width and bitmap variable bindings for one
+	 * character, not counting the bitmap itself */
+	static private final int CHAR_OVERHEAD = 48;
+
+	/** Number of characters stored between progress reports */
+	static private final int PROGRESS_CHARS = 20;
+
+	/** One font character */
+	static public class Char {
+		public final int code_point;
+		public final int width;
+		public final byte[] bitmap;
+
+		/** Create a new font character */
+		private Char(int cp, int w, byte[] b) {
+			code_point = cp;
+			width = w;
+			bitmap = b;
+		}
+
+		/** Check if the character matches a width and bitmap */
+		public boolean matches(int w, byte[] b) {
+			return width == w && Arrays.equals(bitmap, b);
+		}
+
+		/** Estimate the encoded size of the character (bytes) */
+		private int estimateBytes() {
+			return CHAR_OVERHEAD + bitmap.length;
+		}
+	}
+
+	/** List of characters */
+	private final ArrayList<Char> chars = new ArrayList<Char>();
+
+	/** Characters which differ from the sign (by index) */
+	private final BitSet changed = new BitSet();
+
+	/** Create an empty set of font characters */
+	public FontCharacters() { }
+
+	/** Create font characters from a collection of glyphs */
+	public FontCharacters(Collection<Glyph> glyphs) throws IOException {
+		for (Glyph g: glyphs) {
+			add(g.getCodePoint(), g.getWidth(),
+				Base64.decode(g.getPixels()));
+		}
+	}
+
+	/** Add a character */
+	public void add(int cp, int w, byte[] b) {
+		chars.add(new Char(cp, w, b));
+	}
+
+	/** Get the number of characters */
+	public int size() {
+		return chars.size();
+	}
+
+	/** Get a character by index */
+	public Char get(int i) {
+		return chars.get(i);
+	}
+
+	/** Get the number of characters to put in one request.
+	 * @param pos Index of first character.
+	 * @param limit Maximum number of characters.
+	 * @return Number of characters (at least 1 if any remain). */
+	public int batchSize(int pos, int limit) {
+		int bytes = 0;
+		int n = 0;
+		while (pos + n < chars.size() && n < limit) {
+			bytes += chars.get(pos + n).estimateBytes();
+			if (n > 0 && bytes > MAX_VARBIND_BYTES)
+				break;
+			n++;
+		}
+		return n;
+	}
+
+	/** Make objects to query a batch of characters.
+	 * @param row Font row.
+	 * @param pos Index of first character.
+	 * @param n Number of characters.
+	 * @return Width and bitmap objects, in pairs. */
+	public ASN1Object[] makeQuery(int row, int pos, int n) {
+		ASN1Object[] objs = new ASN1Object[n * 2];
+		for (int i = 0; i < n; i++) {
+			int cp = chars.get(pos + i).code_point;
+			objs[i * 2] = characterWidth.makeInt(row, cp);
+			objs[i * 2 + 1] = new ASN1OctetString(
+				characterBitmap.node, row, cp);
+		}
+		return objs;
+	}
+
+	/** Compare queried objects with a batch of characters, and mark
+	 * any which do not match as changed.
+	 * @param pos Index of first character.
+	 * @param objs Objects from makeQuery, after querying.
+	 * @return Number of changed characters in the batch. */
+	public int compare(int pos, ASN1Object[] objs) {
+		int n_changed = 0;
+		for (int i = 0; i < objs.length / 2; i++) {
+			ASN1Integer w = (ASN1Integer) objs[i * 2];
+			ASN1OctetString b = (ASN1OctetString) objs[i * 2 + 1];
+			Char c = chars.get(pos + i);
+			if (!c.matches(w.getInteger(), b.getByteValue())) {
+				changed.set(pos + i);
+				n_changed++;
+			}
+		}
+		return n_changed;
+	}
+
+	/** Mark a batch of characters as changed, when their state on the
+	 * sign is unknown */
+	public void markChanged(int pos, int n) {
+		changed.set(pos, pos + n);
+	}
+
+	/** Get the characters which were marked as changed */
+	public FontCharacters getChanged() {
+		FontCharacters fc = new FontCharacters();
+		for (int i = changed.nextSetBit(0); i >= 0;
+		     i = changed.nextSetBit(i + 1))
+		{
+			fc.chars.add(chars.get(i));
+		}
+		return fc;
+	}
+
+	/** Make objects to store a batch of characters.
+	 * @param row Font row.
+	 * @param pos Index of first character.
+	 * @param n Number of characters.
+	 * @return Width and bitmap objects, in pairs. */
+	public ASN1Object[] makeStore(int row, int pos, int n)
+		throws IOException
+	{
+		ASN1Object[] objs = new ASN1Object[n * 2];
+		for (int i = 0; i < n; i++) {
+			Char c = chars.get(pos + i);
+			ASN1Integer w = characterWidth.makeInt(row,
+				c.code_point);
+			ASN1OctetString b = new ASN1OctetString(
+				characterBitmap.node, row, c.code_point);
+			w.setInteger(c.width);
+			b.setOctetString(c.bitmap);
+			objs[i * 2] = w;
+			objs[i * 2 + 1] = b;
+		}
+		return objs;
+	}
+
+	/** Query of characters in batches, to find which ones differ from
+	 * the sign.  A batch is split in half if the response is too big. */
+	public class Query {
+
+		/** Font row */
+		private final int row;
+
+		/** Index of next character to query */
+		private int pos = 0;
+
+		/** Maximum number of characters per request */
+		private int limit = MAX_BATCH;
+
+		/** Create a new character query */
+		public Query(int r) {
+			row = r;
+		}
+
+		/** Query the next batch of characters.
+		 * @return true if more characters remain to be queried. */
+		public boolean poll(CommMessage<ASN1Object> mess)
+			throws IOException
+		{
+			int n = batchSize(pos, limit);
+			ASN1Object[] objs = makeQuery(row, pos, n);
+			for (ASN1Object o: objs)
+				mess.add(o);
+			try {
+				mess.queryProps();
+				for (ASN1Object o: objs)
+					logQuery(o);
+				compare(pos, objs);
+			}
+			catch (TooBig e) {
+				if (n > 1) {
+					limit = n / 2;
+					return true;
+				}
+				markChanged(pos, n);
+			}
+			catch (NoSuchName | GenError e) {
+				// Note: some vendors respond with NoSuchName
+				//       or GenError if the character is not
+				//       valid
+				markChanged(pos, n);
+			}
+			pos += n;
+			return pos < size();
+		}
+
+		/** Log a queried object */
+		protected void logQuery(ASN1Object o) { }
+	}
+
+	/** Store of characters in batches.  A batch is split in half if the
+	 * response is too big. */
+	public class Store {
+
+		/** Font row */
+		private final int row;
+
+		/** Index of next character to store */
+		private int pos = 0;
+
+		/** Maximum number of characters per request */
+		private int limit = MAX_BATCH;
+
+		/** Create a new character store */
+		public Store(int r) {
+			row = r;
+		}
+
+		/** Store the next batch of characters.
+		 * @return true if more characters remain to be stored. */
+		public boolean poll(CommMessage<ASN1Object> mess)
+			throws IOException
+		{
+			int n = batchSize(pos, limit);
+			ASN1Object[] objs = makeStore(row, pos, n);
+			for (ASN1Object o: objs) {
+				mess.add(o);
+				logStore(o);
+			}
+			try {
+				mess.storeProps();
+			}
+			catch (TooBig e) {
+				if (n > 1) {
+					limit = n / 2;
+					return true;
+				}
+				throw e;
+			}
+			catch (NoSuchName e) {
+				// SESA char matrix V20170904:
+				// ignore bad characterWidth
+				if (n > 1) {
+					// Nothing in the request was set, so
+					// send the rest one at a time
+					limit = 1;
+					return true;
+				}
+			}
+			int count = pos;
+			pos += n;
+			if (pos / PROGRESS_CHARS > count / PROGRESS_CHARS)
+				progress();
+			return pos < size();
+		}
+
+		/** Log a stored object */
+		protected void logStore(ASN1Object o) { }
+
+		/** Report progress, after each group of characters */
+		protected void progress() { }
+	}
+}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2023  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2021  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -18,7 +18,6 @@ package us.mn.state.dot.tms.server.comm.ntcip;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.TreeMap;
 import us.mn.state.dot.sched.TimeSteward;
@@ -34,11 +33,10 @@ import us.mn.state.dot.tms.server.comm.ntcip.mib1203.*;
 import static us.mn.state.dot.tms.server.comm.ntcip.mib1203.MIB1203.*;
 import us.mn.state.dot.tms.server.comm.snmp.ASN1Enum;
 import us.mn.state.dot.tms.server.comm.snmp.ASN1Integer;
-import us.mn.state.dot.tms.server.comm.snmp.ASN1OctetString;
+import us.mn.state.dot.tms.server.comm.snmp.ASN1Object;
 import us.mn.state.dot.tms.server.comm.snmp.DisplayString;
 import us.mn.state.dot.tms.server.comm.snmp.GenError;
 import us.mn.state.dot.tms.server.comm.snmp.NoSuchName;
-import us.mn.state.dot.tms.utils.Base64;
 
 /**
  * Operation to send a set of fonts to a DMS controller.
@@ -551,73 +549,91 @@ public class OpSendDMSFonts extends OpDMS {
 			mess.storeProps();
 			Collection<Glyph> glyphs =
 				FontHelper.lookupGlyphs(frow.font).values();
-			if (glyphs.isEmpty()) {
-				if (version2)
-					return new ValidateFontV2(frow);
-				else
-					return new ValidateFontV1(frow);
-			} else
-				return new AddCharacter(frow, glyphs);
+			if (glyphs.isEmpty())
+				return validateFont(frow);
+			else {
+				return new QueryCharacters(frow,
+					new FontCharacters(glyphs));
+			}
 		}
 	}
 
-	/** Add a character to the font table */
-	private class AddCharacter extends Phase {
+	/** Get the phase to validate a font */
+	private Phase validateFont(FontRow frow) {
+		if (version2)
+			return new ValidateFontV2(frow);
+		else
+			return new ValidateFontV1(frow);
+	}
 
+	/** Phase to query characters in the font table, to find which ones
+	 * need to be sent */
+	private class QueryCharacters extends Phase {
 		private final FontRow frow;
 
-		/** Iterator for remaining glyphs */
-		private final Iterator<Glyph> chars;
-
-		/** Current glyph */
-		private Glyph glyph;
+		/** Font characters */
+		private final FontCharacters chars;
 
-		/** Count of characters added */
-		private int count = 0;
+		/** Character query */
+		private final FontCharacters.Query query;
 
-		/** Create a new add character phase */
-		public AddCharacter(FontRow fr, Collection<Glyph> c) {
+		/** Create a new query characters phase */
+		private QueryCharacters(FontRow fr, FontCharacters fc) {
 			frow = fr;
-			chars = c.iterator();
-			if (chars.hasNext())
-				glyph = chars.next();
+			chars = fc;
+			query = fc.new Query(fr.row) {
+				@Override
+				protected void logQuery(ASN1Object o) {
+					OpSendDMSFonts.this.logQuery(o);
+				}
+			};
 		}
 
-		/** Add a character to the font table */
+		/** Query a batch of characters */
 		@SuppressWarnings("unchecked")
 		public Phase poll(CommMessage mess) throws IOException {
-			int row = frow.row;
-			int code_point = glyph.getCodePoint();
-			byte[] pixels = Base64.decode(glyph.getPixels());
-			ASN1Integer char_width = characterWidth.makeInt(row,
-				code_point);
-			ASN1OctetString char_bitmap = new ASN1OctetString(
-				characterBitmap.node, row, code_point);
-			char_width.setInteger(glyph.getWidth());
-			char_bitmap.setOctetString(pixels);
-			mess.add(char_width);
-			mess.add(char_bitmap);
-			logStore(char_width);
-			logStore(char_bitmap);
-			try {
-				mess.storeProps();
-			}
-			catch (NoSuchName ex) {
-				// SESA char matrix V20170904: 
-				// ignore bad characterWidth
-			}
-			count++;
-			if (count % 20 == 0 && !controller.isFailed())
-				setSuccess(true);
-			if (chars.hasNext()) {
-				glyph = chars.next();
+			if (query.poll(mess))
 				return this;
-			} else {
-				if (version2)
-					return new ValidateFontV2(frow);
-				else
-					return new ValidateFontV1(frow);
-			}
+			FontCharacters ch = chars.getChanged();
+			logError(ch.size() + " of " + chars.size() +
+				" characters changed");
+			if (ch.size() > 0)
+				return new AddCharacters(frow, ch);
+			else
+				return validateFont(frow);
+		}
+	}
+
+	/** Phase to add changed characters to the font table */
+	private class AddCharacters extends Phase {
+		private final FontRow frow;
+
+		/** Character store */
+		private final FontCharacters.Store store;
+
+		/** Create a new add characters phase */
+		private AddCharacters(FontRow fr, FontCharacters fc) {
+			frow = fr;
+			store = fc.new Store(fr.row) {
+				@Override
+				protected void logStore(ASN1Object o) {
+					OpSendDMSFonts.this.logStore(o);
+				}
+				@Override
+				protected void progress() {
+					if (!controller.isFailed())
+						setSuccess(true);
+				}
+			};
+		}
+
+		/** Add a batch of characters to the font table */
+		@SuppressWarnings("unchecked")
+		public Phase poll(CommMessage mess) throws IOException {
+			if (store.poll(mess))
+				return this;
+			else
+				return validateFont(frow);
 		}
 	}
 
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2015  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -15,7 +15,6 @@
 package us.mn.state.dot.tms.server.comm.snmp;
 
 import java.io.InputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 /**
@@ -30,23 +29,15 @@ abstract public class ASN1 {
 		return ASN1Tag.fromValues(clazz, constructed, number);
 	}
 
-	/** Byte array output stream used to encode messages */
-	protected final ByteArrayOutputStream encoder =
-		new ByteArrayOutputStream();
+	/** Buffer used to encode messages (backwards) */
+	protected final ReverseBuffer encoder = new ReverseBuffer();
 
-	/** Encode an ASN.1 identifier (tag) */
+	/** Encode an ASN.1 identifier (tag), in front of encoded data */
 	abstract protected void encodeIdentifier(Tag tag) throws IOException;
 
-	/** Encode an ASN.1 length */
+	/** Encode an ASN.1 length, in front of encoded data */
 	abstract protected void encodeLength(int length) throws IOException;
 
-	/** Get encoded data as byte array (and reset the encoder) */
-	protected byte[] getEncodedData() {
-		byte[] buffer = encoder.toByteArray();
-		encoder.reset();
-		return buffer;
-	}
-
 	/** Decode an ASN.1 identifier (tag) */
 	abstract protected Tag decodeIdentifier(InputStream is)
 		throws IOException;
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2015  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -62,9 +62,12 @@ public enum ASN1Tag implements Tag {
 		number = n;
 	}
 
+	/** All tags (values() copies the array on every call) */
+	static private final ASN1Tag[] VALUES = values();
+
 	/** Lookup an ASN1 tag from values */
 	static public ASN1Tag fromValues(byte c, boolean co, int n) {
-		for (ASN1Tag t: values()) {
+		for (ASN1Tag t: VALUES) {
 			if (t.clazz == c && t.constructed == co && t.number ==n)
 				return t;
 		}
@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2002-2023  Minnesota Department of Transportation
+ * Copyright (C) 2002-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -17,7 +17,6 @@ package us.mn.state.dot.tms.server.comm.snmp;
 import java.io.EOFException;
 import java.io.InputStream;
 import java.io.IOException;
-import java.io.ByteArrayOutputStream;
 import us.mn.state.dot.tms.server.comm.ParsingException;
 
 /**
@@ -31,6 +30,9 @@ abstract public class BER extends ASN1 {
 	static protected final EOFException END_OF_STREAM =
 		new EOFException("END OF STREAM");
 
+	/** Empty object identifier */
+	static private final int[] NO_OID = new int[0];
+
 	/** Constant to check the high bit of a byte */
 	static public final byte HIGH_BIT = (byte)0x80;
 
@@ -44,7 +46,9 @@ abstract public class BER extends ASN1 {
 	 * than one octet */
 	static private final int ONE_OCTET = 0x1F;
 
-	/** Encode a BER identifier to the output stream */
+	/** Encode a BER identifier, in front of encoded data.  Like the
+	 * other encode methods, this writes a complete element backwards, so
+	 * elements must be encoded last to first. */
 	protected void encodeIdentifier(Tag tag) throws IOException {
 		byte first = tag.getClazz();
 		int number = tag.getNumber();
@@ -54,110 +58,124 @@ abstract public class BER extends ASN1 {
 			encoder.write(first | number);
 			return;
 		}
+		encoder.write(number & SEVEN_BITS);
+		for (number >>= 7; number > SEVEN_BITS; number >>= 7)
+			encoder.write((number & SEVEN_BITS) | HIGH_BIT);
 		encoder.write(first | ONE_OCTET);
-		byte[] buffer = new byte[5];
-		int start = 4;
-		buffer[start] = (byte)(number & SEVEN_BITS);
-		for (number >>= 7; number > SEVEN_BITS; number >>= 7) {
-			buffer[--start] = (byte)
-				((number & SEVEN_BITS) | HIGH_BIT);
-		}
-		encoder.write(buffer, start, 5 - start);
 	}
 
-	/** Encode a BER length */
+	/** Encode a BER length, in front of encoded data */
 	protected void encodeLength(int length) throws IOException {
 		if (length < 128)
 			encoder.write(length);
 		else if (length < 256) {
-			encoder.write(HIGH_BIT | 1);
 			encoder.write(length);
+			encoder.write(HIGH_BIT | 1);
 		} else {
+			encoder.write(length & 0xFF);
+			encoder.write(length >> 8);
 			encoder.write(HIGH_BIT | 2);
-			encoder.write((byte)(length >> 8));
-			encoder.write((byte)(length & 0xFF));
 		}
 	}
 
 	/** Encode a boolean value */
 	protected void encodeBoolean(boolean value) throws IOException {
-		encodeIdentifier(ASN1Tag.BOOLEAN);
+		encoder.write(value ? 0xFF : 0x00);
 		encodeLength(1);
-		if (value)
-			encoder.write(0xFF);
-		else
-			encoder.write(0x00);
+		encodeIdentifier(ASN1Tag.BOOLEAN);
 	}
 
 	/** Encode an integer value */
 	protected void encodeInteger(int value) throws IOException {
-		byte[] buffer = new byte[4];
-		int len = encodeInt(value, buffer);
+		encodeInt(value);
 		encodeIdentifier(ASN1Tag.INTEGER);
-		encodeLength(len);
-		encoder.write(buffer, 0, len);
 	}
 
-	/** Encode an integer value */
-	private int encodeInt(int value, byte[] buffer) throws IOException {
-		int len = 0;
-		boolean flag = false;
+	/** Get the number of octets needed to encode an integer */
+	static private int intLength(int value) {
 		for (int shift = 23; shift > 0; shift -= 8) {
 			int test = (value >> shift) & 0x1FF;
 			if (test != 0 && test != 0x1FF)
-				flag = true;
-			if (flag)
-				buffer[len++] = (byte) (test >> 1);
+				return (shift + 9) / 8;
 		}
-		buffer[len++] = (byte) (value & 0xFF);
-		return len;
+		return 1;
+	}
+
+	/** Encode an integer length/value */
+	private void encodeInt(int value) throws IOException {
+		int len = intLength(value);
+		for (int i = 0; i < len; i++)
+			encoder.write(value >> (i * 8));
+		encodeLength(len);
 	}
 
 	/** Encode a Counter value */
 	public void encodeCounter(int value) throws IOException {
-		byte[] buffer = new byte[4];
-		int len = encodeInt(value, buffer);
+		encodeInt(value);
 		encodeIdentifier(SNMPTag.COUNTER);
-		encodeLength(len);
-		encoder.write(buffer, 0, len);
 	}
 
 	/** Encode an octet string */
 	protected void encodeOctetString(byte[] string) throws IOException {
-		encodeIdentifier(ASN1Tag.OCTET_STRING);
+		encoder.write(string, 0, string.length);
 		encodeLength(string.length);
-		encoder.write(string);
+		encodeIdentifier(ASN1Tag.OCTET_STRING);
 	}
 
 	/** Encode a null value */
 	protected void encodeNull() throws IOException {
-		encodeIdentifier(ASN1Tag.NULL);
 		encodeLength(0);
+		encodeIdentifier(ASN1Tag.NULL);
+	}
+
+	/** Encode a subidentifier of an object identifier */
+	private void encodeSubidentifier(int subid) throws IOException {
+		if (subid > SEVEN_BITS) {
+			encoder.write(subid & SEVEN_BITS);
+			encoder.write(HIGH_BIT | (subid >> 7));
+		} else
+			encoder.write(subid);
 	}
 
 	/** Encode an object identifier */
 	protected void encodeObjectIdentifier(int[] oid) throws IOException {
-		ByteArrayOutputStream bs = new ByteArrayOutputStream();
-		bs.write(oid[0] * 40 + oid[1]);
-		for (int i = 2; i < oid.length; i++) {
-			int subid = oid[i];
-			if (subid > SEVEN_BITS) {
-				bs.write(HIGH_BIT | (subid >> 7));
-				subid &= SEVEN_BITS;
-			}
-			bs.write(subid);
+		int end = encoder.length();
+		for (int i = oid.length - 1; i >= 2; i--)
+			encodeSubidentifier(oid[i]);
+		encoder.write(oid[0] * 40 + oid[1]);
+		encodeLength(encoder.length() - end);
+		encodeIdentifier(ASN1Tag.OBJECT_IDENTIFIER);
+	}
+
+	/** Encode an object identifier from a MIB node and index, without
+	 * creating an OID array.  The root node must have at least two
+	 * subidentifiers.
+	 * @param node MIB node.
+	 * @param idx Node index. */
+	protected void encodeObjectIdentifier(MIBNode node, int[] idx)
+		throws IOException
+	{
+		int end = encoder.length();
+		for (int i = idx.length - 1; i >= 0; i--)
+			encodeSubidentifier(idx[i]);
+		for (MIBNode n = node; n != null; n = n.getParent()) {
+			int[] nid = n.getNid();
+			boolean root = (n.getParent() == null);
+			for (int i = nid.length - 1; i >= (root ? 2 : 0); i--)
+				encodeSubidentifier(nid[i]);
+			if (root)
+				encoder.write(nid[0] * 40 + nid[1]);
 		}
-		byte[] buffer = bs.toByteArray();
+		encodeLength(encoder.length() - end);
 		encodeIdentifier(ASN1Tag.OBJECT_IDENTIFIER);
-		encodeLength(buffer.length);
-		encoder.write(buffer);
 	}
 
-	/** Encode a sequence (or sequence-of) */
-	protected void encodeSequence(byte[] seq) throws IOException {
+	/** Encode a sequence (or sequence-of) header.
+	 * @param length Length of sequence contents, which must already
+	 *               be encoded. */
+	protected void encodeSequence(int length) throws IOException {
+		encodeLength(length);
 		encodeIdentifier(ASN1Tag.SEQUENCE);
-		encodeLength(seq.length);
-		encoder.write(seq);
 	}
 
 	/** Decode a BER identifier (tag) */
@@ -270,6 +288,25 @@ abstract public class BER extends ASN1 {
 		return buffer;
 	}
 
+	/** Match an octet string with an expected value, without copying.
+	 * @return true if the decoded string equals the expected value. */
+	protected boolean matchOctetString(InputStream is, byte[] expected)
+		throws IOException
+	{
+		if (decodeIdentifier(is) != ASN1Tag.OCTET_STRING)
+			throw new ParsingException("EXPECTED OCTET STRING TAG");
+		int length = decodeLength(is);
+		boolean match = (length == expected.length);
+		for (int i = 0; i < length; i++) {
+			int b = is.read();
+			if (b < 0)
+				throw END_OF_STREAM;
+			if (match && (byte) b != expected[i])
+				match = false;
+		}
+		return match;
+	}
+
 	/** Decode an object identifier */
 	protected int[] decodeObjectIdentifier(InputStream is)
 		throws IOException
@@ -281,16 +318,12 @@ abstract public class BER extends ASN1 {
 		int length = decodeLength(is);
 		if (length < 1)
 			throw new ParsingException("NEGATIVE OID LENGTH");
-		byte[] buffer = new byte[length];
-		if (length > 0) {
-			int blen = is.read(buffer);
-			if (blen < 0)
+		for (int i = 0; i < length; i++) {
+			if (is.read() < 0)
 				throw END_OF_STREAM;
-			if (blen != length)
-				throw new ParsingException("READ OID FAIL");
 		}
-		// NOTE: when the length is zero, there is no OID
-		return new int[0];
+		// NOTE: the OID is skipped, not decoded
+		return NO_OID;
 	}
 
 	/** Decode a sequence (or sequence-of)
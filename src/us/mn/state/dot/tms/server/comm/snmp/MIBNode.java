@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2009-2015  Minnesota Department of Transportation
+ * Copyright (C) 2009-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -42,6 +42,16 @@ public class MIBNode {
 		name = nm;
 	}
 
+	/** Get the parent node (null for root) */
+	MIBNode getParent() {
+		return parent;
+	}
+
+	/** Get the node ID (not copied; do not modify) */
+	int[] getNid() {
+		return nid;
+	}
+
 	/** Create a new child node */
 	public MIBNode child(int[] n, String nm) {
 		return new MIBNode(this, n, nm);
@@ -0,0 +1,84 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm.snmp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Buffer which is written backwards, from the end toward the start.  Each
+ * write goes in front of the data already written.  This lets BER contents
+ * be encoded before their length prefix, without copying.  The buffer is
+ * reused after a reset, and only grows when a message does not fit.
+ *
+ * @author Douglas Lau
+ */
+public class ReverseBuffer {
+
+	/** Initial buffer size */
+	static private final int INITIAL_SIZE = 2048;
+
+	/** Buffer array */
+	private byte[] buf = new byte[INITIAL_SIZE];
+
+	/** Position of first valid byte */
+	private int pos = buf.length;
+
+	/** Get the number of bytes written */
+	public int length() {
+		return buf.length - pos;
+	}
+
+	/** Reset the buffer to empty */
+	public void reset() {
+		pos = buf.length;
+	}
+
+	/** Make room for more bytes at the front */
+	private void ensureRoom(int n) {
+		if (n > pos) {
+			int len = length();
+			int sz = Math.max(buf.length * 2, len + n);
+			byte[] b = new byte[sz];
+			System.arraycopy(buf, pos, b, sz - len, len);
+			buf = b;
+			pos = sz - len;
+		}
+	}
+
+	/** Write one byte in front of the buffer contents */
+	public void write(int b) {
+		ensureRoom(1);
+		buf[--pos] = (byte) b;
+	}
+
+	/** Write bytes in front of the buffer contents */
+	public void write(byte[] b, int off, int len) {
+		ensureRoom(len);
+		pos -= len;
+		System.arraycopy(b, off, buf, pos, len);
+	}
+
+	/** Write the buffer contents to an output stream */
+	public void writeTo(OutputStream os) throws IOException {
+		os.write(buf, pos, length());
+	}
+
+	/** Get a copy of the buffer contents */
+	public byte[] toByteArray() {
+		return Arrays.copyOfRange(buf, pos, buf.length);
+	}
+}
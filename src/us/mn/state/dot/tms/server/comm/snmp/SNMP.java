@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2023  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2019  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -18,7 +18,6 @@ package us.mn.state.dot.tms.server.comm.snmp;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import us.mn.state.dot.sched.DebugLog;
 import us.mn.state.dot.tms.server.comm.CommMessage;
@@ -59,25 +58,37 @@ public class SNMP extends BER {
 	/** Public community name */
 	static public final String PUBLIC = "Public";
 
-	/** Encode an SNMP message */
-	private void encodeSNMPMessage(String community) throws IOException {
-		byte[] pdu = getEncodedData();
+	/** Community name of last message */
+	private String last_community = PUBLIC;
+
+	/** Encoded community name of last message */
+	private byte[] last_community_bytes = PUBLIC.getBytes();
+
+	/** Get the encoded community name */
+	private byte[] getCommunityBytes(String c) {
+		if (!c.equals(last_community)) {
+			last_community = c;
+			last_community_bytes = c.getBytes();
+		}
+		return last_community_bytes;
+	}
+
+	/** Encode an SNMP message, in front of the encoded PDU */
+	private void encodeSNMPMessage(String c) throws IOException {
+		encodeOctetString(getCommunityBytes(c));
 		encodeInteger(SNMP_VERSION);
-		encodeOctetString(community.getBytes());
-		encoder.write(pdu);
-		encodeSequence(getEncodedData());
+		encodeSequence(encoder.length());
 	}
 
 	/** Decode an SNMP message */
-	private void decodeSNMPMessage(InputStream is, String community)
+	private void decodeSNMPMessage(InputStream is, String c)
 		throws IOException
 	{
 		if (decodeSequence(is) > is.available())
 			throw new ParsingException("INVALID SNMP LENGTH");
 		if (decodeInteger(is) != 0)
 			throw new ParsingException("SNMP VERSION MISMATCH");
-		String c = new String(decodeOctetString(is));
-		if (!c.equals(community))
+		if (!matchOctetString(is, getCommunityBytes(c)))
 			throw new ParsingException("SNMP COMMUNITY MISMATCH");
 	}
 
@@ -123,9 +134,7 @@ public class SNMP extends BER {
 			if (mos.isEmpty())
 				return;
 			is.skip(is.available());
-			encodeVarBindList(false);
-			encodeRequestPDU(SNMPTag.GET_REQUEST);
-			encodeSNMPMessage(community);
+			encodeRequest(SNMPTag.GET_REQUEST, false);
 			encoder.writeTo(os);
 			encoder.reset();
 			os.flush();
@@ -158,9 +167,7 @@ public class SNMP extends BER {
 			if (mos.isEmpty())
 				return;
 			is.skip(is.available());
-			encodeVarBindList(true);
-			encodeRequestPDU(SNMPTag.SET_REQUEST);
-			encodeSNMPMessage(community);
+			encodeRequest(SNMPTag.SET_REQUEST, true);
 			encoder.writeTo(os);
 			encoder.reset();
 			os.flush();
@@ -185,40 +192,51 @@ public class SNMP extends BER {
 			}
 		}
 
-		/** Encode a null variable binding */
+		/** Encode a request message.  Everything is encoded
+		 * backwards, from the last variable binding to the message
+		 * header, so each length is known before its prefix is
+		 * written.
+		 * @param tag PDU type identifier.
+		 * @param set Flag to encode values (or nulls for get). */
+		private void encodeRequest(Tag tag, boolean set)
+			throws IOException
+		{
+			encoder.reset();
+			encodeVarBindList(set);
+			encodeRequestPDU(tag);
+			encodeSNMPMessage(community);
+		}
+
+		/** Encode a variable binding */
 		private void encodeVarBind(ASN1Object mo, boolean set)
 			throws IOException
 		{
-			encodeObjectIdentifier(mo.oid());
+			int end = encoder.length();
 			if (set)
 				mo.encode(SNMP.this);
 			else
 				encodeNull();
-			encodeSequence(getEncodedData());
+			mo.encodeOID(SNMP.this);
+			encodeSequence(encoder.length() - end);
 		}
 
 		/** Encode the variable binding list */
 		private void encodeVarBindList(boolean set) throws IOException {
-			ByteArrayOutputStream vb = new ByteArrayOutputStream();
-			for (ASN1Object mo: mos) {
-				encodeVarBind(mo, set);
-				vb.write(getEncodedData());
-			}
-			encodeSequence(vb.toByteArray());
+			int end = encoder.length();
+			for (int i = mos.size() - 1; i >= 0; i--)
+				encodeVarBind(mos.get(i), set);
+			encodeSequence(encoder.length() - end);
 		}
 
-		/** Encode an SNMP request PDU
+		/** Encode an SNMP request PDU, in front of the encoded
+		 * variable binding list.
 		 * @param tag PDU type identifier */
 		private void encodeRequestPDU(Tag tag) throws IOException {
-			byte[] varBindList = getEncodedData();
-			encodeInteger(request_id);
-			encodeInteger(0);	// error-status
 			encodeInteger(0);	// error-index
-			encoder.write(varBindList);
-			byte[] buffer = getEncodedData();
+			encodeInteger(0);	// error-status
+			encodeInteger(request_id);
+			encodeLength(encoder.length());
 			encodeIdentifier(tag);
-			encodeLength(buffer.length);
-			encoder.write(buffer);
 		}
 
 		/** Decode a variable binding */
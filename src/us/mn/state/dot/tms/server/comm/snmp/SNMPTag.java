@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2000-2015  Minnesota Department of Transportation
+ * Copyright (C) 2000-2026  Minnesota Department of Transportation
  * Copyright (C) 2015  Iteris Inc.
  *
  * This program is free software; you can redistribute it and/or modify
@@ -64,9 +64,12 @@ public enum SNMPTag implements Tag {
 		number = n;
 	}
 
+	/** All tags (values() copies the array on every call) */
+	static private final SNMPTag[] VALUES = values();
+
 	/** Lookup an SNMP tag from values */
 	static public SNMPTag fromValues(byte c, boolean co, int n) {
-		for (SNMPTag t: values()) {
+		for (SNMPTag t: VALUES) {
 			if (t.clazz == c && t.constructed == co && t.number ==n)
 				return t;
 		}
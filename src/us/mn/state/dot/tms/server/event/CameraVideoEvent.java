@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2019-2021  Minnesota Department of Transportation
+ * Copyright (C) 2019-2026  Minnesota Department of Transportation
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -40,9 +40,8 @@ public class CameraVideoEvent extends BaseEvent {
 	static public void purgeRecords() throws TMSException {
 		int age = getPurgeDays();
 		if (store != null && age > 0) {
-			store.update("DELETE FROM " + TABLE +
-				" WHERE event_date < now() - '" + age +
-				" days'::interval;");
+			store.purge(TABLE, "event_date < now() - '" + age +
+				" days'::interval");
 		}
 	}
 
@@ -0,0 +1,199 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+
+/**
+ * Input stream which counts bytes read, and optionally captures a copy of
+ * them, so the data can be saved if parsing fails.  Captured data is kept in
+ * memory up to a limit, then spilled to a temporary file, up to a maximum
+ * size.  Data past the maximum is not captured.  Captured data is kept after
+ * the stream is closed, until it is discarded.
+ *
+ * @author Douglas Lau
+ */
+public class CaptureInputStream extends FilterInputStream {
+
+	/** Maximum captured bytes kept in memory */
+	private final int mem_max;
+
+	/** Maximum total captured bytes */
+	private final long max;
+
+	/** Memory capture buffer */
+	private byte[] buf = new byte[0];
+
+	/** Number of bytes in memory buffer */
+	private int n_buf = 0;
+
+	/** Temporary spill file */
+	private File spill;
+
+	/** Spill file output stream */
+	private OutputStream spill_os;
+
+	/** Total number of bytes read */
+	private long count = 0;
+
+	/** Create a new capture input stream.
+	 * @param in Underlying input stream.
+	 * @param mm Maximum captured bytes kept in memory.
+	 * @param m Maximum total captured bytes (0 to only count). */
+	public CaptureInputStream(InputStream in, int mm, long m) {
+		super(in);
+		mem_max = mm;
+		max = m;
+	}
+
+	/** Create a new (counting only) input stream */
+	public CaptureInputStream(InputStream in) {
+		this(in, 0, 0);
+	}
+
+	/** Get the number of bytes read */
+	public long getCount() {
+		return count;
+	}
+
+	/** Check if all data read was captured */
+	public boolean isComplete() {
+		return count <= max;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = in.read();
+		if (b >= 0)
+			capture(new byte[] { (byte) b }, 0, 1);
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int n = in.read(b, off, len);
+		if (n > 0)
+			capture(b, off, n);
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		// Read skipped data, so that it is captured
+		byte[] b = new byte[(int) Math.min(n, 4096)];
+		long total = 0;
+		while (total < n) {
+			int r = read(b, 0, (int) Math.min(b.length, n - total));
+			if (r <= 0)
+				break;
+			total += r;
+		}
+		return total;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	/** Capture data read from the stream */
+	private void capture(byte[] b, int off, int len) throws IOException {
+		long c = count;
+		count += len;
+		if (c >= max)
+			return;
+		len = (int) Math.min(len, max - c);
+		if (null == spill_os && n_buf + len <= mem_max) {
+			if (n_buf + len > buf.length) {
+				byte[] nb = new byte[Math.min(mem_max, Math.max(
+					n_buf + len, buf.length * 2))];
+				System.arraycopy(buf, 0, nb, 0, n_buf);
+				buf = nb;
+			}
+			System.arraycopy(b, off, buf, n_buf, len);
+			n_buf += len;
+		} else {
+			if (null == spill_os) {
+				spill = File.createTempFile("capture", null);
+				spill_os = new FileOutputStream(spill);
+			}
+			spill_os.write(b, off, len);
+		}
+	}
+
+	/** Write captured data to an output stream */
+	public void writeTo(OutputStream os) throws IOException {
+		os.write(buf, 0, n_buf);
+		if (spill_os != null) {
+			spill_os.flush();
+			FileInputStream fis = new FileInputStream(spill);
+			try {
+				byte[] b = new byte[8192];
+				int n;
+				while ((n = fis.read(b)) > 0)
+					os.write(b, 0, n);
+			}
+			finally {
+				fis.close();
+			}
+		}
+	}
+
+	/** Open an input stream to read captured data.  Closing the returned
+	 * stream also closes this stream, and discards the captured data. */
+	public InputStream openCaptured() throws IOException {
+		InputStream is = new ByteArrayInputStream(buf, 0, n_buf);
+		if (spill_os != null) {
+			spill_os.flush();
+			is = new SequenceInputStream(is,
+				new FileInputStream(spill));
+		}
+		return new FilterInputStream(is) {
+			@Override public void close() throws IOException {
+				try {
+					super.close();
+					CaptureInputStream.this.close();
+				}
+				finally {
+					discard();
+				}
+			}
+		};
+	}
+
+	/** Discard captured data, deleting the spill file */
+	public void discard() throws IOException {
+		buf = new byte[0];
+		n_buf = 0;
+		if (spill_os != null) {
+			try {
+				spill_os.close();
+			}
+			finally {
+				spill_os = null;
+				spill.delete();
+				spill = null;
+			}
+		}
+	}
+}
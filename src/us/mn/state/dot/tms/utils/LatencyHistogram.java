@@ -0,0 +1,115 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram, with log-linear buckets.  Values below 16 have
+ * exact buckets; above that, each power of 2 is split into 8 sub-buckets,
+ * so the relative error is at most 12.5%.  Recording is a couple of atomic
+ * increments, so it can be done on every poll.
+ *
+ * @author Douglas Lau
+ */
+public class LatencyHistogram {
+
+	/** Number of sub-buckets per power of 2 (log2) */
+	static private final int SUB_BITS = 3;
+
+	/** Number of exact (linear) buckets */
+	static private final int LINEAR = 1 << (SUB_BITS + 1);
+
+	/** Total number of buckets (enough for any long value) */
+	static private final int N_BUCKETS = LINEAR +
+		(63 - SUB_BITS) * (1 << SUB_BITS);
+
+	/** Get the bucket index for a value */
+	static int bucket(long v) {
+		if (v < LINEAR)
+			return (int) Math.max(0, v);
+		int e = 63 - Long.numberOfLeadingZeros(v);
+		int sub = (int) (v >>> (e - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+		return LINEAR + (e - SUB_BITS - 1) * (1 << SUB_BITS) + sub;
+	}
+
+	/** Get the highest value in a bucket */
+	static long bucketMax(int b) {
+		if (b < LINEAR)
+			return b;
+		int i = b - LINEAR;
+		int e = i / (1 << SUB_BITS) + SUB_BITS + 1;
+		long sub = i % (1 << SUB_BITS);
+		long lo = (1L << e) + (sub << (e - SUB_BITS));
+		return lo + (1L << (e - SUB_BITS)) - 1;
+	}
+
+	/** Bucket counts */
+	private final AtomicLongArray counts = new AtomicLongArray(N_BUCKETS);
+
+	/** Total count */
+	private final AtomicLong count = new AtomicLong();
+
+	/** Sum of all values */
+	private final AtomicLong sum = new AtomicLong();
+
+	/** Maximum value */
+	private final AtomicLong max = new AtomicLong();
+
+	/** Record a value */
+	public void record(long v) {
+		v = Math.max(0, v);
+		counts.incrementAndGet(bucket(v));
+		count.incrementAndGet();
+		sum.addAndGet(v);
+		long m = max.get();
+		while (v > m && !max.compareAndSet(m, v))
+			m = max.get();
+	}
+
+	/** Get the number of recorded values */
+	public long getCount() {
+		return count.get();
+	}
+
+	/** Get the sum of recorded values */
+	public long getSum() {
+		return sum.get();
+	}
+
+	/** Get the maximum recorded value */
+	public long getMax() {
+		return max.get();
+	}
+
+	/** Get a value at a percentile.
+	 * @param p Percentile (0 to 100).
+	 * @return Highest value of the bucket containing the percentile,
+	 *         limited to the maximum recorded value. */
+	public long getPercentile(double p) {
+		long n = count.get();
+		if (n <= 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(n * p / 100));
+		long c = 0;
+		for (int b = 0; b < N_BUCKETS; b++) {
+			c += counts.get(b);
+			if (c >= rank)
+				return Math.min(bucketMax(b), getMax());
+		}
+		return getMax();
+	}
+}
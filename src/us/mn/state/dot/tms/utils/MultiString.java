@@ -1,6 +1,6 @@
 /*
  * IRIS -- Intelligent Roadway Information System
- * Copyright (C) 2006-2023  Minnesota Department of Transportation
+ * Copyright (C) 2006-2026  Minnesota Department of Transportation
  * Copyright (C) 2014-2015  AHMCT, University of California
  * Copyright (C) 2019-2020  SRF Consulting Group
  * Copyright (C) 2021  Iteris Inc.
@@ -19,7 +19,9 @@ package us.mn.state.dot.tms.utils;
 
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import us.mn.state.dot.tms.PageTimeHelper;
@@ -461,9 +463,26 @@ public class MultiString {
 		return occ != null && occ > 0 && occ < 100;
 	}
 
+	/** Maximum number of parsed MULTI strings to cache */
+	static private final int MAX_PARSED = 1024;
+
+	/** Cache of parsed MULTI strings, in access order */
+	static private final LinkedHashMap<String, MultiTokens> PARSED =
+		new LinkedHashMap<String, MultiTokens>(64, 0.75f, true)
+	{
+		@Override protected boolean removeEldestEntry(
+			Map.Entry<String, MultiTokens> e)
+		{
+			return size() > MAX_PARSED;
+		}
+	};
+
 	/** MULTI string buffer */
 	private final String multi;
 
+	/** Parsed tokens (null until first parse) */
+	private MultiTokens tokens;
+
 	/** Create a new MULTI string.
 	 * @param m MULTI string, may not be null.
 	 * @throws NullPointerException if m is null. */
@@ -574,9 +593,38 @@ public class MultiString {
 		return valid[0];
 	}
 
-	/** Parse the MULTI string.
+	/** Parse the MULTI string.  The string is only tokenized once; the
+	 * tokens are cached for each unique MULTI string, and replayed into
+	 * the callback.
 	 * @param cb A callback which keeps track of the MULTI state. */
 	public void parse(Multi cb) {
+		getTokens().replay(cb);
+	}
+
+	/** Get the parsed tokens */
+	private MultiTokens getTokens() {
+		MultiTokens mt = tokens;
+		if (null == mt) {
+			synchronized (PARSED) {
+				mt = PARSED.get(multi);
+			}
+			if (null == mt) {
+				MultiTokens.Recorder rec =
+					new MultiTokens.Recorder();
+				parseTags(rec);
+				mt = rec.build();
+				synchronized (PARSED) {
+					PARSED.put(multi, mt);
+				}
+			}
+			tokens = mt;
+		}
+		return mt;
+	}
+
+	/** Parse all tags in the MULTI string (without cached tokens).
+	 * @param cb A callback which keeps track of the MULTI state. */
+	void parseTags(Multi cb) {
 		int i = 0;
 		while (i < multi.length()) {
 			int b0 = findBracket('[', i);
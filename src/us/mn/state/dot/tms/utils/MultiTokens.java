@@ -0,0 +1,186 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.utils;
+
+import java.util.ArrayList;
+
+/**
+ * Parsed MULTI string tokens.  These are recorded from one parse, and can be
+ * replayed into any Multi callback without parsing the string again.
+ * Tokens are immutable, so they can be shared between threads.
+ *
+ * @author Douglas Lau
+ */
+public final class MultiTokens {
+
+	/** One recorded callback */
+	private interface Token {
+		void replay(Multi cb);
+	}
+
+	/** Recorder for MULTI callbacks */
+	static final class Recorder implements Multi {
+
+		/** Recorded tokens */
+		private final ArrayList<Token> tokens = new ArrayList<Token>();
+
+		/** Create tokens from all recorded callbacks */
+		MultiTokens build() {
+			return new MultiTokens(tokens.toArray(new Token[0]));
+		}
+
+		@Override public void unsupportedTag(final String tag) {
+			tokens.add(cb -> cb.unsupportedTag(tag));
+		}
+		@Override public void addSpan(final String span) {
+			tokens.add(cb -> cb.addSpan(span));
+		}
+		@Override public void setColorBackground(final Integer x) {
+			tokens.add(cb -> cb.setColorBackground(x));
+		}
+		@Override public void setPageBackground(final Integer x) {
+			tokens.add(cb -> cb.setPageBackground(x));
+		}
+		@Override public void setPageBackground(final int r,
+			final int g, final int b)
+		{
+			tokens.add(cb -> cb.setPageBackground(r, g, b));
+		}
+		@Override public void setColorForeground(final Integer x) {
+			tokens.add(cb -> cb.setColorForeground(x));
+		}
+		@Override public void setColorForeground(final int r,
+			final int g, final int b)
+		{
+			tokens.add(cb -> cb.setColorForeground(r, g, b));
+		}
+		@Override public void addColorRectangle(final int x,
+			final int y, final int w, final int h, final int z)
+		{
+			tokens.add(cb -> cb.addColorRectangle(x, y, w, h, z));
+		}
+		@Override public void addColorRectangle(final int x,
+			final int y, final int w, final int h, final int r,
+			final int g, final int b)
+		{
+			tokens.add(cb -> cb.addColorRectangle(x, y, w, h, r, g,
+				b));
+		}
+		@Override public void setFont(final Integer f_num,
+			final String f_id)
+		{
+			tokens.add(cb -> cb.setFont(f_num, f_id));
+		}
+		@Override public void addGraphic(final int g_num,
+			final Integer x, final Integer y, final String g_id)
+		{
+			tokens.add(cb -> cb.addGraphic(g_num, x, y, g_id));
+		}
+		@Override public void setJustificationLine(
+			final JustificationLine jl)
+		{
+			tokens.add(cb -> cb.setJustificationLine(jl));
+		}
+		@Override public void setJustificationPage(
+			final JustificationPage jp)
+		{
+			tokens.add(cb -> cb.setJustificationPage(jp));
+		}
+		@Override public void addLine(final Integer spacing) {
+			tokens.add(cb -> cb.addLine(spacing));
+		}
+		@Override public void addPage() {
+			tokens.add(cb -> cb.addPage());
+		}
+		@Override public void setPageTimes(final Integer pt_on,
+			final Integer pt_off)
+		{
+			tokens.add(cb -> cb.setPageTimes(pt_on, pt_off));
+		}
+		@Override public void setCharSpacing(final Integer sc) {
+			tokens.add(cb -> cb.setCharSpacing(sc));
+		}
+		@Override public void setTextRectangle(final int x,
+			final int y, final int w, final int h)
+		{
+			tokens.add(cb -> cb.setTextRectangle(x, y, w, h));
+		}
+		@Override public void addClearGuideAdvisory(final String dms,
+			final int rid, final int tsp, final String mode,
+			final int ridx)
+		{
+			tokens.add(cb -> cb.addClearGuideAdvisory(dms, rid, tsp,
+				mode, ridx));
+		}
+		@Override public void addExitWarning(final String did,
+			final int occ)
+		{
+			tokens.add(cb -> cb.addExitWarning(did, occ));
+		}
+		@Override public void addFeed(final String fid) {
+			tokens.add(cb -> cb.addFeed(fid));
+		}
+		@Override public void addParking(final String pid,
+			final String l_txt, final String c_txt)
+		{
+			tokens.add(cb -> cb.addParking(pid, l_txt, c_txt));
+		}
+		@Override public void addSlowWarning(final int spd,
+			final int dist, final String mode)
+		{
+			tokens.add(cb -> cb.addSlowWarning(spd, dist, mode));
+		}
+		@Override public void addStandby() {
+			tokens.add(cb -> cb.addStandby());
+		}
+		@Override public void addTimeAction(final String dir,
+			final String format)
+		{
+			tokens.add(cb -> cb.addTimeAction(dir, format));
+		}
+		@Override public void addTravelTime(final String sid,
+			final OverLimitMode mode, final String o_txt)
+		{
+			tokens.add(cb -> cb.addTravelTime(sid, mode, o_txt));
+		}
+		@Override public void addTolling(final String mode,
+			String[] zones)
+		{
+			// Each replay gets its own copy of the array
+			final String[] z = zones.clone();
+			tokens.add(cb -> cb.addTolling(mode, z.clone()));
+		}
+		@Override public void addSpeedAdvisory() {
+			tokens.add(cb -> cb.addSpeedAdvisory());
+		}
+		@Override public void addLocator(final String code) {
+			tokens.add(cb -> cb.addLocator(code));
+		}
+	}
+
+	/** Recorded tokens */
+	private final Token[] tokens;
+
+	/** Create parsed MULTI tokens */
+	private MultiTokens(Token[] t) {
+		tokens = t;
+	}
+
+	/** Replay all tokens into a MULTI callback */
+	public void replay(Multi cb) {
+		for (Token t: tokens)
+			t.replay(cb);
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.sched;
+
+import java.io.File;
+import java.nio.file.Files;
+import junit.framework.TestCase;
+
+/**
+ * DebugLog tests
+ *
+ * @author Doug Lau
+ */
+public class DebugLogTest extends TestCase {
+
+	public DebugLogTest(String name) {
+		super(name);
+	}
+
+	/** Wait long enough for the writer thread to check files */
+	private void waitCheck() throws Exception {
+		Thread.sleep(2500);
+	}
+
+	public void testEnable() throws Exception {
+		File dir = Files.createTempDirectory("debuglog").toFile();
+		DebugLog.init(dir, "created");
+		DebugLog dl = new DebugLog("test.log");
+		assertFalse(dl.isOpen());
+		dl.log("not logged");
+		File f = dl.getFile();
+		assertTrue(f.createNewFile());
+		waitCheck();
+		assertTrue(dl.isOpen());
+		dl.log("logged");
+		waitCheck();
+		String s = new String(Files.readAllBytes(f.toPath()));
+		assertTrue(s.contains("DebugLog: test.log"));
+		assertTrue(s.contains(" logged"));
+		assertFalse(s.contains("not logged"));
+		assertTrue(f.delete());
+		waitCheck();
+		assertFalse(dl.isOpen());
+		assertTrue(dir.delete());
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.sched;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import junit.framework.TestCase;
+
+/**
+ * Timing wheel tests
+ *
+ * @author Douglas Lau
+ */
+public class TimingWheelTest extends TestCase {
+
+	/** Number of timers for many timers test */
+	static private final int N_TIMERS = 100000;
+
+	public TimingWheelTest(String name) {
+		super(name);
+	}
+
+	public void testFire() throws InterruptedException {
+		TimingWheel wheel = new TimingWheel("test_wheel", 5, 8, null);
+		final AtomicLong fired = new AtomicLong();
+		long start = System.currentTimeMillis();
+		// Longer than one rotation of the wheel
+		wheel.schedule(100, new Work() {
+			@Override protected void perform() {
+				fired.set(System.currentTimeMillis());
+			}
+		});
+		for (int i = 0; i < 100 && fired.get() == 0; i++)
+			Thread.sleep(10);
+		long elapsed = fired.get() - start;
+		assertTrue("early: " + elapsed, elapsed >= 100);
+		assertTrue("late: " + elapsed, elapsed < 500);
+		assertEquals(0, wheel.size());
+		wheel.dispose();
+	}
+
+	public void testCancel() throws InterruptedException {
+		TimingWheel wheel = new TimingWheel("test_wheel", 5, 64, null);
+		final AtomicInteger n_fired = new AtomicInteger();
+		Work w = new Work() {
+			@Override protected void perform() {
+				n_fired.incrementAndGet();
+			}
+		};
+		TimingWheel.Timer t1 = wheel.schedule(20, w);
+		TimingWheel.Timer t2 = wheel.schedule(20, w);
+		TimingWheel.Timer t3 = wheel.schedule(20, w);
+		assertEquals(3, wheel.size());
+		assertTrue(wheel.cancel(t2));
+		assertFalse(wheel.cancel(t2));
+		wheel.reschedule(t3, 10000);
+		Thread.sleep(200);
+		assertEquals(1, n_fired.get());
+		assertFalse(wheel.cancel(t1));
+		assertTrue(wheel.cancel(t3));
+		assertEquals(0, wheel.size());
+		wheel.dispose();
+	}
+
+	public void testManyTimers() {
+		TimingWheel wheel = new TimingWheel("test_wheel", 10, 512,
+			null);
+		Work w = new Work() {
+			@Override protected void perform() { }
+		};
+		ArrayList<TimingWheel.Timer> timers =
+			new ArrayList<TimingWheel.Timer>(N_TIMERS);
+		for (int i = 0; i < N_TIMERS; i++)
+			timers.add(wheel.schedule(60000 + i % 30000, w));
+		assertEquals(N_TIMERS, wheel.size());
+		for (TimingWheel.Timer t: timers)
+			assertTrue(wheel.cancel(t));
+		assertEquals(0, wheel.size());
+		wheel.dispose();
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.client.camera;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+import junit.framework.TestCase;
+
+/**
+ * MJPEG reader tests
+ *
+ * @author Douglas Lau
+ */
+public class MJPEGReaderTest extends TestCase {
+
+	/** Number of distinct frames */
+	static private final int N_DISTINCT = 8;
+
+	/** Number of frames in benchmark stream */
+	static private final int N_FRAMES = 300;
+
+	/** Create a JPEG frame */
+	static private byte[] createJpeg(int i) throws IOException {
+		BufferedImage img = new BufferedImage(320, 240,
+			BufferedImage.TYPE_3BYTE_BGR);
+		Graphics2D g = img.createGraphics();
+		g.setColor(new Color(i * 30 % 256, 80, 160));
+		g.fillRect(0, 0, 320, 240);
+		g.setColor(Color.WHITE);
+		g.drawString("FRAME " + i, 20 + i, 120);
+		g.dispose();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		assertTrue(ImageIO.write(img, "jpeg", bos));
+		return bos.toByteArray();
+	}
+
+	/** Write one multipart MJPEG frame */
+	static private void writeFrame(OutputStream os, byte[] jpeg, String hdr)
+		throws IOException
+	{
+		os.write(("--myboundary\r\nContent-Type: image/jpeg\r\n" +
+			hdr.replace("#", Integer.toString(jpeg.length)) +
+			"\r\n").getBytes());
+		os.write(jpeg);
+		os.write("\r\n".getBytes());
+	}
+
+	/** Distinct JPEG frames */
+	private byte[][] frames;
+
+	@Override
+	protected void setUp() throws IOException {
+		frames = new byte[N_DISTINCT][];
+		for (int i = 0; i < N_DISTINCT; i++)
+			frames[i] = createJpeg(i);
+	}
+
+	public void testParse() throws IOException {
+		String[] hdrs = {
+			"Content-Length: #\r\n",
+			"content-length:#\r\nX-Timestamp: 12\r\n",
+			"CONTENT-LENGTH:  #\n",
+		};
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		for (int i = 0; i < N_DISTINCT; i++)
+			writeFrame(bos, frames[i], hdrs[i % hdrs.length]);
+		MJPEGReader r = new MJPEGReader(new ByteArrayInputStream(
+			bos.toByteArray()));
+		for (int i = 0; i < N_DISTINCT; i++) {
+			int n = r.readFrame();
+			assertEquals("frame " + i, frames[i].length, n);
+			assertEquals(n, r.getFrameLength());
+			assertTrue(Arrays.equals(frames[i],
+				Arrays.copyOf(r.getFrame(), n)));
+		}
+		try {
+			r.readFrame();
+			fail("end of stream");
+		}
+		catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testInvalidLength() {
+		byte[] b = "--b\r\nContent-Length: x12\r\n\r\n".getBytes();
+		MJPEGReader r = new MJPEGReader(new ByteArrayInputStream(b));
+		try {
+			r.readFrame();
+			fail("invalid length");
+		}
+		catch (IOException e) {
+			assertEquals("Invalid content-length", e.getMessage());
+		}
+	}
+
+	public void testDecodeReuse() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		writeFrame(bos, frames[0], "Content-Length: #\r\n");
+		writeFrame(bos, frames[1], "Content-Length: #\r\n");
+		MJPEGReader r = new MJPEGReader(new ByteArrayInputStream(
+			bos.toByteArray()));
+		r.readFrame();
+		BufferedImage img = r.decode(null);
+		assertEquals(320, img.getWidth());
+		assertEquals(240, img.getHeight());
+		r.readFrame();
+		assertSame(img, r.decode(img));
+		r.dispose();
+	}
+
+	public void testView() {
+		MJPEGView v = new MJPEGView();
+		BufferedImage a = new BufferedImage(4, 4,
+			BufferedImage.TYPE_3BYTE_BGR);
+		BufferedImage b = new BufferedImage(4, 4,
+			BufferedImage.TYPE_3BYTE_BGR);
+		assertFalse(v.isBusy());
+		v.post(a);
+		assertTrue(v.isBusy());
+		assertNull(v.getBack());
+		v.paintComponent(a.createGraphics());
+		assertFalse(v.isBusy());
+		v.post(b);
+		assertSame(a, v.getBack());
+		v.clear();
+		assertFalse(v.isBusy());
+		assertNull(v.getBack());
+	}
+
+	/** Get bytes allocated by the current thread, or -1 */
+	static private long allocatedBytes() {
+		java.lang.management.ThreadMXBean tb =
+			ManagementFactory.getThreadMXBean();
+		if (tb instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) tb)
+				.getThreadAllocatedBytes(
+				Thread.currentThread().getId());
+		} else
+			return -1;
+	}
+
+	/** Read a line one byte at a time, as the old stream code did */
+	static private String readLine(InputStream is) throws IOException {
+		StringBuilder b = new StringBuilder();
+		while (true) {
+			int ch = is.read();
+			if (ch < 0)
+				throw new IOException("End of stream");
+			b.append((char) ch);
+			if (ch == '\n')
+				return b.toString();
+		}
+	}
+
+	/** Read and decode a frame, as the old stream code did */
+	static private BufferedImage readLegacy(InputStream is)
+		throws IOException
+	{
+		int n_size = -1;
+		while (n_size < 0) {
+			String s = readLine(is);
+			if (s.toLowerCase().indexOf("content-length") > -1) {
+				readLine(is);
+				n_size = Integer.parseInt(s.substring(
+					s.indexOf(":") + 1).trim());
+			}
+		}
+		byte[] image = new byte[n_size];
+		int n = 0;
+		while (n < n_size) {
+			int r = is.read(image, n, n_size - n);
+			if (r < 0)
+				throw new IOException("End of stream");
+			n += r;
+		}
+		return ImageIO.read(new ByteArrayInputStream(image));
+	}
+
+	/** Compare allocation with the old code, using a file-backed MJPEG
+	 * stand-in */
+	public void testFileStream() throws IOException {
+		File f = File.createTempFile("mjpeg", ".bin");
+		f.deleteOnExit();
+		OutputStream os = new BufferedOutputStream(
+			new FileOutputStream(f));
+		try {
+			for (int i = 0; i < N_FRAMES; i++) {
+				writeFrame(os, frames[i % N_DISTINCT],
+					"Content-Length: #\r\n");
+			}
+		}
+		finally {
+			os.close();
+		}
+		// Warm up both paths
+		runReader(f);
+		runLegacy(f);
+		long a0 = allocatedBytes();
+		runReader(f);
+		long r_bytes = allocatedBytes() - a0;
+		a0 = allocatedBytes();
+		runLegacy(f);
+		long l_bytes = allocatedBytes() - a0;
+		if (a0 >= 0)
+			assertTrue(r_bytes < l_bytes);
+		assertTrue(f.delete());
+	}
+
+	/** Read all frames from a file with MJPEGReader */
+	private void runReader(File f) throws IOException {
+		InputStream is = new FileInputStream(f);
+		try {
+			MJPEGReader r = new MJPEGReader(is);
+			BufferedImage img = null;
+			for (int i = 0; i < N_FRAMES; i++) {
+				r.readFrame();
+				img = r.decode(img);
+			}
+			r.dispose();
+		}
+		finally {
+			is.close();
+		}
+	}
+
+	/** Read all frames from a file with the old code */
+	private void runLegacy(File f) throws IOException {
+		InputStream is = new FileInputStream(f);
+		try {
+			for (int i = 0; i < N_FRAMES; i++)
+				assertNotNull(readLegacy(is));
+		}
+		finally {
+			is.close();
+		}
+	}
+}
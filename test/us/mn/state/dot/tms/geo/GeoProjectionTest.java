@@ -0,0 +1,177 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.geo;
+
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ * Geo projection tests.  The node set is a synthetic stand-in for a
+ * statewide r_node set: corridors of nodes about 500 m apart.
+ *
+ * @author Douglas Lau
+ */
+public class GeoProjectionTest extends TestCase {
+
+	/** Number of corridors */
+	static private final int N_CORRIDORS = 60;
+
+	/** Number of nodes per corridor */
+	static private final int N_NODES = 200;
+
+	/** Number of random query points */
+	static private final int N_QUERIES = 500;
+
+	/** Create a synthetic node set */
+	static private GeoProjection[] createNodes(Random rnd) {
+		GeoProjection[] nodes =
+			new GeoProjection[N_CORRIDORS * N_NODES];
+		int i = 0;
+		for (int c = 0; c < N_CORRIDORS; c++) {
+			double lat = 43.6 + rnd.nextDouble() * 5;
+			double lon = -97.0 + rnd.nextDouble() * 7;
+			double hdg = rnd.nextDouble() * Math.PI * 2;
+			for (int n = 0; n < N_NODES; n++) {
+				hdg += (rnd.nextDouble() - 0.5) * 0.2;
+				lat += Math.cos(hdg) * 0.0045;
+				lon += Math.sin(hdg) * 0.0064;
+				nodes[i++] = new GeoProjection(lat, lon);
+			}
+		}
+		return nodes;
+	}
+
+	public GeoProjectionTest(String name) {
+		super(name);
+	}
+
+	public void testSameAsPosition() {
+		Random rnd = new Random(7);
+		GeoProjection[] nodes = createNodes(rnd);
+		for (int i = 0; i < 10000; i++) {
+			GeoProjection a = nodes[rnd.nextInt(nodes.length)];
+			GeoProjection b = nodes[rnd.nextInt(nodes.length)];
+			Position pa = a.getPosition();
+			Position pb = b.getPosition();
+			assertEquals(pa.distanceHaversine(pb),
+				a.distanceHaversine(b));
+			assertEquals(pa.distanceHaversine(pb),
+				a.distanceHaversine(pb));
+			SphericalMercatorPosition smp =
+				SphericalMercatorPosition.convert(pa);
+			assertEquals(smp.getX(), a.getMercator().getX());
+			assertEquals(smp.getY(), a.getMercator().getY());
+		}
+	}
+
+	public void testMatches() {
+		GeoProjection gp = new GeoProjection(45.0, -93.0);
+		assertTrue(gp.matches(45.0, -93.0));
+		assertFalse(gp.matches(45.0, -93.1));
+		try {
+			new GeoProjection(91.0, -93.0);
+			fail("invalid latitude");
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testFastAccuracy() {
+		Random rnd = new Random(11);
+		GeoProjection[] nodes = createNodes(rnd);
+		double max_err = 0;
+		for (GeoProjection a: nodes) {
+			GeoProjection b = nodes[rnd.nextInt(nodes.length)];
+			GeoProjection c = new GeoProjection(
+				a.getPosition().getLatitude() +
+				(rnd.nextDouble() - 0.5) * 0.3,
+				a.getPosition().getLongitude() +
+				(rnd.nextDouble() - 0.5) * 0.4);
+			for (GeoProjection o: new GeoProjection[] { b, c }) {
+				double h = a.distanceHaversine(o);
+				if (h > 0 && h < 20000) {
+					double f = a.distanceFast(o);
+					double e = Math.abs(f - h) / h;
+					max_err = Math.max(max_err, e);
+				}
+			}
+		}
+		assertTrue(max_err < 1e-5);
+	}
+
+	public void testNearest() {
+		Random rnd = new Random(13);
+		GeoProjection[] nodes = createNodes(rnd);
+		for (int q = 0; q < N_QUERIES; q++) {
+			GeoProjection p = nodes[rnd.nextInt(nodes.length)];
+			GeoProjection gp = new GeoProjection(
+				p.getPosition().getLatitude() +
+				(rnd.nextDouble() - 0.5) * 0.05,
+				p.getPosition().getLongitude() +
+				(rnd.nextDouble() - 0.5) * 0.07);
+			int nh = 0;
+			int nf = 0;
+			for (int i = 1; i < nodes.length; i++) {
+				if (gp.distanceHaversine(nodes[i]) <
+				    gp.distanceHaversine(nodes[nh]))
+					nh = i;
+				if (gp.distanceFast(nodes[i]) <
+				    gp.distanceFast(nodes[nf]))
+					nf = i;
+			}
+			// Same node, or a tie to within 1 mm
+			assertEquals(gp.distanceHaversine(nodes[nh]),
+				gp.distanceHaversine(nodes[nf]), 0.001);
+		}
+	}
+
+	public void testCachedMatchesRaw() {
+		Random rnd = new Random(17);
+		GeoProjection[] nodes = createNodes(rnd);
+		int n = nodes.length;
+		double[] lat = new double[n];
+		double[] lon = new double[n];
+		for (int i = 0; i < n; i++) {
+			lat[i] = nodes[i].getPosition().getLatitude();
+			lon[i] = nodes[i].getPosition().getLongitude();
+		}
+		double sum = 0;
+		// As before: positions and projections from raw lat/lon
+		for (int i = 0; i < n; i++) {
+			Position p0 = new Position(lat[i], lon[i]);
+			for (int j = i % 100; j < n; j += 100) {
+				Position p1 = new Position(lat[j], lon[j]);
+				sum += p0.distanceHaversine(p1);
+				sum += SphericalMercatorPosition.convert(p1)
+					.getX();
+			}
+		}
+		// Cached projections must give the same results
+		for (int i = 0; i < n; i++) {
+			for (int j = i % 100; j < n; j += 100) {
+				sum -= nodes[i].distanceHaversine(nodes[j]);
+				sum -= nodes[j].getMercator().getX();
+			}
+		}
+		double fsum = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = i % 100; j < n; j += 100)
+				fsum += nodes[i].distanceFast(nodes[j]);
+		}
+		assertEquals(0.0, sum, 1.0);
+		assertTrue(fsum > 0);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.sql.SQLException;
+import junit.framework.TestCase;
+import org.postgis.MultiPolygon;
+
+/**
+ * Alert geometry tests
+ *
+ * @author Douglas Lau
+ */
+public class AlertGeometryTest extends TestCase {
+
+	/** Square, 1 degree on each side */
+	static private final String SQUARE =
+		"MULTIPOLYGON(((-94 44,-93 44,-93 45,-94 45,-94 44)))";
+
+	/** Square with a square hole */
+	static private final String HOLE =
+		"MULTIPOLYGON(((0 0,4 0,4 4,0 4,0 0)," +
+		"(1 1,1 2,2 2,2 1,1 1)))";
+
+	/** Wide rectangle, with 10 degree east-west edges */
+	static private final String LONG_EDGE =
+		"MULTIPOLYGON(((-100 45,-90 45,-90 46,-100 46,-100 45)))";
+
+	public AlertGeometryTest(String name) {
+		super(name);
+	}
+
+	public void testCentroid() throws SQLException {
+		double[] c = AlertGeometry.findCentroid(new MultiPolygon(
+			SQUARE));
+		assertEquals(44.5, c[0], 1e-9);
+		assertEquals(-93.5, c[1], 1e-9);
+		// Area 16 at (2, 2), minus area 1 at (1.5, 1.5)
+		c = AlertGeometry.findCentroid(new MultiPolygon(HOLE));
+		assertEquals((32 - 1.5) / 15, c[0], 1e-9);
+		assertEquals((32 - 1.5) / 15, c[1], 1e-9);
+	}
+
+	public void testInside() throws SQLException {
+		MultiPolygon mp = new MultiPolygon(HOLE);
+		assertEquals(0.0, AlertGeometry.distance(mp, 3, 3));
+		assertTrue(AlertGeometry.distance(mp, 1.5, 1.5) > 50000);
+	}
+
+	public void testDistance() throws SQLException {
+		MultiPolygon mp = new MultiPolygon(SQUARE);
+		assertEquals(0.0, AlertGeometry.distance(mp, 44.5, -93.5));
+		// One degree of latitude south of the square; the edge is a
+		// great circle arc, which bulges about 120 m to the north
+		assertEquals(111316, AlertGeometry.distance(mp, 43, -93.5),
+			1);
+		// East of the square, nearest the meridian edge
+		double d = AlertGeometry.distance(mp, 44.5, -92.9);
+		assertEquals(0.1 * 111195 * Math.cos(Math.toRadians(44.5)),
+			d, 20);
+		// Beyond a corner
+		d = AlertGeometry.distance(mp, 43.9, -92.9);
+		assertTrue(d > 11119 && d < 16000);
+	}
+
+	public void testNearEdge() throws SQLException {
+		MultiPolygon mp = new MultiPolygon(LONG_EDGE);
+		// Inside the planar polygon, but the great circle south edge
+		// bulges about 12 km to the north, so the point is outside
+		double d = AlertGeometry.distance(mp, 45.01, -95);
+		assertTrue(d > 5000 && d < 20000);
+		// Far enough from every edge to trust the inside test
+		assertEquals(0.0, AlertGeometry.distance(mp, 45.5, -95));
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import junit.framework.TestCase;
+import us.mn.state.dot.tms.TMSException;
+
+/**
+ * Object loader tests
+ *
+ * @author Douglas Lau
+ */
+public class ObjectLoaderTest extends TestCase {
+
+	public ObjectLoaderTest(String name) {
+		super(name);
+	}
+
+	/** Create a loader with a diamond dependency graph */
+	private ObjectLoader createLoader(int threads, final List<String> log) {
+		ObjectLoader ol = new ObjectLoader(threads);
+		ol.add("a", () -> log.add("a"));
+		ol.add("b", () -> log.add("b"), "a");
+		ol.add("c", () -> log.add("c"), "a");
+		ol.add("d", () -> log.add("d"), "b", "c");
+		ol.addBarrier("e", () -> log.add("e"));
+		return ol;
+	}
+
+	public void testSequential() throws TMSException {
+		ArrayList<String> log = new ArrayList<String>();
+		createLoader(1, log).loadAll();
+		assertEquals("[a, b, c, d, e]", log.toString());
+	}
+
+	public void testConcurrent() throws TMSException {
+		List<String> log = Collections.synchronizedList(
+			new ArrayList<String>());
+		createLoader(4, log).loadAll();
+		assertEquals(5, log.size());
+		assertEquals("a", log.get(0));
+		assertTrue(log.indexOf("d") > log.indexOf("b"));
+		assertTrue(log.indexOf("d") > log.indexOf("c"));
+		assertEquals("e", log.get(4));
+	}
+
+	public void testUnknownDependency() {
+		ObjectLoader ol = new ObjectLoader(1);
+		try {
+			ol.add("a", () -> { }, "b");
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testFailure() {
+		ObjectLoader ol = new ObjectLoader(2);
+		ol.add("a", () -> { throw new TMSException("failed"); });
+		ol.add("b", () -> { }, "a");
+		try {
+			ol.loadAll();
+			fail();
+		}
+		catch (TMSException e) {
+			assertEquals("failed", e.getMessage());
+		}
+	}
+}
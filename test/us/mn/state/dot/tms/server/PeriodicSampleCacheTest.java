@@ -88,6 +88,20 @@ public class PeriodicSampleCacheTest extends TestCase {
 		assertFalse(it.hasNext());
 	}
 
+	public void testAddValue() {
+		PeriodicSampleCache cache = new PeriodicSampleCache(
+			PeriodicSampleType.SPEED);
+		cache.add(T[1], 30, -1, "test");
+		assertTrue(isEmpty(cache));
+		cache.add(T[1], 30, 55, "test");
+		cache.add(T[1], 30, 60, "test");
+		cache.add(T[2], 30, 65, "test");
+		Iterator<PeriodicSample> it = cache.iterator();
+		assertTrue(it.next().value == 55);
+		assertTrue(it.next().value == 65);
+		assertFalse(it.hasNext());
+	}
+
 	private boolean isEmpty(PeriodicSampleCache cache) {
 		return !cache.iterator().hasNext();
 	}
@@ -0,0 +1,113 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ * Sign message reference count tests
+ *
+ * @author Douglas Lau
+ */
+public class SignMessageRefTest extends TestCase {
+
+	/** Number of simulated signs */
+	static private final int N_SIGNS = 5000;
+
+	/** Number of message slots per sign (user, sched, current, next) */
+	static private final int N_SLOTS = 4;
+
+	/** Number of messages */
+	static private final int N_MSGS = 500;
+
+	/** Time far in the future, to check all released messages */
+	static private final long FUTURE = Long.MAX_VALUE / 2;
+
+	public SignMessageRefTest(String name) {
+		super(name);
+	}
+
+	public void testGrace() {
+		SignMessageImpl.findReapable(FUTURE);
+		SignMessageImpl sm = new SignMessageImpl("test_grace");
+		long now = System.currentTimeMillis();
+		assertTrue(SignMessageImpl.findReapable(now).isEmpty());
+		ArrayList<SignMessageImpl> msgs =
+			SignMessageImpl.findReapable(FUTURE);
+		assertEquals(1, msgs.size());
+		assertSame(sm, msgs.get(0));
+		// Already reaped
+		assertTrue(SignMessageImpl.findReapable(FUTURE).isEmpty());
+	}
+
+	public void testReference() {
+		SignMessageImpl.findReapable(FUTURE);
+		SignMessageImpl sm = new SignMessageImpl("test_ref");
+		SignMessageImpl.acquire(sm);
+		SignMessageImpl.acquire(sm);
+		assertEquals(2, sm.getRefs());
+		assertTrue(SignMessageImpl.findReapable(FUTURE).isEmpty());
+		SignMessageImpl.release(sm);
+		assertTrue(SignMessageImpl.findReapable(FUTURE).isEmpty());
+		SignMessageImpl.release(sm);
+		assertEquals(0, sm.getRefs());
+		assertEquals(1, SignMessageImpl.findReapable(FUTURE).size());
+	}
+
+	public void testChurn() {
+		SignMessageImpl.findReapable(FUTURE);
+		SignMessageImpl[] msgs = new SignMessageImpl[N_MSGS];
+		for (int i = 0; i < N_MSGS; i++)
+			msgs[i] = new SignMessageImpl("test_churn_" + i);
+		SignMessageImpl[][] signs =
+			new SignMessageImpl[N_SIGNS][N_SLOTS];
+		Random rand = new Random(42);
+		for (int n = 0; n < N_SIGNS * N_SLOTS * 10; n++) {
+			int s = rand.nextInt(N_SIGNS);
+			int slot = rand.nextInt(N_SLOTS);
+			// Use only part of the messages, so some are released
+			SignMessageImpl sm = rand.nextInt(4) > 0
+				? msgs[rand.nextInt(N_MSGS - 100)]
+				: null;
+			SignMessageImpl old = signs[s][slot];
+			if (old != sm) {
+				SignMessageImpl.acquire(sm);
+				SignMessageImpl.release(old);
+				signs[s][slot] = sm;
+			}
+		}
+		int[] counts = new int[N_MSGS];
+		for (SignMessageImpl[] sign: signs) {
+			for (SignMessageImpl sm: sign) {
+				if (sm != null)
+					counts[Integer.parseInt(sm.getName()
+						.substring(11))]++;
+			}
+		}
+		HashSet<SignMessageImpl> unref = new HashSet<SignMessageImpl>();
+		for (int i = 0; i < N_MSGS; i++) {
+			assertEquals(counts[i], msgs[i].getRefs());
+			if (0 == counts[i])
+				unref.add(msgs[i]);
+		}
+		ArrayList<SignMessageImpl> reap =
+			SignMessageImpl.findReapable(FUTURE);
+		assertEquals(unref, new HashSet<SignMessageImpl>(reap));
+		assertEquals(unref.size(), reap.size());
+	}
+}
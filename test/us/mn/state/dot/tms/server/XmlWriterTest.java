@@ -0,0 +1,106 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import junit.framework.TestCase;
+
+/**
+ * XML writer tests
+ *
+ * @author Douglas Lau
+ */
+public class XmlWriterTest extends TestCase {
+
+	public XmlWriterTest(String name) {
+		super(name);
+	}
+
+	public void testValidate() {
+		assertEquals("abc", XmlWriter.validateElementName("abc"));
+		assertEquals("abc", XmlWriter.validateElementName("a<b>'c\"&"));
+		assertEquals("abc", XmlWriter.validateElementValue("abc"));
+		assertEquals("a&lt;b&gt;&apos;c&quot;&amp;",
+			XmlWriter.validateElementValue("a<b>'c\"&"));
+	}
+
+	public void testAttribute() throws IOException {
+		StringWriter sw = new StringWriter();
+		XmlWriter.writeAttribute(sw, "sensor", "D1&2");
+		XmlWriter.writeAttribute(sw, "flow", 12);
+		XmlWriter.writeAttribute(sw, "occ", null);
+		assertEquals(" sensor='D1&amp;2' flow='12'", sw.toString());
+		assertEquals(XmlWriter.createAttribute("sensor", "D1&2"),
+			" sensor='D1&amp;2'");
+	}
+
+	/** Writer for a test file */
+	static private class TestWriter extends XmlWriter {
+		private String content;
+		private TestWriter(File dir, String c) {
+			super(dir, "test.xml", false);
+			content = c;
+		}
+		private String head = "";
+		@Override protected void writeHead(Writer w)
+			throws IOException
+		{
+			w.write(head);
+		}
+		@Override protected void write(Writer w) throws IOException {
+			w.write(content);
+		}
+	}
+
+	public void testUnchanged() throws IOException {
+		File dir = Files.createTempDirectory("xml").toFile();
+		TestWriter w = new TestWriter(dir, "<a/>\n");
+		try {
+			assertEquals(5, w.write());
+			assertEquals(0, w.write());
+			w.content = "<b/>\n";
+			assertEquals(5, w.write());
+			assertTrue(w.file.delete());
+			assertEquals(5, w.write());
+		}
+		finally {
+			w.file.delete();
+			dir.delete();
+		}
+	}
+
+	public void testHeadChanged() throws IOException {
+		File dir = Files.createTempDirectory("xml").toFile();
+		TestWriter w = new TestWriter(dir, "<a/>\n");
+		try {
+			w.head = "<!-- 1 -->\n";
+			assertEquals(16, w.write());
+			w.head = "<!-- 2 -->\n";
+			assertEquals(0, w.write());
+			w.content = "<b/>\n";
+			assertEquals(16, w.write());
+			assertEquals("<!-- 2 -->\n<b/>\n", new String(
+				Files.readAllBytes(w.file.toPath())));
+		}
+		finally {
+			w.file.delete();
+			dir.delete();
+		}
+	}
+}
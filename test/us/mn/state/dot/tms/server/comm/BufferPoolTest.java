@@ -0,0 +1,50 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm;
+
+import java.nio.ByteBuffer;
+import junit.framework.TestCase;
+
+/**
+ * Buffer pool tests
+ *
+ * @author Douglas Lau
+ */
+public class BufferPoolTest extends TestCase {
+
+	public BufferPoolTest(String name) {
+		super(name);
+	}
+
+	public void testAcquire() {
+		ByteBuffer buf = BufferPool.acquire();
+		assertTrue(buf.isDirect());
+		assertEquals(BufferPool.BUF_SZ, buf.capacity());
+		assertEquals(0, buf.position());
+		assertEquals(BufferPool.BUF_SZ, buf.limit());
+	}
+
+	public void testReuse() {
+		ByteBuffer buf = BufferPool.acquire();
+		buf.put((byte) 1);
+		BufferPool.release(buf);
+		ByteBuffer b2 = BufferPool.acquire();
+		assertSame(buf, b2);
+		assertEquals(0, b2.position());
+		// Heap buffers are not pooled
+		BufferPool.release(ByteBuffer.allocate(BufferPool.BUF_SZ));
+		assertTrue(BufferPool.acquire().isDirect());
+	}
+}
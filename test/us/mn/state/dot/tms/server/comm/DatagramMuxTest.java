@@ -0,0 +1,111 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import junit.framework.TestCase;
+
+/**
+ * Datagram mux tests, using local echo sockets.
+ *
+ * @author Douglas Lau
+ */
+public class DatagramMuxTest extends TestCase {
+
+	public DatagramMuxTest(String name) {
+		super(name);
+	}
+
+	/** Create a socket which echoes one packet */
+	private DatagramSocket createEcho() throws IOException {
+		final DatagramSocket s = new DatagramSocket(0,
+			InetAddress.getLoopbackAddress());
+		new Thread() {
+			@Override public void run() {
+				try {
+					byte[] b = new byte[64];
+					DatagramPacket p = new DatagramPacket(b,
+						b.length);
+					s.receive(p);
+					s.send(p);
+				}
+				catch (IOException e) {
+					// socket closed
+				}
+			}
+		}.start();
+		return s;
+	}
+
+	/** Get the address of a socket */
+	private InetSocketAddress address(DatagramSocket s) {
+		return new InetSocketAddress(s.getLocalAddress(),
+			s.getLocalPort());
+	}
+
+	public void testEcho() throws IOException {
+		DatagramSocket s1 = createEcho();
+		DatagramSocket s2 = createEcho();
+		DatagramMux.Endpoint e1 = DatagramMux.open(address(s1));
+		DatagramMux.Endpoint e2 = DatagramMux.open(address(s2));
+		try {
+			assertNotNull(e1);
+			assertNotNull(e2);
+			// Only one endpoint per remote address
+			assertNull(DatagramMux.open(address(s1)));
+			e2.send(ByteBuffer.wrap(new byte[] { 4, 5 }));
+			e1.send(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+			assertTrue(Arrays.equals(new byte[] { 1, 2, 3 },
+				e1.receive(2000)));
+			assertTrue(Arrays.equals(new byte[] { 4, 5 },
+				e2.receive(2000)));
+		}
+		finally {
+			e1.close();
+			e2.close();
+			s1.close();
+			s2.close();
+		}
+	}
+
+	public void testTimeout() throws IOException {
+		DatagramSocket s = new DatagramSocket(0,
+			InetAddress.getLoopbackAddress());
+		InetSocketAddress ra = address(s);
+		DatagramMux.Endpoint ep = DatagramMux.open(ra);
+		try {
+			ep.receive(50);
+			fail("no timeout");
+		}
+		catch (SocketTimeoutException e) {
+			// expected
+		}
+		finally {
+			ep.close();
+			s.close();
+		}
+		// Closed endpoint address can be opened again
+		ep = DatagramMux.open(ra);
+		assertNotNull(ep);
+		ep.close();
+	}
+}
@@ -0,0 +1,294 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Date;
+import java.util.zip.GZIPOutputStream;
+import junit.framework.TestCase;
+import us.mn.state.dot.sonar.server.ServerNamespace;
+import us.mn.state.dot.tms.server.BaseObjectImpl;
+import us.mn.state.dot.tms.server.ControllerImpl;
+
+/**
+ * HTTP feed client tests, using a local stub HTTP server.
+ *
+ * @author Douglas Lau
+ */
+public class HttpFeedClientTest extends TestCase {
+
+	/** Feed body */
+	static private final String BODY = "alpha,beta,gamma\n";
+
+	/** Current feed body */
+	private String body = BODY;
+
+	/** Remote ports of requests */
+	private final StringBuilder ports = new StringBuilder();
+
+	/** Stub server */
+	private HttpServer server;
+
+	/** Feed property, which reads only the first line of a feed */
+	static private class LineProperty extends ControllerProperty {
+		final String path;
+		int n_decoded = 0;
+		boolean fail = false;
+		String line;
+		LineProperty(String p) {
+			path = p;
+		}
+		@Override public boolean isFeed() {
+			return true;
+		}
+		@Override public String getPathQuery() {
+			return path;
+		}
+		@Override public void decodeQuery(ControllerImpl c,
+			InputStream is) throws IOException
+		{
+			n_decoded++;
+			StringBuilder sb = new StringBuilder();
+			int b;
+			while ((b = is.read()) >= 0 && b != '\n')
+				sb.append((char) b);
+			line = sb.toString();
+			if (fail)
+				throw new ParsingException("BAD FEED");
+		}
+	}
+
+	/** Test feed operation */
+	static private class FeedOp extends OpController<LineProperty> {
+		FeedOp(ControllerImpl c) {
+			super(PriorityLevel.POLL_HIGH, c, "feed");
+		}
+		protected Pollable<LineProperty> phaseOne() {
+			return null;
+		}
+	}
+
+	/** Create a controller, without storing it in the database */
+	static private ControllerImpl ctrl(String n) throws Exception {
+		if (null == BaseObjectImpl.namespace)
+			BaseObjectImpl.namespace = new ServerNamespace();
+		Constructor<ControllerImpl> con =
+			ControllerImpl.class.getDeclaredConstructor(String.class,
+			String.class, short.class, String.class, String.class,
+			int.class, String.class, String.class, String.class,
+			Date.class);
+		con.setAccessible(true);
+		return con.newInstance(n, null, (short) 0, null, null, 0, null,
+			null, null, null);
+	}
+
+	public HttpFeedClientTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost",
+			0), 0);
+		server.createContext("/etag", new HttpHandler() {
+			public void handle(HttpExchange he) throws IOException {
+				String tag = "\"" + body.hashCode() + "\"";
+				he.getResponseHeaders().set("ETag", tag);
+				if (tag.equals(he.getRequestHeaders().getFirst(
+					"If-None-Match")))
+				{
+					he.sendResponseHeaders(304, -1);
+					he.close();
+				} else
+					respond(he, body.getBytes());
+			}
+		});
+		server.createContext("/gzip", new HttpHandler() {
+			public void handle(HttpExchange he) throws IOException {
+				ByteArrayOutputStream bos =
+					new ByteArrayOutputStream();
+				GZIPOutputStream gos = new GZIPOutputStream(bos);
+				gos.write(body.getBytes());
+				gos.close();
+				he.getResponseHeaders().set("Content-Encoding",
+					"gzip");
+				respond(he, bos.toByteArray());
+			}
+		});
+		server.createContext("/plain", new HttpHandler() {
+			public void handle(HttpExchange he) throws IOException {
+				respond(he, body.getBytes());
+			}
+		});
+		server.start();
+	}
+
+	/** Send a response with a body */
+	private void respond(HttpExchange he, byte[] b) throws IOException {
+		ports.append(he.getRemoteAddress().getPort()).append(' ');
+		he.sendResponseHeaders(200, b.length);
+		OutputStream os = he.getResponseBody();
+		os.write(b);
+		os.close();
+	}
+
+	@Override
+	protected void tearDown() {
+		server.stop(0);
+	}
+
+	/** Fetch a feed from the stub server */
+	private String fetch(HttpFeedClient client, String path)
+		throws IOException
+	{
+		URL url = new URL("http", "localhost",
+			server.getAddress().getPort(), path);
+		InputStream is = client.fetch(
+			(HttpURLConnection) url.openConnection());
+		if (null == is)
+			return null;
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			byte[] b = new byte[64];
+			int n;
+			while ((n = is.read(b)) > 0)
+				bos.write(b, 0, n);
+			HttpFeedClient.commit(is);
+			return bos.toString();
+		}
+		finally {
+			is.close();
+		}
+	}
+
+	public void testETag() throws IOException {
+		HttpFeedClient client = new HttpFeedClient();
+		assertEquals(BODY, fetch(client, "/etag"));
+		assertNull(fetch(client, "/etag"));
+		assertEquals(BODY.length(), client.getBytesSaved());
+		body = "delta\n";
+		assertEquals(body, fetch(client, "/etag"));
+	}
+
+	public void testGzip() throws IOException {
+		HttpFeedClient client = new HttpFeedClient();
+		// Repeated text compresses, so some bytes are saved
+		body = BODY + BODY + BODY + BODY + BODY + BODY;
+		assertEquals(body, fetch(client, "/gzip"));
+		assertTrue(client.getBytesSaved() > 0);
+	}
+
+	public void testUnchangedHash() throws IOException {
+		HttpFeedClient client = new HttpFeedClient();
+		assertEquals(BODY, fetch(client, "/plain"));
+		assertNull(fetch(client, "/plain"));
+		assertEquals(BODY.length(), client.getBytesSaved());
+		body = "delta\n";
+		assertEquals(body, fetch(client, "/plain"));
+		assertNull(fetch(client, "/plain"));
+	}
+
+	public void testKeepAlive() throws IOException {
+		HttpFeedClient client = new HttpFeedClient();
+		body = "epsilon\n";
+		assertEquals(body, fetch(client, "/plain"));
+		body = "zeta\n";
+		assertEquals(body, fetch(client, "/plain"));
+		String[] p = ports.toString().trim().split(" ");
+		assertEquals(2, p.length);
+		assertEquals(p[0], p[1]);
+	}
+
+	/** Create a message to query a feed property */
+	private CommMessageImpl<LineProperty> feedMessage(
+		final HttpFeedClient client, LineProperty prop) throws Exception
+	{
+		final int port = server.getAddress().getPort();
+		Messenger m = new Messenger() {
+			public void close() { }
+			public InputStream getInputStream(String p) {
+				return null;
+			}
+			public InputStream getFeedInputStream(String p,
+				ControllerImpl c) throws IOException
+			{
+				URL url = new URL("http", "localhost", port, p);
+				return client.fetch((HttpURLConnection)
+					url.openConnection());
+			}
+			public OutputStream getOutputStream(ControllerImpl c){
+				return null;
+			}
+			public void drain() { }
+		};
+		FeedOp op = new FeedOp(ctrl("ctl_feed"));
+		CommMessageImpl<LineProperty> mess =
+			new CommMessageImpl<LineProperty>(m, op, null);
+		mess.add(prop);
+		return mess;
+	}
+
+	public void testQueryFeedProperty() throws Exception {
+		HttpFeedClient client = new HttpFeedClient();
+		LineProperty prop = new LineProperty("/etag");
+		CommMessageImpl<LineProperty> mess = feedMessage(client, prop);
+		mess.queryProps();
+		assertEquals(1, prop.n_decoded);
+		assertEquals("alpha,beta,gamma", prop.line);
+		// Validators were stored, so the feed is not decoded again
+		mess.queryProps();
+		assertEquals(1, prop.n_decoded);
+		assertEquals(BODY.length(), client.getBytesSaved());
+	}
+
+	/** Check that a feed is decoded again after a decoding error */
+	private void checkDecodeError(String path) throws Exception {
+		HttpFeedClient client = new HttpFeedClient();
+		LineProperty prop = new LineProperty(path);
+		CommMessageImpl<LineProperty> mess = feedMessage(client, prop);
+		prop.fail = true;
+		try {
+			mess.queryProps();
+			fail("BAD FEED");
+		}
+		catch (ParsingException e) {
+			// expected
+		}
+		assertEquals(1, prop.n_decoded);
+		prop.fail = false;
+		mess.queryProps();
+		assertEquals(2, prop.n_decoded);
+		mess.queryProps();
+		assertEquals(2, prop.n_decoded);
+	}
+
+	public void testDecodeErrorETag() throws Exception {
+		checkDecodeError("/etag");
+	}
+
+	public void testDecodeErrorHash() throws Exception {
+		checkDecodeError("/plain");
+	}
+}
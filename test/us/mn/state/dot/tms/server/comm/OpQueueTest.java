@@ -0,0 +1,211 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Date;
+import junit.framework.TestCase;
+import us.mn.state.dot.sonar.server.ServerNamespace;
+import us.mn.state.dot.tms.server.BaseObjectImpl;
+import us.mn.state.dot.tms.server.ControllerImpl;
+
+/**
+ * Operation queue tests
+ *
+ * @author Douglas Lau
+ */
+public class OpQueueTest extends TestCase {
+
+	/** Number of operations for ordering test */
+	static private final int N_OPS = 20000;
+
+	/** Test operation */
+	static private class TestOp extends OpController<ControllerProperty> {
+		final String key;
+		TestOp(PriorityLevel p, ControllerImpl c, String k) {
+			super(p, c, k);
+			key = k;
+		}
+		protected Pollable<ControllerProperty> phaseOne() {
+			return new Phase() {
+				public Pollable<ControllerProperty> poll(
+					CommMessage<ControllerProperty> mess)
+				{
+					return null;
+				}
+			};
+		}
+	}
+
+	/** Create a controller, without storing it in the database */
+	static private ControllerImpl ctrl(String n) throws Exception {
+		if (null == BaseObjectImpl.namespace)
+			BaseObjectImpl.namespace = new ServerNamespace();
+		Constructor<ControllerImpl> con =
+			ControllerImpl.class.getDeclaredConstructor(String.class,
+			String.class, short.class, String.class, String.class,
+			int.class, String.class, String.class, String.class,
+			Date.class);
+		con.setAccessible(true);
+		return con.newInstance(n, null, (short) 0, null, null, 0, null,
+			null, null, null);
+	}
+
+	public OpQueueTest(String name) {
+		super(name);
+	}
+
+	/** Second test operation class (not equal to TestOp) */
+	static private class OtherOp extends TestOp {
+		OtherOp(PriorityLevel p, ControllerImpl c, String i) {
+			super(p, c, i);
+		}
+	}
+
+	/** Get the IDs of all operations, in queue order */
+	static private String ids(OpQueue<ControllerProperty> q) {
+		final StringBuilder sb = new StringBuilder();
+		q.forEach(new OpHandler<ControllerProperty>() {
+			public boolean handle(OpController<ControllerProperty> o)
+			{
+				sb.append(((TestOp) o).key);
+				return true;
+			}
+		});
+		return sb.toString();
+	}
+
+	public void testOrder() throws Exception {
+		OpQueue<ControllerProperty> q = new OpQueue<ControllerProperty>();
+		assertTrue(q.isEmpty());
+		assertTrue(q.enqueue(new TestOp(PriorityLevel.POLL_LOW,
+			ctrl("ctl_b"), "a")));
+		assertTrue(q.enqueue(new TestOp(PriorityLevel.COMMAND,
+			ctrl("ctl_c"), "b")));
+		assertTrue(q.enqueue(new TestOp(PriorityLevel.POLL_LOW,
+			ctrl("ctl_d"), "c")));
+		assertTrue(q.enqueue(new TestOp(PriorityLevel.CONFIGURE,
+			ctrl("ctl_e"), "d")));
+		assertTrue(q.enqueue(new OtherOp(PriorityLevel.COMMAND,
+			ctrl("ctl_f"), "e")));
+		assertTrue(q.enqueue(new TestOp(PriorityLevel.POLL_LOW,
+			ctrl("ctl_g"), "f")));
+		assertEquals(6, q.size());
+		assertEquals("dbeacf", ids(q));
+		StringBuilder sb = new StringBuilder();
+		for (OpController<ControllerProperty> o = q.tryNext(); o != null;
+		     o = q.tryNext())
+			sb.append(((TestOp) o).key);
+		assertEquals("dbeacf", sb.toString());
+		assertTrue(q.isEmpty());
+	}
+
+	public void testDuplicate() throws Exception {
+		OpQueue<ControllerProperty> q = new OpQueue<ControllerProperty>();
+		ControllerImpl c = ctrl("ctl_a");
+		TestOp op = new TestOp(PriorityLevel.POLL_LOW, c, "a");
+		assertTrue(q.enqueue(op));
+		assertFalse(q.enqueue(new TestOp(PriorityLevel.COMMAND, c,
+			"b")));
+		assertTrue(q.enqueue(new OtherOp(PriorityLevel.COMMAND, c,
+			"c")));
+		// Done operations are not considered duplicates
+		op.setSucceeded();
+		assertTrue(q.enqueue(new TestOp(PriorityLevel.COMMAND, c,
+			"d")));
+		assertEquals("cda", ids(q));
+	}
+
+	public void testWork() throws Exception {
+		OpQueue<ControllerProperty> q = new OpQueue<ControllerProperty>();
+		ControllerImpl c = ctrl("ctl_a");
+		TestOp op = new TestOp(PriorityLevel.POLL_LOW, c, "a");
+		assertTrue(q.enqueue(op));
+		assertSame(op, q.next(0));
+		assertFalse(q.isEmpty());
+		assertTrue(q.noMoreOps());
+		// Equal operation cannot be added while work in progress
+		assertFalse(q.enqueue(new TestOp(PriorityLevel.COMMAND, c,
+			"b")));
+		assertTrue(q.requeue(op));
+		assertEquals(1, q.size());
+		assertSame(op, q.tryNext());
+		assertNull(q.tryNext());
+		assertTrue(q.isEmpty());
+	}
+
+	public void testRequeue() throws Exception {
+		OpQueue<ControllerProperty> q = new OpQueue<ControllerProperty>();
+		TestOp a = new TestOp(PriorityLevel.POLL_LOW, ctrl("ctl_a"),
+			"a");
+		TestOp b = new TestOp(PriorityLevel.POLL_LOW, ctrl("ctl_b"),
+			"b");
+		TestOp c = new TestOp(PriorityLevel.POLL_LOW, ctrl("ctl_c"),
+			"c");
+		assertTrue(q.enqueue(a));
+		assertTrue(q.enqueue(b));
+		assertTrue(q.enqueue(c));
+		// Requeue moves an operation to the back of its priority
+		assertTrue(q.requeue(b));
+		assertEquals(3, q.size());
+		assertEquals("acb", ids(q));
+		assertTrue(q.requeue(a));
+		assertEquals("cba", ids(q));
+		q.close();
+		assertFalse(q.requeue(c));
+		assertEquals("ba", ids(q));
+		assertFalse(q.enqueue(c));
+	}
+
+	public void testDisconnect() throws Exception {
+		OpQueue<ControllerProperty> q = new OpQueue<ControllerProperty>();
+		try {
+			q.next(10);
+			fail();
+		}
+		catch (DisconnectException e) {
+			// expected
+		}
+	}
+
+	public void testManyOps() throws Exception {
+		PriorityLevel[] levels = PriorityLevel.values();
+		ArrayList<TestOp> ops = new ArrayList<TestOp>(N_OPS);
+		for (int i = 0; i < N_OPS; i++) {
+			ops.add(new TestOp(levels[i % levels.length],
+				ctrl("ctl_" + i), Integer.toString(i)));
+		}
+		OpQueue<ControllerProperty> q = new OpQueue<ControllerProperty>();
+		for (TestOp op: ops) {
+			assertTrue(q.enqueue(op));
+			// Duplicate check against the whole queue
+			assertFalse(q.enqueue(op));
+		}
+		int prev = -1;
+		int prev_id = -1;
+		for (int i = 0; i < N_OPS; i++) {
+			OpController<ControllerProperty> op = q.tryNext();
+			int p = op.getPriority().ordinal();
+			int id = Integer.parseInt(((TestOp) op).key);
+			assertTrue(p >= prev);
+			if (p == prev)
+				assertTrue(id > prev_id);
+			prev = p;
+			prev_id = id;
+		}
+		assertNull(q.tryNext());
+	}
+}
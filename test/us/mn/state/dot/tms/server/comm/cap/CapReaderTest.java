@@ -0,0 +1,66 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm.cap;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import junit.framework.TestCase;
+
+/**
+ * CAP reader tests
+ *
+ * @author Douglas Lau
+ */
+public class CapReaderTest extends TestCase {
+
+	/** Malformed CAP document */
+	static private final String BAD_XML =
+		"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+		"<alert xmlns=\"urn:oasis:names:tc:emergency:cap:1.2\">\n" +
+		"<identifier>TEST-1</identifier>\n" +
+		"<sender>test@example.com</sender>\n" +
+		"<status>Test</status></identifier>\n" +
+		"</alert>\n";
+
+	public CapReaderTest(String name) {
+		super(name);
+	}
+
+	/** Delete a directory and its files */
+	private void delete(File dir) {
+		for (File f: dir.listFiles())
+			f.delete();
+		dir.delete();
+	}
+
+	public void testSaveBadXml() throws Exception {
+		File dir = Files.createTempDirectory("cap").toFile();
+		try {
+			byte[] xml = BAD_XML.getBytes("UTF-8");
+			CapReader reader = new CapReader(
+				new ByteArrayInputStream(xml), dir);
+			reader.parse();
+			File[] files = dir.listFiles();
+			assertEquals(1, files.length);
+			assertTrue(files[0].getName().startsWith("cap_err_"));
+			assertEquals(BAD_XML, new String(Files.readAllBytes(
+				files[0].toPath()), "UTF-8"));
+		}
+		finally {
+			delete(dir);
+		}
+	}
+}
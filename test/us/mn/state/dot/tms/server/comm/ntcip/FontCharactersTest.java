@@ -0,0 +1,503 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm.ntcip;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import junit.framework.TestCase;
+import static us.mn.state.dot.tms.server.comm.ntcip.mib1203.MIB1203.*;
+import us.mn.state.dot.tms.server.comm.snmp.ASN1Object;
+import us.mn.state.dot.tms.server.comm.snmp.ASN1Tag;
+import us.mn.state.dot.tms.server.comm.snmp.SNMP;
+import us.mn.state.dot.tms.server.comm.snmp.SNMPTag;
+import us.mn.state.dot.tms.server.comm.snmp.Tag;
+
+/**
+ * Font character tests, using a simulated sign agent which holds one
+ * character table.  The character query and store used by OpSendDMSFonts
+ * are driven against the agent.  Download time is modeled for serial and IP
+ * links.
+ *
+ * @author Douglas Lau
+ */
+public class FontCharactersTest extends TestCase {
+
+	/** Maximum message size */
+	static private final int MAX_MESSAGE = 1024;
+
+	/** Modeled serial link turnaround time per request (ms) */
+	static private final int SERIAL_MS = 50;
+
+	/** Modeled serial link speed (bits per second) */
+	static private final int SERIAL_BPS = 9600;
+
+	/** Modeled IP link round trip time (ms) */
+	static private final int IP_MS = 150;
+
+	/** Modeled IP link speed (bits per second) */
+	static private final int IP_BPS = 256000;
+
+	/** SNMP error status: noSuchName */
+	static private final int NO_SUCH_NAME = 2;
+
+	/** SNMP error status: genErr */
+	static private final int GEN_ERROR = 5;
+
+	/** Font row */
+	static private final int ROW = 1;
+
+	/** Font height */
+	static private final int HEIGHT = 14;
+
+	/** Simulated sign agent */
+	static private class Agent extends SNMP {
+		private final HashMap<Integer, Integer> widths =
+			new HashMap<Integer, Integer>();
+		private final HashMap<Integer, byte[]> bitmaps =
+			new HashMap<Integer, byte[]>();
+
+		/** Code points rejected with noSuchName */
+		private final HashSet<Integer> no_such =
+			new HashSet<Integer>();
+
+		/** Code points which cause genErr on a query */
+		private final HashSet<Integer> gen_err =
+			new HashSet<Integer>();
+
+		/** Maximum message size */
+		private int max_message = MAX_MESSAGE;
+		private int n_requests;
+		private long n_bytes;
+
+		/** Decode an object identifier */
+		private int[] decodeOid(InputStream is) throws IOException {
+			assertEquals(ASN1Tag.OBJECT_IDENTIFIER,
+				decodeIdentifier(is));
+			int len = decodeLength(is);
+			int[] oid = new int[len + 1];
+			int first = is.read();
+			oid[0] = first / 40;
+			oid[1] = first % 40;
+			int n = 2;
+			int subid = 0;
+			for (int i = 1; i < len; i++) {
+				int b = is.read();
+				subid = (subid << 7) | (b & SEVEN_BITS);
+				if ((b & HIGH_BIT) == 0) {
+					oid[n++] = subid;
+					subid = 0;
+				}
+			}
+			return Arrays.copyOf(oid, n);
+		}
+
+		/** Handle one request, and return the response */
+		private byte[] handle(byte[] req) throws IOException {
+			assertTrue(req.length <= MAX_MESSAGE);
+			n_requests++;
+			n_bytes += req.length;
+			ByteArrayInputStream is = new ByteArrayInputStream(req);
+			decodeSequence(is);
+			assertEquals(SNMP_VERSION, decodeInteger(is));
+			byte[] community = decodeOctetString(is);
+			Tag tag = decodeIdentifier(is);
+			decodeLength(is);
+			int req_id = decodeInteger(is);
+			decodeInteger(is);
+			decodeInteger(is);
+			decodeSequence(is);
+			boolean set = (tag == SNMPTag.SET_REQUEST);
+			ArrayList<int[]> oids = new ArrayList<int[]>();
+			HashMap<Integer, Integer> w_set =
+				new HashMap<Integer, Integer>();
+			HashMap<Integer, byte[]> b_set =
+				new HashMap<Integer, byte[]>();
+			int error = 0;
+			int index = 0;
+			while (is.available() > 0) {
+				decodeSequence(is);
+				int[] oid = decodeOid(is);
+				int row = oid[oid.length - 2];
+				int cp = oid[oid.length - 1];
+				boolean w = isWidth(oid);
+				assertTrue(w || Arrays.equals(oid,
+					characterBitmap.node.oid(row, cp)));
+				assertEquals(ROW, row);
+				if (set) {
+					if (w) {
+						w_set.put(cp,
+							decodeInteger(is));
+					} else {
+						b_set.put(cp,
+							decodeOctetString(is));
+					}
+				} else {
+					assertEquals(ASN1Tag.NULL,
+						decodeIdentifier(is));
+					decodeLength(is);
+				}
+				oids.add(oid);
+				if (0 == error && no_such.contains(cp))
+					error = NO_SUCH_NAME;
+				else if (0 == error && !set &&
+				         gen_err.contains(cp))
+					error = GEN_ERROR;
+				if (error != 0 && 0 == index)
+					index = oids.size();
+			}
+			encoder.reset();
+			if (error != 0) {
+				// Nothing is set if there is an error
+				encodeSequence(0);
+				return respond(community, req_id, error, index);
+			}
+			widths.putAll(w_set);
+			bitmaps.putAll(b_set);
+			encodeVarBinds(oids);
+			byte[] res = encodeResponse(community, req_id, 0, 0);
+			if (res.length > max_message) {
+				encoder.reset();
+				encodeSequence(0);
+				return respond(community, req_id, 1, 0);
+			}
+			n_bytes += res.length;
+			return res;
+		}
+
+		/** Respond with an error */
+		private byte[] respond(byte[] community, int req_id, int error,
+			int index) throws IOException
+		{
+			byte[] res = encodeResponse(community, req_id, error,
+				index);
+			n_bytes += res.length;
+			return res;
+		}
+
+		/** Check if an OID is for characterWidth */
+		private boolean isWidth(int[] oid) {
+			int row = oid[oid.length - 2];
+			int cp = oid[oid.length - 1];
+			return Arrays.equals(oid,
+				characterWidth.node.oid(row, cp));
+		}
+
+		/** Encode variable bindings (backwards) */
+		private void encodeVarBinds(ArrayList<int[]> oids)
+			throws IOException
+		{
+			for (int i = oids.size() - 1; i >= 0; i--) {
+				int[] oid = oids.get(i);
+				int cp = oid[oid.length - 1];
+				int end = encoder.length();
+				if (isWidth(oid)) {
+					encodeInteger(widths.getOrDefault(cp,
+						0));
+				} else {
+					encodeOctetString(bitmaps.getOrDefault(
+						cp, new byte[0]));
+				}
+				encodeObjectIdentifier(oid);
+				encodeSequence(encoder.length() - end);
+			}
+			encodeSequence(encoder.length());
+		}
+
+		/** Encode a response message, in front of the encoded
+		 * variable binding list */
+		private byte[] encodeResponse(byte[] community, int req_id,
+			int error, int index) throws IOException
+		{
+			encodeInteger(index);
+			encodeInteger(error);
+			encodeInteger(req_id);
+			encodeLength(encoder.length());
+			encodeIdentifier(SNMPTag.GET_RESPONSE);
+			encodeOctetString(community);
+			encodeInteger(SNMP_VERSION);
+			encodeSequence(encoder.length());
+			return encoder.toByteArray();
+		}
+
+		/** Get modeled time for all requests (ms) */
+		private long modeledMs(int turnaround, int bps) {
+			return n_requests * turnaround +
+				n_bytes * 8 * 1000 / bps;
+		}
+
+		/** Get modeled times for serial and IP links */
+		private long[] modeledMs() {
+			return new long[] {
+				modeledMs(SERIAL_MS, SERIAL_BPS),
+				modeledMs(IP_MS, IP_BPS)
+			};
+		}
+
+		/** Reset counters */
+		private void resetCounters() {
+			n_requests = 0;
+			n_bytes = 0;
+		}
+
+		/** Check if the character table matches a font */
+		private boolean matches(FontCharacters fc) {
+			for (int i = 0; i < fc.size(); i++) {
+				FontCharacters.Char c = fc.get(i);
+				Integer w = widths.get(c.code_point);
+				byte[] b = bitmaps.get(c.code_point);
+				if (w == null || !c.matches(w, b))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/** Loopback link between an SNMP client and agent */
+	static private class Link extends OutputStream {
+		private final Agent agent;
+		private final ByteArrayOutputStream req =
+			new ByteArrayOutputStream();
+		private byte[] res = new byte[0];
+		private int pos = 0;
+
+		private final InputStream input = new InputStream() {
+			@Override
+			public int read() {
+				return (pos < res.length) ? res[pos++] & 0xFF
+				                          : -1;
+			}
+			@Override
+			public int available() {
+				return res.length - pos;
+			}
+		};
+
+		private Link(Agent a) {
+			agent = a;
+		}
+
+		@Override
+		public void write(int b) {
+			req.write(b);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			res = agent.handle(req.toByteArray());
+			pos = 0;
+			req.reset();
+		}
+	}
+
+	/** Create a font with printable ASCII characters */
+	static private FontCharacters createFont(Random rnd) {
+		FontCharacters fc = new FontCharacters();
+		for (int cp = 32; cp < 127; cp++) {
+			int w = 6 + rnd.nextInt(4);
+			byte[] b = new byte[(w * HEIGHT + 7) / 8];
+			rnd.nextBytes(b);
+			fc.add(cp, w, b);
+		}
+		return fc;
+	}
+
+	private final SNMP snmp = new SNMP();
+	private Agent agent;
+	private Link link;
+	private int req_id;
+
+	public FontCharactersTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() {
+		agent = new Agent();
+		link = new Link(agent);
+	}
+
+	/** Create a new SNMP message */
+	private SNMP.Message createMessage() {
+		return snmp.new Message(link, link.input, null, ++req_id);
+	}
+
+	/** Send all characters, one per request */
+	private void sendAll(FontCharacters fc) throws IOException {
+		for (int i = 0; i < fc.size(); i++) {
+			SNMP.Message mess = createMessage();
+			for (ASN1Object o: fc.makeStore(ROW, i, 1))
+				mess.add(o);
+			mess.storeProps();
+		}
+	}
+
+	/** Query all characters, as in the QueryCharacters phase */
+	private void queryAll(FontCharacters fc) throws IOException {
+		FontCharacters.Query query = fc.new Query(ROW);
+		while (query.poll(createMessage()));
+	}
+
+	/** Store all characters, as in the AddCharacters phase.
+	 * @return Number of progress reports. */
+	private int storeAll(FontCharacters fc) throws IOException {
+		final int[] n_progress = new int[1];
+		FontCharacters.Store store = fc.new Store(ROW) {
+			@Override
+			protected void progress() {
+				n_progress[0]++;
+			}
+		};
+		while (store.poll(createMessage()));
+		return n_progress[0];
+	}
+
+	/** Query characters, then send changed ones in batches */
+	private int sendChanged(FontCharacters fc) throws IOException {
+		queryAll(fc);
+		FontCharacters ch = fc.getChanged();
+		if (ch.size() > 0)
+			storeAll(ch);
+		return ch.size();
+	}
+
+	public void testBatchSize() {
+		FontCharacters fc = new FontCharacters();
+		for (int cp = 1; cp <= 40; cp++)
+			fc.add(cp, 24, new byte[72]);
+		assertEquals(7, fc.batchSize(0, 16));
+		assertEquals(4, fc.batchSize(0, 4));
+		assertEquals(5, fc.batchSize(35, 16));
+		assertEquals(0, fc.batchSize(40, 16));
+		fc = new FontCharacters();
+		fc.add(1, 255, new byte[2000]);
+		assertEquals(1, fc.batchSize(0, 16));
+	}
+
+	public void testDiff() throws IOException {
+		FontCharacters fc = createFont(new Random(3));
+		assertEquals(fc.size(), sendChanged(fc));
+		assertTrue(agent.matches(fc));
+		FontCharacters fc2 = createFont(new Random(3));
+		assertEquals(0, sendChanged(fc2));
+		Random rnd = new Random(3);
+		FontCharacters fc3 = createFont(rnd);
+		fc3.add(200, 5, new byte[9]);
+		agent.bitmaps.put(65, new byte[] { 1, 2, 3 });
+		assertEquals(2, sendChanged(fc3));
+		assertTrue(agent.matches(fc3));
+	}
+
+	public void testTooBig() throws IOException {
+		// Characters on the sign are bigger than estimated, so
+		// responses for a full batch will not fit
+		FontCharacters fc = new FontCharacters();
+		for (int cp = 1; cp <= 20; cp++) {
+			fc.add(cp, 8, new byte[8]);
+			agent.widths.put(cp, 200);
+			agent.bitmaps.put(cp, new byte[200]);
+		}
+		assertEquals(20, sendChanged(fc));
+		assertTrue(agent.matches(fc));
+	}
+
+	public void testTooBigStore() throws IOException {
+		// The sign only handles small messages, so store batches
+		// must be split, or TooBig is thrown
+		agent.max_message = 300;
+		FontCharacters fc = createFont(new Random(7));
+		storeAll(fc);
+		assertTrue(agent.matches(fc));
+	}
+
+	public void testNoSuchName() throws IOException {
+		// The sign rejects one character, so its batch is sent
+		// again one character at a time
+		agent.no_such.add(40);
+		FontCharacters fc = createFont(new Random(9));
+		assertEquals(fc.size(), sendChanged(fc));
+		assertFalse(agent.widths.containsKey(40));
+		agent.no_such.clear();
+		FontCharacters fc2 = createFont(new Random(9));
+		queryAll(fc2);
+		FontCharacters ch = fc2.getChanged();
+		assertEquals(1, ch.size());
+		assertEquals(40, ch.get(0).code_point);
+	}
+
+	public void testGenError() throws IOException {
+		FontCharacters fc = createFont(new Random(11));
+		assertEquals(fc.size(), sendChanged(fc));
+		// A query error marks the whole batch as changed
+		agent.gen_err.add(65);
+		FontCharacters fc2 = createFont(new Random(11));
+		queryAll(fc2);
+		FontCharacters ch = fc2.getChanged();
+		assertTrue(ch.size() > 1);
+		assertTrue(ch.size() <= FontCharacters.MAX_BATCH);
+		boolean found = false;
+		for (int i = 0; i < ch.size(); i++)
+			found |= (ch.get(i).code_point == 65);
+		assertTrue(found);
+	}
+
+	public void testProgress() throws IOException {
+		FontCharacters fc = createFont(new Random(13));
+		assertEquals(95, fc.size());
+		assertEquals(4, storeAll(fc));
+		assertTrue(agent.matches(fc));
+		// One at a time after noSuchName, still reported
+		setUp();
+		agent.no_such.add(33);
+		assertEquals(4, storeAll(createFont(new Random(13))));
+	}
+
+	public void testDownloadTime() throws IOException {
+		FontCharacters fc = createFont(new Random(5));
+		sendAll(fc);
+		int all_req = agent.n_requests;
+		long[] all_ms = agent.modeledMs();
+		assertTrue(agent.matches(fc));
+
+		// Same font on a blank sign
+		setUp();
+		sendChanged(createFont(new Random(5)));
+		int blank_req = agent.n_requests;
+		long[] blank_ms = agent.modeledMs();
+		assertTrue(agent.matches(fc));
+
+		// One glyph changed
+		agent.bitmaps.put(65, new byte[] { 1, 2, 3 });
+		agent.resetCounters();
+		assertEquals(1, sendChanged(createFont(new Random(5))));
+		int one_req = agent.n_requests;
+		long[] one_ms = agent.modeledMs();
+		assertTrue(agent.matches(fc));
+
+		assertTrue(blank_req * 4 < all_req);
+		assertTrue(one_req * 8 < all_req);
+		for (int i = 0; i < all_ms.length; i++) {
+			assertTrue(blank_ms[i] < all_ms[i]);
+			assertTrue(one_ms[i] * 2 < all_ms[i]);
+		}
+	}
+}
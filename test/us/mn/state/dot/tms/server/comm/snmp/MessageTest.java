@@ -0,0 +1,338 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.server.comm.snmp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import us.mn.state.dot.tms.server.comm.ParsingException;
+
+/**
+ * SNMP message tests.  The expected PDUs were captured from the encoder as
+ * it was before it was changed to encode backwards.
+ *
+ * @author Douglas Lau
+ */
+public class MessageTest extends TestCase {
+
+	/** Root MIB node */
+	static private final MIBNode ROOT = MIBNode.root(new int[] {
+		1, 3, 6, 1, 4, 1, 1206, 4, 2, 3
+	}, "dms");
+
+	/** Integer values to encode */
+	static private final int[] VALUES = {
+		0, 127, 128, 255, 256, -1, -128, -129, 32767, 8388608,
+		Integer.MAX_VALUE, Integer.MIN_VALUE
+	};
+
+	/** Captured GET request, community "Public", request-id 1 */
+	static private final String GET_1 =
+		"305102010004065075626c6963a044020101020100020100303930" +
+		"10060c2b060104018936040203010005003011060d2b0601040189" +
+		"3604020302010305003012060e2b0601040189360402030305822c" +
+		"0500";
+
+	/** Captured SET request, community "administrator", request-id
+	 * 0x1234567 */
+	static private final String SET_INTS =
+		"30820130020100040d61646d696e6973747261746f72a382011a02" +
+		"04012345670201000201003082010a3013060e2b06010401893604" +
+		"0203040201010201003013060e2b06010401893604020304020102" +
+		"02017f3014060e2b06010401893604020304020103020200803014" +
+		"060e2b06010401893604020304020104020200ff3014060e2b0601" +
+		"0401893604020304020105020201003013060e2b06010401893604" +
+		"0203040201060201ff3013060e2b06010401893604020304020107" +
+		"0201803014060e2b060104018936040203040201080202ff7f3014" +
+		"060e2b0601040189360402030402010902027fff3016060e2b0601" +
+		"040189360402030402010a0204008000003016060e2b0601040189" +
+		"360402030402010b02047fffffff3016060e2b0601040189360402" +
+		"030402010c020480000000";
+
+	/** Captured SET request (before 130-byte string), request-id 128 */
+	static private final String SET_STRINGS =
+		"3081ed02010004065075626c6963a381df02020080020100020100" +
+		"3081d23012060c2b0601040189360402030500410230393014060c" +
+		"2b06010401893604020306010404495249533010060c2b06010401" +
+		"893604020307020400308193060c2b060104018936040203070304" +
+		"8182";
+
+	/** Captured SET request (before 260-byte string), request-id
+	 * 70000 */
+	static private final String SET_LONG =
+		"3082013a02010004065075626c6963a382012b0203011170020100" +
+		"0201003082011c30820118060e2b0601040189360402030804ff7f" +
+		"04820104";
+
+	/** Parse a hex string */
+	static private byte[] parseHex(String h) {
+		byte[] b = new byte[h.length() / 2];
+		for (int i = 0; i < b.length; i++) {
+			b[i] = (byte) Integer.parseInt(h.substring(i * 2,
+				i * 2 + 2), 16);
+		}
+		return b;
+	}
+
+	/** Make an octet string pattern */
+	static private byte[] pattern(int n) {
+		byte[] b = new byte[n];
+		for (int i = 0; i < n; i++)
+			b[i] = (byte) (i * 7);
+		return b;
+	}
+
+	/** Concatenate two byte arrays */
+	static private byte[] concat(byte[] a, byte[] b) {
+		byte[] c = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, c, a.length, b.length);
+		return c;
+	}
+
+	/** Make objects for GET request */
+	static private List<ASN1Object> makeGet() {
+		List<ASN1Object> l = new ArrayList<ASN1Object>();
+		l.add(new ASN1Integer(ROOT.child(1, "a")));
+		l.add(new ASN1Integer(ROOT.child(new int[] { 2, 1 }, "b"), 3));
+		l.add(new DisplayString(ROOT.child(3, "c"), 5, 300));
+		return l;
+	}
+
+	/** Make integer objects */
+	static private List<ASN1Object> makeInts() {
+		List<ASN1Object> l = new ArrayList<ASN1Object>();
+		MIBNode n = ROOT.child(new int[] { 4, 2, 1 }, "d");
+		for (int i = 0; i < VALUES.length; i++) {
+			ASN1Integer a = new ASN1Integer(n, i + 1);
+			a.setInteger(VALUES[i]);
+			l.add(a);
+		}
+		return l;
+	}
+
+	/** Make string objects */
+	static private List<ASN1Object> makeStrings() throws IOException {
+		List<ASN1Object> l = new ArrayList<ASN1Object>();
+		Counter c = new Counter(ROOT.child(5, "e"));
+		c.setInteger(12345);
+		l.add(c);
+		DisplayString d = new DisplayString(ROOT.child(6, "f"), 1);
+		d.setString("IRIS");
+		l.add(d);
+		MIBNode g = ROOT.child(7, "g");
+		l.add(new ASN1OctetString(g, 2));
+		ASN1OctetString o = new ASN1OctetString(g, 3);
+		o.setOctetString(pattern(130));
+		l.add(o);
+		return l;
+	}
+
+	/** Make long string objects */
+	static private List<ASN1Object> makeLong() throws IOException {
+		List<ASN1Object> l = new ArrayList<ASN1Object>();
+		ASN1OctetString o = new ASN1OctetString(ROOT.child(8, "h"), 4,
+			16383);
+		o.setOctetString(pattern(260));
+		l.add(o);
+		return l;
+	}
+
+	/** Loopback link, which responds to a SET request by echoing it as
+	 * a response.  Buffers are reused between requests. */
+	static private class Loopback extends OutputStream {
+		private byte[] canned;
+		private byte[] req = new byte[1024];
+		private int req_len = 0;
+		private byte[] sent = new byte[1024];
+		private int sent_len = 0;
+		private byte[] res = new byte[1024];
+		private int len = 0;
+		private int pos = 0;
+
+		private final InputStream input = new InputStream() {
+			@Override
+			public int read() {
+				return (pos < len) ? res[pos++] & 0xFF : -1;
+			}
+			@Override
+			public int read(byte[] b, int off, int n) {
+				n = Math.min(n, len - pos);
+				if (n <= 0)
+					return -1;
+				System.arraycopy(res, pos, b, off, n);
+				pos += n;
+				return n;
+			}
+			@Override
+			public int available() {
+				return len - pos;
+			}
+			@Override
+			public long skip(long n) {
+				int s = (int) Math.min(n, len - pos);
+				pos += s;
+				return s;
+			}
+		};
+
+		@Override
+		public void write(int b) {
+			if (req_len >= req.length)
+				req = Arrays.copyOf(req, req_len * 2);
+			req[req_len++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int n) {
+			if (req_len + n > req.length)
+				req = Arrays.copyOf(req, (req_len + n) * 2);
+			System.arraycopy(b, off, req, req_len, n);
+			req_len += n;
+		}
+
+		/** Get a copy of the last request sent */
+		private byte[] lastRequest() {
+			return Arrays.copyOf(sent, sent_len);
+		}
+
+		@Override
+		public void flush() {
+			byte[] t = sent;
+			sent = req;
+			sent_len = req_len;
+			req = t;
+			req_len = 0;
+			byte[] src = (canned != null) ? canned : sent;
+			len = (canned != null) ? canned.length : sent_len;
+			if (res.length < len)
+				res = new byte[len];
+			System.arraycopy(src, 0, res, 0, len);
+			pos = 0;
+			// Change SET_REQUEST tag to GET_RESPONSE
+			int p = 2 + (res[1] & 0x7F) * ((res[1] & 0x80) >> 7);
+			p += 2 + res[p + 1];
+			p += 2 + res[p + 1];
+			if ((res[p] & 0xFF) == 0xA3)
+				res[p] = (byte) 0xA2;
+		}
+	}
+
+	private final SNMP snmp = new SNMP();
+	private final Loopback link = new Loopback();
+
+	public MessageTest(String name) {
+		super(name);
+	}
+
+	/** Encode and send a request */
+	private byte[] send(List<ASN1Object> objs, boolean set, String c,
+		int req_id) throws IOException
+	{
+		SNMP.Message mess = snmp.new Message(link, link.input, c,
+			req_id);
+		for (ASN1Object o: objs)
+			mess.add(o);
+		if (set)
+			mess.storeProps();
+		else {
+			try {
+				mess.queryProps();
+				fail("NULL values");
+			}
+			catch (ParsingException e) {
+				// expected: echoed GET has NULL values
+			}
+		}
+		return link.lastRequest();
+	}
+
+	public void testGet() throws IOException {
+		assertTrue(Arrays.equals(parseHex(GET_1),
+			send(makeGet(), false, null, 1)));
+	}
+
+	public void testIntegers() throws IOException {
+		assertTrue(Arrays.equals(parseHex(SET_INTS),
+			send(makeInts(), true, "administrator", 0x1234567)));
+		// Decode the captured PDU (as a response) into new objects
+		List<ASN1Object> l = makeInts();
+		for (ASN1Object o: l)
+			((ASN1Integer) o).setInteger(99);
+		link.canned = parseHex(SET_INTS);
+		SNMP.Message mess = snmp.new Message(link, link.input,
+			"administrator", 0x1234567);
+		for (ASN1Object o: l)
+			mess.add(o);
+		mess.queryProps();
+		for (int i = 0; i < VALUES.length; i++) {
+			assertEquals(VALUES[i], ((ASN1Integer) l.get(i))
+				.getInteger());
+		}
+	}
+
+	public void testStrings() throws IOException {
+		byte[] exp = concat(parseHex(SET_STRINGS), pattern(130));
+		List<ASN1Object> l = makeStrings();
+		assertTrue(Arrays.equals(exp, send(l, true, null, 128)));
+		assertEquals(12345, ((Counter) l.get(0)).getInteger());
+		assertEquals("IRIS", ((DisplayString) l.get(1)).getValue());
+		assertEquals(0, ((ASN1OctetString) l.get(2))
+			.getByteValue().length);
+		assertTrue(Arrays.equals(pattern(130),
+			((ASN1OctetString) l.get(3)).getByteValue()));
+	}
+
+	public void testLong() throws IOException {
+		byte[] exp = concat(parseHex(SET_LONG), pattern(260));
+		List<ASN1Object> l = makeLong();
+		assertTrue(Arrays.equals(exp, send(l, true, null, 70000)));
+		assertTrue(Arrays.equals(pattern(260),
+			((ASN1OctetString) l.get(0)).getByteValue()));
+	}
+
+	public void testRequestId() throws IOException {
+		link.canned = parseHex(SET_INTS);
+		SNMP.Message mess = snmp.new Message(link, link.input,
+			"administrator", 129);
+		for (ASN1Object o: makeInts())
+			mess.add(o);
+		try {
+			mess.queryProps();
+			fail("request-id");
+		}
+		catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testReverseBuffer() {
+		ReverseBuffer rb = new ReverseBuffer();
+		byte[] b = pattern(5000);
+		for (int i = b.length - 1; i >= 100; i--)
+			rb.write(b[i]);
+		rb.write(b, 0, 100);
+		assertEquals(5000, rb.length());
+		assertTrue(Arrays.equals(b, rb.toByteArray()));
+		rb.reset();
+		assertEquals(0, rb.length());
+		rb.write(1);
+		assertTrue(Arrays.equals(new byte[] { 1 }, rb.toByteArray()));
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import junit.framework.TestCase;
+
+/**
+ * Capture input stream tests
+ *
+ * @author Douglas Lau
+ */
+public class CaptureInputStreamTest extends TestCase {
+
+	public CaptureInputStreamTest(String name) {
+		super(name);
+	}
+
+	/** Create test data */
+	private byte[] createData(int len) {
+		byte[] data = new byte[len];
+		for (int i = 0; i < len; i++)
+			data[i] = (byte) i;
+		return data;
+	}
+
+	/** Read all data from a stream */
+	private void readAll(CaptureInputStream cis) throws IOException {
+		byte[] b = new byte[100];
+		while (cis.read(b) > 0);
+	}
+
+	/** Get captured data */
+	private byte[] captured(CaptureInputStream cis) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		cis.writeTo(os);
+		return os.toByteArray();
+	}
+
+	public void testCount() throws IOException {
+		CaptureInputStream cis = new CaptureInputStream(
+			new ByteArrayInputStream(createData(1000)));
+		readAll(cis);
+		assertEquals(1000, cis.getCount());
+		assertEquals(0, captured(cis).length);
+		assertFalse(cis.isComplete());
+		cis.close();
+	}
+
+	public void testMemory() throws IOException {
+		byte[] data = createData(1000);
+		CaptureInputStream cis = new CaptureInputStream(
+			new ByteArrayInputStream(data), 1000, 1000);
+		readAll(cis);
+		assertTrue(cis.isComplete());
+		assertTrue(Arrays.equals(data, captured(cis)));
+		cis.close();
+	}
+
+	public void testSpill() throws IOException {
+		byte[] data = createData(1000);
+		CaptureInputStream cis = new CaptureInputStream(
+			new ByteArrayInputStream(data), 250, 5000);
+		readAll(cis);
+		assertTrue(cis.isComplete());
+		assertTrue(Arrays.equals(data, captured(cis)));
+		cis.close();
+	}
+
+	public void testTruncated() throws IOException {
+		byte[] data = createData(1000);
+		CaptureInputStream cis = new CaptureInputStream(
+			new ByteArrayInputStream(data), 250, 550);
+		readAll(cis);
+		assertEquals(1000, cis.getCount());
+		assertFalse(cis.isComplete());
+		assertTrue(Arrays.equals(Arrays.copyOf(data, 550),
+			captured(cis)));
+		cis.close();
+	}
+
+	public void testOpenCaptured() throws IOException {
+		byte[] data = createData(1000);
+		CaptureInputStream cis = new CaptureInputStream(
+			new ByteArrayInputStream(data), 250, 5000);
+		readAll(cis);
+		InputStream is = cis.openCaptured();
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		byte[] b = new byte[64];
+		int n;
+		while ((n = is.read(b)) > 0)
+			os.write(b, 0, n);
+		is.close();
+		assertTrue(Arrays.equals(data, os.toByteArray()));
+		assertEquals(0, captured(cis).length);
+	}
+
+	public void testCloseKeepsCapture() throws IOException {
+		byte[] data = createData(1000);
+		CaptureInputStream cis = new CaptureInputStream(
+			new ByteArrayInputStream(data), 250, 5000);
+		readAll(cis);
+		cis.close();
+		assertTrue(Arrays.equals(data, captured(cis)));
+		cis.discard();
+		assertEquals(0, captured(cis).length);
+	}
+}
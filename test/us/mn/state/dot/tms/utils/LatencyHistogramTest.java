@@ -0,0 +1,72 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.utils;
+
+import junit.framework.TestCase;
+
+/**
+ * Latency histogram tests
+ *
+ * @author Douglas Lau
+ */
+public class LatencyHistogramTest extends TestCase {
+
+	public LatencyHistogramTest(String name) {
+		super(name);
+	}
+
+	public void testBuckets() {
+		for (long v = 0; v < 16; v++)
+			assertEquals(v, LatencyHistogram.bucket(v));
+		long[] vals = { 16, 17, 100, 1000, 123456, 1L << 40,
+			Long.MAX_VALUE };
+		for (long v: vals) {
+			int b = LatencyHistogram.bucket(v);
+			assertTrue(v <= LatencyHistogram.bucketMax(b));
+			assertTrue(v > LatencyHistogram.bucketMax(b - 1));
+			// relative error at most 12.5%
+			assertTrue(LatencyHistogram.bucketMax(b) - v <= v / 8);
+		}
+	}
+
+	public void testEmpty() {
+		LatencyHistogram h = new LatencyHistogram();
+		assertEquals(0, h.getCount());
+		assertEquals(0, h.getPercentile(50));
+		assertEquals(0, h.getMax());
+	}
+
+	public void testPercentiles() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (long v = 1; v <= 1000; v++)
+			h.record(v);
+		assertEquals(1000, h.getCount());
+		assertEquals(500500, h.getSum());
+		assertEquals(1000, h.getMax());
+		assertEquals(1000, h.getPercentile(100));
+		long p50 = h.getPercentile(50);
+		assertTrue(p50 >= 500 && p50 <= 500 + 500 / 8);
+		long p99 = h.getPercentile(99);
+		assertTrue(p99 >= 990 && p99 <= 1000);
+		assertEquals(1, h.getPercentile(0));
+	}
+
+	public void testNegative() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(-5);
+		assertEquals(1, h.getCount());
+		assertEquals(0, h.getMax());
+	}
+}
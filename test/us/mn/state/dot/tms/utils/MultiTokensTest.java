@@ -0,0 +1,146 @@
+/*
+ * IRIS -- Intelligent Roadway Information System
+ * Copyright (C) 2026  Minnesota Department of Transportation
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package us.mn.state.dot.tms.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ * Parsed MULTI token tests.  Replayed tokens must produce exactly the same
+ * callbacks as parsing the string directly.
+ *
+ * @author Douglas Lau
+ */
+public class MultiTokensTest extends TestCase {
+
+	/** Corpus of MULTI strings, covering all tags and malformed input */
+	static private final String[] CORPUS = {
+		"",
+		"ABC",
+		"ABC[nl]DEF[np]GHI",
+		"ABC[nl3]DEF[nl]",
+		"[[NOT TAG]]",
+		"[", "]", "[[", "]]", "[bad tag", "bad]tag", "ABC[zzz]DEF",
+		"[cb1]ABC", "[cb]",
+		"[pb0]", "[pb255,0,0]", "[pb1,2]",
+		"[cf4]ABC", "[cf0,255,0]", "[cf128,128,128]ABC", "[cf]",
+		"[cr1,1,5,5,3]ABC", "[cr1,1,5,5,255,255,0]ABC", "[cr1,1]",
+		"[fo1]ABC", "[fo2,1a2b]", "[fo]", "[fo123]DEF",
+		"[g1]", "[g2,5,10]", "[g3,5,10,abcd]", "[g]",
+		"[jl2]A[jl3]B[jl4]C[jl5]D", "[jl]", "[jl6]",
+		"[jp1]A[jp2]B[jp3]C", "[jp]", "[jp5]",
+		"[pt5o]", "[pto5]", "[pt8o4]", "[pto]", "[pt]",
+		"ABC [sc4]DEF[/sc]", "[sc]",
+		"[tr1,1,10,10]123", "[tr1,1]",
+		"[cgdms_1,1,45,tt,0]", "[cg]",
+		"[exitdet_1,30]", "[exit]",
+		"[feedF0]ABC", "[feedL1_2]",
+		"[locrn][locrd][locmd][locxn][locxa][locmn][locma]",
+		"[pa1,LOW,CLOSED]", "[pa]",
+		"[slow45,10]", "[slow45,10,dist]", "[slow]",
+		"[standby]",
+		"[tan,h:mm a]", "[tap]",
+		"[ttS100]", "[ttS100,prepend,OVER ]", "[ttS100,append]",
+		"[tt]",
+		"[tzo,z1,z2]", "[tzp,z1]", "[tzc]", "[tzx]",
+		"[vsa]",
+		"[cf255,255,0][fo3][jl3]LEFT[nl6]RIGHT[np][pt30o5]P2",
+	};
+
+	/** Fragments for random MULTI strings */
+	static private final String[] FRAGMENTS = {
+		"ABC", " ", "123", "[nl]", "[np]", "[nl5]", "[fo2]", "[jl3]",
+		"[jp2]", "[cf1]", "[cf9,9,9]", "[pt20o0]", "[sc2]", "[/sc]",
+		"[tr1,1,40,20]", "[g4,1,1]", "[ttS1]", "[vsa]", "[slow50,20]",
+		"[tzo,a,b]", "[[", "]]", "[", "]", "[zz]", "[exitX,1]",
+	};
+
+	/** Create a MULTI callback which logs all calls */
+	static private Multi logger(final List<String> log) {
+		return (Multi) Proxy.newProxyInstance(
+			Multi.class.getClassLoader(),
+			new Class[] { Multi.class },
+			new InvocationHandler() {
+				public Object invoke(Object p, Method m,
+					Object[] args)
+				{
+					log.add(m.getName() + Arrays.deepToString(
+						args));
+					return null;
+				}
+			});
+	}
+
+	/** Check that replayed tokens match a direct parse */
+	static private void check(String ms) {
+		ArrayList<String> direct = new ArrayList<String>();
+		new MultiString(ms).parseTags(logger(direct));
+		MultiString multi = new MultiString(ms);
+		for (int i = 0; i < 2; i++) {
+			ArrayList<String> replay = new ArrayList<String>();
+			multi.parse(logger(replay));
+			assertEquals(ms, direct, replay);
+		}
+	}
+
+	public MultiTokensTest(String name) {
+		super(name);
+	}
+
+	public void testCorpus() {
+		for (String ms: CORPUS)
+			check(ms);
+	}
+
+	public void testRandom() {
+		Random rand = new Random(1203);
+		for (int i = 0; i < 5000; i++) {
+			StringBuilder sb = new StringBuilder();
+			int n = rand.nextInt(12);
+			for (int j = 0; j < n; j++) {
+				sb.append(FRAGMENTS[rand.nextInt(
+					FRAGMENTS.length)]);
+			}
+			check(sb.toString());
+		}
+	}
+
+	public void testTolling() {
+		final ArrayList<String[]> zones = new ArrayList<String[]>();
+		Multi cb = new MultiAdapter() {
+			@Override public void addTolling(String m, String[] z) {
+				zones.add(z);
+				z[0] = "changed";
+			}
+		};
+		MultiString ms = new MultiString("[tzo,z1,z2]");
+		ms.parse(cb);
+		ms.parse(cb);
+		assertEquals(2, zones.size());
+		assertNotSame(zones.get(0), zones.get(1));
+		assertEquals("z2", zones.get(1)[1]);
+		ms.parse(new MultiAdapter() {
+			@Override public void addTolling(String m, String[] z) {
+				assertEquals("z1", z[0]);
+			}
+		});
+	}
+}